@@ -0,0 +1,70 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.content.CompiledContentRegistry;
+import org.hyperfit.content.ContentRegistry;
+import org.hyperfit.content.ContentType;
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.content.hal.json.HalJsonContentTypeHandler;
+import org.hyperfit.content.html5.Html5ContentTypeHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures parsing content types & finding their handlers, both happen for every response
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ContentTypeBenchmark {
+
+    @Param({"application/hal+json", "application/hal+json; charset=UTF-8", "application/xhtml+xml;q=0.9;charset=ISO-8859-1"})
+    public String contentType;
+
+    private ContentRegistry registry;
+    private CompiledContentRegistry compiledRegistry;
+    private ContentType parsed;
+
+    @Setup
+    public void setup() {
+        registry = new ContentRegistry();
+        registry.add(new HalJsonContentTypeHandler());
+        registry.add(new Html5ContentTypeHandler());
+        compiledRegistry = CompiledContentRegistry.compile(registry);
+
+        parsed = ContentType.parse(contentType);
+    }
+
+    @Benchmark
+    public ContentType parse() {
+        return ContentType.parse(contentType);
+    }
+
+    @Benchmark
+    public ContentTypeHandler getHandler() {
+        return registry.getHandler(parsed, ContentRegistry.Purpose.PARSE_RESPONSE);
+    }
+
+    @Benchmark
+    public ContentTypeHandler parseAndGetHandler() {
+        return registry.getHandler(ContentType.parse(contentType), ContentRegistry.Purpose.PARSE_RESPONSE);
+    }
+
+    @Benchmark
+    public ContentType valueOf() {
+        return ContentType.valueOf(contentType);
+    }
+
+    @Benchmark
+    public ContentTypeHandler compiledGetHandler() {
+        return compiledRegistry.getHandler(parsed, ContentRegistry.Purpose.PARSE_RESPONSE);
+    }
+
+    @Benchmark
+    public ContentTypeHandler compiledValueOfAndGetHandler() {
+        return compiledRegistry.getHandler(ContentType.valueOf(contentType), ContentRegistry.Purpose.PARSE_RESPONSE);
+    }
+}
@@ -0,0 +1,68 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.content.hal.json.HalJsonContentTypeHandler;
+import org.hyperfit.java8.GeneratedProxyFactory;
+import org.hyperfit.proxy.JdkProxyFactory;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dispatching resource method invocations through the proxy, the resource is already parsed
+ * so this is mostly the invoke handler plus whatever the resource does to answer.  The proxies are either
+ * java.lang.reflect.Proxy instances or classes made by hyperfit-java8's GeneratedProxyFactory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InvokeHandlerBenchmark {
+
+    @Param({"10"})
+    public int items;
+
+    @Param({"jdk", "generated"})
+    public String proxies;
+
+    private Resources.CatalogResource catalog;
+
+    @Setup
+    public void setup() {
+        HyperfitProcessor processor = HyperfitProcessor.builder()
+            .hyperClient(new StubHyperClient().respond(Resources.CATALOG_URL, Resources.HAL_JSON, Resources.halCatalog(items)))
+            .addContentTypeHandler(new HalJsonContentTypeHandler())
+            .proxyFactory("generated".equals(proxies) ? new GeneratedProxyFactory() : new JdkProxyFactory())
+            .build();
+
+        catalog = processor.processRequest(Resources.CatalogResource.class, Resources.CATALOG_URL);
+    }
+
+    @Benchmark
+    public String data() {
+        return catalog.getTitle();
+    }
+
+    @Benchmark
+    public HyperLink link() {
+        return catalog.nextLink();
+    }
+
+    @Benchmark
+    public HyperLink[] links() {
+        return catalog.itemLinks();
+    }
+
+    @Benchmark
+    public Resources.ItemResource[] embedded() {
+        return catalog.items();
+    }
+
+    @Benchmark
+    public int hashCodePassThrough() {
+        return catalog.hashCode();
+    }
+}
@@ -0,0 +1,75 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.content.hal.json.HalJsonContentTypeHandler;
+import org.hyperfit.content.html5.Html5ContentTypeHandler;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.Charset;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures turning a response into a resource & reading from it, end to end through the processor.
+ * Nothing is cached so every invocation parses the response.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProcessResponseBenchmark {
+
+    @Param({"hal", "hal-lazy", "html5"})
+    public String format;
+
+    @Param({"1", "10", "100", "1000"})
+    public int items;
+
+    private HyperfitProcessor processor;
+    private Response response;
+
+    @Setup
+    public void setup() {
+        String contentType;
+        String body;
+        HyperfitProcessor.Builder builder = HyperfitProcessor.builder()
+            .hyperClient(new StubHyperClient());
+
+        if ("html5".equals(format)) {
+            contentType = Resources.XHTML;
+            body = Resources.htmlCatalog(items);
+            builder.addContentTypeHandler(new Html5ContentTypeHandler());
+        } else {
+            contentType = Resources.HAL_JSON;
+            body = Resources.halCatalog(items);
+            builder.addContentTypeHandler(new HalJsonContentTypeHandler(
+                "hal-lazy".equals(format) ? HalJsonContentTypeHandler.ParseMode.LAZY : HalJsonContentTypeHandler.ParseMode.TREE
+            ));
+        }
+
+        processor = builder.build();
+        response = StubHyperClient.response(
+            BoringRequestBuilder.get(Resources.CATALOG_URL).build(),
+            contentType,
+            body.getBytes(Charset.forName("UTF-8"))
+        );
+    }
+
+    @Benchmark
+    public Resources.CatalogResource processResponse() {
+        return processor.processResponse(Resources.CatalogResource.class, response, null);
+    }
+
+    @Benchmark
+    public String processResponseAndReadData() {
+        return processor.processResponse(Resources.CatalogResource.class, response, null).getTitle();
+    }
+
+    @Benchmark
+    public Object processResponseAndReadLinks() {
+        return processor.processResponse(Resources.CatalogResource.class, response, null).itemLinks();
+    }
+}
@@ -0,0 +1,37 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.net.RFC6570RequestBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures expanding link templates, done for every link that's followed
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RequestBuilderBenchmark {
+
+    @Param({"http://example.com/catalog", "http://example.com/catalog/{id}/items{?page,size,sort*}"})
+    public String template;
+
+    private RFC6570RequestBuilder requestBuilder;
+
+    @Setup
+    public void setup() {
+        requestBuilder = RFC6570RequestBuilder.get(template)
+            .setParam("id", "abc-123")
+            .setParam("page", 2)
+            .setParam("size", 50)
+            .setParam("sort", new String[]{"name", "price"});
+    }
+
+    @Benchmark
+    public String getURL() {
+        return requestBuilder.getURL();
+    }
+}
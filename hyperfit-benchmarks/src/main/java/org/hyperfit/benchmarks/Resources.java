@@ -0,0 +1,91 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.annotation.Data;
+import org.hyperfit.annotation.Link;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.controls.link.HyperLink;
+
+/**
+ * The resource interfaces & payloads the benchmarks work with.  A catalog has a title, a next link and
+ * some number of item links, in HAL the items are embedded as well.
+ */
+public final class Resources {
+
+    public static final String HAL_JSON = "application/hal+json";
+    public static final String XHTML = "application/xhtml+xml";
+
+    public static final String CATALOG_URL = "http://example.com/catalog";
+
+    private Resources() {
+    }
+
+    public interface CatalogResource extends HyperResource {
+
+        @Data("title")
+        String getTitle();
+
+        @Link("next")
+        HyperLink nextLink();
+
+        @Link("item")
+        HyperLink[] itemLinks();
+
+        @Link("item")
+        ItemResource[] items();
+    }
+
+    public interface ItemResource extends HyperResource {
+
+        @Data("name")
+        String getName();
+    }
+
+
+    public static String halCatalog(int items) {
+        StringBuilder links = new StringBuilder();
+        StringBuilder embedded = new StringBuilder();
+
+        for (int i = 0; i < items; i++) {
+            if (i > 0) {
+                links.append(',');
+                embedded.append(',');
+            }
+
+            links.append("{\"href\":\"").append(itemUrl(i)).append("\"}");
+            embedded.append("{\"name\":\"item ").append(i)
+                .append("\",\"description\":\"the description of item ").append(i)
+                .append("\",\"_links\":{\"self\":{\"href\":\"").append(itemUrl(i)).append("\"}}}");
+        }
+
+        return "{"
+            + "\"title\":\"Catalog\","
+            + "\"count\":" + items + ","
+            + "\"_links\":{"
+            + "\"self\":{\"href\":\"" + CATALOG_URL + "\"},"
+            + "\"next\":{\"href\":\"" + CATALOG_URL + "?page=2\"},"
+            + "\"item\":[" + links + "]"
+            + "},"
+            + "\"_embedded\":{\"item\":[" + embedded + "]}"
+            + "}";
+    }
+
+    public static String htmlCatalog(int items) {
+        StringBuilder html = new StringBuilder()
+            .append("<!DOCTYPE html><html><head><title>Catalog</title>")
+            .append("<link rel=\"next\" href=\"").append(CATALOG_URL).append("?page=2\">")
+            .append("</head><body>")
+            .append("<section class=\"data\"><span name=\"title\">Catalog</span></section>")
+            .append("<ul>");
+
+        for (int i = 0; i < items; i++) {
+            html.append("<li><a rel=\"item\" href=\"").append(itemUrl(i)).append("\">item ").append(i).append("</a>")
+                .append("<p>the description of item ").append(i).append("</p></li>");
+        }
+
+        return html.append("</ul></body></html>").toString();
+    }
+
+    private static String itemUrl(int i) {
+        return CATALOG_URL + "/items/" + i;
+    }
+}
@@ -0,0 +1,69 @@
+package org.hyperfit.benchmarks;
+
+import org.hyperfit.net.BaseHyperClient;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+
+import java.net.CookieHandler;
+import java.nio.charset.Charset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A {@link HyperClient} that answers requests with canned bodies so the benchmarks don't measure a network
+ */
+public class StubHyperClient extends BaseHyperClient {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final Map<String, byte[]> bodies = new HashMap<String, byte[]>();
+    private final Map<String, String> contentTypes = new HashMap<String, String>();
+
+    /**
+     * Answers requests for the url with the body
+     *
+     * @param url the url of the request
+     * @param contentType the content type of the response
+     * @param body the body of the response
+     * @return this client
+     */
+    public StubHyperClient respond(String url, String contentType, String body) {
+        bodies.put(url, body.getBytes(UTF_8));
+        contentTypes.put(url, contentType);
+        return this;
+    }
+
+    public Response execute(Request request) {
+        byte[] body = bodies.get(request.getUrl());
+        if (body == null) {
+            return Response.builder()
+                .addRequest(request)
+                .addCode(404)
+                .build();
+        }
+
+        return response(request, contentTypes.get(request.getUrl()), body);
+    }
+
+    /**
+     * Builds a response like the http clients do, with the body as bytes
+     */
+    static Response response(Request request, String contentType, byte[] body) {
+        return Response.builder()
+            .addRequest(request)
+            .addCode(200)
+            .addHeader("Content-Type", contentType)
+            .addContentType(contentType)
+            .addBody(body, UTF_8)
+            .build();
+    }
+
+    public HyperClient setCookieHandler(CookieHandler handler) {
+        return this;
+    }
+
+    public String[] getSchemes() {
+        return new String[]{"http", "https"};
+    }
+}
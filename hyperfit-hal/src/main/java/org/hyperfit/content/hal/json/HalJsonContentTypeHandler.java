@@ -7,6 +7,7 @@ import org.hyperfit.net.Response;
 import org.hyperfit.content.ContentTypeHandler;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.hal.json.HalJsonResource;
+import org.hyperfit.resource.hal.json.LazyHalJsonResource;
 
 /**
  * HAL JSON Hypermedia media type handler
@@ -15,6 +16,35 @@ public class HalJsonContentTypeHandler implements ContentTypeHandler {
 
     private static final ContentType contentType = new ContentType("application", "hal+json");
 
+    /**
+     * How responses are turned into resources
+     */
+    public enum ParseMode {
+        /**
+         * Reads the whole response into a json tree up front, see {@link org.hyperfit.resource.hal.json.HalJsonResource}
+         */
+        TREE,
+        /**
+         * Indexes the response with a streaming parser and only reads the parts that are accessed,
+         * see {@link org.hyperfit.resource.hal.json.LazyHalJsonResource}
+         */
+        LAZY
+    }
+
+    private final ParseMode parseMode;
+
+    public HalJsonContentTypeHandler() {
+        this(ParseMode.TREE);
+    }
+
+    public HalJsonContentTypeHandler(ParseMode parseMode) {
+        if (parseMode == null) {
+            throw new IllegalArgumentException("parseMode cannot be null");
+        }
+
+        this.parseMode = parseMode;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -26,9 +56,12 @@ public class HalJsonContentTypeHandler implements ContentTypeHandler {
 
     /**
      * @param response response {@link org.hyperfit.net.Response} to be handled
-     * @return {@link org.hyperfit.resource.hal.json.HalJsonResource}
+     * @return {@link org.hyperfit.resource.hal.json.HalJsonResource} or {@link org.hyperfit.resource.hal.json.LazyHalJsonResource} depending on the parse mode
     */
     public HyperResource parseResponse(Response response) {
+        if (parseMode == ParseMode.LAZY) {
+            return new LazyHalJsonResource(response);
+        }
 
         return new HalJsonResource(response);
     }
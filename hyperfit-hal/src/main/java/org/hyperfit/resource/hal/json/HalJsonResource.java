@@ -8,6 +8,7 @@ import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.HyperResourceException;
 import com.fasterxml.jackson.databind.JsonNode;
 
+import java.nio.charset.Charset;
 import java.util.*;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -17,18 +18,19 @@ import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.hyperfit.resource.controls.form.Form;
 import org.hyperfit.resource.controls.link.HyperLink;
-import org.hyperfit.resource.hal.json.controls.link.HalHyperLink;
+import org.hyperfit.resource.hal.json.controls.link.BaseURI;
+import org.hyperfit.resource.hal.json.controls.link.LazyHalHyperLink;
 import org.hyperfit.utils.StringUtils;
 
 /**
  * Hal Json Implementation of a HyperMedia Resource
  */
-@ToString(exclude = {"linkCache"})
-@EqualsAndHashCode(exclude = {"linkCache"})
+@ToString(exclude = {"base", "rels"})
+@EqualsAndHashCode(exclude = {"base", "rels"})
 public class HalJsonResource extends BaseHyperResource {
 
     //TODO: make this configurable and give it a better name
-    private static final Set<String> WHITELISTED_RESERVED_FIELD_NAMES = new HashSet<String>();
+    static final Set<String> WHITELISTED_RESERVED_FIELD_NAMES = new HashSet<String>();
 
     static {
         WHITELISTED_RESERVED_FIELD_NAMES.add("_id");
@@ -37,17 +39,30 @@ public class HalJsonResource extends BaseHyperResource {
     private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
         .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private static final ObjectReader OBJECT_READER = OBJECT_MAPPER.reader(JsonNode.class);
+
+    private static final HyperLink[] NO_LINKS = new HyperLink[0];
+
     private final JsonNode jsonResource;
     private final String baseURI;
-    private final HashMap<String, HyperLink[]> linkCache = new HashMap<String, HyperLink[]>(5);
+    //shared with the links & embedded resources so it's only parsed once
+    private final BaseURI base;
+
+    //built the first time a rel is looked up, it's immutable so racing threads building their own is harmless
+    private volatile Map<String, Rel> rels;
 
     public HalJsonResource(
         Response response
     ) {
         try {
-            this.jsonResource = OBJECT_READER.readTree(response.getBody());
+            this.jsonResource = isUtf8(response) ?
+                OBJECT_READER.readTree(response.openBodyStream())
+                :
+                OBJECT_READER.readTree(response.getBody());
             this.baseURI = response.getRequest().getUrl();
+            this.base = baseURI == null ? null : new BaseURI(baseURI);
 
         } catch (Exception ex) {
             throw new HyperfitException(
@@ -64,15 +79,37 @@ public class HalJsonResource extends BaseHyperResource {
     public HalJsonResource(
         JsonNode jsonResource,
         String baseURI
+    ) {
+        this(jsonResource, baseURI == null ? null : new BaseURI(baseURI));
+    }
+
+    private HalJsonResource(
+        JsonNode jsonResource,
+        BaseURI base
     ) {
         if (jsonResource == null) {
             throw new IllegalArgumentException("jsonResource cannot be null.");
         }
 
-        this.baseURI = baseURI;
+        this.baseURI = base == null ? null : base.getURI();
+        this.base = base;
         this.jsonResource = jsonResource;
     }
 
+    /**
+     * @return a resource for json embedded in a resource from the base URI, which shares the parsed base URI
+     */
+    static HalJsonResource embedded(JsonNode jsonResource, BaseURI base) {
+        return new HalJsonResource(jsonResource, base);
+    }
+
+    /**
+     * Jackson reads UTF-8 bytes directly, so when that's what the body is there's no need to decode it into a String
+     */
+    static boolean isUtf8(Response response) {
+        return response.getBodyBytes() != null && UTF_8.equals(response.getBodyCharset());
+    }
+
     /**
      * Get resource by given path and root resource
      *
@@ -104,14 +141,66 @@ public class HalJsonResource extends BaseHyperResource {
     }
 
 
-    public HyperLink[] getLinks() {
-        //NOTE: if a getRels became useful this could move to baseresource adn depend on that
-        java.util.Iterator<String> rels = jsonResource.path("_links").fieldNames();
+    /**
+     * What this resource has for each rel, so finding it takes a single lookup instead of walking the json
+     */
+    private static final class Rel {
+        //null when the rel isn't in _links or _embedded
+        private final JsonNode links;
+        private final JsonNode embedded;
+        private final boolean multiLink;
+
+        private volatile HyperLink[] parsedLinks;
+
+        private Rel(JsonNode links, JsonNode embedded) {
+            this.links = links;
+            this.embedded = embedded;
+            this.multiLink = (links != null && links.isArray()) || (embedded != null && embedded.isArray());
+        }
+    }
+
+    private Map<String, Rel> rels() {
+        Map<String, Rel> index = rels;
+        if (index == null) {
+            index = indexRels(jsonResource);
+            rels = index;
+        }
+        return index;
+    }
 
+    private static Map<String, Rel> indexRels(JsonNode jsonResource) {
+        JsonNode links = jsonResource.path("_links");
+        JsonNode embedded = jsonResource.path("_embedded");
+
+        //linked so getLinks() returns the links in the order they're in the json
+        Map<String, Rel> index = new LinkedHashMap<String, Rel>();
+
+        Iterator<String> linkRels = links.fieldNames();
+        while (linkRels.hasNext()) {
+            String rel = linkRels.next();
+            JsonNode embeddedNode = embedded.get(rel);
+            index.put(rel, new Rel(links.get(rel), embeddedNode));
+        }
+
+        Iterator<String> embeddedRels = embedded.fieldNames();
+        while (embeddedRels.hasNext()) {
+            String rel = embeddedRels.next();
+            if (!index.containsKey(rel)) {
+                index.put(rel, new Rel(null, embedded.get(rel)));
+            }
+        }
+
+        return index;
+    }
+
+
+    public HyperLink[] getLinks() {
         List<HyperLink> links = new ArrayList<HyperLink>();
 
-        while(rels.hasNext()){
-            Collections.addAll(links, getLinks(rels.next()));
+        for (Map.Entry<String, Rel> rel : rels().entrySet()) {
+            if (rel.getValue().links != null) {
+                Collections.addAll(links, getLinks(rel.getKey(), rel.getValue()));
+            }
         }
 
         return links.toArray(new HyperLink[links.size()]);
@@ -122,14 +211,24 @@ public class HalJsonResource extends BaseHyperResource {
             throw new IllegalArgumentException("relationship cannot be empty");
         }
 
-        if(!linkCache.containsKey(relationship)){
-            linkCache.put(relationship, doLinkParsing(relationship, jsonResource.path("_links").path(relationship), baseURI));
+        Rel rel = rels().get(relationship);
+        if (rel == null || rel.links == null) {
+            return NO_LINKS;
         }
 
-        return linkCache.get(relationship);
+        return getLinks(relationship, rel);
     }
 
-    private static HyperLink[] doLinkParsing(String relationship, JsonNode matchingLinks, String baseURI){
+    private HyperLink[] getLinks(String relationship, Rel rel) {
+        HyperLink[] links = rel.parsedLinks;
+        if (links == null) {
+            links = doLinkParsing(relationship, rel.links, base);
+            rel.parsedLinks = links;
+        }
+        return links;
+    }
+
+    private static HyperLink[] doLinkParsing(String relationship, JsonNode matchingLinks, BaseURI baseURI){
         if(matchingLinks.isMissingNode()){
             return new HyperLink[0];
         }
@@ -139,35 +238,40 @@ public class HalJsonResource extends BaseHyperResource {
             HyperLink[] results = new HyperLink[links.size()];
             int i = 0;
             for(JsonNode link : links){
-                results[i] = linkFromHalJSON(relationship, link, baseURI);
+                results[i] = new LazyHalHyperLink(relationship, link, baseURI);
                 i++;
             }
 
             return results;
         } else {
-            return new HyperLink[]{linkFromHalJSON(relationship, matchingLinks, baseURI)};
+            return new HyperLink[]{new LazyHalHyperLink(relationship, matchingLinks, baseURI)};
         }
     }
 
 
+    private JsonNode embedded(String relationship) {
+        Rel rel = rels().get(relationship);
+        return rel == null ? null : rel.embedded;
+    }
+
     public boolean canResolveLinkLocal(String relationship) {
-        return !jsonResource.path("_embedded").path(relationship).isMissingNode();
+        return embedded(relationship) != null;
     }
 
     public HyperResource resolveLinkLocal(String relationship) {
-        JsonNode node = jsonResource.path("_embedded").path(relationship);
+        JsonNode node = embedded(relationship);
 
-        if (node.isMissingNode()) {
+        if (node == null) {
             throw new HyperResourceException("Embedded Resource with rel [" + relationship + "] was not found in [" + jsonResource + "]");
         }
 
-        return new HalJsonResource(node, this.baseURI);
+        return embedded(node, this.base);
     }
 
     public HyperResource[] resolveLinksLocal(String relationship) {
-        JsonNode node = jsonResource.path("_embedded").path(relationship);
+        JsonNode node = embedded(relationship);
 
-        if (node.isMissingNode()) {
+        if (node == null) {
             throw new HyperResourceException("Embedded Resource with rel [" + relationship + "] was not found in [" + jsonResource + "]");
         }
 
@@ -176,14 +280,14 @@ public class HalJsonResource extends BaseHyperResource {
             HalJsonResource[] results = new HalJsonResource[resources.size()];
             int i = 0;
             for(JsonNode resource : resources){
-                results[i] = new HalJsonResource(resource, baseURI);
+                results[i] = embedded(resource, base);
                 i++;
             }
 
             return results;
 
         } else {
-            return new HalJsonResource[]{ new HalJsonResource(node, baseURI) };
+            return new HalJsonResource[]{ embedded(node, base) };
         }
 
     }
@@ -191,7 +295,8 @@ public class HalJsonResource extends BaseHyperResource {
 
 
     public boolean isMultiLink(String relationship) {
-        return jsonResource.path("_links").path(relationship).isArray() || jsonResource.path("_embedded").path(relationship).isArray();
+        Rel rel = rels().get(relationship);
+        return rel != null && rel.multiLink;
     }
 
 
@@ -252,35 +357,11 @@ public class HalJsonResource extends BaseHyperResource {
     }
 
 
-    //TODO: we could use data binding here if that were faster...and any of us had a clue how to use JACKSON
+    /**
+     * @return a link that reads its properties from the node when they're asked for
+     */
     public static HyperLink linkFromHalJSON(String relationship, JsonNode node, String baseURI){
-        JsonNode href = node.path("href");
-        JsonNode template = node.path("templated");
-        JsonNode type = node.path("type");
-        JsonNode profile = node.path("profile");
-        JsonNode title = node.path("title");
-        JsonNode name = node.path("name");
-        JsonNode hrefLang = node.path("hrefLang");
-        JsonNode deprecation = node.path("deprecation");
-
-        if (href.isMissingNode()) {
-            throw new IllegalArgumentException("Malformed HAL link node. href field not present in json: " + node.toString());
-        }
-
-
-
-        return new HalHyperLink(
-            href.textValue(),
-            relationship,
-            template.asBoolean(false),
-            type.isMissingNode() ? null : type.textValue(),
-            deprecation.isMissingNode() ? null : deprecation.textValue(),
-            name.isMissingNode() ? null : name.textValue(),
-            profile.isMissingNode() ? null : profile.textValue(),
-            title.isMissingNode() ? null : title.textValue(),
-            hrefLang.isMissingNode() ? null : hrefLang.textValue(),
-            baseURI
-        );
+        return new LazyHalHyperLink(relationship, node, baseURI == null ? null : new BaseURI(baseURI));
     }
 
 
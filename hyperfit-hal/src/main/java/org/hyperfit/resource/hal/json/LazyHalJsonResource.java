@@ -0,0 +1,390 @@
+package org.hyperfit.resource.hal.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.MissingNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.net.Response;
+import org.hyperfit.resource.BaseHyperResource;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.HyperResourceException;
+import org.hyperfit.resource.controls.form.Form;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.hyperfit.resource.hal.json.controls.link.BaseURI;
+import org.hyperfit.resource.hal.json.controls.link.LazyHalHyperLink;
+import org.hyperfit.utils.StringUtils;
+
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * Hal Json Implementation of a HyperMedia Resource that doesn't build a json tree for the whole response.
+ *
+ * The body is scanned once with a streaming parser to find where each top level field, each _links rel and each
+ * _embedded rel is.  Only the parts that are actually accessed are then read into json trees, which is much cheaper
+ * than {@link HalJsonResource} for large responses where only a few links or fields get used.
+ * Embedded resources are returned as {@link HalJsonResource}s since by then their part of the body has been read.
+ */
+@ToString(of = {"baseURI"})
+@EqualsAndHashCode(of = {"body", "baseURI"}, callSuper = false)
+public class LazyHalJsonResource extends BaseHyperResource {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final JsonFactory JSON_FACTORY = OBJECT_MAPPER.getFactory();
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private static final String LINKS = "_links";
+    private static final String EMBEDDED = "_embedded";
+
+    private final byte[] body;
+    private final String baseURI;
+    //shared with the links & embedded resources so it's only parsed once
+    private final BaseURI base;
+
+    private final Map<String, Span> fields;
+    private final Map<String, Span> linkRels;
+    private final Map<String, Span> embeddedRels;
+
+    //guarded by this
+    private final HashMap<Span, JsonNode> nodeCache = new HashMap<Span, JsonNode>();
+    private final HashMap<String, HyperLink[]> linkCache = new HashMap<String, HyperLink[]>(5);
+
+    public LazyHalJsonResource(
+        Response response
+    ) {
+        this.body = utf8Body(response);
+        this.baseURI = response.getRequest().getUrl();
+        this.base = baseURI == null ? null : new BaseURI(baseURI);
+
+        this.fields = new LinkedHashMap<String, Span>();
+        this.linkRels = new LinkedHashMap<String, Span>();
+        this.embeddedRels = new LinkedHashMap<String, Span>();
+
+        try {
+            index();
+        } catch (Exception ex) {
+            throw new HyperfitException(
+                "The response [" + response + "] cannot be read into a json tree.",
+                ex
+            );
+        }
+    }
+
+    /**
+     * The scanning works on UTF-8 bytes, which is usually what the response already has
+     */
+    private static byte[] utf8Body(Response response) {
+        if (HalJsonResource.isUtf8(response)) {
+            return response.getBodyBytes();
+        }
+
+        String decoded = response.getBody();
+        return decoded == null ? null : decoded.getBytes(UTF_8);
+    }
+
+    /**
+     * Where a value is in the body, container values are located by their offsets & read when needed,
+     * scalar values are cheap enough to just keep
+     */
+    private static final class Span {
+        private final int start;
+        private final int end;
+        private final JsonToken token;
+        private final JsonNode scalar;
+
+        private Span(int start, int end, JsonToken token, JsonNode scalar) {
+            this.start = start;
+            this.end = end;
+            this.token = token;
+            this.scalar = scalar;
+        }
+
+        private boolean isArray() {
+            return token == JsonToken.START_ARRAY;
+        }
+    }
+
+    private void index() throws IOException {
+        if (body == null) {
+            throw new IllegalArgumentException("body cannot be null.");
+        }
+
+        JsonParser parser = JSON_FACTORY.createParser(body);
+        try {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("a hal resource must be a json object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String name = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+
+                if (token == JsonToken.START_OBJECT && (LINKS.equals(name) || EMBEDDED.equals(name))) {
+                    int start = valueStart(parser);
+                    indexObject(parser, LINKS.equals(name) ? linkRels : embeddedRels);
+                    fields.put(name, new Span(start, offset(parser) + 1, token, null));
+                } else {
+                    fields.put(name, span(parser));
+                }
+            }
+
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("unexpected content after the hal resource");
+            }
+        } finally {
+            parser.close();
+        }
+    }
+
+    private void indexObject(JsonParser parser, Map<String, Span> into) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String name = parser.getCurrentName();
+            parser.nextToken();
+            into.put(name, span(parser));
+        }
+    }
+
+    private Span span(JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+            int start = valueStart(parser);
+            parser.skipChildren();
+            return new Span(start, offset(parser) + 1, token, null);
+        }
+
+        JsonNode scalar = OBJECT_MAPPER.readTree(parser);
+        return new Span(-1, -1, token, scalar == null ? NullNode.getInstance() : scalar);
+    }
+
+    private static int offset(JsonParser parser) {
+        //older jacksons report the byte offset of byte parsers as the char offset
+        JsonLocation location = parser.getTokenLocation();
+        return (int) (location.getByteOffset() >= 0 ? location.getByteOffset() : location.getCharOffset());
+    }
+
+    /**
+     * Finds where the object or array the parser is at starts.  Some jackson versions report the location of
+     * the field name for a field's value, so when that's where we are the name and colon are skipped over.
+     */
+    private int valueStart(JsonParser parser) {
+        char open = parser.getCurrentToken() == JsonToken.START_ARRAY ? '[' : '{';
+        int i = offset(parser);
+
+        if (body[i] == open) {
+            return i;
+        }
+
+        //skip the quoted field name
+        i++;
+        while (body[i] != '"') {
+            i += body[i] == '\\' ? 2 : 1;
+        }
+        i++;
+
+        //and the colon along with any whitespace around it
+        while (body[i] != open) {
+            i++;
+        }
+
+        return i;
+    }
+
+
+    private synchronized JsonNode read(Span span) {
+        if (span == null) {
+            return MissingNode.getInstance();
+        }
+
+        if (span.scalar != null) {
+            return span.scalar;
+        }
+
+        JsonNode node = nodeCache.get(span);
+        if (node == null) {
+            try {
+                node = OBJECT_MAPPER.readTree(JSON_FACTORY.createParser(body, span.start, span.end - span.start));
+            } catch (IOException e) {
+                //it was already scanned so this really shouldn't happen
+                throw new HyperfitException("The json at [" + span.start + "] of the response from [" + baseURI + "] cannot be read", e);
+            }
+            nodeCache.put(span, node);
+        }
+
+        return node;
+    }
+
+
+    public HyperLink[] getLinks() {
+        List<HyperLink> links = new ArrayList<HyperLink>();
+
+        for (String rel : linkRels.keySet()) {
+            Collections.addAll(links, getLinks(rel));
+        }
+
+        return links.toArray(new HyperLink[links.size()]);
+    }
+
+    public synchronized HyperLink[] getLinks(String relationship) {
+        if (StringUtils.isEmpty(relationship)) {
+            throw new IllegalArgumentException("relationship cannot be empty");
+        }
+
+        HyperLink[] links = linkCache.get(relationship);
+        if (links == null) {
+            links = parseLinks(relationship, read(linkRels.get(relationship)));
+            linkCache.put(relationship, links);
+        }
+
+        return links;
+    }
+
+    private HyperLink[] parseLinks(String relationship, JsonNode matchingLinks) {
+        if (matchingLinks.isMissingNode()) {
+            return new HyperLink[0];
+        }
+
+        if (matchingLinks.isArray()) {
+            HyperLink[] results = new HyperLink[matchingLinks.size()];
+            int i = 0;
+            for (JsonNode link : matchingLinks) {
+                results[i] = new LazyHalHyperLink(relationship, link, base);
+                i++;
+            }
+
+            return results;
+        }
+
+        return new HyperLink[]{new LazyHalHyperLink(relationship, matchingLinks, base)};
+    }
+
+
+    public boolean canResolveLinkLocal(String relationship) {
+        return embeddedRels.containsKey(relationship);
+    }
+
+    public HyperResource resolveLinkLocal(String relationship) {
+        if (!canResolveLinkLocal(relationship)) {
+            throw new HyperResourceException("Embedded Resource with rel [" + relationship + "] was not found in the resource from [" + baseURI + "]");
+        }
+
+        return HalJsonResource.embedded(read(embeddedRels.get(relationship)), base);
+    }
+
+    public HyperResource[] resolveLinksLocal(String relationship) {
+        if (!canResolveLinkLocal(relationship)) {
+            throw new HyperResourceException("Embedded Resource with rel [" + relationship + "] was not found in the resource from [" + baseURI + "]");
+        }
+
+        JsonNode node = read(embeddedRels.get(relationship));
+
+        if (node.isArray()) {
+            HalJsonResource[] results = new HalJsonResource[node.size()];
+            int i = 0;
+            for (JsonNode resource : node) {
+                results[i] = HalJsonResource.embedded(resource, base);
+                i++;
+            }
+
+            return results;
+        }
+
+        return new HalJsonResource[]{HalJsonResource.embedded(node, base)};
+    }
+
+
+    public boolean isMultiLink(String relationship) {
+        Span link = linkRels.get(relationship);
+        Span embedded = embeddedRels.get(relationship);
+
+        return (link != null && link.isArray()) || (embedded != null && embedded.isArray());
+    }
+
+
+    public boolean hasLink(String relationship) {
+        //HAL can embed links, so let's check if it's embedded first, otherwise use default implementation
+        return this.canResolveLinkLocal(relationship) || super.hasLink(relationship);
+    }
+
+
+    private JsonNode getJsonNode(String... path) {
+        if (path == null || path.length <= 0) {
+            throw new IllegalArgumentException(
+                "Resource data source [" + Arrays.toString(path) + "] cannot be traversed. Search path is either null or empty."
+            );
+        }
+
+        JsonNode result = read(fields.get(path[0]));
+
+        for (int i = 1; i < path.length; i++) {
+            result = result.path(path[i]);
+        }
+
+        return result;
+    }
+
+    public boolean hasPath(String... path) {
+        if (path == null || path.length == 0) return false;
+
+        return !getJsonNode(path).isMissingNode();
+    }
+
+    public <T> T getPathAs(
+        Class<T> classToReturn,
+        boolean nullWhenMissing,
+        String... path
+    ) {
+        JsonNode nodeValue = getJsonNode(path);
+
+        if (nodeValue.isMissingNode()) {
+            if (nullWhenMissing) {
+                return null;
+            } else {
+                throw new HyperResourceException("Resource data with path [" + Arrays.toString(path) + "] was not found in the resource from [" + baseURI + "]");
+            }
+        }
+
+        return OBJECT_MAPPER.convertValue(nodeValue, classToReturn);
+    }
+
+    public String[] getDataFieldNames() {
+        ArrayList<String> names = new ArrayList<String>();
+
+        for (String fieldName : fields.keySet()) {
+            //same rules as HalJsonResource, fields starting with _ are treated as reserved
+            if (!fieldName.startsWith("_") || HalJsonResource.WHITELISTED_RESERVED_FIELD_NAMES.contains(fieldName)) {
+                names.add(fieldName);
+            }
+        }
+
+        return names.toArray(new String[names.size()]);
+    }
+
+
+    @Override
+    public Form getForm(String formName) {
+        throw new IllegalArgumentException();
+    }
+
+    @Override
+    public boolean hasForm(String formName) {
+        return false;
+    }
+
+    @Override
+    public Form[] getForms() {
+        return new Form[0];
+    }
+}
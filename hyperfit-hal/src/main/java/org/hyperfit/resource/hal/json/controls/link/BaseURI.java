@@ -0,0 +1,222 @@
+package org.hyperfit.resource.hal.json.controls.link;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+/**
+ * The URI of a resource that the hrefs of its links are relative to.  It's parsed once, the first time a link is
+ * resolved against it, and shared by all of the resource's links & embedded resources.
+ *
+ * Hrefs that aren't templated are resolved following RFC 3986 section 5.2.  Templated hrefs aren't valid URIs, so
+ * only the ones relative to the root are resolved, by putting the scheme & authority of the base in front of them.
+ */
+public final class BaseURI {
+
+    private final String uri;
+
+    //racing threads may both parse it, they get the same thing
+    private volatile URI parsed;
+    private volatile boolean unparseable;
+
+    /**
+     * @param uri the absolute URI the resource was requested from
+     */
+    public BaseURI(String uri) {
+        if (uri == null) {
+            throw new IllegalArgumentException("uri can not be null");
+        }
+
+        this.uri = uri;
+    }
+
+    public String getURI() {
+        return uri;
+    }
+
+    /**
+     * @param href the href of a link
+     * @param templated true if the href is a URI template
+     * @return the href relative to this base, or the href as is if it can't be
+     */
+    public String resolve(String href, boolean templated) {
+        if (href == null) {
+            return null;
+        }
+
+        URI base = parsed();
+        if (base == null) {
+            return href;
+        }
+
+        if (!templated) {
+            URI reference = parseQuietly(href);
+            if (reference != null) {
+                return resolve(base, reference, href);
+            }
+        }
+
+        if (!href.startsWith("/") || base.getRawAuthority() == null) {
+            return href;
+        }
+
+        return base.getScheme() + "://" + base.getRawAuthority() + href;
+    }
+
+    @Override
+    public String toString() {
+        return uri;
+    }
+
+
+    private URI parsed() {
+        URI base = parsed;
+        if (base == null && !unparseable) {
+            base = parseQuietly(uri);
+            //only absolute hierarchical URIs can be resolved against
+            if (base == null || !base.isAbsolute() || base.isOpaque()) {
+                unparseable = true;
+                return null;
+            }
+            parsed = base;
+        }
+        return base;
+    }
+
+    private static URI parseQuietly(String uri) {
+        try {
+            return new URI(uri);
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * RFC 3986 section 5.2.2, java.net.URI.resolve follows the older RFC 2396 which gets some cases wrong
+     */
+    private static String resolve(URI base, URI reference, String href) {
+        if (reference.isOpaque()) {
+            return href;
+        }
+
+        String scheme;
+        String authority;
+        String path;
+        String query;
+
+        if (reference.getScheme() != null) {
+            String referencePath = nullToEmpty(reference.getRawPath());
+            path = removeDotSegments(referencePath);
+            if (path.equals(referencePath)) {
+                //already absolute & normal, which most hrefs are
+                return href;
+            }
+            scheme = reference.getScheme();
+            authority = reference.getRawAuthority();
+            query = reference.getRawQuery();
+        } else {
+            scheme = base.getScheme();
+
+            if (reference.getRawAuthority() != null) {
+                authority = reference.getRawAuthority();
+                path = removeDotSegments(nullToEmpty(reference.getRawPath()));
+                query = reference.getRawQuery();
+            } else {
+                authority = base.getRawAuthority();
+                String referencePath = nullToEmpty(reference.getRawPath());
+
+                if (referencePath.length() == 0) {
+                    path = nullToEmpty(base.getRawPath());
+                    query = reference.getRawQuery() != null ? reference.getRawQuery() : base.getRawQuery();
+                } else {
+                    path = removeDotSegments(
+                        referencePath.startsWith("/") ? referencePath : merge(base, referencePath)
+                    );
+                    query = reference.getRawQuery();
+                }
+            }
+        }
+
+        StringBuilder result = new StringBuilder(href.length() + 32);
+        result.append(scheme).append(':');
+        if (authority != null) {
+            result.append("//").append(authority);
+        }
+        result.append(path);
+        if (query != null) {
+            result.append('?').append(query);
+        }
+        if (reference.getRawFragment() != null) {
+            result.append('#').append(reference.getRawFragment());
+        }
+
+        return result.toString();
+    }
+
+    private static String merge(URI base, String referencePath) {
+        String basePath = nullToEmpty(base.getRawPath());
+
+        if (base.getRawAuthority() != null && basePath.length() == 0) {
+            return "/" + referencePath;
+        }
+
+        return basePath.substring(0, basePath.lastIndexOf('/') + 1) + referencePath;
+    }
+
+    /**
+     * RFC 3986 section 5.2.4
+     */
+    static String removeDotSegments(String path) {
+        if (path.indexOf('.') < 0) {
+            return path;
+        }
+
+        StringBuilder input = new StringBuilder(path);
+        StringBuilder output = new StringBuilder(path.length());
+
+        while (input.length() > 0) {
+            if (startsWith(input, "../")) {
+                input.delete(0, 3);
+            } else if (startsWith(input, "./")) {
+                input.delete(0, 2);
+            } else if (startsWith(input, "/./")) {
+                input.delete(0, 2);
+            } else if (equals(input, "/.")) {
+                input.replace(0, 2, "/");
+            } else if (startsWith(input, "/../")) {
+                input.delete(0, 3);
+                removeLastSegment(output);
+            } else if (equals(input, "/..")) {
+                input.replace(0, 3, "/");
+                removeLastSegment(output);
+            } else if (equals(input, ".") || equals(input, "..")) {
+                input.setLength(0);
+            } else {
+                int end = input.indexOf("/", input.charAt(0) == '/' ? 1 : 0);
+                if (end < 0) {
+                    end = input.length();
+                }
+                output.append(input, 0, end);
+                input.delete(0, end);
+            }
+        }
+
+        return output.toString();
+    }
+
+    private static void removeLastSegment(StringBuilder output) {
+        int lastSlash = output.lastIndexOf("/");
+        output.setLength(lastSlash < 0 ? 0 : lastSlash);
+    }
+
+    private static boolean startsWith(StringBuilder input, String prefix) {
+        return input.length() >= prefix.length() && input.substring(0, prefix.length()).equals(prefix);
+    }
+
+    private static boolean equals(StringBuilder input, String value) {
+        return input.length() == value.length() && input.toString().equals(value);
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
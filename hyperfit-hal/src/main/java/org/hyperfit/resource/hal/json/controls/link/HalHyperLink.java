@@ -6,14 +6,12 @@ import org.hyperfit.net.RequestBuilder;
 import org.hyperfit.resource.controls.link.HyperLink;
 import org.hyperfit.utils.StringUtils;
 
-import java.net.URI;
-
 
 public class HalHyperLink extends HyperLink {
 
     public HalHyperLink(String href, String rel, boolean templated, String type, String deprecation, String name, String profile, String title, String hrefLang, String baseURI) {
         super(
-            resolveRelativeURL(baseURI, href),
+            resolveRelativeURL(baseURI, href, templated),
             rel,
             templated,
             type,
@@ -26,6 +24,15 @@ public class HalHyperLink extends HyperLink {
 
     }
 
+    /**
+     * For subclasses that work out the rest of the link's properties themselves by overriding the getters
+     *
+     * @param rel the relationship of the link
+     */
+    protected HalHyperLink(String rel) {
+        super(null, rel, false, null, null, null, null, null, null);
+    }
+
     @Override
     public RequestBuilder toRequestBuilder() {
         RequestBuilder builder =  this.isTemplated() ?
@@ -41,15 +48,12 @@ public class HalHyperLink extends HyperLink {
         return builder;
     }
 
-    private static String resolveRelativeURL(String baseURI, String href){
-        //TODO: support all types of relative links. Can't use URI.resolve because templated links are valid URI
-        if(baseURI == null || !href.startsWith("/")){
+    private static String resolveRelativeURL(String baseURI, String href, boolean templated){
+        if(baseURI == null){
             return href;
         }
 
-        URI base = URI.create(baseURI);
-
-        return base.getScheme() + "://" + base.getAuthority() + href;
+        return new BaseURI(baseURI).resolve(href, templated);
     }
 
 
@@ -0,0 +1,88 @@
+package org.hyperfit.resource.hal.json.controls.link;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A HalHyperLink that reads its properties from the HAL link json when they're asked for, rather than all of them up
+ * front, and resolves its href against the resource's shared {@link BaseURI} the first time it's asked for.
+ * Resources with many links usually only have a few of them, or a few properties of them, used.
+ */
+public class LazyHalHyperLink extends HalHyperLink {
+
+    private final JsonNode node;
+    private final BaseURI baseURI;
+
+    //racing threads may both resolve it, they get the same thing
+    private volatile String href;
+
+    /**
+     * @param rel the relationship of the link
+     * @param node the HAL link json, it must have an href
+     * @param baseURI what a relative href is relative to, null if the href is used as is
+     */
+    public LazyHalHyperLink(String rel, JsonNode node, BaseURI baseURI) {
+        super(rel);
+
+        if (node == null) {
+            throw new IllegalArgumentException("node can not be null");
+        }
+
+        if (node.path("href").isMissingNode()) {
+            throw new IllegalArgumentException("Malformed HAL link node. href field not present in json: " + node.toString());
+        }
+
+        this.node = node;
+        this.baseURI = baseURI;
+    }
+
+    @Override
+    public String getHref() {
+        String resolved = href;
+        if (resolved == null) {
+            String raw = node.path("href").textValue();
+            resolved = baseURI == null ? raw : baseURI.resolve(raw, isTemplated());
+            href = resolved;
+        }
+        return resolved;
+    }
+
+    @Override
+    public boolean isTemplated() {
+        return node.path("templated").asBoolean(false);
+    }
+
+    @Override
+    public String getType() {
+        return text("type");
+    }
+
+    @Override
+    public String getDeprecation() {
+        return text("deprecation");
+    }
+
+    @Override
+    public String getName() {
+        return text("name");
+    }
+
+    @Override
+    public String getProfile() {
+        return text("profile");
+    }
+
+    @Override
+    public String getTitle() {
+        return text("title");
+    }
+
+    @Override
+    public String getHrefLang() {
+        return text("hrefLang");
+    }
+
+    private String text(String field) {
+        JsonNode value = node.get(field);
+        return value == null ? null : value.textValue();
+    }
+}
@@ -5,6 +5,7 @@ import org.hyperfit.exception.HyperfitException;
 import org.hyperfit.net.Request;
 import org.hyperfit.net.Response;
 import org.hyperfit.resource.hal.json.HalJsonResource;
+import org.hyperfit.resource.hal.json.LazyHalJsonResource;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -57,6 +58,28 @@ public class HalJsonContentTypeHandlerTest {
         );
     }
 
+    @Test
+    public void testHandleHyperResponseLazy() {
+        HalJsonContentTypeHandler lazyHandler = new HalJsonContentTypeHandler(HalJsonContentTypeHandler.ParseMode.LAZY);
+
+        when(mockResponse.getBody()).thenReturn("{\"_links\":{\"self\":{\"href\":\"xxx\"}},\"state\":\"xxx\"}");
+
+        LazyHalJsonResource resource = (LazyHalJsonResource) lazyHandler.parseResponse(mockResponse);
+        assertEquals("xxx", resource.getLink("self").getHref());
+        assertEquals("xxx", resource.getPathAs(String.class, "state"));
+    }
+
+    @Test(expected = HyperfitException.class)
+    public void testHandleHyperResponseLazyWrongBody() {
+        when(mockResponse.getBody()).thenReturn("{");
+        new HalJsonContentTypeHandler(HalJsonContentTypeHandler.ParseMode.LAZY).parseResponse(mockResponse);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullParseMode() {
+        new HalJsonContentTypeHandler(null);
+    }
+
     @Test(expected = HyperfitException.class)
     public void testHandleHyperResponseNullBody() {
         when(mockResponse.getBody()).thenReturn(null);
@@ -876,9 +876,10 @@ public class HalJsonResourceTest {
 
         assertFalse(resource.canResolveLinkLocal("bb:some-link-not-there"));
 
-        //remove embedded
+        //remove embedded, the rels are indexed once so it takes a new resource to see the change
         root.remove("_embedded");
-        assertFalse(resource.canResolveLinkLocal(relationship));
+        assertTrue(resource.canResolveLinkLocal(relationship));
+        assertFalse(new HalJsonResource(root, null).canResolveLinkLocal(relationship));
     }
 
     @Test
@@ -1225,4 +1226,83 @@ public class HalJsonResourceTest {
 
 
     }
+
+
+    @Test
+    public void testRelIndex() {
+        ArrayNode multi = nodeFactory.arrayNode();
+        multi.add(makeValidLinkNode());
+        multi.add(makeValidLinkNode());
+        links.put("multi", multi);
+        links.put("single", makeValidLinkNode());
+        links.put("both", makeValidLinkNode());
+
+        ObjectNode embeddedSingle = nodeFactory.objectNode();
+        embedded.put("both", embeddedSingle);
+        ArrayNode embeddedMulti = nodeFactory.arrayNode();
+        embeddedMulti.add(nodeFactory.objectNode());
+        embedded.put("embeddedMulti", embeddedMulti);
+
+        HalJsonResource resource = new HalJsonResource(root, null);
+
+        assertTrue(resource.isMultiLink("multi"));
+        assertFalse(resource.isMultiLink("single"));
+        assertFalse(resource.isMultiLink("both"));
+        assertTrue(resource.isMultiLink("embeddedMulti"));
+        assertFalse(resource.isMultiLink("missing"));
+
+        assertTrue(resource.hasLink("single"));
+        assertTrue(resource.hasLink("embeddedMulti"));
+        assertFalse(resource.hasLink("missing"));
+
+        assertTrue(resource.canResolveLinkLocal("both"));
+        assertFalse(resource.canResolveLinkLocal("single"));
+        assertEquals(new HalJsonResource(embeddedSingle, null), resource.resolveLinkLocal("both"));
+
+        assertSame(resource.getLinks("multi"), resource.getLinks("multi"));
+        assertEquals(0, resource.getLinks("embeddedMulti").length);
+
+        //in the order they are in the json
+        HyperLink[] all = resource.getLinks();
+        assertEquals(4, all.length);
+        assertEquals("multi", all[0].getRel());
+        assertEquals("multi", all[1].getRel());
+        assertEquals("single", all[2].getRel());
+        assertEquals("both", all[3].getRel());
+    }
+
+    @Test
+    public void testConcurrentLinkLookups() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            links.put("rel" + i, makeValidLinkNode());
+        }
+
+        final HalJsonResource resource = new HalJsonResource(root, null);
+
+        java.util.concurrent.ExecutorService executor = java.util.concurrent.Executors.newFixedThreadPool(8);
+        try {
+            List<java.util.concurrent.Future<HyperLink[]>> results = new ArrayList<java.util.concurrent.Future<HyperLink[]>>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(new java.util.concurrent.Callable<HyperLink[]>() {
+                    public HyperLink[] call() {
+                        HyperLink[] found = new HyperLink[50];
+                        for (int i = 0; i < 50; i++) {
+                            assertTrue(resource.hasLink("rel" + i));
+                            found[i] = resource.getLink("rel" + i);
+                        }
+                        return found;
+                    }
+                }));
+            }
+
+            for (java.util.concurrent.Future<HyperLink[]> result : results) {
+                HyperLink[] found = result.get();
+                for (int i = 0; i < 50; i++) {
+                    assertEquals(links.get("rel" + i).get("href").textValue(), found[i].getHref());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package org.hyperfit.resource.hal.json;
+
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Response;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.HyperResourceException;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.hyperfit.resource.controls.link.HyperLinkWrapper;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.charset.Charset;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+public class LazyHalJsonResourceTest {
+
+    private static final String BASE_URI = "http://host/collection";
+
+    private static final String BODY = "{" +
+        "\"_links\":{" +
+            "\"self\":{\"href\":\"/collection\"}," +
+            "\"next\":{\"href\":\"http://host/collection?page=2\", \"title\":\"Next \\\"page\\\"\"}," +
+            "\"item\":[{\"href\":\"/item/1\",\"name\":\"one\"},{\"href\":\"/item/2\",\"name\":\"two\"}]" +
+        "}," +
+        "\"count\": 2 ," +
+        "\"_id\":\"abc\"," +
+        "\"empty\":null," +
+        "\"nested\":{\"a\":{\"b\":[1,2,3]},\"text\":\"} tricky {\"}," +
+        "\"_embedded\":{" +
+            "\"item\":[{\"_links\":{\"self\":{\"href\":\"/item/1\"}},\"n\":1},{\"n\":2}]," +
+            "\"owner\":{\"name\":\"bob\"}" +
+        "}" +
+    "}";
+
+    private LazyHalJsonResource resource;
+
+    private static LazyHalJsonResource parse(String body) {
+        return new LazyHalJsonResource(
+            Response.builder()
+                .addRequest(BoringRequestBuilder.get(BASE_URI).build())
+                .addCode(200)
+                .addBody(body)
+                .build()
+        );
+    }
+
+    @Before
+    public void setUp() {
+        resource = parse(BODY);
+    }
+
+    @Test
+    public void testLinksAreNotReplacedByProxyWrappers() {
+        HyperClient hyperClient = mock(HyperClient.class);
+        when(hyperClient.getSchemes()).thenReturn(new String[]{"http"});
+
+        HyperResource proxy = HyperfitProcessor.builder()
+            .hyperClient(hyperClient)
+            .build()
+            .processResource(HyperResource.class, resource, null);
+
+        HyperLink[] wrapped = proxy.getLinks("item");
+        proxy.getLinks("item");
+
+        assertThat(wrapped[0], instanceOf(HyperLinkWrapper.class));
+        //the links the resource caches are still its own
+        for (HyperLink link : resource.getLinks("item")) {
+            assertThat(link, not(instanceOf(HyperLinkWrapper.class)));
+        }
+    }
+
+    @Test
+    public void testLinks() {
+        HyperLink next = resource.getLink("next");
+        assertEquals("http://host/collection?page=2", next.getHref());
+        assertEquals("Next \"page\"", next.getTitle());
+
+        HyperLink[] items = resource.getLinks("item");
+        assertEquals(2, items.length);
+        assertEquals("two", items[1].getName());
+        assertTrue(resource.isMultiLink("item"));
+        assertFalse(resource.isMultiLink("next"));
+
+        assertEquals(4, resource.getLinks().length);
+        assertEquals(0, resource.getLinks("missing").length);
+        assertFalse(resource.hasLink("missing"));
+        assertSame(items, resource.getLinks("item"));
+    }
+
+    @Test
+    public void testLinksMatchTreeResource() throws Exception {
+        HalJsonResource tree = new HalJsonResource(
+            Response.builder()
+                .addRequest(BoringRequestBuilder.get(BASE_URI).build())
+                .addCode(200)
+                .addBody(BODY)
+                .build()
+        );
+
+        assertArrayEquals(tree.getLinks(), resource.getLinks());
+        assertArrayEquals(tree.getDataFieldNames(), resource.getDataFieldNames());
+    }
+
+    @Test
+    public void testData() {
+        assertEquals(Integer.valueOf(2), resource.getPathAs(Integer.class, "count"));
+        assertEquals("abc", resource.getPathAs(String.class, "_id"));
+        assertArrayEquals(new int[]{1, 2, 3}, resource.getPathAs(int[].class, "nested", "a", "b"));
+        assertEquals("} tricky {", resource.getPathAs(String.class, "nested", "text"));
+        assertNull(resource.getPathAs(String.class, true, "empty"));
+        assertNull(resource.getPathAs(String.class, true, "nope"));
+
+        assertTrue(resource.hasPath("nested", "a"));
+        assertFalse(resource.hasPath("nested", "z"));
+        assertFalse(resource.hasPath());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> nested = resource.getPathAs(Map.class, "nested");
+        assertThat(nested.keySet(), contains("a", "text"));
+
+        assertThat(resource.getDataFieldNames(), arrayContaining("count", "_id", "empty", "nested"));
+    }
+
+    @Test(expected = HyperResourceException.class)
+    public void testMissingData() {
+        resource.getPathAs(String.class, false, "nope");
+    }
+
+    @Test
+    public void testEmbedded() {
+        assertTrue(resource.canResolveLinkLocal("owner"));
+        assertTrue(resource.hasLink("owner"));
+        assertFalse(resource.canResolveLinkLocal("nope"));
+
+        HyperResource owner = resource.resolveLinkLocal("owner");
+        assertEquals("bob", owner.getPathAs(String.class, "name"));
+
+        HyperResource[] items = resource.resolveLinksLocal("item");
+        assertEquals(2, items.length);
+        assertEquals(Integer.valueOf(2), items[1].getPathAs(Integer.class, "n"));
+        assertEquals("http://host/item/1", items[0].getLink("self").getHref());
+
+        assertEquals(1, resource.resolveLinksLocal("owner").length);
+    }
+
+    @Test(expected = HyperResourceException.class)
+    public void testMissingEmbedded() {
+        resource.resolveLinkLocal("nope");
+    }
+
+    @Test
+    public void testNoLinksOrEmbedded() {
+        LazyHalJsonResource plain = parse("{\"a\":\"b\"}");
+
+        assertEquals(0, plain.getLinks().length);
+        assertFalse(plain.canResolveLinkLocal("a"));
+        assertEquals("b", plain.getPathAs(String.class, "a"));
+    }
+
+    @Test(expected = HyperfitException.class)
+    public void testNotAnObject() {
+        parse("[1,2]");
+    }
+
+    @Test(expected = HyperfitException.class)
+    public void testTruncated() {
+        parse("{\"a\":{\"b\":1}");
+    }
+
+    @Test
+    public void testEquality() {
+        assertEquals(resource, parse(BODY));
+        assertNotEquals(resource, parse("{}"));
+    }
+
+    @Test
+    public void testMultiByteCharacters() throws Exception {
+        String body = "{\"na\u00efve\":\"\u00fcber\",\"_links\":{\"\u00e9\":{\"href\":\"/caf\u00e9\"}},\"after\":{\"x\":\"\u00e9\"}}";
+
+        for (String charset : new String[]{"UTF-8", "ISO-8859-1"}) {
+            LazyHalJsonResource lazy = new LazyHalJsonResource(
+                Response.builder()
+                    .addRequest(BoringRequestBuilder.get(BASE_URI).build())
+                    .addCode(200)
+                    .addBody(body.getBytes(charset), Charset.forName(charset))
+                    .build()
+            );
+
+            assertEquals(charset, "\u00fcber", lazy.getPathAs(String.class, "na\u00efve"));
+            assertEquals(charset, "\u00e9", lazy.getPathAs(String.class, "after", "x"));
+            assertEquals(charset, "http://host/caf\u00e9", lazy.getLink("\u00e9").getHref());
+        }
+    }
+}
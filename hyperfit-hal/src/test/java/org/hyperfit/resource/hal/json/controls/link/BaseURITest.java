@@ -0,0 +1,118 @@
+package org.hyperfit.resource.hal.json.controls.link;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class BaseURITest {
+
+    //the examples of RFC 3986 section 5.4
+    private static final BaseURI RFC_BASE = new BaseURI("http://a/b/c/d;p?q");
+
+    private static final String[][] NORMAL_EXAMPLES = {
+        {"g:h", "g:h"},
+        {"g", "http://a/b/c/g"},
+        {"./g", "http://a/b/c/g"},
+        {"g/", "http://a/b/c/g/"},
+        {"/g", "http://a/g"},
+        {"//g", "http://g"},
+        {"?y", "http://a/b/c/d;p?y"},
+        {"g?y", "http://a/b/c/g?y"},
+        {"#s", "http://a/b/c/d;p?q#s"},
+        {"g#s", "http://a/b/c/g#s"},
+        {"g?y#s", "http://a/b/c/g?y#s"},
+        {";x", "http://a/b/c/;x"},
+        {"g;x", "http://a/b/c/g;x"},
+        {"g;x?y#s", "http://a/b/c/g;x?y#s"},
+        {"", "http://a/b/c/d;p?q"},
+        {".", "http://a/b/c/"},
+        {"./", "http://a/b/c/"},
+        {"..", "http://a/b/"},
+        {"../", "http://a/b/"},
+        {"../g", "http://a/b/g"},
+        {"../..", "http://a/"},
+        {"../../", "http://a/"},
+        {"../../g", "http://a/g"}
+    };
+
+    private static final String[][] ABNORMAL_EXAMPLES = {
+        {"../../../g", "http://a/g"},
+        {"../../../../g", "http://a/g"},
+        {"/./g", "http://a/g"},
+        {"/../g", "http://a/g"},
+        {"g.", "http://a/b/c/g."},
+        {".g", "http://a/b/c/.g"},
+        {"g..", "http://a/b/c/g.."},
+        {"..g", "http://a/b/c/..g"},
+        {"./../g", "http://a/b/g"},
+        {"./g/.", "http://a/b/c/g/"},
+        {"g/./h", "http://a/b/c/g/h"},
+        {"g/../h", "http://a/b/c/h"},
+        {"g;x=1/./y", "http://a/b/c/g;x=1/y"},
+        {"g;x=1/../y", "http://a/b/c/y"},
+        {"g?y/./x", "http://a/b/c/g?y/./x"},
+        {"g?y/../x", "http://a/b/c/g?y/../x"},
+        {"g#s/./x", "http://a/b/c/g#s/./x"},
+        {"g#s/../x", "http://a/b/c/g#s/../x"}
+    };
+
+    @Test
+    public void testRfcNormalExamples() {
+        for (String[] example : NORMAL_EXAMPLES) {
+            assertEquals(example[0], example[1], RFC_BASE.resolve(example[0], false));
+        }
+    }
+
+    @Test
+    public void testRfcAbnormalExamples() {
+        for (String[] example : ABNORMAL_EXAMPLES) {
+            assertEquals(example[0], example[1], RFC_BASE.resolve(example[0], false));
+        }
+    }
+
+    @Test
+    public void testAbsoluteHrefIsReturnedAsIs() {
+        String href = "https://other.host:8443/path?query=1#fragment";
+        assertSame(href, RFC_BASE.resolve(href, false));
+    }
+
+    @Test
+    public void testBaseWithoutPath() {
+        assertEquals("http://host/g", new BaseURI("http://host").resolve("g", false));
+    }
+
+    @Test
+    public void testTemplatedHrefsOnlyResolveFromTheRoot() {
+        BaseURI base = new BaseURI("proto://host.tld:984/some/path?params=234");
+
+        assertEquals("proto://host.tld:984/root{?params}", base.resolve("/root{?params}", true));
+        assertEquals("relative{?params}", base.resolve("relative{?params}", true));
+        assertEquals("other://host/path{?params}", base.resolve("other://host/path{?params}", true));
+    }
+
+    @Test
+    public void testInvalidHrefsOnlyResolveFromTheRoot() {
+        BaseURI base = new BaseURI("proto://host.tld:984/some/path");
+
+        assertEquals("proto://host.tld:984/root{?params}", base.resolve("/root{?params}", false));
+        assertEquals("relative{?params}", base.resolve("relative{?params}", false));
+    }
+
+    @Test
+    public void testUnusableBaseLeavesHrefsAlone() {
+        assertEquals("/root", new BaseURI("not a uri").resolve("/root", false));
+        assertEquals("/root", new BaseURI("relative/base").resolve("/root", false));
+        assertEquals("/root", new BaseURI("mailto:someone@somewhere").resolve("/root", false));
+    }
+
+    @Test
+    public void testNullHref() {
+        assertNull(RFC_BASE.resolve(null, false));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullURI() {
+        new BaseURI(null);
+    }
+}
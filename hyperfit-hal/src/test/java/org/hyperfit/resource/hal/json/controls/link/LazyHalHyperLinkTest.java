@@ -0,0 +1,90 @@
+package org.hyperfit.resource.hal.json.controls.link;
+
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.RFC6570RequestBuilder;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class LazyHalHyperLinkTest {
+
+    private static final JsonNodeFactory nodeFactory = new JsonNodeFactory(false);
+
+    @Test
+    public void testPropertiesAreReadFromTheNode() {
+        ObjectNode node = nodeFactory.objectNode();
+        node.put("href", "../other");
+        node.put("type", "application/hal+json");
+        node.put("deprecation", "http://deprecation");
+        node.put("name", "a name");
+        node.put("profile", "http://profile");
+        node.put("title", "a title");
+        node.put("hrefLang", "en");
+
+        LazyHalHyperLink link = new LazyHalHyperLink("rel", node, new BaseURI("http://host/some/path"));
+
+        assertEquals("http://host/other", link.getHref());
+        assertEquals("rel", link.getRel());
+        assertFalse(link.isTemplated());
+        assertEquals("application/hal+json", link.getType());
+        assertEquals("http://deprecation", link.getDeprecation());
+        assertEquals("a name", link.getName());
+        assertEquals("http://profile", link.getProfile());
+        assertEquals("a title", link.getTitle());
+        assertEquals("en", link.getHrefLang());
+
+        HalHyperLink eager = new HalHyperLink(
+            "http://host/other", "rel", false, "application/hal+json", "http://deprecation", "a name",
+            "http://profile", "a title", "en", null
+        );
+        assertEquals(eager, link);
+        assertEquals(eager.hashCode(), link.hashCode());
+    }
+
+    @Test
+    public void testMissingPropertiesAreNull() {
+        ObjectNode node = nodeFactory.objectNode();
+        node.put("href", "http://host/path");
+
+        LazyHalHyperLink link = new LazyHalHyperLink("rel", node, null);
+
+        assertEquals("http://host/path", link.getHref());
+        assertNull(link.getType());
+        assertNull(link.getName());
+        assertNull(link.getTitle());
+        assertTrue(link.toRequestBuilder() instanceof BoringRequestBuilder);
+    }
+
+    @Test
+    public void testTemplated() {
+        ObjectNode node = nodeFactory.objectNode();
+        node.put("href", "/search{?q}");
+        node.put("templated", true);
+
+        LazyHalHyperLink link = new LazyHalHyperLink("rel", node, new BaseURI("http://host/some/path"));
+
+        assertTrue(link.isTemplated());
+        assertEquals("http://host/search{?q}", link.getHref());
+        assertTrue(link.toRequestBuilder() instanceof RFC6570RequestBuilder);
+    }
+
+    @Test
+    public void testCopiesHaveTheProperties() {
+        ObjectNode node = nodeFactory.objectNode();
+        node.put("href", "/path");
+        node.put("title", "a title");
+
+        LazyHalHyperLink link = new LazyHalHyperLink("rel", node, new BaseURI("http://host/"));
+        HalHyperLink copy = new HalHyperLink(link.getHref(), link.getRel(), false, null, null, null, null, "a title", null, null);
+
+        assertEquals(copy, new org.hyperfit.resource.controls.link.HyperLink(link){});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testHrefIsRequired() {
+        new LazyHalHyperLink("rel", nodeFactory.objectNode(), null);
+    }
+}
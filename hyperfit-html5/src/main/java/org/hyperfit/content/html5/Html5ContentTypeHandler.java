@@ -6,6 +6,7 @@ import org.hyperfit.content.ContentTypeHandler;
 import org.hyperfit.net.RequestBuilder;
 import org.hyperfit.net.Response;
 import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.html5.CompactHtml5Resource;
 import org.hyperfit.resource.html5.Html5Resource;
 
 /**
@@ -15,6 +16,35 @@ public class Html5ContentTypeHandler implements ContentTypeHandler {
 
     private static final ContentType contentType = new ContentType("application", "xhtml+xml");
 
+    /**
+     * How responses are turned into resources
+     */
+    public enum ParseMode {
+        /**
+         * Keeps the whole html document, see {@link org.hyperfit.resource.html5.Html5Resource}
+         */
+        DOM,
+        /**
+         * Only keeps the links, forms & data sections of the html document,
+         * see {@link org.hyperfit.resource.html5.CompactHtml5Resource}
+         */
+        COMPACT
+    }
+
+    private final ParseMode parseMode;
+
+    public Html5ContentTypeHandler() {
+        this(ParseMode.DOM);
+    }
+
+    public Html5ContentTypeHandler(ParseMode parseMode) {
+        if (parseMode == null) {
+            throw new IllegalArgumentException("parseMode cannot be null");
+        }
+
+        this.parseMode = parseMode;
+    }
+
     /**
      * {@inheritDoc}
      *
@@ -26,9 +56,12 @@ public class Html5ContentTypeHandler implements ContentTypeHandler {
 
     /**
      * @param response response {@link org.hyperfit.net.Response} to be handled
-     * @return {@link org.hyperfit.resource.html5.Html5Resource}
+     * @return {@link org.hyperfit.resource.html5.Html5Resource} or {@link org.hyperfit.resource.html5.CompactHtml5Resource} depending on the parse mode
     */
     public HyperResource parseResponse(Response response) {
+        if (parseMode == ParseMode.COMPACT) {
+            return new CompactHtml5Resource(response);
+        }
 
         return new Html5Resource(response);
     }
@@ -0,0 +1,69 @@
+package org.hyperfit.resource.html5;
+
+import org.hyperfit.net.Response;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Html5 Implementation of a HyperMedia Resource that only keeps the parts of the page hyperfit uses.
+ *
+ * Once the response is parsed the a & link elements, the forms and the data sections are moved into a new bare
+ * document and the rest of the markup is let go, so presentational markup doesn't stay in memory for as long as the
+ * resource does.  Links, forms & data work the same as they do for {@link Html5Resource}, although
+ * {@link #getRawHtml()} is only the html of the parts that were kept.
+ */
+public class CompactHtml5Resource extends Html5Resource {
+
+    public CompactHtml5Resource(Response response) {
+        super(compact(parse(response)));
+    }
+
+    /**
+     * @param htmlDoc the document to take the links, forms & data sections out of, which is emptied of them
+     */
+    public CompactHtml5Resource(Document htmlDoc) {
+        super(compact(htmlDoc));
+    }
+
+
+    static Document compact(Document htmlDoc) {
+        if (htmlDoc == null) {
+            throw new IllegalArgumentException("htmlDoc cannot be null");
+        }
+
+        List<Element> kept = new ArrayList<Element>();
+        collect(htmlDoc, kept);
+
+        Document compact = Document.createShell(htmlDoc.baseUri());
+        Element body = compact.body();
+        //appending moves them out of the original document, keeping them in document order
+        for (Element element : kept) {
+            body.appendChild(element);
+        }
+
+        return compact;
+    }
+
+    //the kept elements are taken whole, so anything inside them like the links in a form comes along
+    private static void collect(Element parent, List<Element> kept) {
+        for (Element child : parent.children()) {
+            if (isKept(child)) {
+                kept.add(child);
+            } else {
+                collect(child, kept);
+            }
+        }
+    }
+
+    private static boolean isKept(Element element) {
+        String tag = element.tagName();
+        return "a".equals(tag)
+            || "link".equals(tag)
+            || "form".equals(tag)
+            || ("section".equals(tag) && element.hasClass("data"));
+    }
+
+}
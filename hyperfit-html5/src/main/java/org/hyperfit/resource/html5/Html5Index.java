@@ -0,0 +1,244 @@
+package org.hyperfit.resource.html5;
+
+import org.hyperfit.utils.StringUtils;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Where the links, forms & data fields of an html document are, found in a single pass over the document so
+ * {@link Html5Resource} can look them up in a map instead of running a selector over the whole document every time.
+ *
+ * <p>Lookups match the way the selectors they replace did, jsoup's [attr=value] ignores case and surrounding
+ * whitespace of the value.  Once built an index is never changed, so it's safe to use from several threads.</p>
+ */
+final class Html5Index {
+
+    private final List<Element> links;
+    private final Map<String, List<Element>> linksByRel;
+    private final List<Element> forms;
+    private final Map<String, List<Element>> formsByName;
+
+    private final Element dataNode;
+    //for the data node & each named element in it, the first element with each name at or below it
+    private final Map<Element, Map<String, Element>> namedDescendants;
+    private final String[] dataFieldNames;
+
+    private Html5Index(Builder builder) {
+        links = Collections.unmodifiableList(builder.links);
+        linksByRel = builder.linksByRel;
+        forms = Collections.unmodifiableList(builder.forms);
+        formsByName = builder.formsByName;
+        dataNode = builder.dataNode;
+        namedDescendants = builder.namedDescendants;
+        dataFieldNames = builder.dataFieldNames.toArray(new String[builder.dataFieldNames.size()]);
+    }
+
+    /**
+     * @param root the document, or the part of one, to index
+     * @return the index of root
+     */
+    static Html5Index of(Node root) {
+        Builder builder = new Builder();
+        new NodeTraversor(builder).traverse(root);
+        return new Html5Index(builder);
+    }
+
+    /**
+     * @return the a & link elements, in document order
+     */
+    List<Element> getLinks() {
+        return links;
+    }
+
+    /**
+     * @return the a & link elements with the rel, in document order
+     */
+    List<Element> getLinks(String rel) {
+        return elements(linksByRel, rel);
+    }
+
+    /**
+     * @return the forms with the name, in document order
+     */
+    List<Element> getForms(String name) {
+        return elements(formsByName, name);
+    }
+
+    /**
+     * @return all of the forms, named or not, in document order
+     */
+    List<Element> getForms() {
+        return forms;
+    }
+
+    /**
+     * @return the first section with the data class, null if there isn't one
+     */
+    Element getDataNode() {
+        return dataNode;
+    }
+
+    /**
+     * @return the element a path of names leads to from the data node, each step being the first element with the
+     * name at or below the last, null if there's no data node or the path leads nowhere
+     */
+    Element getDataElement(String... path) {
+        if (dataNode == null) {
+            return null;
+        }
+
+        Element node = dataNode;
+        for (String step : path) {
+            Map<String, Element> named = namedDescendants.get(node);
+            node = named == null ? null : named.get(key(step));
+            if (node == null) {
+                return null;
+            }
+        }
+
+        return node;
+    }
+
+    /**
+     * @return the names of the named elements in the data node that aren't inside another named element
+     */
+    String[] getDataFieldNames() {
+        return dataFieldNames.clone();
+    }
+
+
+    private static List<Element> elements(Map<String, List<Element>> index, String value) {
+        List<Element> elements = index.get(key(value));
+        return elements == null ? Collections.<Element>emptyList() : elements;
+    }
+
+    //how jsoup's [attr=value] compares values
+    private static String key(String value) {
+        return String.valueOf(value).trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static void add(Map<String, List<Element>> index, String value, Element element) {
+        String key = value.toLowerCase(Locale.ENGLISH);
+        List<Element> elements = index.get(key);
+        if (elements == null) {
+            elements = new ArrayList<Element>(1);
+            index.put(key, elements);
+        }
+        elements.add(element);
+    }
+
+
+    private static final class Builder implements NodeVisitor {
+
+        private final List<Element> links = new ArrayList<Element>();
+        private final Map<String, List<Element>> linksByRel = new HashMap<String, List<Element>>();
+        private final List<Element> forms = new ArrayList<Element>();
+        private final Map<String, List<Element>> formsByName = new HashMap<String, List<Element>>();
+
+        private Element dataNode;
+        private final Map<Element, Map<String, Element>> namedDescendants = new IdentityHashMap<Element, Map<String, Element>>();
+        private final Set<String> dataFieldNames = new LinkedHashSet<String>();
+
+        //the named elements being visited, and the data node while it's being visited, innermost last
+        private final List<Map<String, Element>> openNamed = new ArrayList<Map<String, Element>>();
+        private final List<Element> openNamedElements = new ArrayList<Element>();
+        private int namedAncestors;
+        private boolean inData;
+
+        public void head(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+
+            Element element = (Element) node;
+            String tag = element.tagName();
+
+            if ("a".equals(tag) || "link".equals(tag)) {
+                links.add(element);
+                if (element.hasAttr("rel")) {
+                    add(linksByRel, element.attr("rel"), element);
+                }
+            } else if ("form".equals(tag)) {
+                forms.add(element);
+                if (element.hasAttr("name")) {
+                    add(formsByName, element.attr("name"), element);
+                }
+            }
+
+            boolean enteringData = dataNode == null && "section".equals(tag) && element.hasClass("data");
+            if (enteringData) {
+                dataNode = element;
+                inData = true;
+                open(element);
+            }
+
+            if (element.hasAttr("name")) {
+                if (inData) {
+                    indexName(element);
+                }
+                namedAncestors++;
+            }
+        }
+
+        public void tail(Node node, int depth) {
+            if (!(node instanceof Element)) {
+                return;
+            }
+
+            Element element = (Element) node;
+
+            if (element.hasAttr("name")) {
+                namedAncestors--;
+            }
+
+            if (inData && !openNamedElements.isEmpty() && openNamedElements.get(openNamedElements.size() - 1) == element) {
+                openNamed.remove(openNamed.size() - 1);
+                openNamedElements.remove(openNamedElements.size() - 1);
+            }
+
+            if (element == dataNode) {
+                inData = false;
+            }
+        }
+
+        private void indexName(Element element) {
+            String name = element.attr("name");
+
+            //names that are only whitespace aren't fields
+            if (namedAncestors == 0 && !StringUtils.isEmpty(name)) {
+                dataFieldNames.add(name);
+            }
+
+            //the data node was opened already if it's the one that's named
+            if (element != dataNode) {
+                open(element);
+            }
+
+            String key = name.toLowerCase(Locale.ENGLISH);
+            for (Map<String, Element> named : openNamed) {
+                if (!named.containsKey(key)) {
+                    named.put(key, element);
+                }
+            }
+        }
+
+        private void open(Element element) {
+            Map<String, Element> named = new HashMap<String, Element>(4);
+            namedDescendants.put(element, named);
+            openNamed.add(named);
+            openNamedElements.add(element);
+        }
+    }
+}
@@ -16,34 +16,31 @@ import org.hyperfit.utils.StringUtils;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
+import java.io.InputStream;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Hal Json Implementation of a HyperMedia Resource
+ *
+ * <p>The document is indexed once when the resource is made, links, forms & data fields are then looked up in the
+ * index rather than found by running selectors over the document.  Resources can be shared between threads.</p>
  */
-@ToString(exclude = {"linkCache","htmlResource"})
-@EqualsAndHashCode(exclude = {"linkCache","htmlResource"})
+@ToString(exclude = {"linkCache","formCache","htmlResource","index"})
+@EqualsAndHashCode(exclude = {"linkCache","formCache","htmlResource","index"})
 public class Html5Resource extends BaseHyperResource {
 
 
-    private final HashMap<String, HyperLink[]> linkCache = new HashMap<String, HyperLink[]>(5);
-    private final HashMap<String, Form> formCache = new HashMap<String, Form>(2);
+    private final ConcurrentHashMap<String, HyperLink[]> linkCache = new ConcurrentHashMap<String, HyperLink[]>(5);
+    //by form element, so getForm & getForms hand out the same form
+    private final Map<Element, Form> formCache = new IdentityHashMap<Element, Form>(2);
 
     private final Document htmlResource;
-    private final Element dataNode;
+    private final Html5Index index;
 
     public Html5Resource(Response response) {
-        try {
-            this.htmlResource = Jsoup.parse(response.getBody());
-            this.dataNode = this.htmlResource.select("section.data").first();
-        } catch (Exception ex) {
-            throw new HyperfitException(
-                "The response [" + response + "] cannot be read into an html dom.",
-                ex
-            );
-        }
+        this(parse(response));
     }
 
     public Html5Resource(Document htmlDoc) {
@@ -52,38 +49,53 @@ public class Html5Resource extends BaseHyperResource {
         }
 
         this.htmlResource = htmlDoc;
-        this.dataNode = htmlDoc.select("section.data").first();
+        this.index = Html5Index.of(htmlDoc);
+
+    }
 
+    static Document parse(Response response) {
+        try {
+            //let jsoup decode the raw bytes itself rather than decoding them into a String first
+            InputStream body = response.openBodyStream();
+            return body != null ?
+                Jsoup.parse(body, response.getBodyCharset().name(), "")
+                :
+                Jsoup.parse(response.getBody());
+        } catch (Exception ex) {
+            throw new HyperfitException(
+                "The response [" + response + "] cannot be read into an html dom.",
+                ex
+            );
+        }
     }
 
 
 
     public HyperLink[] getLinks() {
         //TODO: this doesn't use the rel cache...but since html can have empty rels..that doesn't really make a lot of sense. Maybe there's a better way
-        return doLinkParsing(htmlResource.select("a,link"));
+        return doLinkParsing(index.getLinks());
     }
 
-    private static final String anchorByRelSelector = "a[rel=%s]";
-    private static final String linkByRelSelector = "link[rel=%s]";
     public HyperLink[] getLinks(String relationship) {
         if (StringUtils.isEmpty(relationship)) {
             throw new IllegalArgumentException("relationship cannot be empty");
         }
 
-        String anchor = String.format(anchorByRelSelector, relationship);
-        String link = String.format(linkByRelSelector, relationship);
-
-        String fullQuery = anchor + ", " + link;
-
-        if(!linkCache.containsKey(relationship)){
-            linkCache.put(relationship, doLinkParsing(htmlResource.select(fullQuery)));
+        HyperLink[] links = linkCache.get(relationship);
+        if (links == null) {
+            //if two threads parse the same links at once the first to finish wins
+            links = doLinkParsing(index.getLinks(relationship));
+            HyperLink[] existing = linkCache.putIfAbsent(relationship, links);
+            if (existing != null) {
+                links = existing;
+            }
         }
 
-        return linkCache.get(relationship);
+        return links;
     }
 
 
-    private static HyperLink[] doLinkParsing(Elements matchingLinks){
+    private static HyperLink[] doLinkParsing(List<Element> matchingLinks){
         if(matchingLinks.isEmpty()){
             return new HyperLink[0];
         }
@@ -132,19 +144,7 @@ public class Html5Resource extends BaseHyperResource {
 
 
     public boolean hasPath(String... path) {
-        if(dataNode == null){
-            return false;
-        }
-
-        Element node = dataNode;
-        for(String step : path){
-            node = node.select("*[name=" + step + "]").first();
-            if(node == null){
-                return false;
-            }
-
-        }
-        return true;
+        return index.getDataElement(path) != null;
     }
 
     public <T> T getPathAs(Class<T> classToReturn, boolean nullWhenMissing, String... path) {
@@ -152,7 +152,7 @@ public class Html5Resource extends BaseHyperResource {
             throw new HyperResourceException("Only string is currently supported");
         }
 
-        if(dataNode == null || path == null || path.length == 0){
+        if(index.getDataNode() == null || path == null || path.length == 0){
             if(nullWhenMissing){
                 return null;
             } else {
@@ -160,13 +160,9 @@ public class Html5Resource extends BaseHyperResource {
             }
         }
 
-        Element node = dataNode;
-        for(String step : path){
-            node = node.select("*[name=" + step + "]").first();
-            if(node == null){
-                throw new HyperResourceException("Resource data with path [" + Arrays.toString(path) + "] was not found in [" + htmlResource + "]");
-            }
-
+        Element node = index.getDataElement(path);
+        if(node == null){
+            throw new HyperResourceException("Resource data with path [" + Arrays.toString(path) + "] was not found in [" + htmlResource + "]");
         }
 
         return (T)node.text();
@@ -175,79 +171,58 @@ public class Html5Resource extends BaseHyperResource {
 
     @Override
     public String[] getDataFieldNames() {
-
-        if(dataNode == null){
-            return new String[0];
-        }
-
-        HashSet<String> names = new HashSet<String>();
-
         //TODO: should this exclude forms?  can they ever be datafields?
-        for(Element n: dataNode.select("*[name]")){
-
-            //TODO: should we exclude blank names from this consideration somehow?
-            if(!n.parents().hasAttr("name")) {
-                String name = n.attr("name");
-
-                //protect against name attributes with no value
-                if (!StringUtils.isEmpty(name)) {
-                    names.add(name);
-                }
-            }
-
-        }
-
-        return names.toArray(new String[names.size()]);
+        return index.getDataFieldNames();
     }
 
-    private static final String formByName = "form[name=%s]";
-
     @Override
     public Form getForm(String formName) {
         if (StringUtils.isEmpty(formName)) {
             throw new IllegalArgumentException("Form name is required");
         }
 
-
         //Note this assumes form names are unique
-        if(!formCache.containsKey(formName)){
-            String formSelector = String.format(formByName, formName);
-            Elements matches = htmlResource.select(formSelector);
-
-            if(matches.size() == 0){
-                throw new HyperResourceException("Could not find a form with name [" + formName + "]");
-            }
-
-            if (matches.size() > 1) {
-                throw new HyperResourceException("Found more than one form with name [" + formName + "]");
-            }
+        List<Element> matches = index.getForms(formName);
 
-            formCache.put(formName, new JsoupHtml5Form(matches.get(0)));
+        if(matches.size() == 0){
+            throw new HyperResourceException("Could not find a form with name [" + formName + "]");
+        }
 
+        if (matches.size() > 1) {
+            throw new HyperResourceException("Found more than one form with name [" + formName + "]");
         }
 
-        return formCache.get(formName);
+        return formFromElement(matches.get(0));
     }
 
     @Override
     public boolean hasForm(String formName) {
-        String formSelector = String.format(formByName, formName);
-        Elements matches = htmlResource.select(formSelector);
-        return !matches.isEmpty();
+        return !index.getForms(formName).isEmpty();
     }
 
     @Override
     public Form[] getForms() {
-        Elements forms = htmlResource.select("form");
-        for(Element form : forms){
+        Map<String, Form> forms = new LinkedHashMap<String, Form>();
+        for(Element form : index.getForms()){
             String formName = form.attr("name");
-            //this intentionally only stores the first form with a given name
-            if(!formCache.containsKey(formName)){
-                formCache.put(formName, new JsoupHtml5Form(form));
+            //this intentionally only includes the first form with a given name
+            if(!forms.containsKey(formName)){
+                forms.put(formName, formFromElement(form));
             }
         }
 
-        return formCache.values().toArray(new Form[formCache.size()]);
+        return forms.values().toArray(new Form[forms.size()]);
+    }
+
+    private Form formFromElement(Element formElement) {
+        synchronized (formCache) {
+            Form form = formCache.get(formElement);
+            if (form == null) {
+                form = new JsoupHtml5Form(formElement);
+                formCache.put(formElement, form);
+            }
+            return form;
+        }
     }
 
     //This is here for Equals to work well with lombak. Two JSoup docs aren't equal even if there contents are.  This means equals for this resource is possibly slow
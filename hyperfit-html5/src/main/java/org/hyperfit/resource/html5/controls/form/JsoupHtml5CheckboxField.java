@@ -13,7 +13,11 @@ public class JsoupHtml5CheckboxField extends JsoupHtml5Field implements Checkbox
     private final CheckState checkState;
 
     public JsoupHtml5CheckboxField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5CheckboxField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
 
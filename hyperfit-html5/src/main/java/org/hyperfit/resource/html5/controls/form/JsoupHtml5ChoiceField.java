@@ -15,7 +15,11 @@ public class JsoupHtml5ChoiceField extends JsoupHtml5Field implements ChoiceFiel
     private final Option selectedOption;
 
     public JsoupHtml5ChoiceField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5ChoiceField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         Elements optionElements = inputElement.select("option");
 
@@ -12,7 +12,11 @@ public class JsoupHtml5EmailField extends JsoupHtml5Field implements EmailField
     private final String value;
 
     public JsoupHtml5EmailField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5EmailField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
     }
@@ -6,7 +6,6 @@ import org.hyperfit.resource.HyperResourceException;
 import org.hyperfit.resource.controls.form.Field;
 import org.hyperfit.utils.StringUtils;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 @EqualsAndHashCode
 @ToString
@@ -18,31 +17,24 @@ public abstract class JsoupHtml5Field implements Field {
     private final String errorMessage;
     private final Long maxLength;
 
-    private final static String labelMatcher = "label[for=%s]";
     public JsoupHtml5Field(Element inputElement, Element formElement){
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5Field(Element inputElement, JsoupHtml5FormIndex formIndex){
 
         name = inputElement.attr("name");
         required = inputElement.hasAttr("required");
 
 
-        String finalLabel = null;
-        String finalErrorMessage = null;
         if(!StringUtils.isEmpty(name)) {
-            Elements labelMatch = formElement.select(String.format(labelMatcher, name));
-            if (!labelMatch.isEmpty()) {
-                for (Element match : labelMatch) {
-                    if (match.classNames().contains("error")) {
-                        finalErrorMessage = match.text();
-                    } else {
-                        finalLabel = match.text();
-                    }
-                }
-            }
+            label = formIndex.getLabel(name);
+            errorMessage = formIndex.getErrorMessage(name);
+        } else {
+            label = null;
+            errorMessage = null;
         }
 
-        label = finalLabel;
-        errorMessage = finalErrorMessage;
-
         Long finalMaxLength = null;
         if(inputElement.hasAttr("maxlength")){
             try{
@@ -91,38 +83,42 @@ public abstract class JsoupHtml5Field implements Field {
     }
 
     protected static JsoupHtml5Field fieldFactory(Element fieldElement, Element formElement){
+        return fieldFactory(fieldElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    static JsoupHtml5Field fieldFactory(Element fieldElement, JsoupHtml5FormIndex formIndex){
         String tagName = fieldElement.tagName().toLowerCase();
 
         if(tagName.equals("input")){
             String type = fieldElement.attr("type").toLowerCase();
 
             if(type.equals("text")) {
-                return new JsoupHtml5TextField(fieldElement, formElement);
+                return new JsoupHtml5TextField(fieldElement, formIndex);
             }
 
             if(type.equals("hidden")){
-                return new JsoupHtml5HiddenField(fieldElement, formElement);
+                return new JsoupHtml5HiddenField(fieldElement, formIndex);
             }
 
             if(type.equals("email")){
-                return new JsoupHtml5EmailField(fieldElement, formElement);
+                return new JsoupHtml5EmailField(fieldElement, formIndex);
             }
 
             if(type.equals("tel")){
-                return new JsoupHtml5TelephoneNumberField(fieldElement, formElement);
+                return new JsoupHtml5TelephoneNumberField(fieldElement, formIndex);
             }
 
             if(type.equals("checkbox")){
-                return new JsoupHtml5CheckboxField(fieldElement, formElement);
+                return new JsoupHtml5CheckboxField(fieldElement, formIndex);
             }
 
             if(type.equals("submit")){
-                return new JsoupHtml5SubmitField(fieldElement, formElement);
+                return new JsoupHtml5SubmitField(fieldElement, formIndex);
             }
         }
 
         if(tagName.equals("select")){
-            return new JsoupHtml5ChoiceField(fieldElement, formElement);
+            return new JsoupHtml5ChoiceField(fieldElement, formIndex);
         }
 
 
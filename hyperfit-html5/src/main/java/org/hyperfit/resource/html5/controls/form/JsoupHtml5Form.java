@@ -11,19 +11,21 @@ import org.hyperfit.resource.controls.form.FieldSet;
 import org.hyperfit.resource.controls.form.Form;
 import org.hyperfit.utils.StringUtils;
 import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 
-@EqualsAndHashCode
-@ToString
+@EqualsAndHashCode(exclude = "formIndex")
+@ToString(exclude = "formIndex")
 public class JsoupHtml5Form implements Form {
 
     private final String name;
     private final String href;
     private final Method method;
     private final Element formElement;
+    //fields & labels are looked up here rather than by selecting from the form each time
+    private final JsoupHtml5FormIndex formIndex;
 
     private final HashMap<String, Field> fieldCache = new HashMap<String, Field>();
     private final HashMap<String, FieldSet> fieldSetCache = new HashMap<String, FieldSet>();
@@ -34,6 +36,7 @@ public class JsoupHtml5Form implements Form {
         }
 
         this.formElement = formElement;
+        this.formIndex = new JsoupHtml5FormIndex(formElement);
 
         name = formElement.attr("name");
         href = formElement.attr("action");
@@ -60,31 +63,29 @@ public class JsoupHtml5Form implements Form {
 
 
 
-    private static final String fieldSelector = "input[name=%s], select[name=%s]";
-
     @Override
     public Field getField(String fieldName) {
         if (StringUtils.isEmpty(fieldName)) {
             throw new IllegalArgumentException("fieldName is required");
         }
 
-        if(!fieldCache.containsKey(fieldName)){
-            String selector = String.format(fieldSelector, fieldName, fieldName);
+        synchronized (fieldCache) {
+            if(!fieldCache.containsKey(fieldName)){
+                List<Element> matches = formIndex.getFields(fieldName);
 
-            Elements matches = formElement.select(selector);
+                if(matches.size() == 0){
+                    throw new HyperResourceException("Could not find a field with name [" + fieldName + "]");
+                }
 
-            if(matches.size() == 0){
-                throw new HyperResourceException("Could not find a field with name [" + fieldName + "]");
-            }
+                if (matches.size() > 1) {
+                    throw new HyperResourceException("Found more than one field with name [" + fieldName + "]");
+                }
 
-            if (matches.size() > 1) {
-                throw new HyperResourceException("Found more than one field with name [" + fieldName + "]");
+                fieldCache.put(fieldName, JsoupHtml5Field.fieldFactory(matches.get(0), formIndex));
             }
 
-            fieldCache.put(fieldName, JsoupHtml5Field.fieldFactory(matches.get(0), formElement));
+            return fieldCache.get(fieldName);
         }
-
-        return fieldCache.get(fieldName);
     }
 
     @Override
@@ -93,63 +94,61 @@ public class JsoupHtml5Form implements Form {
             throw new IllegalArgumentException("fieldName is required");
         }
 
-        String selector = String.format(fieldSelector, fieldName, fieldName);
-        Elements matches = formElement.select(selector);
-        return !matches.isEmpty();
+        return !formIndex.getFields(fieldName).isEmpty();
 
     }
 
     @Override
     public Field[] getFields() {
-        Elements fieldElements = formElement.select("input,select");
-        ArrayList<Field> fields = new ArrayList<Field>(fieldCache.values());
+        synchronized (fieldCache) {
+            ArrayList<Field> fields = new ArrayList<Field>(fieldCache.values());
 
 
 
-        for(Element fieldElement : fieldElements) {
-            String fieldName = fieldElement.attr("name");
-            //this intentionally only stores the first form with a given name
-            if(!fieldCache.containsKey(fieldName)){
-                JsoupHtml5Field field = JsoupHtml5Field.fieldFactory(fieldElement, formElement);
-                fields.add(field);
+            for(Element fieldElement : formIndex.getFields()) {
+                String fieldName = fieldElement.attr("name");
+                //this intentionally only stores the first form with a given name
+                if(!fieldCache.containsKey(fieldName)){
+                    JsoupHtml5Field field = JsoupHtml5Field.fieldFactory(fieldElement, formIndex);
+                    fields.add(field);
+
+                    if(!StringUtils.isEmpty(fieldName)){
+                        //hmmmm TODO: how can we cache unnamed fields?
+                        fieldCache.put(fieldName, field);
+                    }
 
-                if(!StringUtils.isEmpty(fieldName)){
-                    //hmmmm TODO: how can we cache unnamed fields?
-                    fieldCache.put(fieldName, field);
                 }
 
             }
 
+            return fields.toArray(new Field[fields.size()]);
         }
 
-        return fields.toArray(new Field[fields.size()]);
-
     }
 
-    private static final String fieldSetSelector = "fieldset[name=%s]";
     @Override
     public FieldSet getFieldSet(String fieldSetName) {
         if (StringUtils.isEmpty(fieldSetName)) {
             throw new IllegalArgumentException("The provided element is not a form");
         }
 
-        if(!fieldSetCache.containsKey(fieldSetName)){
-            String selector = String.format(fieldSetSelector, fieldSetName);
+        synchronized (fieldSetCache) {
+            if(!fieldSetCache.containsKey(fieldSetName)){
+                List<Element> matches = formIndex.getFieldSets(fieldSetName);
 
-            Elements matches = formElement.select(selector);
+                if(matches.size() == 0){
+                    throw new HyperResourceException("Could not find a field set with name [" + fieldSetName + "]");
+                }
 
-            if(matches.size() == 0){
-                throw new HyperResourceException("Could not find a field set with name [" + fieldSetName + "]");
-            }
+                if (matches.size() > 1) {
+                    throw new HyperResourceException("Found more than one field set with name [" + fieldSetName + "]");
+                }
 
-            if (matches.size() > 1) {
-                throw new HyperResourceException("Found more than one field set with name [" + fieldSetName + "]");
+                fieldSetCache.put(fieldSetName, new JsoupHtml5FieldSet(matches.get(0), formElement));
             }
 
-            fieldSetCache.put(fieldSetName, new JsoupHtml5FieldSet(matches.get(0), formElement));
+            return fieldSetCache.get(fieldSetName);
         }
-
-        return fieldSetCache.get(fieldSetName);
     }
 
     @Override
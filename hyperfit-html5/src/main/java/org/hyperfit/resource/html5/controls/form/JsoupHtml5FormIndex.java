@@ -0,0 +1,120 @@
+package org.hyperfit.resource.html5.controls.form;
+
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.select.NodeTraversor;
+import org.jsoup.select.NodeVisitor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Where the fields, field sets & labels of a form are, found in a single pass over the form so fields don't each
+ * have to search the whole form for their labels.
+ *
+ * <p>Names are matched the way the selectors this replaces matched them, ignoring case and the whitespace around the
+ * name being looked up.  Once built an index is never changed.</p>
+ */
+final class JsoupHtml5FormIndex {
+
+    private final List<Element> fields = new ArrayList<Element>();
+    private final Map<String, List<Element>> fieldsByName = new HashMap<String, List<Element>>();
+    private final Map<String, List<Element>> fieldSetsByName = new HashMap<String, List<Element>>();
+    private final Map<String, String> labels = new HashMap<String, String>();
+    private final Map<String, String> errorMessages = new HashMap<String, String>();
+
+    JsoupHtml5FormIndex(Element formElement) {
+        new NodeTraversor(new NodeVisitor() {
+            public void head(Node node, int depth) {
+                if (node instanceof Element) {
+                    index((Element) node);
+                }
+            }
+
+            public void tail(Node node, int depth) {
+            }
+        }).traverse(formElement);
+    }
+
+    /**
+     * @return the input & select elements, in document order
+     */
+    List<Element> getFields() {
+        return Collections.unmodifiableList(fields);
+    }
+
+    /**
+     * @return the input & select elements with the name, in document order
+     */
+    List<Element> getFields(String name) {
+        return elements(fieldsByName, name);
+    }
+
+    /**
+     * @return the fieldset elements with the name, in document order
+     */
+    List<Element> getFieldSets(String name) {
+        return elements(fieldSetsByName, name);
+    }
+
+    /**
+     * @return the text of the last label for the field that isn't an error, null if there isn't one
+     */
+    String getLabel(String name) {
+        return labels.get(key(name));
+    }
+
+    /**
+     * @return the text of the last label for the field with the error class, null if there isn't one
+     */
+    String getErrorMessage(String name) {
+        return errorMessages.get(key(name));
+    }
+
+
+    private void index(Element element) {
+        String tag = element.tagName();
+
+        if ("input".equals(tag) || "select".equals(tag)) {
+            fields.add(element);
+            if (element.hasAttr("name")) {
+                add(fieldsByName, element.attr("name"), element);
+            }
+        } else if ("fieldset".equals(tag)) {
+            if (element.hasAttr("name")) {
+                add(fieldSetsByName, element.attr("name"), element);
+            }
+        } else if ("label".equals(tag) && element.hasAttr("for")) {
+            String key = element.attr("for").toLowerCase(Locale.ENGLISH);
+            if (element.classNames().contains("error")) {
+                errorMessages.put(key, element.text());
+            } else {
+                labels.put(key, element.text());
+            }
+        }
+    }
+
+    private static List<Element> elements(Map<String, List<Element>> index, String name) {
+        List<Element> elements = index.get(key(name));
+        return elements == null ? Collections.<Element>emptyList() : Collections.unmodifiableList(elements);
+    }
+
+    //how jsoup's [attr=value] compares values
+    private static String key(String name) {
+        return String.valueOf(name).trim().toLowerCase(Locale.ENGLISH);
+    }
+
+    private static void add(Map<String, List<Element>> index, String name, Element element) {
+        String key = name.toLowerCase(Locale.ENGLISH);
+        List<Element> elements = index.get(key);
+        if (elements == null) {
+            elements = new ArrayList<Element>(1);
+            index.put(key, elements);
+        }
+        elements.add(element);
+    }
+}
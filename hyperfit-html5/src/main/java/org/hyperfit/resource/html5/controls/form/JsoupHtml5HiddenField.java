@@ -12,7 +12,11 @@ public class JsoupHtml5HiddenField extends JsoupHtml5Field implements HiddenFiel
     private final String value;
 
     public JsoupHtml5HiddenField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5HiddenField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
     }
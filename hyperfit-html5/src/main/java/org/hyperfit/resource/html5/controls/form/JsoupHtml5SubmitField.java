@@ -13,7 +13,11 @@ public class JsoupHtml5SubmitField extends JsoupHtml5Field implements SubmitFiel
     private final boolean includeOnSubmit;
 
     public JsoupHtml5SubmitField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5SubmitField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
 
@@ -12,7 +12,11 @@ public class JsoupHtml5TelephoneNumberField extends JsoupHtml5Field implements T
     private final String value;
 
     public JsoupHtml5TelephoneNumberField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5TelephoneNumberField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
     }
@@ -12,7 +12,11 @@ public class JsoupHtml5TextField extends JsoupHtml5Field implements TextField {
     private final String value;
 
     public JsoupHtml5TextField(Element inputElement, Element formElement){
-        super(inputElement, formElement);
+        this(inputElement, new JsoupHtml5FormIndex(formElement));
+    }
+
+    JsoupHtml5TextField(Element inputElement, JsoupHtml5FormIndex formIndex){
+        super(inputElement, formIndex);
 
         value = inputElement.attr("value");
     }
@@ -2,9 +2,11 @@ package org.hyperfit.content.html5;
 
 import org.hyperfit.content.ContentType;
 import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.net.BoringRequestBuilder;
 import org.hyperfit.net.Response;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.controls.link.HyperLink;
+import org.hyperfit.resource.html5.CompactHtml5Resource;
 import org.hyperfit.resource.html5.Html5Resource;
 import org.jsoup.Jsoup;
 import org.junit.Before;
@@ -13,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.io.IOException;
+import java.nio.charset.Charset;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -52,6 +55,42 @@ public class Html5ContentTypeHandlerTest {
         );
     }
 
+    @Test
+    public void testHandleHyperResponseBytes() throws IOException {
+        String validHtml = "<html><head></head><body><section class=\"data\"><span name=\"word\">caf\u00e9</span></section></body></html>";
+
+        Response response = Response.builder()
+            .addRequest(BoringRequestBuilder.get("http://host/page").build())
+            .addCode(200)
+            .addBody(validHtml.getBytes("ISO-8859-1"), Charset.forName("ISO-8859-1"))
+            .build();
+
+        HyperResource resource = html5ContentTypeHandler.parseResponse(response);
+        assertEquals("caf\u00e9", resource.getPathAs(String.class, "word"));
+    }
+
+    @Test
+    public void testHandleHyperResponseCompact() {
+        Html5ContentTypeHandler compactHandler = new Html5ContentTypeHandler(Html5ContentTypeHandler.ParseMode.COMPACT);
+
+        when(responseMock.getBody()).thenReturn("<html><body><div><a rel=\"self\" href=\"xxx\">me</a></div><section class=\"data\"><span name=\"state\">xxx</span></section></body></html>");
+
+        CompactHtml5Resource resource = (CompactHtml5Resource) compactHandler.parseResponse(responseMock);
+        assertEquals("xxx", resource.getLink("self").getHref());
+        assertEquals("xxx", resource.getPathAs(String.class, "state"));
+    }
+
+    @Test(expected = HyperfitException.class)
+    public void testHandleHyperResponseCompactNullBody() {
+        when(responseMock.getBody()).thenReturn(null);
+        new Html5ContentTypeHandler(Html5ContentTypeHandler.ParseMode.COMPACT).parseResponse(responseMock);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullParseMode() {
+        new Html5ContentTypeHandler(null);
+    }
+
     @Test(expected = HyperfitException.class)
     public void testHandleHyperResponseNullBody() {
         when(responseMock.getBody()).thenReturn(null);
@@ -0,0 +1,81 @@
+package org.hyperfit.resource.html5;
+
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+
+public class CompactHtml5ResourceTest {
+
+    private static final String PAGE = "<html>" +
+        "<head><title>page</title><link rel=\"profile\" href=\"http://example.com/profile\"><style>p {}</style></head>" +
+        "<body>" +
+        "<header><nav><ul><li><a rel=\"next\" href=\"http://example.com/2\">Next</a></li></ul></nav></header>" +
+        "<div class=\"layout\"><p>lots of <b>presentational</b> markup</p>" +
+        "<section class=\"data\"><span name=\"id\">1</span><div name=\"author\"><span name=\"name\">ann</span></div></section>" +
+        "</div>" +
+        "<form name=\"search\"><input type=\"text\" name=\"q\"><a rel=\"help\" href=\"http://example.com/help\">?</a></form>" +
+        "<footer><a rel=\"next\" href=\"http://example.com/2?again\">Next</a></footer>" +
+        "</body>" +
+        "</html>";
+
+
+    @Test
+    public void testOnlyHypermediaIsKept() {
+        Html5Resource resource = new CompactHtml5Resource(Jsoup.parse(PAGE));
+
+        String html = resource.getRawHtml();
+        assertThat(html, not(containsString("presentational")));
+        assertThat(html, not(containsString("<style>")));
+        assertThat(html, not(containsString("<nav>")));
+        assertThat(html, containsString("name=\"author\""));
+    }
+
+    @Test
+    public void testLinksAreInDocumentOrder() {
+        Html5Resource resource = new CompactHtml5Resource(Jsoup.parse(PAGE));
+
+        HyperLink[] links = resource.getLinks();
+        assertEquals(4, links.length);
+        assertEquals("http://example.com/profile", links[0].getHref());
+        assertEquals("http://example.com/2", links[1].getHref());
+        assertEquals("http://example.com/help", links[2].getHref());
+        assertEquals("http://example.com/2?again", links[3].getHref());
+
+        assertTrue(resource.isMultiLink("next"));
+        assertEquals("Next", resource.getLinks("next")[0].getTitle());
+    }
+
+    @Test
+    public void testDataAndFormsMatchTheFullDocument() {
+        Html5Resource full = new Html5Resource(Jsoup.parse(PAGE));
+        Html5Resource compact = new CompactHtml5Resource(Jsoup.parse(PAGE));
+
+        assertEquals(full.getPathAs(String.class, "author", "name"), compact.getPathAs(String.class, "author", "name"));
+        assertThat(compact.getDataFieldNames(), arrayContainingInAnyOrder(full.getDataFieldNames()));
+
+        assertEquals(full.getForm("search").getName(), compact.getForm("search").getName());
+        assertTrue(compact.getForm("search").hasField("q"));
+        assertEquals(full.getLink("help"), compact.getLink("help"));
+    }
+
+    @Test
+    public void testKeptElementsAreMovedOutOfTheOriginal() {
+        Document doc = Jsoup.parse(PAGE);
+
+        new CompactHtml5Resource(doc);
+
+        assertTrue(doc.select("a, link, form, section.data").isEmpty());
+        assertFalse(doc.select("p").isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullDocument() {
+        new CompactHtml5Resource((Document) null);
+    }
+
+}
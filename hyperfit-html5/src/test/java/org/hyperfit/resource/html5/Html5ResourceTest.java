@@ -16,8 +16,15 @@ import org.jsoup.parser.Tag;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.hamcrest.Matchers.*;
 import static test.Helpers.makeSet;
@@ -654,6 +661,100 @@ public class Html5ResourceTest {
     }
 
 
+    @Test
+    public void testGetPathAsNestedPath() {
+
+        Element dataSection = body.appendElement("section");
+        dataSection.addClass("data");
+
+        Element parent = dataSection.appendElement("div");
+        parent.attr("name", "parent");
+
+        //a step can be any descendant, and the first one in the document wins
+        Element wrapper = parent.appendElement("div");
+        wrapper.appendElement("span").attr("name", "child").text("first");
+        parent.appendElement("span").attr("name", "child").text("second");
+
+        dataSection.appendElement("span").attr("name", "child").text("outside");
+
+        Html5Resource resource = new Html5Resource(doc);
+
+        assertEquals("first", resource.getPathAs(String.class, "parent", "child"));
+        assertEquals("first", resource.getPathAs(String.class, "child"));
+        assertTrue(resource.hasPath("PARENT", " child "));
+        assertFalse(resource.hasPath("child", "parent"));
+    }
+
+
+    @Test
+    public void testGetLinksRelIgnoresCase() {
+        String href1 = "http://example.com/" + uniqueString();
+        String href2 = "http://example.com/" + uniqueString();
+
+        body.appendChild(makeAnchor("Next", href1));
+        head.appendChild(makeLink("next", href2));
+
+        Html5Resource resource = new Html5Resource(doc);
+
+        HyperLink[] links = resource.getLinks(" NEXT");
+        assertEquals(2, links.length);
+        //in document order, head before body
+        assertEquals(href2, links[0].getHref());
+        assertEquals(href1, links[1].getHref());
+    }
+
+
+    @Test
+    public void testGetFormsReturnsTheSameFormsAsGetForm() {
+        String formName = uniqueString();
+        body.appendChild(makeForm(formName));
+
+        Html5Resource resource = new Html5Resource(doc);
+
+        Form form = resource.getForm(formName);
+        assertSame(form, resource.getForms()[0]);
+        assertSame(form, resource.getForm(formName));
+    }
+
+
+    @Test
+    public void testConcurrentLookups() throws Exception {
+        final String rel = uniqueString();
+        for (int i = 0; i < 10; i++) {
+            body.appendChild(makeAnchor(rel, "http://example.com/" + i));
+        }
+        body.appendChild(makeForm("form"));
+
+        final Html5Resource resource = new Html5Resource(doc);
+
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Object[]>> results = new ArrayList<Future<Object[]>>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(new Callable<Object[]>() {
+                    public Object[] call() throws Exception {
+                        start.await();
+                        return new Object[]{resource.getLinks(rel), resource.getForm("form")};
+                    }
+                }));
+            }
+
+            start.countDown();
+
+            Object[] first = results.get(0).get();
+            assertEquals(10, ((HyperLink[]) first[0]).length);
+            for (Future<Object[]> result : results) {
+                Object[] actual = result.get();
+                assertSame(first[0], actual[0]);
+                assertSame(first[1], actual[1]);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
     @Test
     public void testCanResolveLinkLocal() {
 
@@ -360,6 +360,54 @@ public class JsoupHtml5FormTest {
     }
 
 
+    @Test
+    public void testGetFieldsLabelsAndErrors(){
+        Element formElement = Jsoup.parse(
+            "<form>" +
+            "<fieldset><label for=\"first\">First</label><input type=\"text\" name=\"first\"></fieldset>" +
+            "<input type=\"text\" name=\"second\">" +
+            "<label for=\"second\">Second</label>" +
+            "<label for=\"SECOND\" class=\"error\">Second is required</label>" +
+            "<input type=\"text\" name=\"third\">" +
+            "</form>"
+        ).select("form").get(0);
+
+        JsoupHtml5Form subject = new JsoupHtml5Form(formElement);
+
+        Field[] fields = subject.getFields();
+        assertEquals(3, fields.length);
+
+        assertEquals("First", fields[0].getLabel());
+        assertFalse(fields[0].hasError());
+
+        assertEquals("Second", fields[1].getLabel());
+        assertEquals("Second is required", fields[1].getErrorMessage());
+
+        assertNull(fields[2].getLabel());
+        assertFalse(fields[2].hasError());
+
+        assertSame(fields[1], subject.getField("second"));
+    }
+
+
+    @Test
+    public void testGetFieldWithSelectorCharactersInName(){
+        Element formElement = Jsoup.parse(
+            "<form>" +
+            "<label for=\"items[0].qty\">Quantity</label>" +
+            "<input type=\"text\" name=\"items[0].qty\" value=\"2\">" +
+            "</form>"
+        ).select("form").get(0);
+
+        JsoupHtml5Form subject = new JsoupHtml5Form(formElement);
+
+        assertTrue(subject.hasField("items[0].qty"));
+        TextField field = (TextField) subject.getField("items[0].qty");
+        assertEquals("2", field.getValue());
+        assertEquals("Quantity", field.getLabel());
+    }
+
+
     @Test
     public void testToRequestBuilder(){
         Element formElement = Jsoup.parse(
@@ -0,0 +1,128 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.resource.HyperResource;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Invokes java8 default methods like {@link Java8DefaultMethodHandler} does, but works out the {@link MethodHandle}
+ * for each default method of each resource class only once.  After that invoking a default method is just an
+ * invokeExact of the cached handle with the resource as the receiver.
+ *
+ * On java 9 and newer the handles are looked up with MethodHandles.privateLookupIn, on java 8 with the private
+ * Lookup constructor.  This class requires java 8 runtime.
+ */
+public class CachingJava8DefaultMethodHandler implements org.hyperfit.handlers.Java8DefaultMethodHandler {
+
+    private static final Object[] NO_ARGS = new Object[0];
+
+    //all the handles are adapted to this type so they can be called with invokeExact
+    private static final MethodType INVOKER_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    private static final LookupFactory LOOKUP_FACTORY = lookupFactory();
+
+    private final ClassValue<ConcurrentMap<Method, MethodHandle>> invokers = new ClassValue<ConcurrentMap<Method, MethodHandle>>() {
+        @Override
+        protected ConcurrentMap<Method, MethodHandle> computeValue(Class<?> resourceClass) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+
+    @Override
+    public Object invoke(
+        final DefaultMethodContext context,
+        final Object[] args
+    ) {
+        HyperResource hyperResource = context.getHyperResource();
+        Method method = context.getMethod();
+
+        ConcurrentMap<Method, MethodHandle> resourceInvokers = invokers.get(hyperResource.getClass());
+        MethodHandle invoker = resourceInvokers.get(method);
+        if (invoker == null) {
+            //racing threads may both resolve it, they resolve the same thing so whichever wins is fine
+            invoker = resolve(context);
+            resourceInvokers.putIfAbsent(method, invoker);
+        }
+
+        Object[] arguments = args == null ? NO_ARGS : args;
+
+        try {
+            //the casts are what make the call site match the invoker's type exactly
+            return (Object) invoker.invokeExact((Object) hyperResource, arguments);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Exception e) {
+            throw new HyperfitException("Default method " + method + " threw a checked exception", e);
+        } catch (Throwable t) {
+            //a Throwable that's neither an Exception nor an Error, which is never supposed to happen
+            throw new RuntimeException(t);
+        }
+    }
+
+    /**
+     * Finds the interface of the resource that has the default method and makes an invoker for it that
+     * doesn't check for overrides, since the resource's implementation of the method is what got us here.
+     */
+    private static MethodHandle resolve(DefaultMethodContext context) {
+        Method method = context.getMethod();
+        Class<?> resourceClass = context.getHyperResource().getClass();
+
+        for (Class<?> candidate : context.getInterfaces()) {
+            if (candidate.isAssignableFrom(resourceClass) && method.getDeclaringClass().isAssignableFrom(candidate)) {
+                try {
+                    return LOOKUP_FACTORY.lookupIn(candidate)
+                        .unreflectSpecial(method, candidate)
+                        .asSpreader(Object[].class, method.getParameterCount())
+                        .asType(INVOKER_TYPE);
+                } catch (ReflectiveOperationException e) {
+                    throw new HyperfitException("Default method " + method + " of " + candidate + " cannot be accessed", e);
+                }
+            }
+        }
+
+        throw new HyperfitException(
+            "No interface in " + Arrays.toString(context.getInterfaces()) + " has default method " + method.toString()
+        );
+    }
+
+
+    /**
+     * Makes lookups with private access to the interfaces, which is what's needed to call their default methods
+     */
+    private interface LookupFactory {
+        MethodHandles.Lookup lookupIn(Class<?> interfaceClass) throws ReflectiveOperationException;
+    }
+
+    private static LookupFactory lookupFactory() {
+        //java 9+ has a supported way of doing this, it's found reflectively since we compile against java 8
+        try {
+            final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+            return interfaceClass -> (MethodHandles.Lookup) privateLookupIn.invoke(null, interfaceClass, lookup);
+        } catch (NoSuchMethodException e) {
+            //this must be java 8
+        }
+
+        try {
+            final Constructor<MethodHandles.Lookup> lookupConstructor = MethodHandles.Lookup.class.getDeclaredConstructor(
+                Class.class,
+                int.class
+            );
+            lookupConstructor.setAccessible(true);
+
+            return interfaceClass -> lookupConstructor.newInstance(interfaceClass, MethodHandles.Lookup.PRIVATE);
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.methodinfo.ConcurrentHashMapMethodInfoCache;
+import org.hyperfit.methodinfo.MethodInfoCache;
+import org.hyperfit.methodinfo.ResourceMethodInfoCache;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A ResourceMethodInfoCache that keeps each class's method cache in a {@link ClassValue}, so the method caches are
+ * held by the classes themselves and go away with them when their class loader is unloaded.  Unlike
+ * {@link org.hyperfit.methodinfo.WeakResourceMethodInfoCache} the method caches are never collected while their
+ * class is in use, and nothing needs to be bounded since there is nothing beyond the classes to hold on to.
+ *
+ * This class requires java 8 runtime.
+ */
+public class ClassValueResourceMethodInfoCache implements ResourceMethodInfoCache {
+
+    //the reference is what lets put replace a class's cache, ClassValue has no way to set a value
+    private final ClassValue<AtomicReference<MethodInfoCache>> methodInfoCaches = new ClassValue<AtomicReference<MethodInfoCache>>() {
+        @Override
+        protected AtomicReference<MethodInfoCache> computeValue(Class<?> clazz) {
+            return new AtomicReference<MethodInfoCache>(new ConcurrentHashMapMethodInfoCache());
+        }
+    };
+
+
+    @Override
+    public MethodInfoCache get(Class<?> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("class must not be null");
+        }
+
+        return methodInfoCaches.get(clazz).get();
+    }
+
+    /**
+     * @return the previous value associated to clazz, which is the cache get would have returned if there wasn't one
+     */
+    @Override
+    public MethodInfoCache put(Class<?> clazz, MethodInfoCache methodInfoCache) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("class must not be null");
+        }
+
+        if (methodInfoCache == null) {
+            throw new IllegalArgumentException("methodInfoCache must not be null");
+        }
+
+        return methodInfoCaches.get(clazz).getAndSet(methodInfoCache);
+    }
+}
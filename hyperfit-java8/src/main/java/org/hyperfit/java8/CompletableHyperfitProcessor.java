@@ -0,0 +1,88 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Callback;
+import org.hyperfit.net.RequestBuilder;
+import org.hyperfit.utils.StringUtils;
+import org.hyperfit.utils.TypeRef;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Exposes the asynchronous request processing of a {@link HyperfitProcessor} as {@link CompletionStage}s.
+ * This class requires java 8 runtime.
+ */
+public class CompletableHyperfitProcessor {
+
+    private final HyperfitProcessor processor;
+
+    public CompletableHyperfitProcessor(HyperfitProcessor processor) {
+        if (processor == null) {
+            throw new IllegalArgumentException("processor can not be null");
+        }
+
+        this.processor = processor;
+    }
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread.</p>
+     *
+     * @param classToReturn  the class that the resource should be returned as
+     * @param entryPointURL a url to an entry point of the RESTful service
+     * @return a stage completed with the resource, or exceptionally if it could not be obtained
+     */
+    public <T> CompletionStage<T> processRequestAsync(Class<T> classToReturn, String entryPointURL) {
+        if (StringUtils.isEmpty(entryPointURL)) {
+            throw new IllegalArgumentException("entryPointURL can not be null or empty");
+        }
+        return processRequestAsync(classToReturn, BoringRequestBuilder.get(entryPointURL));
+    }
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread.</p>
+     *
+     * @param classToReturn  the class that the resource should be returned as
+     * @param requestBuilder request object
+     * @return a stage completed with the resource, or exceptionally if it could not be obtained
+     */
+    public <T> CompletionStage<T> processRequestAsync(Class<T> classToReturn, RequestBuilder requestBuilder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        processor.processRequestAsync(classToReturn, requestBuilder, completing(future));
+        return future;
+    }
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread
+     * using super type tokens so a generic can be returned.</p>
+     *
+     * @param typeToReturn a super type token
+     * @param requestBuilder request object
+     * @return a stage completed with the resource, or exceptionally if it could not be obtained
+     */
+    public <T> CompletionStage<T> processRequestAsync(TypeRef<T> typeToReturn, RequestBuilder requestBuilder) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        processor.processRequestAsync(typeToReturn, requestBuilder, completing(future));
+        return future;
+    }
+
+    public HyperfitProcessor getProcessor() {
+        return processor;
+    }
+
+    private static <T> Callback<T> completing(CompletableFuture<T> future) {
+        return new Callback<T>() {
+            @Override
+            public void onSuccess(T result) {
+                future.complete(result);
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                future.completeExceptionally(e);
+            }
+        };
+    }
+
+}
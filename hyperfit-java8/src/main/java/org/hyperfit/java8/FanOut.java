@@ -0,0 +1,207 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.exception.HyperfitException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.function.Supplier;
+
+/**
+ * Follows several links of a resource at once and joins the results, in the style of structured concurrency.
+ *
+ * <pre>
+ * try (FanOut fanOut = new FanOut(executor)) {
+ *     Supplier&lt;Author&gt; author = fanOut.fork(book::getAuthor);
+ *     Supplier&lt;Reviews&gt; reviews = fanOut.fork(book::getReviews);
+ *
+ *     fanOut.join();
+ *
+ *     show(author.get(), reviews.get());
+ * }
+ * </pre>
+ *
+ * <p>The forks run on the executor, which works best as a {@link VirtualThreads#newExecutor()} so each blocking
+ * request gets its own virtual thread.  When a fork fails the others are cancelled & interrupted and
+ * {@link #join()} throws what it failed with.  Closing the fan out cancels any forks still running, so none
+ * outlive the try block that started them.</p>
+ *
+ * <p>Forking & joining is meant to be done by the thread that created the fan out.
+ * This class requires java 8 runtime.</p>
+ */
+public final class FanOut implements AutoCloseable {
+
+    private final Executor executor;
+    private final List<Fork<?>> forks = new ArrayList<>();
+
+    private final Object lock = new Object();
+    //guarded by lock
+    private int unfinished;
+    private Throwable failure;
+
+    private boolean joined;
+    private boolean closed;
+
+    /**
+     * @param executor what the forks are run on
+     */
+    public FanOut(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("executor can not be null");
+        }
+
+        this.executor = executor;
+    }
+
+    /**
+     * Starts running a task on the executor
+     *
+     * @param task usually a call of a resource method that follows a link
+     * @return the result of the task, which can be gotten once {@link #join()} returns
+     */
+    public <T> Supplier<T> fork(Callable<? extends T> task) {
+        if (task == null) {
+            throw new IllegalArgumentException("task can not be null");
+        }
+
+        if (joined || closed) {
+            throw new IllegalStateException("tasks can not be forked once the fan out is joined or closed");
+        }
+
+        Fork<T> fork = new Fork<>(task);
+
+        synchronized (lock) {
+            unfinished++;
+        }
+        forks.add(fork);
+
+        try {
+            executor.execute(fork);
+        } catch (RuntimeException e) {
+            //counted as finished by the fork's done
+            fork.cancel(false);
+            cancelAll();
+            throw e;
+        }
+
+        return fork;
+    }
+
+    /**
+     * Waits for all of the forks to finish, or for one of them to fail
+     *
+     * @throws RuntimeException the exception the first failed fork threw, or a HyperfitException wrapping it if it
+     * was checked
+     */
+    public void join() {
+        joined = true;
+
+        Throwable t;
+        synchronized (lock) {
+            while (unfinished > 0 && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    cancelAll();
+                    Thread.currentThread().interrupt();
+                    throw new HyperfitException("Interrupted while waiting for forked tasks to complete", e);
+                }
+            }
+            t = failure;
+        }
+
+        if (t == null) {
+            return;
+        }
+
+        cancelAll();
+
+        if (t instanceof RuntimeException) {
+            throw (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        throw new HyperfitException("Error occurred in a forked task", (Exception) t);
+    }
+
+    /**
+     * Cancels any forks that are still running
+     */
+    public void close() {
+        closed = true;
+        cancelAll();
+    }
+
+
+    private void cancelAll() {
+        for (Fork<?> fork : forks) {
+            fork.cancel(true);
+        }
+    }
+
+    private void finished(Throwable t) {
+        synchronized (lock) {
+            unfinished--;
+            //only the first failure is thrown, the rest are most likely because of it
+            if (t != null && failure == null) {
+                failure = t;
+            }
+            lock.notifyAll();
+        }
+    }
+
+
+    private final class Fork<T> extends FutureTask<T> implements Supplier<T> {
+
+        private Fork(Callable<? extends T> task) {
+            super(task::call);
+        }
+
+        @Override
+        protected void done() {
+            Throwable t = null;
+            if (!isCancelled()) {
+                try {
+                    super.get();
+                } catch (ExecutionException e) {
+                    t = e.getCause();
+                } catch (InterruptedException e) {
+                    //can't happen, the task is done
+                    Thread.currentThread().interrupt();
+                }
+            }
+            finished(t);
+        }
+
+        @Override
+        public T get() {
+            if (!isDone()) {
+                throw new IllegalStateException("the fan out must be joined before getting the result of a fork");
+            }
+
+            try {
+                return super.get();
+            } catch (CancellationException e) {
+                throw new IllegalStateException("the fork was cancelled", e);
+            } catch (InterruptedException e) {
+                //can't happen, the task is done
+                Thread.currentThread().interrupt();
+                throw new HyperfitException("Interrupted while getting the result of a fork", e);
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw new HyperfitException("Error occurred in a forked task", (Exception) cause);
+            }
+        }
+    }
+}
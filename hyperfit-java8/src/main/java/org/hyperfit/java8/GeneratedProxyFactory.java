@@ -0,0 +1,513 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.proxy.DispatchingInvocationHandler;
+import org.hyperfit.proxy.JdkProxyFactory;
+import org.hyperfit.proxy.MethodDispatcher;
+import org.hyperfit.proxy.ProxyFactory;
+import org.objectweb.asm.ClassWriter;
+import org.objectweb.asm.MethodVisitor;
+import org.objectweb.asm.Opcodes;
+import org.objectweb.asm.Type;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A ProxyFactory that generates a concrete class for each set of resource interfaces, with a method for each of
+ * their methods that calls a {@link MethodDispatcher} bound to it.  When the handler is a
+ * {@link DispatchingInvocationHandler}, like the handler HyperfitProcessor uses, the dispatchers come from it and
+ * are worked out once per proxy class, so a call on a proxy doesn't go through {@link InvocationHandler#invoke}.
+ * Other handlers are called the same way a {@link java.lang.reflect.Proxy} calls them.
+ *
+ * The classes are defined in their own class loader, a child of the loader given for the proxy, and are only held
+ * by their interfaces so they go away with them.  Interfaces that aren't public can't be implemented from another
+ * class loader, proxies for them are made with {@link JdkProxyFactory} instead.
+ *
+ * This class requires java 8 runtime.
+ */
+public class GeneratedProxyFactory implements ProxyFactory {
+
+    private static final String HANDLER_FIELD = "handler";
+    private static final String DISPATCHERS_FIELD = "dispatchers";
+
+    private static final String HANDLER_DESCRIPTOR = Type.getDescriptor(InvocationHandler.class);
+    private static final String DISPATCHERS_DESCRIPTOR = Type.getDescriptor(MethodDispatcher[].class);
+    private static final String DISPATCHER_NAME = Type.getInternalName(MethodDispatcher.class);
+    private static final String DISPATCH_DESCRIPTOR = Type.getMethodDescriptor(
+        Type.getType(Object.class),
+        Type.getType(InvocationHandler.class),
+        Type.getType(Object.class),
+        Type.getType(Object[].class)
+    );
+
+    //every proxy class's constructor is adapted to this type so it can be called with invokeExact
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, InvocationHandler.class, MethodDispatcher[].class);
+    private static final MethodType HANDLER_GETTER_TYPE = MethodType.methodType(InvocationHandler.class, Object.class);
+
+    private static final Method[] OBJECT_METHODS;
+
+    static {
+        try {
+            //proxies pass these to their handler too, the same as a java.lang.reflect.Proxy does
+            OBJECT_METHODS = new Method[]{
+                Object.class.getMethod("hashCode"),
+                Object.class.getMethod("equals", Object.class),
+                Object.class.getMethod("toString")
+            };
+        } catch (NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static final AtomicInteger CLASS_NUMBER = new AtomicInteger();
+
+    private final JdkProxyFactory jdkProxyFactory = new JdkProxyFactory();
+
+    //by first interface then by class loader & all of the interfaces
+    private final ClassValue<ConcurrentMap<List<Object>, ProxyClass>> proxyClasses = new ClassValue<ConcurrentMap<List<Object>, ProxyClass>>() {
+        @Override
+        protected ConcurrentMap<List<Object>, ProxyClass> computeValue(Class<?> firstInterface) {
+            return new ConcurrentHashMap<>(2);
+        }
+    };
+
+    //how to get the handler of a proxy made by this factory, null for any other class
+    private final ClassValue<MethodHandle> handlerGetters = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            return handlerGetter(type);
+        }
+    };
+
+
+    @Override
+    public Object createProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler handler) {
+        if (handler == null) {
+            throw new NullPointerException("handler can not be null");
+        }
+
+        if (interfaces.length == 0) {
+            return jdkProxyFactory.createProxy(classLoader, interfaces, handler);
+        }
+
+        List<Object> key = new ArrayList<>(interfaces.length + 1);
+        key.add(classLoader);
+        key.addAll(Arrays.asList(interfaces));
+
+        ConcurrentMap<List<Object>, ProxyClass> byInterfaces = proxyClasses.get(interfaces[0]);
+        ProxyClass proxyClass = byInterfaces.get(key);
+        if (proxyClass == null) {
+            proxyClass = byInterfaces.computeIfAbsent(key, k -> ProxyClass.generate(this, classLoader, interfaces.clone()));
+        }
+
+        if (proxyClass == ProxyClass.NOT_GENERATED) {
+            return jdkProxyFactory.createProxy(classLoader, interfaces, handler);
+        }
+
+        return proxyClass.newInstance(handler);
+    }
+
+    @Override
+    public InvocationHandler getInvocationHandler(Object proxy) {
+        if (proxy == null) {
+            return null;
+        }
+
+        if (Proxy.isProxyClass(proxy.getClass())) {
+            return jdkProxyFactory.getInvocationHandler(proxy);
+        }
+
+        MethodHandle getter = handlerGetters.get(proxy.getClass());
+        if (getter == null) {
+            return null;
+        }
+
+        try {
+            return (InvocationHandler) getter.invokeExact(proxy);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            //reading a field never throws anything else
+            throw new RuntimeException(t);
+        }
+    }
+
+
+    private MethodHandle handlerGetter(Class<?> type) {
+        ClassLoader loader = type.getClassLoader();
+        if (!(loader instanceof ProxyClassLoader) || ((ProxyClassLoader) loader).factory != this) {
+            return null;
+        }
+
+        try {
+            Field field = type.getDeclaredField(HANDLER_FIELD);
+            field.setAccessible(true);
+            return MethodHandles.lookup().unreflectGetter(field).asType(HANDLER_GETTER_TYPE);
+        } catch (ReflectiveOperationException e) {
+            throw new HyperfitException("Could not get the handler field of " + type, e);
+        }
+    }
+
+
+    /**
+     * A generated class and the dispatchers bound to its methods for each class of handler it's been given
+     */
+    private static final class ProxyClass {
+
+        //for interfaces that get a jdk proxy instead
+        static final ProxyClass NOT_GENERATED = new ProxyClass(null, null);
+
+        private final Method[] methods;
+        private final MethodHandle constructor;
+        private final ConcurrentMap<Class<?>, MethodDispatcher[]> dispatchers = new ConcurrentHashMap<>(2);
+
+        private ProxyClass(Method[] methods, MethodHandle constructor) {
+            this.methods = methods;
+            this.constructor = constructor;
+        }
+
+        /**
+         * @return the class for the interfaces, NOT_GENERATED if a class can't be generated for them
+         */
+        static ProxyClass generate(GeneratedProxyFactory factory, ClassLoader classLoader, Class<?>[] interfaces) {
+            for (Class<?> iface : interfaces) {
+                if (!iface.isInterface() || !Modifier.isPublic(iface.getModifiers()) || !isVisible(iface, classLoader)) {
+                    return NOT_GENERATED;
+                }
+            }
+
+            Method[] methods = proxiedMethods(interfaces);
+            if (methods == null) {
+                return NOT_GENERATED;
+            }
+
+            //classes can't be defined in the java packages, anywhere else is fine since the interfaces are public
+            String packagePrefix = interfaces[0].getName().startsWith("java.") ? GeneratedProxyFactory.class.getName() : interfaces[0].getName();
+            String className = packagePrefix + "$HyperfitProxy" + CLASS_NUMBER.incrementAndGet();
+            ProxyClassLoader loader = new ProxyClassLoader(classLoader, factory);
+            Class<?> type = loader.define(className, generateClass(className, interfaces, methods));
+
+            try {
+                MethodHandle constructor = MethodHandles.publicLookup()
+                    .findConstructor(type, MethodType.methodType(void.class, InvocationHandler.class, MethodDispatcher[].class))
+                    .asType(CONSTRUCTOR_TYPE);
+
+                return new ProxyClass(methods, constructor);
+            } catch (ReflectiveOperationException e) {
+                throw new HyperfitException("Could not find the constructor of generated proxy class " + type, e);
+            }
+        }
+
+        Object newInstance(InvocationHandler handler) {
+            MethodDispatcher[] bound = dispatchers.get(handler.getClass());
+            if (bound == null) {
+                //racing threads may both bind them, they bind the same thing so whichever wins is fine
+                bound = bind(handler);
+                MethodDispatcher[] existing = dispatchers.putIfAbsent(handler.getClass(), bound);
+                if (existing != null) {
+                    bound = existing;
+                }
+            }
+
+            try {
+                return (Object) constructor.invokeExact(handler, bound);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                //the generated constructors never throw anything else
+                throw new RuntimeException(t);
+            }
+        }
+
+        private MethodDispatcher[] bind(InvocationHandler handler) {
+            MethodDispatcher[] bound = new MethodDispatcher[methods.length];
+
+            for (int i = 0; i < methods.length; i++) {
+                bound[i] = handler instanceof DispatchingInvocationHandler ?
+                    ((DispatchingInvocationHandler) handler).dispatcherFor(methods[i])
+                    :
+                    new InvokingDispatcher(methods[i]);
+            }
+
+            return bound;
+        }
+
+        private static boolean isVisible(Class<?> iface, ClassLoader classLoader) {
+            try {
+                return Class.forName(iface.getName(), false, classLoader) == iface;
+            } catch (ClassNotFoundException e) {
+                return false;
+            }
+        }
+
+        /**
+         * @return Object's methods followed by the instance methods of the interfaces, the first of each signature,
+         * or null if methods with the same signature have different return types
+         */
+        private static Method[] proxiedMethods(Class<?>[] interfaces) {
+            Map<String, Method> bySignature = new LinkedHashMap<>();
+            for (Method method : OBJECT_METHODS) {
+                bySignature.put(signature(method), method);
+            }
+
+            for (Class<?> iface : interfaces) {
+                for (Method method : iface.getMethods()) {
+                    if (Modifier.isStatic(method.getModifiers())) {
+                        continue;
+                    }
+
+                    Method existing = bySignature.putIfAbsent(signature(method), method);
+                    if (existing != null && existing.getDeclaringClass() != Object.class && existing.getReturnType() != method.getReturnType()) {
+                        return null;
+                    }
+                }
+            }
+
+            return bySignature.values().toArray(new Method[bySignature.size()]);
+        }
+
+        private static String signature(Method method) {
+            return method.getName() + Type.getMethodDescriptor(Type.VOID_TYPE, Type.getArgumentTypes(method));
+        }
+    }
+
+
+    /**
+     * Writes a class with a constructor taking the handler & the dispatchers, and a method for each of the methods
+     * that calls its dispatcher with the handler, the proxy & the arguments.
+     */
+    private static byte[] generateClass(String className, Class<?>[] interfaces, Method[] methods) {
+        String internalName = className.replace('.', '/');
+        String[] interfaceNames = new String[interfaces.length];
+        for (int i = 0; i < interfaces.length; i++) {
+            interfaceNames[i] = Type.getInternalName(interfaces[i]);
+        }
+
+        ClassWriter writer = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        writer.visit(
+            Opcodes.V1_8,
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL | Opcodes.ACC_SUPER | Opcodes.ACC_SYNTHETIC,
+            internalName,
+            null,
+            Type.getInternalName(Object.class),
+            interfaceNames
+        );
+
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, HANDLER_FIELD, HANDLER_DESCRIPTOR, null, null).visitEnd();
+        writer.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_FINAL, DISPATCHERS_FIELD, DISPATCHERS_DESCRIPTOR, null, null).visitEnd();
+
+        MethodVisitor constructor = writer.visitMethod(
+            Opcodes.ACC_PUBLIC,
+            "<init>",
+            Type.getMethodDescriptor(Type.VOID_TYPE, Type.getType(InvocationHandler.class), Type.getType(MethodDispatcher[].class)),
+            null,
+            null
+        );
+        constructor.visitCode();
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitMethodInsn(Opcodes.INVOKESPECIAL, Type.getInternalName(Object.class), "<init>", "()V", false);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 1);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, internalName, HANDLER_FIELD, HANDLER_DESCRIPTOR);
+        constructor.visitVarInsn(Opcodes.ALOAD, 0);
+        constructor.visitVarInsn(Opcodes.ALOAD, 2);
+        constructor.visitFieldInsn(Opcodes.PUTFIELD, internalName, DISPATCHERS_FIELD, DISPATCHERS_DESCRIPTOR);
+        constructor.visitInsn(Opcodes.RETURN);
+        constructor.visitMaxs(0, 0);
+        constructor.visitEnd();
+
+        for (int i = 0; i < methods.length; i++) {
+            generateMethod(writer, internalName, methods[i], i);
+        }
+
+        writer.visitEnd();
+        return writer.toByteArray();
+    }
+
+    //this.dispatchers[index].dispatch(this.handler, this, args) with the arguments boxed & the result unboxed
+    private static void generateMethod(ClassWriter writer, String internalName, Method method, int index) {
+        Class<?>[] exceptionTypes = method.getExceptionTypes();
+        String[] exceptions = new String[exceptionTypes.length];
+        for (int i = 0; i < exceptionTypes.length; i++) {
+            exceptions[i] = Type.getInternalName(exceptionTypes[i]);
+        }
+
+        MethodVisitor mv = writer.visitMethod(
+            Opcodes.ACC_PUBLIC | Opcodes.ACC_FINAL,
+            method.getName(),
+            Type.getMethodDescriptor(method),
+            null,
+            exceptions
+        );
+        mv.visitCode();
+
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, DISPATCHERS_FIELD, DISPATCHERS_DESCRIPTOR);
+        mv.visitLdcInsn(index);
+        mv.visitInsn(Opcodes.AALOAD);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+        mv.visitFieldInsn(Opcodes.GETFIELD, internalName, HANDLER_FIELD, HANDLER_DESCRIPTOR);
+        mv.visitVarInsn(Opcodes.ALOAD, 0);
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        if (parameterTypes.length == 0) {
+            //like a java.lang.reflect.Proxy, methods without parameters are given null arguments
+            mv.visitInsn(Opcodes.ACONST_NULL);
+        } else {
+            mv.visitLdcInsn(parameterTypes.length);
+            mv.visitTypeInsn(Opcodes.ANEWARRAY, Type.getInternalName(Object.class));
+
+            int slot = 1;
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Type type = Type.getType(parameterTypes[i]);
+                mv.visitInsn(Opcodes.DUP);
+                mv.visitLdcInsn(i);
+                mv.visitVarInsn(type.getOpcode(Opcodes.ILOAD), slot);
+                box(mv, parameterTypes[i]);
+                mv.visitInsn(Opcodes.AASTORE);
+                slot += type.getSize();
+            }
+        }
+
+        mv.visitMethodInsn(Opcodes.INVOKEINTERFACE, DISPATCHER_NAME, "dispatch", DISPATCH_DESCRIPTOR, true);
+
+        Class<?> returnType = method.getReturnType();
+        if (returnType == void.class) {
+            mv.visitInsn(Opcodes.POP);
+            mv.visitInsn(Opcodes.RETURN);
+        } else {
+            unbox(mv, returnType);
+            mv.visitInsn(Type.getType(returnType).getOpcode(Opcodes.IRETURN));
+        }
+
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private static void box(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            return;
+        }
+
+        Type wrapper = Type.getType(wrapperOf(type));
+        mv.visitMethodInsn(
+            Opcodes.INVOKESTATIC,
+            wrapper.getInternalName(),
+            "valueOf",
+            Type.getMethodDescriptor(wrapper, Type.getType(type)),
+            false
+        );
+    }
+
+    //a null for a primitive return type is a NullPointerException, the same as with a java.lang.reflect.Proxy
+    private static void unbox(MethodVisitor mv, Class<?> type) {
+        if (!type.isPrimitive()) {
+            mv.visitTypeInsn(Opcodes.CHECKCAST, Type.getInternalName(type));
+            return;
+        }
+
+        Type wrapper = Type.getType(wrapperOf(type));
+        mv.visitTypeInsn(Opcodes.CHECKCAST, wrapper.getInternalName());
+        mv.visitMethodInsn(
+            Opcodes.INVOKEVIRTUAL,
+            wrapper.getInternalName(),
+            type.getName() + "Value",
+            Type.getMethodDescriptor(Type.getType(type)),
+            false
+        );
+    }
+
+    private static Class<?> wrapperOf(Class<?> primitive) {
+        if (primitive == boolean.class) {
+            return Boolean.class;
+        } else if (primitive == byte.class) {
+            return Byte.class;
+        } else if (primitive == char.class) {
+            return Character.class;
+        } else if (primitive == short.class) {
+            return Short.class;
+        } else if (primitive == int.class) {
+            return Integer.class;
+        } else if (primitive == long.class) {
+            return Long.class;
+        } else if (primitive == float.class) {
+            return Float.class;
+        } else {
+            return Double.class;
+        }
+    }
+
+
+    /**
+     * Passes calls on to {@link InvocationHandler#invoke}, for handlers that can't give dispatchers
+     */
+    private static final class InvokingDispatcher implements MethodDispatcher {
+
+        private final Method method;
+
+        InvokingDispatcher(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        public Object dispatch(InvocationHandler handler, Object proxy, Object[] args) throws Throwable {
+            try {
+                return handler.invoke(proxy, method, args);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                //checked exceptions the method doesn't declare are wrapped, the same as a java.lang.reflect.Proxy does
+                for (Class<?> declared : method.getExceptionTypes()) {
+                    if (declared.isInstance(t)) {
+                        throw t;
+                    }
+                }
+                throw new UndeclaredThrowableException(t);
+            }
+        }
+    }
+
+
+    /**
+     * Defines the generated classes, each has a loader of its own so it can be unloaded with its interfaces
+     */
+    private static final class ProxyClassLoader extends ClassLoader {
+
+        private final GeneratedProxyFactory factory;
+
+        ProxyClassLoader(ClassLoader parent, GeneratedProxyFactory factory) {
+            super(parent);
+            this.factory = factory;
+        }
+
+        Class<?> define(String name, byte[] bytes) {
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+
+        @Override
+        protected Class<?> findClass(String name) throws ClassNotFoundException {
+            //the parent sees the interfaces, it might not see hyperfit's own types if they were loaded elsewhere
+            if (MethodDispatcher.class.getName().equals(name)) {
+                return MethodDispatcher.class;
+            }
+
+            return super.findClass(name);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.PageIterator;
+import org.hyperfit.resource.HyperResource;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Exposes what a {@link HyperfitProcessor} iterates as {@link Stream}s.
+ * This class requires java 8 runtime.
+ */
+public final class HyperfitStreams {
+
+    private HyperfitStreams() {
+    }
+
+    /**
+     * <p>Walks a paged collection starting at an entry point, streaming the items of each page in turn.</p>
+     *
+     * <p>The pages are fetched as the stream is consumed, the same way {@link PageIterator} fetches them.  Closing
+     * the stream closes the iterator, so a stream that isn't consumed to the end should be closed.</p>
+     *
+     * @param processor makes the requests
+     * @param itemClass the class that each item should be returned as
+     * @param entryPointURL a url to the first page
+     * @param nextRel the relationship of the link from each page to the next
+     * @param itemsRel the relationship of the items of each page, which can be embedded or linked
+     * @return a sequential stream of the items
+     */
+    public static <T extends HyperResource> Stream<T> paginate(
+        HyperfitProcessor processor,
+        Class<T> itemClass,
+        String entryPointURL,
+        String nextRel,
+        String itemsRel
+    ) {
+        if (processor == null) {
+            throw new IllegalArgumentException("processor can not be null");
+        }
+
+        return stream(processor.paginate(itemClass, entryPointURL, nextRel, itemsRel));
+    }
+
+    /**
+     * @param pages an iterator over the items of a paged collection
+     * @return a sequential stream of the items that closes the iterator when it's closed
+     */
+    public static <T extends HyperResource> Stream<T> stream(PageIterator<T> pages) {
+        if (pages == null) {
+            throw new IllegalArgumentException("pages can not be null");
+        }
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(pages, Spliterator.ORDERED | Spliterator.NONNULL),
+            false
+        ).onClose(pages::close);
+    }
+}
@@ -0,0 +1,84 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the work of a {@link HyperfitProcessor} on virtual threads when the runtime has them (java 21 and newer).
+ *
+ * <p>Giving the processor builder {@link #newExecutor()} as its executor means asynchronous requests to blocking
+ * HyperClients, parallel link requests, prefetches & page fetches each get a virtual thread, so they can block in
+ * {@link org.hyperfit.net.HyperClient#execute} as much as they like without tying up platform threads.  Since each
+ * request gets its own thread, {@link HyperfitProcessor.Builder#maxParallelRequests(int)} can be raised to however
+ * many requests the service being called can take.</p>
+ *
+ * <p>The virtual thread executor is found reflectively, since this module is compiled against java 8.
+ * This class requires java 8 runtime.</p>
+ */
+public final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = findFactory();
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * @return true when the runtime can run tasks on virtual threads
+     */
+    public static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * @return a new executor that starts a virtual thread for each task, it should be shut down once the processor
+     * it was given to is no longer used
+     * @throws UnsupportedOperationException when the runtime doesn't have virtual threads
+     */
+    public static ExecutorService newExecutor() {
+        if (NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR == null) {
+            throw new UnsupportedOperationException(
+                "virtual threads are not available in java " + System.getProperty("java.specification.version")
+            );
+        }
+
+        try {
+            return (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Sets the builder up to run everything it can on virtual threads
+     *
+     * @param builder a processor builder
+     * @param maxParallelRequests how many link requests a single resource method invocation can have in progress at
+     *                            once, see {@link HyperfitProcessor.Builder#maxParallelRequests(int)}
+     * @return the executor given to the builder, which should be shut down once the processor is no longer used
+     * @throws UnsupportedOperationException when the runtime doesn't have virtual threads
+     */
+    public static ExecutorService configure(HyperfitProcessor.Builder builder, int maxParallelRequests) {
+        if (builder == null) {
+            throw new IllegalArgumentException("builder can not be null");
+        }
+
+        ExecutorService executor = newExecutor();
+        builder.executor(executor).maxParallelRequests(maxParallelRequests);
+        return executor;
+    }
+
+    private static Method findFactory() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            //must be older than java 21
+            return null;
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.handlers.Java8DefaultMethodHandler.DefaultMethodContext;
+import org.hyperfit.resource.HyperResource;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.*;
+
+
+public class CachingJava8DefaultMethodHandlerTest {
+
+    @Rule
+    public ExpectedException ee = ExpectedException.none();
+
+    public interface InterfaceWithMethod extends HyperResource {
+        Integer imAnAbstractMethod();
+    }
+
+    public interface InterfaceWithDefaultMethods extends InterfaceWithMethod {
+
+        default String someString() {
+            return "imastring";
+        }
+
+        default Integer iCallAnAbstractMethod() {
+            return this.imAnAbstractMethod() + 1;
+        }
+
+        default long add(int a, long b, String c) {
+            return a + b + Integer.parseInt(c);
+        }
+
+        default void iReturnNothing(AtomicInteger counter) {
+            counter.incrementAndGet();
+        }
+
+        default String iThrow() {
+            throw new IllegalStateException("boom");
+        }
+
+        default String iThrowChecked() throws IOException {
+            throw new IOException("checked boom");
+        }
+    }
+
+    CachingJava8DefaultMethodHandler handler;
+
+    @Before
+    public void before() {
+        handler = new CachingJava8DefaultMethodHandler();
+    }
+
+    private InterfaceWithDefaultMethods resource(final int abstractValue) {
+        return (InterfaceWithDefaultMethods) Proxy.newProxyInstance(
+            InterfaceWithDefaultMethods.class.getClassLoader(),
+            new Class[]{InterfaceWithDefaultMethods.class},
+            (proxy, method, params) -> {
+                if (method.getName().equals("imAnAbstractMethod")) {
+                    return abstractValue;
+                }
+
+                throw new RuntimeException("expected call not made");
+            }
+        );
+    }
+
+    private Object invoke(HyperResource resource, String methodName, Object... args) throws Exception {
+        for (java.lang.reflect.Method method : InterfaceWithDefaultMethods.class.getMethods()) {
+            if (method.getName().equals(methodName)) {
+                return handler.invoke(new DefaultMethodContext(resource, method), args.length == 0 ? null : args);
+            }
+        }
+
+        throw new NoSuchMethodException(methodName);
+    }
+
+    @Test
+    public void invoke() throws Exception {
+        assertThat(invoke(resource(0), "someString"), equalTo("imastring"));
+    }
+
+    @Test
+    public void callsBackIntoTheResource() throws Exception {
+        assertThat(invoke(resource(0), "iCallAnAbstractMethod"), equalTo(1));
+    }
+
+    @Test
+    public void cachedInvokerUsesEachCallsResource() throws Exception {
+        assertThat(invoke(resource(0), "iCallAnAbstractMethod"), equalTo(1));
+        assertThat(invoke(resource(10), "iCallAnAbstractMethod"), equalTo(11));
+        assertThat(invoke(resource(20), "iCallAnAbstractMethod"), equalTo(21));
+    }
+
+    @Test
+    public void spreadsArgumentsAndBoxesResults() throws Exception {
+        assertThat(invoke(resource(0), "add", 1, 2L, "3"), equalTo(6L));
+        assertThat(invoke(resource(0), "add", 4, 5L, "6"), equalTo(15L));
+    }
+
+    @Test
+    public void voidMethodsReturnNull() throws Exception {
+        AtomicInteger counter = new AtomicInteger();
+
+        assertThat(invoke(resource(0), "iReturnNothing", counter), nullValue());
+        assertThat(counter.get(), equalTo(1));
+    }
+
+    @Test
+    public void uncheckedExceptionsAreThrownAsIs() throws Exception {
+        ee.expect(IllegalStateException.class);
+        ee.expectMessage("boom");
+
+        invoke(resource(0), "iThrow");
+    }
+
+    @Test
+    public void checkedExceptionsAreWrapped() throws Exception {
+        ee.expect(HyperfitException.class);
+        ee.expectCause(org.hamcrest.CoreMatchers.<Throwable>instanceOf(IOException.class));
+
+        invoke(resource(0), "iThrowChecked");
+    }
+
+    @Test
+    public void invoke_withNoValidInterfaces() throws Exception {
+        HyperResource notTheInterface = (HyperResource) Proxy.newProxyInstance(
+            HyperResource.class.getClassLoader(),
+            new Class[]{HyperResource.class},
+            (proxy, method, params) -> null
+        );
+
+        ee.expect(HyperfitException.class);
+        ee.expectMessage("No interface in [interface org.hyperfit.resource.HyperResource] has default method public default java.lang.String org.hyperfit.java8.CachingJava8DefaultMethodHandlerTest$InterfaceWithDefaultMethods.someString()");
+
+        invoke(notTheInterface, "someString");
+    }
+}
@@ -0,0 +1,51 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.methodinfo.ConcurrentHashMapMethodInfoCache;
+import org.hyperfit.methodinfo.MethodInfo;
+import org.hyperfit.methodinfo.MethodInfoCache;
+import org.hyperfit.resource.HyperResource;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ClassValueResourceMethodInfoCacheTest {
+
+    public interface SomeResource extends HyperResource {
+        String name();
+    }
+
+    @Test
+    public void testSameCacheForSameClass() throws Exception {
+        ClassValueResourceMethodInfoCache cache = new ClassValueResourceMethodInfoCache();
+
+        MethodInfoCache methods = cache.get(SomeResource.class);
+        assertSame(methods, cache.get(SomeResource.class));
+        assertNotSame(methods, cache.get(HyperResource.class));
+
+        MethodInfo name = methods.get(SomeResource.class.getMethod("name"));
+        assertSame(name, cache.get(SomeResource.class).get(SomeResource.class.getMethod("name")));
+    }
+
+    @Test
+    public void testPut() {
+        ClassValueResourceMethodInfoCache cache = new ClassValueResourceMethodInfoCache();
+        MethodInfoCache first = cache.get(SomeResource.class);
+        MethodInfoCache second = new ConcurrentHashMapMethodInfoCache();
+
+        assertSame(first, cache.put(SomeResource.class, second));
+        assertSame(second, cache.get(SomeResource.class));
+    }
+
+    @Test
+    public void testCachesAreNotSharedBetweenInstances() {
+        assertNotSame(
+            new ClassValueResourceMethodInfoCache().get(SomeResource.class),
+            new ClassValueResourceMethodInfoCache().get(SomeResource.class)
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullClass() {
+        new ClassValueResourceMethodInfoCache().get(null);
+    }
+}
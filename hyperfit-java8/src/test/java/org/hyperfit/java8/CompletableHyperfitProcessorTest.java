@@ -0,0 +1,80 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Response;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompletableHyperfitProcessorTest {
+
+    @Mock
+    private HyperClient mockHyperClient;
+
+    private CompletableHyperfitProcessor processor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockHyperClient.getSchemes()).thenReturn(new String[]{"http"});
+
+        processor = new CompletableHyperfitProcessor(
+            HyperfitProcessor.builder()
+                .hyperClient(mockHyperClient)
+                .build()
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullProcessor() {
+        new CompletableHyperfitProcessor(null);
+    }
+
+    @Test
+    public void testProcessRequestAsyncCompletes() throws Exception {
+        BoringRequestBuilder request = BoringRequestBuilder.get("http://localhost/");
+        String fakeBody = UUID.randomUUID().toString();
+
+        when(mockHyperClient.execute(request.build()))
+            .thenReturn(
+                Response.builder()
+                    .addRequest(request.build())
+                    .addBody(fakeBody)
+                    .build()
+            );
+
+        CompletableFuture<String> result = processor.processRequestAsync(String.class, request).toCompletableFuture();
+
+        assertEquals(fakeBody, result.get());
+    }
+
+    @Test
+    public void testProcessRequestAsyncCompletesExceptionally() throws Exception {
+        RuntimeException fakeException = new RuntimeException(UUID.randomUUID().toString());
+
+        when(mockHyperClient.execute(any()))
+            .thenThrow(fakeException);
+
+        CompletableFuture<String> result = processor.processRequestAsync(String.class, "http://localhost/").toCompletableFuture();
+
+        assertTrue(result.isCompletedExceptionally());
+        try {
+            result.get();
+            fail("expected exception not thrown");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause(), sameInstance((Throwable) fakeException));
+        }
+    }
+
+}
@@ -0,0 +1,187 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.exception.HyperfitException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+public class FanOutTest {
+
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() {
+        executor = Executors.newCachedThreadPool();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullExecutor() {
+        new FanOut(null);
+    }
+
+    @Test
+    public void testJoinWaitsForAllForks() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (FanOut fanOut = new FanOut(executor)) {
+            Supplier<String> first = fanOut.fork(() -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return "first";
+            });
+            Supplier<Integer> second = fanOut.fork(() -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return 2;
+            });
+
+            fanOut.join();
+
+            assertEquals("first", first.get());
+            assertEquals(Integer.valueOf(2), second.get());
+        }
+    }
+
+    @Test
+    public void testFailedForkCancelsTheOthers() throws Exception {
+        RuntimeException fakeException = new RuntimeException("boom");
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        try (FanOut fanOut = new FanOut(executor)) {
+            Supplier<String> slow = fanOut.fork(() -> {
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "slow";
+            });
+            fanOut.fork(() -> {
+                throw fakeException;
+            });
+
+            try {
+                fanOut.join();
+                fail("expected exception not thrown");
+            } catch (RuntimeException e) {
+                assertSame(fakeException, e);
+            }
+
+            assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+            try {
+                slow.get();
+                fail("expected exception not thrown");
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage(), containsString("cancelled"));
+            }
+        }
+    }
+
+    @Test
+    public void testCheckedExceptionsAreWrapped() {
+        IOException fakeException = new IOException("boom");
+
+        try (FanOut fanOut = new FanOut(executor)) {
+            fanOut.fork(() -> {
+                throw fakeException;
+            });
+
+            fanOut.join();
+            fail("expected exception not thrown");
+        } catch (HyperfitException e) {
+            assertSame(fakeException, e.getCause());
+        }
+    }
+
+    @Test
+    public void testCloseCancelsRunningForks() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+
+        Supplier<String> fork;
+        try (FanOut fanOut = new FanOut(executor)) {
+            fork = fanOut.fork(() -> {
+                started.countDown();
+                try {
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+                } catch (InterruptedException e) {
+                    interrupted.countDown();
+                    throw e;
+                }
+                return "never";
+            });
+
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+        }
+
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+
+        try {
+            fork.get();
+            fail("expected exception not thrown");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("cancelled"));
+        }
+    }
+
+    @Test
+    public void testGetBeforeJoin() {
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (FanOut fanOut = new FanOut(executor)) {
+            Supplier<String> fork = fanOut.fork(() -> {
+                release.await();
+                return "done";
+            });
+
+            try {
+                fork.get();
+                fail("expected exception not thrown");
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage(), containsString("joined"));
+            }
+
+            release.countDown();
+            fanOut.join();
+            assertEquals("done", fork.get());
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testForkAfterJoin() {
+        try (FanOut fanOut = new FanOut(executor)) {
+            fanOut.join();
+            fanOut.fork(() -> "late");
+        }
+    }
+
+    @Test
+    public void testRejectedForkIsThrown() {
+        executor.shutdown();
+
+        try (FanOut fanOut = new FanOut(executor)) {
+            fanOut.fork(() -> "rejected");
+            fail("expected exception not thrown");
+        } catch (RejectedExecutionException e) {
+            //expected
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.Java8Resource;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.proxy.DispatchingInvocationHandler;
+import org.hyperfit.proxy.MethodDispatcher;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+
+public class GeneratedProxyFactoryTest {
+
+    public interface Thing {
+        String name();
+
+        int add(int a, long b, double c);
+
+        void touch(boolean flag, char c, Object[] things);
+
+        long size();
+
+        String read() throws IOException;
+    }
+
+    public interface Other {
+        String name();
+
+        int count();
+    }
+
+    interface Hidden {
+        String name();
+    }
+
+    //records the calls it gets & answers them with whatever is next
+    private static class RecordingHandler implements InvocationHandler {
+        final List<Method> methods = new ArrayList<>();
+        final List<Object[]> args = new ArrayList<>();
+        Object result;
+        Throwable toThrow;
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            methods.add(method);
+            this.args.add(args);
+            if (toThrow != null) {
+                throw toThrow;
+            }
+            return result;
+        }
+    }
+
+    //counts how many dispatchers it makes, the dispatchers answer with the name of the method & the handler's name
+    private static class CountingDispatchingHandler implements DispatchingInvocationHandler {
+        static int dispatchersMade;
+        final String name;
+
+        CountingDispatchingHandler(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) {
+            throw new AssertionError("invoke should not be called");
+        }
+
+        @Override
+        public MethodDispatcher dispatcherFor(final Method method) {
+            dispatchersMade++;
+            return (handler, proxy, args) -> method.getName() + ":" + ((CountingDispatchingHandler) handler).name;
+        }
+    }
+
+    private final GeneratedProxyFactory factory = new GeneratedProxyFactory();
+
+    private Object proxy(InvocationHandler handler, Class<?>... interfaces) {
+        return factory.createProxy(interfaces[0].getClassLoader(), interfaces, handler);
+    }
+
+
+    @Test
+    public void testGeneratesAClassForEachSetOfInterfaces() {
+        RecordingHandler handler = new RecordingHandler();
+
+        Object first = proxy(handler, Thing.class);
+        Object second = proxy(new RecordingHandler(), Thing.class);
+        Object both = proxy(handler, Thing.class, Other.class);
+
+        assertFalse(Proxy.isProxyClass(first.getClass()));
+        assertThat(first, instanceOf(Thing.class));
+        assertSame(first.getClass(), second.getClass());
+        assertNotSame(first.getClass(), both.getClass());
+        assertArrayEquals(new Class<?>[]{Thing.class, Other.class}, both.getClass().getInterfaces());
+    }
+
+    @Test
+    public void testPassesArgumentsAndResultsLikeAJdkProxy() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        Thing thing = (Thing) proxy(handler, Thing.class);
+
+        handler.result = "bob";
+        assertEquals("bob", thing.name());
+        assertEquals(Thing.class.getMethod("name"), handler.methods.get(0));
+        assertNull(handler.args.get(0));
+
+        handler.result = 7;
+        assertEquals(7, thing.add(1, 2L, 3.5));
+        assertArrayEquals(new Object[]{1, 2L, 3.5}, handler.args.get(1));
+
+        Object[] things = {"a"};
+        handler.result = null;
+        thing.touch(true, 'x', things);
+        assertArrayEquals(new Object[]{true, 'x', things}, handler.args.get(2));
+
+        handler.result = 42L;
+        assertEquals(42L, thing.size());
+    }
+
+    @Test
+    public void testObjectMethodsGoToTheHandler() throws Exception {
+        RecordingHandler handler = new RecordingHandler();
+        Object thing = proxy(handler, Thing.class);
+
+        handler.result = "thing";
+        assertEquals("thing", thing.toString());
+        handler.result = 5;
+        assertEquals(5, thing.hashCode());
+        handler.result = true;
+        assertTrue(thing.equals("anything"));
+
+        assertEquals(
+            Arrays.asList(
+                Object.class.getMethod("toString"),
+                Object.class.getMethod("hashCode"),
+                Object.class.getMethod("equals", Object.class)
+            ),
+            handler.methods
+        );
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testNullForAPrimitiveResult() {
+        Thing thing = (Thing) proxy(new RecordingHandler(), Thing.class);
+        thing.size();
+    }
+
+    @Test
+    public void testExceptions() {
+        RecordingHandler handler = new RecordingHandler();
+        Thing thing = (Thing) proxy(handler, Thing.class);
+
+        IOException declared = new IOException("declared");
+        handler.toThrow = declared;
+        try {
+            thing.read();
+            fail("expected exception not thrown");
+        } catch (IOException e) {
+            assertSame(declared, e);
+        }
+
+        Exception undeclared = new Exception("undeclared");
+        handler.toThrow = undeclared;
+        try {
+            thing.name();
+            fail("expected exception not thrown");
+        } catch (UndeclaredThrowableException e) {
+            assertSame(undeclared, e.getUndeclaredThrowable());
+        }
+
+        IllegalStateException runtime = new IllegalStateException();
+        handler.toThrow = runtime;
+        try {
+            thing.name();
+            fail("expected exception not thrown");
+        } catch (IllegalStateException e) {
+            assertSame(runtime, e);
+        }
+    }
+
+    @Test
+    public void testDispatchersAreBoundOncePerClassOfHandler() {
+        CountingDispatchingHandler.dispatchersMade = 0;
+
+        Other first = (Other) proxy(new CountingDispatchingHandler("first"), Other.class);
+        Other second = (Other) proxy(new CountingDispatchingHandler("second"), Other.class);
+
+        assertEquals("name:first", first.name());
+        assertEquals("name:second", second.name());
+        assertEquals("toString:second", second.toString());
+
+        //Object's 3 methods & Other's 2
+        assertEquals(5, CountingDispatchingHandler.dispatchersMade);
+    }
+
+    @Test
+    public void testInterfacesThatArentPublicGetJdkProxies() {
+        RecordingHandler handler = new RecordingHandler();
+        handler.result = "hidden";
+
+        Hidden hidden = (Hidden) proxy(handler, Hidden.class);
+
+        assertTrue(Proxy.isProxyClass(hidden.getClass()));
+        assertEquals("hidden", hidden.name());
+        assertSame(handler, factory.getInvocationHandler(hidden));
+    }
+
+    @Test
+    public void testGetInvocationHandler() {
+        RecordingHandler handler = new RecordingHandler();
+        Object thing = proxy(handler, Thing.class);
+
+        assertSame(handler, factory.getInvocationHandler(thing));
+        assertNull(factory.getInvocationHandler("not a proxy"));
+        assertNull(factory.getInvocationHandler(null));
+        assertNull(new GeneratedProxyFactory().getInvocationHandler(thing));
+    }
+
+    @Test
+    public void testResourcesFromAProcessor() {
+        HyperClient hyperClient = mock(HyperClient.class);
+        when(hyperClient.getSchemes()).thenReturn(new String[]{"http"});
+
+        HyperfitProcessor processor = HyperfitProcessor.builder()
+            .hyperClient(hyperClient)
+            .proxyFactory(factory)
+            .defaultMethodInvoker(new CachingJava8DefaultMethodHandler())
+            .build();
+
+        HyperResource resource = mock(HyperResource.class);
+        when(resource.getLinks("item")).thenReturn(new HyperLink[0]);
+
+        Java8Resource first = processor.processResource(Java8Resource.class, resource, null);
+        Java8Resource second = processor.processResource(Java8Resource.class, resource, null);
+
+        assertFalse(Proxy.isProxyClass(first.getClass()));
+        assertSame(first.getClass(), second.getClass());
+        assertEquals(0, first.getLinks("item").length);
+        assertEquals("ok sure", first.imADefaultMethod());
+        assertEquals(first, second);
+        assertEquals(resource.toString(), first.toString());
+    }
+
+}
@@ -0,0 +1,135 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.PageIterator;
+import org.hyperfit.annotation.Data;
+import org.hyperfit.content.ContentType;
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.InterfaceSelectionStrategy;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class HyperfitStreamsTest {
+
+    public interface Item extends HyperResource {
+        @Data("id")
+        String getId();
+    }
+
+    @Mock
+    private HyperClient mockHyperClient;
+
+    @Mock
+    private ContentTypeHandler mockContentTypeHandler;
+
+    @Mock
+    private InterfaceSelectionStrategy mockSelectionStrategy;
+
+    private final Map<String, HyperResource> resources = new HashMap<>();
+
+    private HyperfitProcessor processor;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockHyperClient.getSchemes()).thenReturn(new String[]{"http"});
+        when(mockContentTypeHandler.getDefaultContentType()).thenReturn(ContentType.parse("application/fake"));
+        when(mockContentTypeHandler.canParseResponse()).thenReturn(true);
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(invocation ->
+            Response.builder()
+                .addRequest((Request) invocation.getArguments()[0])
+                .addCode(200)
+                .addContentType("application/fake")
+                .addBody("body")
+                .build()
+        );
+        when(mockContentTypeHandler.parseResponse(Matchers.any(Response.class))).thenAnswer(invocation ->
+            resources.get(((Response) invocation.getArguments()[0]).getRequest().getUrl())
+        );
+        when(mockSelectionStrategy.determineInterfaces(Matchers.any(Class.class), Matchers.any(HyperResource.class))).thenAnswer(invocation ->
+            new Class<?>[]{(Class<?>) invocation.getArguments()[0]}
+        );
+
+        processor = HyperfitProcessor.builder()
+            .hyperClient(mockHyperClient)
+            .addContentTypeHandler(mockContentTypeHandler)
+            .interfaceSelectionStrategy(mockSelectionStrategy)
+            .build();
+    }
+
+    @Test
+    public void testPaginateStreamsTheItemsOfEachPage() {
+        page("http://example.com/1", "http://example.com/2", item("a"), item("b"));
+        page("http://example.com/2", null, item("c"));
+
+        try (Stream<Item> items = HyperfitStreams.paginate(processor, Item.class, "http://example.com/1", "next", "items")) {
+            assertEquals(
+                Arrays.asList("a", "b", "c"),
+                items.map(Item::getId).collect(Collectors.toList())
+            );
+        }
+    }
+
+    @Test
+    public void testShortCircuitingDoesNotFetchLaterPages() {
+        page("http://example.com/1", "http://example.com/2", item("a"), item("b"));
+        page("http://example.com/2", null, item("c"));
+
+        try (Stream<Item> items = HyperfitStreams.paginate(processor, Item.class, "http://example.com/1", "next", "items")) {
+            assertEquals("a", items.findFirst().get().getId());
+        }
+
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+    }
+
+    @Test
+    public void testClosingTheStreamClosesTheIterator() {
+        page("http://example.com/1", null, item("a"));
+
+        PageIterator<Item> pages = processor.paginate(Item.class, "http://example.com/1", "next", "items");
+        HyperfitStreams.stream(pages).close();
+
+        assertFalse(pages.hasNext());
+        verify(mockHyperClient, never()).execute(Matchers.any(Request.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullProcessor() {
+        HyperfitStreams.paginate(null, Item.class, "http://example.com/1", "next", "items");
+    }
+
+
+    private void page(String url, String next, HyperResource... items) {
+        HyperResource page = mock(HyperResource.class);
+        when(page.canResolveLinkLocal("items")).thenReturn(true);
+        when(page.resolveLinksLocal("items")).thenReturn(items);
+        if (next != null) {
+            when(page.hasLink("next")).thenReturn(true);
+            when(page.getLink("next")).thenReturn(new HyperLink(next, "next", false, null, null, null, null, null, null){});
+        }
+        resources.put(url, page);
+    }
+
+    private static HyperResource item(String id) {
+        HyperResource item = mock(HyperResource.class);
+        when(item.getPathAs(String.class, false, "id")).thenReturn(id);
+        return item;
+    }
+}
@@ -0,0 +1,79 @@
+package org.hyperfit.java8;
+
+import org.hyperfit.HyperfitProcessor;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.junit.Test;
+import org.mockito.Matchers;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.Assert.*;
+import static org.junit.Assume.*;
+import static org.mockito.Mockito.*;
+
+public class VirtualThreadsTest {
+
+    private static boolean runtimeHasVirtualThreads() {
+        try {
+            Thread.class.getMethod("isVirtual");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    @Test
+    public void testAvailableMatchesRuntime() {
+        assertEquals(runtimeHasVirtualThreads(), VirtualThreads.isAvailable());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNewExecutorWithoutVirtualThreads() {
+        assumeFalse(VirtualThreads.isAvailable());
+
+        VirtualThreads.newExecutor();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConfigureNullBuilder() {
+        VirtualThreads.configure(null, 8);
+    }
+
+    @Test
+    public void testRequestsRunOnVirtualThreads() throws Exception {
+        assumeTrue(VirtualThreads.isAvailable());
+
+        HyperClient mockHyperClient = mock(HyperClient.class);
+        when(mockHyperClient.getSchemes()).thenReturn(new String[]{"http"});
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(invocation ->
+            Response.builder()
+                .addRequest((Request) invocation.getArguments()[0])
+                .addCode(200)
+                .addBody(String.valueOf(Thread.class.getMethod("isVirtual").invoke(Thread.currentThread())))
+                .build()
+        );
+
+        HyperfitProcessor.Builder builder = HyperfitProcessor.builder().hyperClient(mockHyperClient);
+        ExecutorService executor = VirtualThreads.configure(builder, 1000);
+        try {
+            CompletableHyperfitProcessor processor = new CompletableHyperfitProcessor(builder.build());
+
+            CompletableFuture<String> body = processor.processRequestAsync(String.class, "http://example.com/")
+                .toCompletableFuture();
+            assertEquals("true", body.get(5, TimeUnit.SECONDS));
+
+            try (FanOut fanOut = new FanOut(executor)) {
+                Supplier<String> forked = fanOut.fork(() -> builder.build().processRequest(String.class, "http://example.com/"));
+                fanOut.join();
+                assertEquals("true", forked.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
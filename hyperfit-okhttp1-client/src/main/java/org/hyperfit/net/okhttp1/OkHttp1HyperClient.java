@@ -2,7 +2,7 @@ package org.hyperfit.net.okhttp1;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Strings;
-import com.google.common.io.CharStreams;
+import com.google.common.io.ByteStreams;
 import com.google.common.io.Closeables;
 import com.squareup.okhttp.MediaType;
 import com.squareup.okhttp.OkHttpClient;
@@ -16,7 +16,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.CookieHandler;
 import java.net.HttpURLConnection;
 import java.net.URL;
@@ -28,6 +27,8 @@ public class OkHttp1HyperClient extends BaseHyperClient {
     public static final Charset UTF_8 = Charset.forName("UTF-8");
     private static Logger LOG = LoggerFactory.getLogger(OkHttp1HyperClient.class);
     private final OkHttpClient okHttpClient;
+    //subclasses that override the deprecated convertResponseBodyToString still have it used to read bodies
+    private final boolean readsBodiesAsStrings = overridesConvertResponseBodyToString(getClass());
 
     public OkHttp1HyperClient() {
         this(new OkHttpClient());
@@ -116,13 +117,16 @@ public class OkHttp1HyperClient extends BaseHyperClient {
         Response.ResponseBuilder responseBuilder = Response.builder();
 
         addHeadersToResponse(connection, responseBuilder);
-        String body = convertResponseBodyToString(connection);
+        if (readsBodiesAsStrings) {
+            responseBuilder.addBody(convertResponseBodyToString(connection));
+        } else {
+            responseBuilder.addBody(convertResponseBodyToBytes(connection), charset(connection.getContentType()));
+        }
 
         Response response = responseBuilder
             .addRequest(request)
             .addCode(connection.getResponseCode())
             .addContentType(connection.getContentType())
-            .addBody(body)
             .build();
 
         LOG.trace("Provider generating response [{}].", response);
@@ -151,21 +155,26 @@ public class OkHttp1HyperClient extends BaseHyperClient {
     }
 
     @VisibleForTesting
-    protected String convertResponseBodyToString(HttpURLConnection connection) throws IOException {
+    protected byte[] convertResponseBodyToBytes(HttpURLConnection connection) throws IOException {
         InputStream stream = getResponseInputStream(connection);
 
-        InputStreamReader isr = null;
-
         try {
-            Charset charset = charset(connection.getContentType());
-            isr = new InputStreamReader(stream, charset);
-
-            return CharStreams.toString(isr);
+            return ByteStreams.toByteArray(stream);
         } finally {
-            Closeables.closeQuietly(isr);
+            Closeables.closeQuietly(stream);
         }
     }
 
+    /**
+     * @deprecated bodies are read with {@link #convertResponseBodyToBytes}, this decodes them with the content type's
+     * charset.  It's only used to read responses when a subclass overrides it.
+     */
+    @Deprecated
+    @VisibleForTesting
+    protected String convertResponseBodyToString(HttpURLConnection connection) throws IOException {
+        return new String(convertResponseBodyToBytes(connection), charset(connection.getContentType()));
+    }
+
     @VisibleForTesting
     protected InputStream getResponseInputStream(HttpURLConnection connection) throws IOException {
         InputStream stream;
@@ -184,4 +193,17 @@ public class OkHttp1HyperClient extends BaseHyperClient {
         MediaType type = MediaType.parse(contentType);
         return type != null ? type.charset(UTF_8): UTF_8;
     }
+
+    private static boolean overridesConvertResponseBodyToString(Class<?> clientClass) {
+        for (Class<?> c = clientClass; c != OkHttp1HyperClient.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("convertResponseBodyToString", HttpURLConnection.class);
+                return true;
+            } catch (NoSuchMethodException e) {
+                //not this one
+            }
+        }
+
+        return false;
+    }
 }
@@ -18,6 +18,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.CookieHandler;
 import java.net.HttpURLConnection;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import static org.junit.Assert.*;
@@ -233,7 +234,7 @@ public class OkHttp1HyperClientTest {
         String body = "body";
 
         doNothing().when(client).addHeadersToResponse(eq(connection), Matchers.any(Response.ResponseBuilder.class));
-        doReturn(body).when(client).convertResponseBodyToString(connection);
+        doReturn(body.getBytes("UTF-8")).when(client).convertResponseBodyToBytes(connection);
 
         int returnCode = 100;
         when(connection.getResponseCode()).thenReturn(returnCode);
@@ -251,6 +252,37 @@ public class OkHttp1HyperClientTest {
     }
 
     @Test
+    public void testReadResponseUsesContentTypeCharset() throws Exception {
+
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+
+        String body = "caf\u00e9";
+
+        doNothing().when(client).addHeadersToResponse(eq(connection), Matchers.any(Response.ResponseBuilder.class));
+        doReturn(body.getBytes("ISO-8859-1")).when(client).convertResponseBodyToBytes(connection);
+
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getContentType()).thenReturn("text/html; charset=ISO-8859-1");
+
+        Response actual = client.readResponse(connection, mock(Request.class));
+
+        assertEquals(Charset.forName("ISO-8859-1"), actual.getBodyCharset());
+        assertEquals(body, actual.getBody());
+    }
+
+    @Test
+    public void testConvertResponseBodyToBytes() throws Exception {
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+
+        byte[] body = "Hello World".getBytes("UTF-8");
+        InputStream is = new ByteArrayInputStream(body);
+        doReturn(is).when(client).getResponseInputStream(connection);
+
+        assertArrayEquals(body, client.convertResponseBodyToBytes(connection));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
     public void testConvertResponseBodyToString() throws Exception {
         HttpURLConnection connection = mock(HttpURLConnection.class);
 
@@ -269,6 +301,28 @@ public class OkHttp1HyperClientTest {
 
     }
 
+    @Test
+    public void testReadResponseUsesOverriddenConvertResponseBodyToString() throws Exception {
+        OkHttp1HyperClient overriding = new OkHttp1HyperClient(okHttpClient) {
+            @Override
+            @SuppressWarnings("deprecation")
+            protected String convertResponseBodyToString(HttpURLConnection connection) {
+                return "overridden";
+            }
+
+            @Override
+            protected void addHeadersToResponse(HttpURLConnection connection, Response.ResponseBuilder responseBuilder) {
+            }
+        };
+
+        HttpURLConnection connection = mock(HttpURLConnection.class);
+        when(connection.getResponseCode()).thenReturn(200);
+        when(connection.getContentType()).thenReturn("text/plain");
+
+        assertEquals("overridden", overriding.readResponse(connection, mock(Request.class)).getBody());
+        verify(connection, never()).getInputStream();
+    }
+
     @Test
     public void testGetResponseInputStream() throws Exception {
         HttpURLConnection connection = mock(HttpURLConnection.class);
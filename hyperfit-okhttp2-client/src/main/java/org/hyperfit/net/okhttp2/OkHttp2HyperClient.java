@@ -1,6 +1,7 @@
 package org.hyperfit.net.okhttp2;
 
 import java.net.CookieHandler;
+import java.nio.charset.Charset;
 import java.util.Map.Entry;
 import java.util.Set;
 
@@ -26,6 +27,8 @@ public class OkHttp2HyperClient extends BaseHyperClient {
 
     private static final Logger LOG = LoggerFactory.getLogger(HyperClient.class);
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private final OkHttpClient client;
 
 
@@ -157,7 +160,9 @@ public class OkHttp2HyperClient extends BaseHyperClient {
         responseBuilder.addContentType(response.header(CONTENT_TYPE));
 
         try {
-            responseBuilder.addBody(response.body().string());
+            //keep the raw bytes, they're only decoded if something asks for the body as a String
+            MediaType bodyType = response.body().contentType();
+            responseBuilder.addBody(response.body().bytes(), bodyType != null ? bodyType.charset(UTF_8) : UTF_8);
         } catch (Exception ex) {
             throw new HyperfitException("The response [" + response + "] could not be generated correctly.", ex);
         }
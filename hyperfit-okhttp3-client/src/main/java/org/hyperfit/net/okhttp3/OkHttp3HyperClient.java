@@ -3,19 +3,27 @@ package org.hyperfit.net.okhttp3;
 import okhttp3.*;
 import org.hyperfit.exception.HyperfitException;
 import org.hyperfit.net.*;
+import org.hyperfit.net.Callback;
 import org.hyperfit.net.Request;
 import org.hyperfit.net.Response;
 import org.hyperfit.utils.StringUtils;
 
+import java.io.IOException;
 import java.net.CookieHandler;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map.Entry;
+import java.util.concurrent.TimeUnit;
 
 import okhttp3.internal.http.HttpMethod;
 
 /**
  * Implementation of hypermedia provider, making http request using OkHttp 3.x Client
  */
-public class OkHttp3HyperClient extends BaseHyperClient {
+public class OkHttp3HyperClient extends BaseHyperClient implements AsyncHyperClient {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
 
     private static final String ACCEPT = "Accept";
     private static final String CONTENT_TYPE = "Content-Type";
@@ -57,9 +65,59 @@ public class OkHttp3HyperClient extends BaseHyperClient {
         return doResponse(doRequest(prepareRequest(request)), request);
     }
 
+    /**
+     * Enqueues the request on the okhttp dispatcher, the callback is notified from an okhttp thread
+     *
+     * @param request {@link org.hyperfit.net.Request}
+     * @param callback {@inheritDoc}
+     */
+    public void executeAsync(final Request request, final Callback<Response> callback) {
+        if (request == null) {
+            throw new IllegalArgumentException("request cannot be null.");
+        }
+
+        if (request.getMethod() == null) {
+            throw new IllegalArgumentException("request's method cannot be null.");
+        }
+
+        if (StringUtils.isEmpty(request.getUrl())) {
+            throw new IllegalArgumentException("request's url cannot be empty.");
+        }
+
+        if (callback == null) {
+            throw new IllegalArgumentException("callback cannot be null.");
+        }
+
+        client.newCall(prepareRequest(request)).enqueue(new okhttp3.Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                callback.onFailure(new HyperfitException("The request [" + request + "] could not be executed.", e));
+            }
+
+            @Override
+            public void onResponse(Call call, okhttp3.Response response) {
+                Response result;
+                try {
+                    result = doResponse(response, request);
+                } catch (Exception e) {
+                    callback.onFailure(e);
+                    return;
+                }
+
+                callback.onSuccess(result);
+            }
+        });
+    }
+
     public HyperClient setCookieHandler(CookieHandler handler) {
-        //this is weird in that it recreates the client
+        //this is weird in that it recreates the client, the pool & dispatcher are handed over explicitly so the new
+        //client never ends up with its own connections & has to redo handshakes the old one already did
+        ConnectionPool connectionPool = this.client.connectionPool();
+        Dispatcher dispatcher = this.client.dispatcher();
+
         this.client = this.client.newBuilder()
+            .connectionPool(connectionPool)
+            .dispatcher(dispatcher)
             .cookieJar(
                 handler == null ? CookieJar.NO_COOKIES : new JavaNetCookieJar(handler)
             )
@@ -68,6 +126,13 @@ public class OkHttp3HyperClient extends BaseHyperClient {
         return this;
     }
 
+    /**
+     * @return the okhttp client requests are made with
+     */
+    OkHttpClient getOkHttpClient() {
+        return client;
+    }
+
     public String[] getSchemes() {
         return new String[]{"http", "https"};
     }
@@ -140,7 +205,9 @@ public class OkHttp3HyperClient extends BaseHyperClient {
         b.addContentType(response.header(CONTENT_TYPE));
 
         try {
-            b.addBody(response.body().string());
+            //keep the raw bytes, they're only decoded if something asks for the body as a String
+            MediaType bodyType = response.body().contentType();
+            b.addBody(response.body().bytes(), bodyType != null ? bodyType.charset(UTF_8) : UTF_8);
         } catch (Exception ex) {
             throw new HyperfitException("The response [{}] could not be generated correctly.", ex);
         }
@@ -167,4 +234,229 @@ public class OkHttp3HyperClient extends BaseHyperClient {
     }
 
 
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Builds an OkHttp3HyperClient along with the okhttp client it uses, exposing the connection pool, dispatcher,
+     * protocol & timeout settings.  Anything that isn't set is left as it is in the starting client, which is
+     * a default {@link OkHttpClient} unless {@link #okHttpClient(OkHttpClient)} is given.
+     *
+     * Build a single client & share it, every okhttp client made here gets its own connection pool & dispatcher
+     * when pool or dispatcher settings are given.
+     */
+    public static class Builder {
+
+        //okhttp's own defaults
+        private static final int DEFAULT_MAX_IDLE_CONNECTIONS = 5;
+        private static final long DEFAULT_KEEP_ALIVE_MINUTES = 5;
+
+        private OkHttpClient okHttpClient;
+        private Integer maxIdleConnections;
+        private Long keepAlive;
+        private TimeUnit keepAliveUnit;
+        private Integer maxRequests;
+        private Integer maxRequestsPerHost;
+        private Boolean preferHttp2;
+        private Long connectTimeoutMillis;
+        private Long readTimeoutMillis;
+        private Long writeTimeoutMillis;
+        private boolean cookieHandlerSet;
+        private CookieHandler cookieHandler;
+
+        private Builder() {
+
+        }
+
+        /**
+         * The okhttp client to start from, its settings are kept unless they're changed with this builder.
+         * Its connection pool & dispatcher are shared with the built client unless pool or dispatcher settings are given.
+         * @param okHttpClient {@link okhttp3.OkHttpClient}
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder okHttpClient(OkHttpClient okHttpClient) {
+            if (okHttpClient == null) {
+                throw new IllegalArgumentException("okHttpClient cannot be null.");
+            }
+
+            this.okHttpClient = okHttpClient;
+            return this;
+        }
+
+        /**
+         * The most idle connections the connection pool keeps around, 5 unless set
+         * @param maxIdleConnections must be at least 0
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder maxIdleConnections(int maxIdleConnections) {
+            if (maxIdleConnections < 0) {
+                throw new IllegalArgumentException("maxIdleConnections must be at least 0.");
+            }
+
+            this.maxIdleConnections = maxIdleConnections;
+            return this;
+        }
+
+        /**
+         * How long the connection pool keeps an idle connection around, 5 minutes unless set
+         * @param keepAlive must be more than 0
+         * @param unit the unit of keepAlive
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder keepAlive(long keepAlive, TimeUnit unit) {
+            if (keepAlive <= 0) {
+                throw new IllegalArgumentException("keepAlive must be more than 0.");
+            }
+            if (unit == null) {
+                throw new IllegalArgumentException("unit cannot be null.");
+            }
+
+            //kept in the caller's unit, in millis anything under a millisecond would be 0 which the pool rejects
+            this.keepAlive = keepAlive;
+            this.keepAliveUnit = unit;
+            return this;
+        }
+
+        /**
+         * The most requests the dispatcher runs at once, only applies to asynchronous requests
+         * @param maxRequests must be at least 1
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder maxRequests(int maxRequests) {
+            if (maxRequests < 1) {
+                throw new IllegalArgumentException("maxRequests must be at least 1.");
+            }
+
+            this.maxRequests = maxRequests;
+            return this;
+        }
+
+        /**
+         * The most requests the dispatcher runs at once for each host, only applies to asynchronous requests
+         * @param maxRequestsPerHost must be at least 1
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder maxRequestsPerHost(int maxRequestsPerHost) {
+            if (maxRequestsPerHost < 1) {
+                throw new IllegalArgumentException("maxRequestsPerHost must be at least 1.");
+            }
+
+            this.maxRequestsPerHost = maxRequestsPerHost;
+            return this;
+        }
+
+        /**
+         * When true HTTP/2 is used with servers that support it so requests to a host are multiplexed over a single
+         * connection, when false only HTTP/1.1 is used.
+         * @param preferHttp2 whether to use HTTP/2
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder preferHttp2(boolean preferHttp2) {
+            this.preferHttp2 = preferHttp2;
+            return this;
+        }
+
+        /**
+         * @param timeout 0 for no timeout
+         * @param unit the unit of timeout
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder connectTimeout(long timeout, TimeUnit unit) {
+            this.connectTimeoutMillis = toTimeoutMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * @param timeout 0 for no timeout
+         * @param unit the unit of timeout
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder readTimeout(long timeout, TimeUnit unit) {
+            this.readTimeoutMillis = toTimeoutMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * @param timeout 0 for no timeout
+         * @param unit the unit of timeout
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder writeTimeout(long timeout, TimeUnit unit) {
+            this.writeTimeoutMillis = toTimeoutMillis(timeout, unit);
+            return this;
+        }
+
+        /**
+         * Same as {@link OkHttp3HyperClient#setCookieHandler(CookieHandler)}, but without building the okhttp client twice
+         * @param cookieHandler the handler, null for no cookies
+         * @return {@link OkHttp3HyperClient.Builder}
+         */
+        public Builder cookieHandler(CookieHandler cookieHandler) {
+            this.cookieHandlerSet = true;
+            this.cookieHandler = cookieHandler;
+            return this;
+        }
+
+        public OkHttp3HyperClient build() {
+            OkHttpClient start = okHttpClient != null ? okHttpClient : new OkHttpClient();
+            OkHttpClient.Builder builder = start.newBuilder();
+
+            if (maxIdleConnections != null || keepAlive != null) {
+                builder.connectionPool(new ConnectionPool(
+                    maxIdleConnections != null ? maxIdleConnections : DEFAULT_MAX_IDLE_CONNECTIONS,
+                    keepAlive != null ? keepAlive : DEFAULT_KEEP_ALIVE_MINUTES,
+                    keepAlive != null ? keepAliveUnit : TimeUnit.MINUTES
+                ));
+            }
+
+            if (maxRequests != null || maxRequestsPerHost != null) {
+                //a new dispatcher, changing the starting client's would change that client too
+                Dispatcher dispatcher = new Dispatcher();
+                dispatcher.setMaxRequests(maxRequests != null ? maxRequests : start.dispatcher().getMaxRequests());
+                dispatcher.setMaxRequestsPerHost(maxRequestsPerHost != null ? maxRequestsPerHost : start.dispatcher().getMaxRequestsPerHost());
+                builder.dispatcher(dispatcher);
+            }
+
+            if (preferHttp2 != null) {
+                builder.protocols(
+                    preferHttp2 ? Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1) : Collections.singletonList(Protocol.HTTP_1_1)
+                );
+            }
+
+            if (connectTimeoutMillis != null) {
+                builder.connectTimeout(connectTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            if (readTimeoutMillis != null) {
+                builder.readTimeout(readTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            if (writeTimeoutMillis != null) {
+                builder.writeTimeout(writeTimeoutMillis, TimeUnit.MILLISECONDS);
+            }
+
+            if (cookieHandlerSet) {
+                builder.cookieJar(cookieHandler == null ? CookieJar.NO_COOKIES : new JavaNetCookieJar(cookieHandler));
+            }
+
+            return new OkHttp3HyperClient(builder.build());
+        }
+
+        private static long toMillis(long duration, TimeUnit unit) {
+            if (unit == null) {
+                throw new IllegalArgumentException("unit cannot be null.");
+            }
+
+            return unit.toMillis(duration);
+        }
+
+        private static long toTimeoutMillis(long timeout, TimeUnit unit) {
+            if (timeout < 0) {
+                throw new IllegalArgumentException("timeout must be at least 0.");
+            }
+
+            return toMillis(timeout, unit);
+        }
+    }
 }
@@ -6,8 +6,10 @@ import org.hyperfit.exception.HyperfitException;
 
 import com.google.common.base.Charsets;
 
+import java.io.IOException;
 import java.net.CookieHandler;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 import static org.hyperfit.net.HttpUtils.ACCEPT;
 import static org.junit.Assert.*;
@@ -20,6 +22,8 @@ import org.hyperfit.net.Method;
 import org.hyperfit.net.RFC6570RequestBuilder;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -314,10 +318,20 @@ public class OkHttp3HyperClientTest {
         when(mockOkHttpClient.newBuilder())
             .thenReturn(fakeBuilder);
 
+        ConnectionPool fakePool = new ConnectionPool();
+        Dispatcher fakeDispatcher = new Dispatcher();
+        when(mockOkHttpClient.connectionPool())
+            .thenReturn(fakePool);
+        when(mockOkHttpClient.dispatcher())
+            .thenReturn(fakeDispatcher);
+
 
         HyperClient result = okHttp3HyperClient.setCookieHandler(mockHandler);
         assertSame("setCookieHandler should be fluent", okHttp3HyperClient, result);
 
+        assertSame("the connection pool should be kept", fakePool, fakeBuilder.build().connectionPool());
+        assertSame("the dispatcher should be kept", fakeDispatcher, fakeBuilder.build().dispatcher());
+
         CookieJar actualJar = fakeBuilder.build().cookieJar();
 
         List<Cookie> actual = actualJar.loadForRequest(fakeUrl);
@@ -350,6 +364,13 @@ public class OkHttp3HyperClientTest {
         when(mockOkHttpClient.newBuilder())
             .thenReturn(fakeBuilder);
 
+        ConnectionPool fakePool = new ConnectionPool();
+        Dispatcher fakeDispatcher = new Dispatcher();
+        when(mockOkHttpClient.connectionPool())
+            .thenReturn(fakePool);
+        when(mockOkHttpClient.dispatcher())
+            .thenReturn(fakeDispatcher);
+
 
         HyperClient result = okHttp3HyperClient.setCookieHandler(null);
         assertSame("setCookieHandler should be fluent", okHttp3HyperClient, result);
@@ -358,11 +379,93 @@ public class OkHttp3HyperClientTest {
             CookieJar.NO_COOKIES,
             fakeBuilder.build().cookieJar()
         );
+        assertSame(fakePool, fakeBuilder.build().connectionPool());
+        assertSame(fakeDispatcher, fakeBuilder.build().dispatcher());
 
     }
 
 
 
+    @Test
+    public void testExecuteAsyncEnqueuesCall() throws Exception {
+        org.hyperfit.net.Request requestFake = new RFC6570RequestBuilder()
+            .setUrlTemplate(URL)
+            .setMethod(Method.GET)
+            .build();
+
+        Call mockCall = mock(Call.class);
+        when(mockOkHttpClient.newCall(Matchers.any(Request.class)))
+            .thenReturn(mockCall);
+
+        @SuppressWarnings("unchecked")
+        org.hyperfit.net.Callback<org.hyperfit.net.Response> mockCallback = mock(org.hyperfit.net.Callback.class);
+
+        okHttp3HyperClient.executeAsync(requestFake, mockCallback);
+
+        ArgumentCaptor<Callback> okCallback = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(okCallback.capture());
+        verify(mockCall, never()).execute();
+        verifyZeroInteractions(mockCallback);
+
+
+        String fakeContent = UUID.randomUUID().toString();
+        Response okResponseFake = okResponseBuilder
+            .request(okRequestBuilder.url(URL).build())
+            .code(200)
+            .message("ok")
+            .protocol(Protocol.HTTP_1_1)
+            .body(ResponseBody.create(null, fakeContent))
+            .build();
+
+        okCallback.getValue().onResponse(mockCall, okResponseFake);
+
+        ArgumentCaptor<org.hyperfit.net.Response> response = ArgumentCaptor.forClass(org.hyperfit.net.Response.class);
+        verify(mockCallback).onSuccess(response.capture());
+        verify(mockCallback, never()).onFailure(Matchers.any(Exception.class));
+
+        assertEquals(200, response.getValue().getCode());
+        assertEquals(fakeContent, response.getValue().getBody());
+        assertSame(requestFake, response.getValue().getRequest());
+    }
+
+    @Test
+    public void testExecuteAsyncReportsFailure() throws Exception {
+        org.hyperfit.net.Request requestFake = new RFC6570RequestBuilder()
+            .setUrlTemplate(URL)
+            .setMethod(Method.GET)
+            .build();
+
+        Call mockCall = mock(Call.class);
+        when(mockOkHttpClient.newCall(Matchers.any(Request.class)))
+            .thenReturn(mockCall);
+
+        @SuppressWarnings("unchecked")
+        org.hyperfit.net.Callback<org.hyperfit.net.Response> mockCallback = mock(org.hyperfit.net.Callback.class);
+
+        okHttp3HyperClient.executeAsync(requestFake, mockCallback);
+
+        ArgumentCaptor<Callback> okCallback = ArgumentCaptor.forClass(Callback.class);
+        verify(mockCall).enqueue(okCallback.capture());
+
+        IOException fakeException = new IOException(UUID.randomUUID().toString());
+        okCallback.getValue().onFailure(mockCall, fakeException);
+
+        ArgumentCaptor<Exception> failure = ArgumentCaptor.forClass(Exception.class);
+        verify(mockCallback).onFailure(failure.capture());
+        verify(mockCallback, never()).onSuccess(Matchers.any(org.hyperfit.net.Response.class));
+
+        assertThat(failure.getValue(), instanceOf(HyperfitException.class));
+        assertSame(fakeException, failure.getValue().getCause());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testExecuteAsyncNullRequest() {
+        @SuppressWarnings("unchecked")
+        org.hyperfit.net.Callback<org.hyperfit.net.Response> mockCallback = mock(org.hyperfit.net.Callback.class);
+
+        okHttp3HyperClient.executeAsync(null, mockCallback);
+    }
+
     @Test
     public void testGetSchemes(){
         String[] expected = new String[]{"https", "http"};
@@ -371,4 +474,157 @@ public class OkHttp3HyperClientTest {
         Arrays.sort(real);
         Arrays.equals(expected,real);
     }
+
+
+    @Test
+    public void testSetCookieHandlerKeepsPoolOfRealClient() {
+        OkHttpClient realClient = new OkHttpClient();
+        OkHttp3HyperClient subject = new OkHttp3HyperClient(realClient);
+
+        subject.setCookieHandler(mock(CookieHandler.class));
+
+        assertNotSame(realClient, subject.getOkHttpClient());
+        assertSame(realClient.connectionPool(), subject.getOkHttpClient().connectionPool());
+        assertSame(realClient.dispatcher(), subject.getOkHttpClient().dispatcher());
+    }
+
+
+    @Test
+    public void testBuilderDefaults() {
+        OkHttpClient defaults = new OkHttpClient();
+
+        OkHttpClient actual = OkHttp3HyperClient.builder().build().getOkHttpClient();
+
+        assertEquals(defaults.connectTimeoutMillis(), actual.connectTimeoutMillis());
+        assertEquals(defaults.readTimeoutMillis(), actual.readTimeoutMillis());
+        assertEquals(defaults.writeTimeoutMillis(), actual.writeTimeoutMillis());
+        assertEquals(defaults.protocols(), actual.protocols());
+        assertEquals(defaults.dispatcher().getMaxRequests(), actual.dispatcher().getMaxRequests());
+        assertEquals(defaults.dispatcher().getMaxRequestsPerHost(), actual.dispatcher().getMaxRequestsPerHost());
+    }
+
+
+    @Test
+    public void testBuilderSettings() {
+        OkHttpClient actual = OkHttp3HyperClient.builder()
+            .maxIdleConnections(20)
+            .keepAlive(30, TimeUnit.SECONDS)
+            .maxRequests(100)
+            .maxRequestsPerHost(25)
+            .preferHttp2(false)
+            .connectTimeout(1, TimeUnit.SECONDS)
+            .readTimeout(2, TimeUnit.SECONDS)
+            .writeTimeout(3, TimeUnit.SECONDS)
+            .cookieHandler(null)
+            .build()
+            .getOkHttpClient();
+
+        assertEquals(100, actual.dispatcher().getMaxRequests());
+        assertEquals(25, actual.dispatcher().getMaxRequestsPerHost());
+        assertEquals(Collections.singletonList(Protocol.HTTP_1_1), actual.protocols());
+        assertEquals(1000, actual.connectTimeoutMillis());
+        assertEquals(2000, actual.readTimeoutMillis());
+        assertEquals(3000, actual.writeTimeoutMillis());
+        assertSame(CookieJar.NO_COOKIES, actual.cookieJar());
+    }
+
+
+    @Test
+    public void testBuilderPreferHttp2() {
+        OkHttpClient actual = OkHttp3HyperClient.builder()
+            .preferHttp2(true)
+            .build()
+            .getOkHttpClient();
+
+        assertEquals(Arrays.asList(Protocol.HTTP_2, Protocol.HTTP_1_1), actual.protocols());
+    }
+
+
+    @Test
+    public void testBuilderSharesPoolAndDispatcherOfStartingClient() {
+        OkHttpClient start = new OkHttpClient();
+
+        OkHttpClient actual = OkHttp3HyperClient.builder()
+            .okHttpClient(start)
+            .readTimeout(5, TimeUnit.SECONDS)
+            .build()
+            .getOkHttpClient();
+
+        assertSame(start.connectionPool(), actual.connectionPool());
+        assertSame(start.dispatcher(), actual.dispatcher());
+        assertEquals(5000, actual.readTimeoutMillis());
+    }
+
+
+    @Test
+    public void testBuilderDoesNotChangeStartingClient() {
+        OkHttpClient start = new OkHttpClient();
+        int startMaxRequestsPerHost = start.dispatcher().getMaxRequestsPerHost();
+
+        OkHttpClient actual = OkHttp3HyperClient.builder()
+            .okHttpClient(start)
+            .maxIdleConnections(1)
+            .maxRequestsPerHost(startMaxRequestsPerHost + 1)
+            .build()
+            .getOkHttpClient();
+
+        assertNotSame(start.connectionPool(), actual.connectionPool());
+        assertNotSame(start.dispatcher(), actual.dispatcher());
+        assertEquals(startMaxRequestsPerHost, start.dispatcher().getMaxRequestsPerHost());
+        assertEquals(startMaxRequestsPerHost + 1, actual.dispatcher().getMaxRequestsPerHost());
+        assertEquals(start.dispatcher().getMaxRequests(), actual.dispatcher().getMaxRequests());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullOkHttpClient() {
+        OkHttp3HyperClient.builder().okHttpClient(null);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeMaxIdleConnections() {
+        OkHttp3HyperClient.builder().maxIdleConnections(-1);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroKeepAlive() {
+        OkHttp3HyperClient.builder().keepAlive(0, TimeUnit.SECONDS);
+    }
+
+
+    @Test
+    public void testBuilderKeepAliveUnderAMillisecond() {
+        OkHttpClient actual = OkHttp3HyperClient.builder()
+            .keepAlive(500, TimeUnit.MICROSECONDS)
+            .build()
+            .getOkHttpClient();
+
+        assertNotNull(actual.connectionPool());
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullKeepAliveUnit() {
+        OkHttp3HyperClient.builder().keepAlive(1, null);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderZeroMaxRequestsPerHost() {
+        OkHttp3HyperClient.builder().maxRequestsPerHost(0);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNegativeTimeout() {
+        OkHttp3HyperClient.builder().readTimeout(-1, TimeUnit.SECONDS);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBuilderNullTimeUnit() {
+        OkHttp3HyperClient.builder().connectTimeout(1, null);
+    }
 }
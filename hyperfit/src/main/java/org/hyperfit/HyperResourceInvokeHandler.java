@@ -1,24 +1,20 @@
 package org.hyperfit;
 
-import org.hyperfit.annotation.Content;
-import org.hyperfit.annotation.Data;
 import org.hyperfit.annotation.FirstLink;
-import org.hyperfit.annotation.Header;
-import org.hyperfit.annotation.Link;
-import org.hyperfit.annotation.NamedForm;
-import org.hyperfit.annotation.NamedLink;
-import org.hyperfit.annotation.Param;
 import org.hyperfit.content.ContentRegistry;
-import org.hyperfit.content.ContentType;
 import org.hyperfit.content.ContentTypeHandler;
 import org.hyperfit.exception.HyperfitException;
 import org.hyperfit.handlers.Java8DefaultMethodHandler;
+import org.hyperfit.methodinfo.InvocationPlan;
 import org.hyperfit.methodinfo.MethodInfo;
 import org.hyperfit.methodinfo.MethodInfoCache;
+import org.hyperfit.methodinfo.ParameterBinder;
+import org.hyperfit.metrics.HyperfitMetrics;
 import org.hyperfit.net.RequestBuilder;
+import org.hyperfit.proxy.DispatchingInvocationHandler;
+import org.hyperfit.proxy.MethodDispatcher;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.HyperResourceException;
-import org.hyperfit.resource.controls.form.Form;
 import org.hyperfit.resource.controls.link.HyperLink;
 import org.hyperfit.resource.controls.link.HyperLinkWrapper;
 import org.hyperfit.utils.ReflectUtils;
@@ -31,16 +27,16 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Arrays;
-
-import static org.hyperfit.methodinfo.MethodInfo.MethodType;
+import java.util.List;
 
 /**
  * <p>This class performs all the mappings associated to annotated interfaces for resource interfaces</p>
  * <p>Retrieves values for annotated methods with @Data annotation, or follow hyper media links
  * for methods annotated with @Link annotation</p>
  */
-public class HyperResourceInvokeHandler implements InvocationHandler {
+public class HyperResourceInvokeHandler implements DispatchingInvocationHandler {
 
     private static final String MESSAGE_EXCEPTION_SOLVING_MULTI_LINK = "Cannot resolve a multi link resource";
 
@@ -52,6 +48,8 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
 
     private final Java8DefaultMethodHandler java8DefaultMethodHandler;
 
+    private final HyperfitMetrics metrics;
+
     public HyperResourceInvokeHandler(
         HyperResource hyperResource,
         HyperfitProcessor requestProcessor,
@@ -67,6 +65,8 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
         this.methodInfoCache = methodInfoCache;
 
         this.java8DefaultMethodHandler = java8DefaultMethodHandler;
+
+        this.metrics = requestProcessor != null ? requestProcessor.getMetrics() : null;
     }
 
     protected HyperLink extendHyperLink(HyperLink hyperLink) {
@@ -105,10 +105,12 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
     }
 
     protected HyperLink[] extendHyperLinks(HyperLink[] hyperLinks) {
+        //resources may hand out the array they cache their links in, so it's left as is
+        HyperLink[] extended = new HyperLink[hyperLinks.length];
         for (int i = 0; i < hyperLinks.length; i++) {
-            hyperLinks[i] = this.extendHyperLink(hyperLinks[i]);
+            extended[i] = this.extendHyperLink(hyperLinks[i]);
         }
-        return hyperLinks;
+        return extended;
     }
 
     /**
@@ -120,8 +122,35 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
      * @return object according to the proxy method invoked
      */
     public Object invoke(Object proxy, Method method, Object[] args) throws Exception {
+        return invoke(proxy, method, null, args);
+    }
+
+    /**
+     * Binds the method's MethodInfo to the dispatcher, so calls made through it skip looking it up.  A method's
+     * MethodInfo is the same whichever cache it comes from, so the dispatcher works for any handler of this class.
+     *
+     * @param method method of the resource interface
+     * @return dispatcher that handles calls the same as {@link #invoke} does
+     */
+    public MethodDispatcher dispatcherFor(final Method method) {
+        final MethodInfo methodInfo = this.methodInfoCache.get(method);
+
+        return new MethodDispatcher() {
+            public Object dispatch(InvocationHandler handler, Object proxy, Object[] args) throws Exception {
+                return ((HyperResourceInvokeHandler) handler).invoke(proxy, method, methodInfo, args);
+            }
+        };
+    }
+
+    private Object invoke(Object proxy, Method method, MethodInfo knownMethodInfo, Object[] args) throws Exception {
+        long start = metrics == null ? 0 : System.nanoTime();
+        MethodInfo methodInfo = knownMethodInfo;
+
         try {
-            return processInvoke(proxy, method, args);
+            if (methodInfo == null) {
+                methodInfo = this.methodInfoCache.get(method);
+            }
+            return processInvoke(proxy, method, methodInfo, args);
         } catch (HyperfitException hce) {
             throw hce; //don't wrap up hyperfit exceptions
         } catch (Exception e) {
@@ -129,6 +158,35 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
                 "Unexpected error occurred when handling proxy method invocation [" + method + "] in [" + proxy + "] with arguments: " + Arrays.toString(args),
                 e
             );
+        } finally {
+            if (metrics != null) {
+                metrics.methodInvoked(
+                    method.getDeclaringClass(),
+                    method,
+                    methodInfo == null ? null : linkRelationship(methodInfo.getInvocationPlan()),
+                    System.nanoTime() - start
+                );
+            }
+        }
+    }
+
+    /**
+     * @return the link relationship of a link method, null for any other method
+     */
+    private static String linkRelationship(InvocationPlan plan) {
+        switch (plan.getStrategy()) {
+            case HAS_LINK:
+            case GET_LINK:
+            case GET_LINKS:
+            case FOLLOW_LINK:
+            case HAS_NAMED_LINK:
+            case GET_NAMED_LINK:
+            case GET_NAMED_LINKS:
+            case FOLLOW_NAMED_LINK:
+            case FIRST_LINK:
+                return plan.getRelationship();
+            default:
+                return null;
         }
     }
 
@@ -166,251 +224,280 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
 
         }
 
+        if (List.class.equals(returnClass)) {
+            Pair<? extends Class<?>,Type> elementTypeInfo = typeInfo.getCollectionType(genericReturnType, HyperResource.class);
+
+            Class<?> elementClass = elementTypeInfo.getValue0();
+
+            if(!HyperResource.class.isAssignableFrom(elementClass)){
+                throw new RuntimeException("Can't deal with list element type of " + elementClass);
+            }
+
+            TypeInfo newInfo = typeInfo.make(elementTypeInfo.getValue1());
+
+            List<Object> result = new ArrayList<Object>(hyperResources.length);
+
+            for (HyperResource hyperResource : hyperResources) {
+                result.add(
+                    this.requestProcessor.processResource(
+                        (Class<? extends HyperResource>)elementClass,
+                        hyperResource,
+                        newInfo
+                    )
+                );
+            }
+
+            return returnClass.cast(result);
+        }
+
         throw new RuntimeException("Can't deal with return type");
     }
 
 
     /**
-     * Processes invocation of resource proxy methods
+     * Follows each of the given links, the requests are made in parallel by the processor
      *
-     * @param proxy  proxy instance
-     * @param method method to invoke
-     * @param args   method params
-     * @return object according to the proxy method invoked
+     * @param methodInfo info about the proxy method being invoked, its return type must be an array or a List
+     * @param hyperLinks the links to follow
+     * @param args the proxy method params
+     * @return an array or List of the resources in the same order as the links
      */
-    protected Object processInvoke(Object proxy, Method method, Object[] args) throws Exception {
+    protected Object processLinkRequests(
+        MethodInfo methodInfo,
+        HyperLink[] hyperLinks,
+        Object[] args
+    ){
+        Class<?> returnClass = methodInfo.getReturnType();
 
-        MethodInfo methodInfo = this.methodInfoCache.get(method);
+        Pair<? extends Class<?>,Type> elementTypeInfo = returnClass.isArray() ?
+            typeInfo.getArrayType(returnClass, methodInfo.getGenericReturnType(), HyperResource.class)
+            :
+            typeInfo.getCollectionType(methodInfo.getGenericReturnType(), HyperResource.class);
 
-        if(methodInfo.isDefaultMethod()) {
-            // In the case of a default method on an interface we need to do this a bit differently.
+        Class<?> elementClass = elementTypeInfo.getValue0();
 
-            return java8DefaultMethodHandler.invoke(
-                new Java8DefaultMethodHandler.DefaultMethodContext(
-                    (HyperResource) proxy,
-                    method
-                ),
-                args
-            );
+        List<RequestBuilder> requestBuilders = new ArrayList<RequestBuilder>(hyperLinks.length);
+        for (HyperLink hyperLink : hyperLinks) {
+            RequestBuilder requestBuilder = hyperLink.toRequestBuilder();
+            // Set method type (default=GET)
+            requestBuilder.setMethod(methodInfo.getRequestMethod());
+            assignAnnotatedValues(requestBuilder, methodInfo.getInvocationPlan().getParameterBinders(), args);
+            requestBuilders.add(requestBuilder);
         }
 
+        List<?> results = requestProcessor.processRequests(
+            elementClass,
+            requestBuilders,
+            typeInfo.make(elementTypeInfo.getValue1())
+        );
 
-        MethodType methodType = methodInfo.getMethodType();
-
-        //Equals is handled very specially so we check for that first
-        if (MethodType.EQUALS == methodType) {
-            return determineEquals(args);
+        if (returnClass.isArray()) {
+            return results.toArray(ReflectUtils.createArray(elementClass, results.size()));
         }
 
-        //This handler needs to capture follow methods so it can resolve invokes to follow
-        if (MethodType.GET_LINK == methodType) {
-            return this.extendHyperLink((HyperLink) method.invoke(this.hyperResource, args));
-        }
+        return results;
+    }
 
-        if (MethodType.GET_LINKS == methodType) {
-           return this.extendHyperLinks((HyperLink[]) method.invoke(this.hyperResource, args));
-        }
 
+    /**
+     * Processes invocation of resource proxy methods
+     *
+     * @param proxy  proxy instance
+     * @param method method to invoke
+     * @param args   method params
+     * @return object according to the proxy method invoked
+     */
+    protected Object processInvoke(Object proxy, Method method, Object[] args) throws Exception {
+        return processInvoke(proxy, method, this.methodInfoCache.get(method), args);
+    }
+
+    private Object processInvoke(Object proxy, Method method, MethodInfo methodInfo, Object[] args) throws Exception {
+        InvocationPlan plan = methodInfo.getInvocationPlan();
+        String linkRelationship = plan.getRelationship();
 
-        //If it's a method on hyperResource just pass it on through
-        if (MethodType.FROM_HYPER_RESOURCE_CLASS == methodType ||
-                MethodType.HASH_CODE == methodType ||
-                MethodType.TO_STRING == methodType) {
+        switch (plan.getStrategy()) {
+            case DEFAULT_METHOD:
+                // In the case of a default method on an interface we need to do this a bit differently.
+                return java8DefaultMethodHandler.invoke(
+                    new Java8DefaultMethodHandler.DefaultMethodContext(
+                        (HyperResource) proxy,
+                        method
+                    ),
+                    args
+                );
 
-            return method.invoke(this.hyperResource, args);
-        }
+            //Equals is handled very specially
+            case EQUALS:
+                return determineEquals(args);
 
-        // Data method invocation
-        Data data = methodInfo.getDataAnnotation();
-        if (data != null) {
-            return hyperResource.getPathAs(methodInfo.getReturnType(), methodInfo.isNullWhenMissing(), data.value());
-        }
+            //This handler needs to capture follow methods so it can resolve invokes to follow
+            case WRAP_LINK:
+                return this.extendHyperLink((HyperLink) method.invoke(this.hyperResource, args));
 
-        // Link method invocation
-        Link link = methodInfo.getLinkAnnotation();
-        if (link != null) {
-            String linkRelationship = link.value();
+            case WRAP_LINKS:
+                return this.extendHyperLinks((HyperLink[]) method.invoke(this.hyperResource, args));
 
-            //NOTE: this seems a bit hacky, but will a link ever return a boolean? probably not
-            if (boolean.class.isAssignableFrom(methodInfo.getReturnType())) {
+            //If it's a method on hyperResource just pass it on through
+            case PASS_THROUGH:
+                return method.invoke(this.hyperResource, args);
+
+            case DATA:
+                return hyperResource.getPathAs(methodInfo.getReturnType(), methodInfo.isNullWhenMissing(), plan.getPath());
+
+            case HAS_LINK:
                 return hyperResource.hasLink(linkRelationship);
-            }
 
-            //single hyper link
-            if (HyperLink.class.isAssignableFrom(methodInfo.getReturnType())) {
+            case GET_LINK:
                 if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
                     return null;
                 }
                 //TODO: why do we cast this?
                 return ReflectUtils.cast(HyperResource.class, proxy).getLink(linkRelationship);
-            }
 
-            //hyper links
-            if (HyperLink[].class.isAssignableFrom(methodInfo.getReturnType())) {
+            case GET_LINKS:
                 if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
                     return null;
                 }
                 //TODO: why do we cast this?
                 return ReflectUtils.cast(HyperResource.class, proxy).getLinks(linkRelationship);
-            }
 
-            //If we can get it locally...do it!
-            if (hyperResource.canResolveLinkLocal(linkRelationship) ) {
-                //TODO: when we get to strategies this condition can be much more interesting
-                //for now we do this if the return type is an array or the link is a multi link
-                if(hyperResource.isMultiLink(linkRelationship) || methodInfo.getReturnType().isArray()) {
+            case FOLLOW_LINK:
+                return followLink(methodInfo, plan, args);
 
-                    return this.processEmbeddedResources(
-                        methodInfo.getReturnType(),
-                        methodInfo.getGenericReturnType(),
-                        hyperResource.resolveLinksLocal(linkRelationship)
-                    );
+            case HAS_NAMED_LINK:
+                return hyperResource.hasLink(linkRelationship, plan.getLinkName());
 
-                } else if (HyperResource.class.isAssignableFrom(methodInfo.getReturnType())){
-                    return this.requestProcessor.processResource(
-                        (Class<? extends HyperResource>)methodInfo.getReturnType(),
-                        hyperResource.resolveLinkLocal(linkRelationship),
-                        typeInfo.make(methodInfo.getGenericReturnType())
-                    );
+            case GET_NAMED_LINK:
+                if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
+                    return null;
                 }
+                //TODO: why do we cast this?
+                return ReflectUtils.cast(HyperResource.class, proxy).getLink(linkRelationship, plan.getLinkName());
 
-            }
+            case GET_NAMED_LINKS:
+                if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
+                    return null;
+                }
+                //TODO: why do we cast this?
+                return ReflectUtils.cast(HyperResource.class, proxy).getLinks(linkRelationship, plan.getLinkName());
 
-            //@Link annotated methods can refer to multiple links...we don't currently support multiple requests
-            if (hyperResource.isMultiLink(linkRelationship)) {
-               throw new UnsupportedOperationException(MESSAGE_EXCEPTION_SOLVING_MULTI_LINK);
-            }
+            case FOLLOW_NAMED_LINK:
+                //TODO: we have no concept of resolving a named link locally.  We would need a canResolveLocal(rel, name) and resolveLocal(rel, name)
+                //HAL has no way to identify a named embedded link so for now we don't even bother checking for that..
+                if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship, plan.getLinkName())){
+                    return null;
+                }
 
-            if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
-                return null;
-            }
+                //At this point we know it's a single link that's not embedded  and is expected to be present
+                return followHyperLink(methodInfo, plan, hyperResource.getLink(linkRelationship, plan.getLinkName()), args);
 
-            //At this point we know it's a single link that's not embedded and is expected to be present
-            HyperLink hyperLink = hyperResource.getLink(linkRelationship);
-            RequestBuilder requestBuilder = hyperLink.toRequestBuilder();
-            // Set method type (default=GET)
-            requestBuilder.setMethod(methodInfo.getRequestMethod());
-            assignAnnotatedValues(requestBuilder, methodInfo.getParameterAnnotations(), args);
-            //If follow supported parameters..we could just pass those and call hyperlink.follow(params)..if we could figure out the TypeRef thing...
-            return requestProcessor.processRequest(methodInfo.getReturnType(), requestBuilder, typeInfo.make(methodInfo.getGenericReturnType()));
-        }
+            //TODO: first link annotated methods don't currently perform all the functions of other link annotated methods
+            //TODO: this is built to be a custom strategy on top of basic Resource functions
+            case FIRST_LINK:
+                return firstLink(proxy, plan);
 
+            case HAS_FORM:
+                return hyperResource.hasForm(linkRelationship);
 
-        // Named Link method invocation
-        //TODO: this is VERY similar to above, it just calls different methods
-        //maybe when we move to strategies this will get cleaned up
-        NamedLink namedLink = methodInfo.getNamedLinkAnnotation();
-        if (namedLink != null) {
-            String linkRelationship = namedLink.rel();
-            String linkName = namedLink.name();
+            case GET_FORM:
+                return hyperResource.getForm(linkRelationship);
 
-            //java doesn't let us have nulls..but we can have null names on links so we do this
-            if(linkName.equals(NamedLink.NULL)){
-                linkName = null;
-            }
+            case SUBMIT_FORM:
+                RequestBuilder requestBuilder = hyperResource.getForm(linkRelationship).toRequestBuilder();
+                assignAnnotatedValues(requestBuilder, plan.getParameterBinders(), args);
+                return requestProcessor.processRequest(methodInfo.getReturnType(), requestBuilder, typeInfo.make(methodInfo.getGenericReturnType()));
 
-            //NOTE: this seems a bit hacky, but will a link ever return a boolean? probably not
-            if (boolean.class.isAssignableFrom(methodInfo.getReturnType())) {
-                return hyperResource.hasLink(linkRelationship, linkName);
-            }
+            default:
+                throw new HyperfitException("Cannot handle proxy method invocation [" + method + "] in [" + proxy + "]");
+        }
+    }
 
-            //single hyper link
-            if (HyperLink.class.isAssignableFrom(methodInfo.getReturnType())) {
-                if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
-                    return null;
-                }
-                //TODO: why do we cast this?
-                return ReflectUtils.cast(HyperResource.class, proxy).getLink(linkRelationship, linkName);
-            }
 
-            //hyper links
-            if (HyperLink[].class.isAssignableFrom(methodInfo.getReturnType())) {
-                if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
-                    return null;
-                }
-                //TODO: why do we cast this?
-                return ReflectUtils.cast(HyperResource.class, proxy).getLinks(linkRelationship, linkName);
-            }
+    private Object followLink(MethodInfo methodInfo, InvocationPlan plan, Object[] args) {
+        String linkRelationship = plan.getRelationship();
 
-            //TODO: we have no concept of resolving a named link locally.  We would need a canResolveLocal(rel, name) and resolveLocal(rel, name)
-            //HAL has no way to identify a named embedded link so for now we don't even bother checking for that..
+        //If we can get it locally...do it!
+        if (hyperResource.canResolveLinkLocal(linkRelationship) ) {
+            //TODO: when we get to strategies this condition can be much more interesting
+            //for now we do this if the return type is an array or the link is a multi link
+            if(hyperResource.isMultiLink(linkRelationship) || plan.isCollectionReturn()) {
 
+                return this.processEmbeddedResources(
+                    methodInfo.getReturnType(),
+                    methodInfo.getGenericReturnType(),
+                    hyperResource.resolveLinksLocal(linkRelationship)
+                );
 
-            if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship, linkName)){
-                return null;
+            } else if (HyperResource.class.isAssignableFrom(methodInfo.getReturnType())){
+                return this.requestProcessor.processResource(
+                    (Class<? extends HyperResource>)methodInfo.getReturnType(),
+                    hyperResource.resolveLinkLocal(linkRelationship),
+                    typeInfo.make(methodInfo.getGenericReturnType())
+                );
             }
 
-            //At this point we know it's a single link that's not embedded  and is expected to be present
-            HyperLink hyperLink = hyperResource.getLink(linkRelationship, linkName);
-            RequestBuilder requestBuilder = hyperLink.toRequestBuilder();
-            // Set method type (default=GET)
-            requestBuilder.setMethod(methodInfo.getRequestMethod());
-            assignAnnotatedValues(requestBuilder, methodInfo.getParameterAnnotations(), args);
-            //If follow supported parameters..we could just pass those and call hyperlink.follow(params)..if we could figure out the TypeRef thing...
-            return requestProcessor.processRequest(methodInfo.getReturnType(), requestBuilder, typeInfo.make(methodInfo.getGenericReturnType()));
+        }
+
+        //@Link annotated methods can refer to multiple links...if a collection is wanted we request them all
+        if (plan.isCollectionReturn()) {
+            if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
+                return null;
+            }
 
+            return this.processLinkRequests(
+                methodInfo,
+                hyperResource.getLinks(linkRelationship),
+                args
+            );
         }
 
+        //...otherwise there's no way to know which of the links is wanted
+        if (hyperResource.isMultiLink(linkRelationship)) {
+           throw new UnsupportedOperationException(MESSAGE_EXCEPTION_SOLVING_MULTI_LINK);
+        }
 
-        // First Link method invocation
-        //TODO: first link annotated methods don't currently perform all the functions of other link annotated methods
-        //TODO: this is built to be a custom strategy on top of basic Resource functions
-        FirstLink firstLink = methodInfo.getFirstLinkAnnotation();
-        if (firstLink != null) {
-            if (HyperLink.class.isAssignableFrom(methodInfo.getReturnType())) {
+        if(methodInfo.isNullWhenMissing() && !hyperResource.hasLink(linkRelationship)){
+            return null;
+        }
 
-                String relationship = firstLink.rel();
-                HyperLink[] relLinks = hyperResource.getLinks(relationship);
+        //At this point we know it's a single link that's not embedded and is expected to be present
+        return followHyperLink(methodInfo, plan, hyperResource.getLink(linkRelationship), args);
+    }
 
-                if(relLinks.length == 0){
-                    throw new HyperResourceException("Could not find a link with relationship " + relationship);
-                }
 
-                for(String name : firstLink.names()){
-                    //java doesn't let us have nulls..but we can have null names on links so we do this
-                    if(name.equals(FirstLink.NULL)){
-                        name = null;
-                    }
-
-                    if(StringUtils.safeEquals(name, FirstLink.MATCH_ANY_NAME)){
-                        //If it's the wildcard, just return the first one
-                        return ReflectUtils.cast(HyperResource.class, proxy).getLink(relationship, relLinks[0].getName());
-                    }
-
-                    for(HyperLink relLink : relLinks){
-                        if(StringUtils.safeEquals(name, relLink.getName())){
-                            return ReflectUtils.cast(HyperResource.class, proxy).getLink(relationship, relLink.getName());
-                        }
-                    }
-                }
+    private Object followHyperLink(MethodInfo methodInfo, InvocationPlan plan, HyperLink hyperLink, Object[] args) {
+        RequestBuilder requestBuilder = hyperLink.toRequestBuilder();
+        // Set method type (default=GET)
+        requestBuilder.setMethod(methodInfo.getRequestMethod());
+        assignAnnotatedValues(requestBuilder, plan.getParameterBinders(), args);
+        //If follow supported parameters..we could just pass those and call hyperlink.follow(params)..if we could figure out the TypeRef thing...
+        return requestProcessor.processRequest(methodInfo.getReturnType(), requestBuilder, typeInfo.make(methodInfo.getGenericReturnType()));
+    }
 
-                //If it was never found indicate that.
-                throw new HyperResourceException("Could not find a link with relationship [" + relationship + "] and name [" +  Arrays.toString(firstLink.names()) + "]");
 
-            }
+    private HyperLink firstLink(Object proxy, InvocationPlan plan) {
+        String relationship = plan.getRelationship();
+        HyperLink[] relLinks = hyperResource.getLinks(relationship);
 
+        if(relLinks.length == 0){
+            throw new HyperResourceException("Could not find a link with relationship " + relationship);
         }
 
-        NamedForm namedFormAnnotation = methodInfo.getNamedFormAnnotation();
-        if (namedFormAnnotation != null) {
-            String formName = namedFormAnnotation.value();
-
-            if (boolean.class.isAssignableFrom(methodInfo.getReturnType())){
-                return hyperResource.hasForm(formName);
+        for(String name : plan.getNames()){
+            if(StringUtils.safeEquals(name, FirstLink.MATCH_ANY_NAME)){
+                //If it's the wildcard, just return the first one
+                return ReflectUtils.cast(HyperResource.class, proxy).getLink(relationship, relLinks[0].getName());
             }
 
-            if(Form.class.isAssignableFrom(methodInfo.getReturnType())){
-                return hyperResource.getForm(formName);
+            for(HyperLink relLink : relLinks){
+                if(StringUtils.safeEquals(name, relLink.getName())){
+                    return ReflectUtils.cast(HyperResource.class, proxy).getLink(relationship, relLink.getName());
+                }
             }
-
-            //At this point we know it's a single link that's not embedded
-            RequestBuilder requestBuilder = hyperResource.getForm(formName).toRequestBuilder();
-            assignAnnotatedValues(requestBuilder, methodInfo.getParameterAnnotations(), args);
-            return requestProcessor.processRequest(methodInfo.getReturnType(), requestBuilder, typeInfo.make(methodInfo.getGenericReturnType()));
-
         }
 
-        throw new HyperfitException("Cannot handle proxy method invocation [" + method + "] in [" + proxy + "]");
+        //If it was never found indicate that.
+        throw new HyperResourceException("Could not find a link with relationship [" + relationship + "] and name [" +  Arrays.toString(plan.getNames()) + "]");
     }
 
 
@@ -423,13 +510,7 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
      * @param methodCallParams     parameters values
      */
     protected void assignAnnotatedValues(org.hyperfit.net.RequestBuilder requestBuilder, Annotation[][] annotationsPerParams, Object[] methodCallParams) {
-        if (methodCallParams != null) {
-            for (int i = 0; i < methodCallParams.length; i++) {
-                if (methodCallParams[i] != null) {
-                    assignAnnotatedValues(requestBuilder, annotationsPerParams[i], methodCallParams[i]);
-                }
-            }
-        }
+        assignAnnotatedValues(requestBuilder, ParameterBinder.of(annotationsPerParams), methodCallParams);
     }
 
     /**
@@ -440,24 +521,48 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
      * @param value                param value
      */
     protected void assignAnnotatedValues(org.hyperfit.net.RequestBuilder requestBuilder, Annotation[] annotationsPerParams, Object value) {
-        for (Annotation annotation : annotationsPerParams) {
-            if (Param.class.isInstance(annotation)) {
-                requestBuilder.setParam(ReflectUtils.cast(Param.class, annotation).value(), value);
-            }
+        assignAnnotatedValues(requestBuilder, ParameterBinder.of(annotationsPerParams), value);
+    }
 
-            if (Header.class.isInstance(annotation)) {
-                requestBuilder.addHeader(ReflectUtils.cast(Header.class, annotation).value(), value.toString());
+    /**
+     * Assigns method parameter values into the requestBuilder using the precompiled binders
+     *
+     * @param requestBuilder  builder for the request
+     * @param bindersPerParams the binders of each parameter
+     * @param methodCallParams parameters values
+     */
+    protected void assignAnnotatedValues(RequestBuilder requestBuilder, ParameterBinder[][] bindersPerParams, Object[] methodCallParams) {
+        if (methodCallParams != null) {
+            for (int i = 0; i < methodCallParams.length; i++) {
+                if (methodCallParams[i] != null) {
+                    assignAnnotatedValues(requestBuilder, bindersPerParams[i], methodCallParams[i]);
+                }
             }
+        }
+    }
 
-            if(Content.class.isInstance(annotation)){
-                //this seems dangerous...should we force a default value?
-                ContentType contentType = ContentType.parse(Content.class.cast(annotation).value());
-
-                //TODO: make this protected hack non-sense go away...something is wrong with our class layout if we need to do this
-                ContentTypeHandler contentEncoder = this.requestProcessor.contentRegistry.getHandler(contentType, ContentRegistry.Purpose.PREPARE_REQUEST);
-                contentEncoder.prepareRequest(requestBuilder, value);
+    /**
+     * Assigns a parameter value into the requestBuilder according to its binders
+     *
+     * @param requestBuilder  builder for the request
+     * @param binders the binders of the parameter
+     * @param value   param value
+     */
+    protected void assignAnnotatedValues(RequestBuilder requestBuilder, ParameterBinder[] binders, Object value) {
+        for (ParameterBinder binder : binders) {
+            switch (binder.getTarget()) {
+                case PARAM:
+                    requestBuilder.setParam(binder.getValue(), value);
+                    break;
+                case HEADER:
+                    requestBuilder.addHeader(binder.getValue(), value.toString());
+                    break;
+                case CONTENT:
+                    //TODO: make this protected hack non-sense go away...something is wrong with our class layout if we need to do this
+                    ContentTypeHandler contentEncoder = this.requestProcessor.contentRegistry.getHandler(binder.getContentType(), ContentRegistry.Purpose.PREPARE_REQUEST);
+                    contentEncoder.prepareRequest(requestBuilder, value);
+                    break;
             }
-
         }
     }
 
@@ -468,17 +573,22 @@ public class HyperResourceInvokeHandler implements InvocationHandler {
      * @return equals comparison result
      */
     protected boolean determineEquals(Object[] args) {
-        HyperResourceInvokeHandler otherProxy;
-
-        try {
-            otherProxy = (HyperResourceInvokeHandler) Proxy.getInvocationHandler(args[0]);
-        } catch (IllegalArgumentException e) {
+        Object other = args[0];
+        if (other == null) {
             return false;
-        } catch (ClassCastException e) {
+        }
+
+        //the proxy could come from a java.lang.reflect.Proxy or from a ProxyFactory that makes its own classes
+        InvocationHandler otherHandler = Proxy.isProxyClass(other.getClass()) ?
+            Proxy.getInvocationHandler(other)
+            :
+            requestProcessor.getInvocationHandler(other);
+
+        if (!(otherHandler instanceof HyperResourceInvokeHandler)) {
             return false;
         }
 
-        return hyperResource.equals(otherProxy.hyperResource);
+        return hyperResource.equals(((HyperResourceInvokeHandler) otherHandler).hyperResource);
     }
 
 
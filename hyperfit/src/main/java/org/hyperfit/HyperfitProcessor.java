@@ -2,6 +2,7 @@ package org.hyperfit;
 
 
 import lombok.NonNull;
+import org.hyperfit.content.CompiledContentRegistry;
 import org.hyperfit.content.ContentRegistry;
 import org.hyperfit.content.ContentType;
 import org.hyperfit.content.ContentTypeHandler;
@@ -10,8 +11,15 @@ import org.hyperfit.errorhandler.ErrorHandler;
 import org.hyperfit.exception.HyperfitException;
 import org.hyperfit.handlers.Java8DefaultMethodHandler;
 import org.hyperfit.methodinfo.ConcurrentHashMapResourceMethodInfoCache;
+import org.hyperfit.metrics.HyperfitMetrics;
+import org.hyperfit.methodinfo.MethodInfoCache;
 import org.hyperfit.methodinfo.ResourceMethodInfoCache;
 import org.hyperfit.net.*;
+import org.hyperfit.net.cache.ParsedResourceCache;
+import org.hyperfit.net.cache.ResponseCache;
+import org.hyperfit.net.cache.ResponseCacheStage;
+import org.hyperfit.proxy.JdkProxyFactory;
+import org.hyperfit.proxy.ProxyFactory;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.InterfaceSelectionStrategy;
 import org.hyperfit.resource.SimpleInterfaceSelectionStrategy;
@@ -20,8 +28,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.InvocationHandler;
-import java.lang.reflect.Proxy;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.hyperfit.utils.MoreObjects.firstNonNull;
 
@@ -34,6 +48,20 @@ public class HyperfitProcessor {
 
     private static final Logger LOG = LoggerFactory.getLogger(HyperfitProcessor.class);
 
+    //how many of the requests for a multi link relationship are made at once unless the builder is told otherwise
+    static final int DEFAULT_MAX_PARALLEL_REQUESTS = 8;
+
+    //prefetched responses are expected to be used right away, these keep forgotten ones from piling up
+    static final long DEFAULT_PREFETCH_TIME_TO_LIVE_MILLIS = 30000;
+    static final int MAX_PREFETCHES = 64;
+
+    //Used when no executor is given to the builder, work just runs on whatever thread asked for it
+    private static final Executor CALLING_THREAD_EXECUTOR = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
 
     private final RequestInterceptors requestInterceptors;
     private final ResourceMethodInfoCache resourceMethodInfoCache;
@@ -45,16 +73,43 @@ public class HyperfitProcessor {
     private final Java8DefaultMethodHandler java8DefaultMethodHandler;
     private final ResponseInterceptors responseInterceptors;
     private final List<Pipeline.Step<Response, HyperResource>> responseToResourcePipelineSteps;
+    private final Executor executor;
+    private final int maxParallelRequests;
+    private final ResponseCacheStage responseCacheStage;
+    private final ParsedResourceCache parsedResourceCache;
+    private final ProxyFactory proxyFactory;
+    private final HyperfitMetrics metrics;
+    private final RequestCoalescer requestCoalescer;
+    private final Set<String> prefetchRels;
+    private final PrefetchCache prefetchCache;
 
     private HyperfitProcessor(Builder builder) {
 
-        contentRegistry = Preconditions.checkNotNull(builder.contentRegistry);
+        //a snapshot, so later changes to the builder don't change this processor & lookups don't need locking
+        contentRegistry = CompiledContentRegistry.compile(Preconditions.checkNotNull(builder.contentRegistry));
         errorHandler = firstNonNull(builder.errorHandler, new DefaultErrorHandler());
         resourceMethodInfoCache = firstNonNull(builder.resourceMethodInfoCache, new ConcurrentHashMapResourceMethodInfoCache());
         requestInterceptors = firstNonNull(builder.requestInterceptors, new RequestInterceptors());
         responseInterceptors = firstNonNull(builder.responseInterceptors, new ResponseInterceptors());
         interfaceSelectionStrategy =  Preconditions.checkNotNull(builder.interfaceSelectionStrategy);
         java8DefaultMethodHandler = Preconditions.checkNotNull(builder.java8DefaultMethodHandler);
+        executor = firstNonNull(builder.executor, CALLING_THREAD_EXECUTOR);
+        maxParallelRequests = builder.maxParallelRequests;
+        responseCacheStage = builder.responseCache == null ? null : new ResponseCacheStage(builder.responseCache);
+        parsedResourceCache = builder.parsedResourceCache;
+        proxyFactory = Preconditions.checkNotNull(builder.proxyFactory);
+        metrics = builder.metrics;
+        requestCoalescer = builder.coalesceRequests ? new RequestCoalescer() : null;
+
+        prefetchRels = Collections.unmodifiableSet(new LinkedHashSet<String>(builder.prefetchRels));
+        if(!prefetchRels.isEmpty() && builder.executor == null){
+            throw new IllegalArgumentException("an executor must be given to prefetch links");
+        }
+        prefetchCache = prefetchRels.isEmpty() ? null : new PrefetchCache(
+            builder.prefetchTimeToLiveMillis,
+            TimeUnit.MILLISECONDS,
+            MAX_PREFETCHES
+        );
 
         /*
          * Don't tie ourselves to the actual List in the Builder. If a Step is added/removed from the Pipeline in
@@ -79,6 +134,74 @@ public class HyperfitProcessor {
             contentRegistry.getResponseParsingContentTypes()
         );
 
+        preload(builder.preloadClasses);
+    }
+
+
+    //Only used to create throw away proxies when preloading, they never get invoked
+    private static final InvocationHandler PRELOAD_HANDLER = new InvocationHandler() {
+        public Object invoke(Object proxy, java.lang.reflect.Method method, Object[] args) {
+            throw new UnsupportedOperationException("preload proxies can not be invoked");
+        }
+    };
+
+    /**
+     * Builds the method info of the given resource interfaces, and of every resource interface reachable from their
+     * methods' return types, along with their proxy classes.  Otherwise that's done by the first request that needs them.
+     */
+    private void preload(Collection<Class<? extends HyperResource>> resourceClasses) {
+        if (resourceClasses.isEmpty()) {
+            return;
+        }
+
+        Set<Class<?>> seen = new HashSet<Class<?>>();
+        LinkedList<Class<?>> toVisit = new LinkedList<Class<?>>(resourceClasses);
+
+        while (!toVisit.isEmpty()) {
+            Class<?> resourceClass = toVisit.removeFirst();
+            if (!seen.add(resourceClass)) {
+                continue;
+            }
+
+            MethodInfoCache methodInfoCache = resourceMethodInfoCache.get(resourceClass);
+            for (java.lang.reflect.Method method : resourceClass.getMethods()) {
+                methodInfoCache.get(method);
+                addResourceInterfaces(method.getGenericReturnType(), toVisit);
+            }
+
+            try {
+                proxyFactory.createProxy(
+                    resourceClass.getClassLoader(),
+                    interfaceSelectionStrategy.determineInterfaces(resourceClass, null),
+                    PRELOAD_HANDLER
+                );
+            } catch (RuntimeException e) {
+                //interface selection strategies may need the resource to decide, the proxy class will be made when it's first needed
+                LOG.debug("Could not preload the proxy class for {}", resourceClass, e);
+            }
+        }
+
+        LOG.debug("Preloaded {} resource interfaces", seen.size());
+    }
+
+    private static void addResourceInterfaces(java.lang.reflect.Type type, Collection<Class<?>> into) {
+        if (type instanceof Class) {
+            Class<?> clazz = (Class<?>) type;
+            if (clazz.isArray()) {
+                addResourceInterfaces(clazz.getComponentType(), into);
+            } else if (clazz.isInterface() && HyperResource.class.isAssignableFrom(clazz)) {
+                into.add(clazz);
+            }
+        } else if (type instanceof java.lang.reflect.ParameterizedType) {
+            java.lang.reflect.ParameterizedType parameterizedType = (java.lang.reflect.ParameterizedType) type;
+            addResourceInterfaces(parameterizedType.getRawType(), into);
+            for (java.lang.reflect.Type argument : parameterizedType.getActualTypeArguments()) {
+                addResourceInterfaces(argument, into);
+            }
+        } else if (type instanceof java.lang.reflect.GenericArrayType) {
+            addResourceInterfaces(((java.lang.reflect.GenericArrayType) type).getGenericComponentType(), into);
+        }
+        //type variables & wildcards can only be resolved when the resource is processed
     }
 
 
@@ -156,18 +279,456 @@ public class HyperfitProcessor {
         }
 
 
+        long start = metrics == null ? 0 : System.nanoTime();
+
         requestInterceptors.intercept(requestBuilder);
 
         Request request = requestBuilder.build();
 
+        if(metrics != null){
+            metrics.requestBuilt(request, System.nanoTime() - start);
+        }
+
 
         return processResponse(
             classToReturn,
-            clientSelectionStrategy.chooseClient(request).execute(request),
+            execute(request),
             typeInfo
         );
     }
 
+    private Response execute(Request request){
+        if(prefetchCache != null){
+            Response prefetched = prefetchCache.take(request);
+            if(prefetched != null){
+                return prefetched;
+            }
+        }
+
+        return fetch(request);
+    }
+
+    private Response fetch(Request request){
+        if(responseCacheStage == null){
+            return execute(clientSelectionStrategy.chooseClient(request), request);
+        }
+
+        ResponseCacheStage.Lookup lookup = responseCacheStage.lookup(request);
+        if(lookup.isHit()){
+            return lookup.getCachedResponse();
+        }
+
+        Request toExecute = lookup.getRequest();
+        return responseCacheStage.complete(
+            lookup,
+            execute(clientSelectionStrategy.chooseClient(toExecute), toExecute)
+        );
+    }
+
+    private Response execute(final HyperClient client, Request request){
+        if(requestCoalescer == null){
+            return executeTimed(client, request);
+        }
+
+        return requestCoalescer.execute(request, new RequestCoalescer.Execution() {
+            public Response execute(Request request) {
+                return executeTimed(client, request);
+            }
+        });
+    }
+
+    private Response executeTimed(HyperClient client, Request request){
+        if(metrics == null){
+            return client.execute(request);
+        }
+
+        long start = System.nanoTime();
+        Response response = null;
+        try {
+            response = client.execute(request);
+            return response;
+        } finally {
+            metrics.requestExecuted(client, request, response, System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * <p>Obtains several resources of the same type by going directly to their sources.</p>
+     *
+     * <p>The requests are processed concurrently using the executor given to the builder with at most
+     * maxParallelRequests of them in progress at once.  The calling thread takes part in processing the requests
+     * so this is safe to call from work that is itself running on that executor.</p>
+     *
+     * @param classToReturn  the class that each resource should be returned as
+     * @param requestBuilders request objects
+     * @return resources with same type specified in the resource class, in the same order as the requestBuilders
+     */
+    public <T> List<T> processRequests(
+        final Class<T> classToReturn,
+        List<? extends RequestBuilder> requestBuilders,
+        final TypeInfo typeInfo
+    ) {
+
+        if(classToReturn == null){
+            throw new IllegalArgumentException("classToReturn can not be null");
+        }
+
+        if(requestBuilders == null){
+            throw new IllegalArgumentException("requestBuilders can not be null");
+        }
+
+        final int size = requestBuilders.size();
+        final RequestBuilder[] builders = requestBuilders.toArray(new RequestBuilder[size]);
+        final Object[] results = new Object[size];
+
+        final AtomicInteger next = new AtomicInteger();
+        final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+        final CountDownLatch done = new CountDownLatch(size);
+
+        Runnable worker = new Runnable() {
+            public void run() {
+                int i;
+                while((i = next.getAndIncrement()) < size){
+                    try {
+                        //once something has failed there's no point making any more requests
+                        if(failure.get() == null) {
+                            results[i] = processRequest(classToReturn, builders[i], typeInfo);
+                        }
+                    } catch (Throwable t){
+                        failure.compareAndSet(null, t);
+                    } finally {
+                        done.countDown();
+                    }
+                }
+            }
+        };
+
+        int helpers = Math.min(maxParallelRequests, size) - 1;
+        for(int h = 0; h < helpers; h++){
+            try {
+                executor.execute(worker);
+            } catch (RejectedExecutionException e){
+                //the calling thread will just pick up the slack
+                LOG.debug("Executor rejected link request worker, continuing with {} workers", h + 1);
+                break;
+            }
+        }
+
+        worker.run();
+
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HyperfitException("Interrupted while waiting for requests to complete", e);
+        }
+
+        Throwable t = failure.get();
+        if(t != null){
+            if(t instanceof RuntimeException){
+                throw (RuntimeException)t;
+            }
+            if(t instanceof Error){
+                throw (Error)t;
+            }
+            throw new HyperfitException("Error occurred while processing requests", (Exception)t);
+        }
+
+        List<T> resources = new ArrayList<T>(size);
+        for(Object result : results){
+            resources.add(classToReturn.cast(result));
+        }
+
+        return resources;
+    }
+
+
+    /**
+     * <p>Walks a paged collection starting at an entry point, returning the items of each page in turn.</p>
+     *
+     * @param itemClass the class that each item should be returned as
+     * @param entryPointURL a url to the first page
+     * @param nextRel the relationship of the link from each page to the next
+     * @param itemsRel the relationship of the items of each page, which can be embedded or linked
+     * @return an iterator that fetches the pages as the items are iterated
+     */
+    public <T extends HyperResource> PageIterator<T> paginate(
+        Class<T> itemClass,
+        String entryPointURL,
+        String nextRel,
+        String itemsRel
+    ) {
+        if(StringUtils.isEmpty(entryPointURL)){
+            throw new IllegalArgumentException("entryPointURL can not be null or empty");
+        }
+        return paginate(itemClass, BoringRequestBuilder.get(entryPointURL), nextRel, itemsRel);
+    }
+
+    /**
+     * <p>Walks a paged collection starting at an entry point, returning the items of each page in turn.</p>
+     *
+     * <p>Nothing is fetched until the iterator is used.  If an executor was given to the builder the next page is
+     * fetched on it while the items of the current page are iterated, otherwise each page is fetched once the items
+     * of the one before it run out.</p>
+     *
+     * @param itemClass the class that each item should be returned as
+     * @param requestBuilder request for the first page
+     * @param nextRel the relationship of the link from each page to the next
+     * @param itemsRel the relationship of the items of each page, which can be embedded or linked
+     * @return an iterator that fetches the pages as the items are iterated
+     */
+    public <T extends HyperResource> PageIterator<T> paginate(
+        Class<T> itemClass,
+        RequestBuilder requestBuilder,
+        String nextRel,
+        String itemsRel
+    ) {
+        if(itemClass == null){
+            throw new IllegalArgumentException("itemClass can not be null");
+        }
+
+        if(requestBuilder == null){
+            throw new IllegalArgumentException("requestBuilder can not be null");
+        }
+
+        if(StringUtils.isEmpty(nextRel)){
+            throw new IllegalArgumentException("nextRel can not be null or empty");
+        }
+
+        if(StringUtils.isEmpty(itemsRel)){
+            throw new IllegalArgumentException("itemsRel can not be null or empty");
+        }
+
+        return new PageIterator<T>(
+            this,
+            itemClass,
+            requestBuilder,
+            nextRel,
+            itemsRel,
+            //fetching ahead on the calling thread would just fetch the next page early
+            executor == CALLING_THREAD_EXECUTOR ? null : executor
+        );
+    }
+
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread.</p>
+     *
+     * @param classToReturn  the class that the resource should be returned as
+     * @param requestBuilder request object
+     * @param callback notified with the resource once it is available
+     */
+    public <T> void processRequestAsync(Class<T> classToReturn, RequestBuilder requestBuilder, Callback<? super T> callback){
+        processRequestAsync(classToReturn, requestBuilder, null, callback);
+    }
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread
+     * using super type tokens so a generic can be returned.</p>
+     *
+     * @param typeToReturn a super type token
+     * @param requestBuilder request object
+     * @param callback notified with the resource once it is available
+     */
+    public <T> void processRequestAsync(TypeRef<T> typeToReturn, RequestBuilder requestBuilder, Callback<? super T> callback){
+        if(typeToReturn == null){
+            throw new IllegalArgumentException("typeToReturn can not be null");
+        }
+        processRequestAsync(typeToReturn.getClazz(), requestBuilder, new TypeInfo().make(typeToReturn.getType()), callback);
+    }
+
+    /**
+     * <p>Obtains a specific resource by going directly to its source without blocking the calling thread.</p>
+     *
+     * <p>If the HyperClient chosen for the request is an {@link AsyncHyperClient} the request is executed
+     * with it's executeAsync method, otherwise the blocking execute method is dispatched to the executor given
+     * to the builder.  The response is processed on the thread that completes the request and the callback is
+     * notified on that same thread.</p>
+     *
+     * @param classToReturn  the class that the resource should be returned as
+     * @param requestBuilder request object
+     * @param callback notified with the resource once it is available
+     */
+    public <T> void processRequestAsync(
+        final Class<T> classToReturn,
+        RequestBuilder requestBuilder,
+        final TypeInfo typeInfo,
+        final Callback<? super T> callback
+    ) {
+
+        if(classToReturn == null){
+            throw new IllegalArgumentException("classToReturn can not be null");
+        }
+
+        if(requestBuilder == null){
+            throw new IllegalArgumentException("requestBuilder can not be null");
+        }
+
+        if(callback == null){
+            throw new IllegalArgumentException("callback can not be null");
+        }
+
+        final Request request;
+        final HyperClient client;
+        final ResponseCacheStage.Lookup lookup;
+        try {
+            long start = metrics == null ? 0 : System.nanoTime();
+
+            requestInterceptors.intercept(requestBuilder);
+
+            Request built = requestBuilder.build();
+
+            if(metrics != null){
+                metrics.requestBuilt(built, System.nanoTime() - start);
+            }
+            lookup = responseCacheStage == null ? null : responseCacheStage.lookup(built);
+            request = lookup == null ? built : lookup.getRequest();
+            client = lookup != null && lookup.isHit() ? null : clientSelectionStrategy.chooseClient(request);
+        } catch (Exception e){
+            callback.onFailure(e);
+            return;
+        }
+
+        if(client == null){
+            completeAsync(classToReturn, lookup.getCachedResponse(), typeInfo, callback);
+            return;
+        }
+
+        executeAsync(client, request, new Callback<Response>() {
+            public void onSuccess(Response response) {
+                try {
+                    response = completeCacheLookup(lookup, response);
+                } catch (Exception e){
+                    callback.onFailure(e);
+                    return;
+                }
+
+                completeAsync(classToReturn, response, typeInfo, callback);
+            }
+
+            public void onFailure(Exception e) {
+                callback.onFailure(e);
+            }
+        });
+
+    }
+
+    private void executeAsync(final HyperClient client, Request request, Callback<Response> callback){
+        if(requestCoalescer == null){
+            dispatch(client, request, callback);
+            return;
+        }
+
+        requestCoalescer.executeAsync(
+            request,
+            new RequestCoalescer.AsyncExecution() {
+                public void execute(Request request, Callback<Response> callback) {
+                    dispatch(client, request, callback);
+                }
+            },
+            callback
+        );
+    }
+
+    private void dispatch(final HyperClient client, final Request request, final Callback<Response> callback){
+        if(client instanceof AsyncHyperClient){
+            final long start = metrics == null ? 0 : System.nanoTime();
+            //so a client that throws after notifying can't notify again
+            final AtomicBoolean notified = new AtomicBoolean();
+
+            try {
+                ((AsyncHyperClient)client).executeAsync(
+                    request,
+                    new Callback<Response>() {
+                        public void onSuccess(Response response) {
+                            if(!notified.compareAndSet(false, true)){
+                                return;
+                            }
+
+                            if(metrics != null){
+                                metrics.requestExecuted(client, request, response, System.nanoTime() - start);
+                            }
+
+                            callback.onSuccess(response);
+                        }
+
+                        public void onFailure(Exception e) {
+                            if(!notified.compareAndSet(false, true)){
+                                return;
+                            }
+
+                            if(metrics != null){
+                                metrics.requestExecuted(client, request, null, System.nanoTime() - start);
+                            }
+
+                            callback.onFailure(e);
+                        }
+                    }
+                );
+            } catch (RuntimeException e){
+                //a client that fails before it gets going is reported the same as one that fails later
+                if(!notified.compareAndSet(false, true)){
+                    throw e;
+                }
+
+                if(metrics != null){
+                    metrics.requestExecuted(client, request, null, System.nanoTime() - start);
+                }
+
+                callback.onFailure(e);
+            }
+            return;
+        }
+
+        //the executor may run the task right away, anything thrown once it has started isn't the executor's failure
+        final AtomicBoolean started = new AtomicBoolean();
+        try {
+            executor.execute(new Runnable() {
+                public void run() {
+                    started.set(true);
+
+                    Response response;
+                    try {
+                        response = executeTimed(client, request);
+                    } catch (Exception e){
+                        callback.onFailure(e);
+                        return;
+                    }
+
+                    callback.onSuccess(response);
+                }
+            });
+        } catch (RuntimeException e){
+            if(started.get()){
+                throw e;
+            }
+
+            callback.onFailure(e);
+        }
+    }
+
+    private Response completeCacheLookup(ResponseCacheStage.Lookup lookup, Response response){
+        return lookup == null ? response : responseCacheStage.complete(lookup, response);
+    }
+
+    private <T> void completeAsync(
+        Class<T> classToReturn,
+        Response response,
+        TypeInfo typeInfo,
+        Callback<? super T> callback
+    ){
+        T result;
+        try {
+            result = processResponse(classToReturn, response, typeInfo);
+        } catch (Exception e){
+            callback.onFailure(e);
+            return;
+        }
+
+        //outside of the try so a misbehaving callback doesn't get told about it's own failure
+        callback.onSuccess(result);
+    }
+
     public <T> T processResponse(
         Class<T> classToReturn,
         Response response,
@@ -196,7 +757,8 @@ public class HyperfitProcessor {
                     contentRegistry,
                     errorHandler,
                     (Class<? extends HyperResource>)classToReturn,
-                    typeInfo
+                    typeInfo,
+                    parsedResourceCache
                 ).run(response)
             );
         }
@@ -233,7 +795,7 @@ public class HyperfitProcessor {
         );
 
 
-        Object proxy = Proxy.newProxyInstance(
+        Object proxy = proxyFactory.createProxy(
             classToReturn.getClassLoader(),
             interfaceSelectionStrategy.determineInterfaces(classToReturn, hyperResource),
             handler
@@ -243,6 +805,59 @@ public class HyperfitProcessor {
         return ReflectUtils.cast(classToReturn, proxy);
     }
 
+    /**
+     * Starts fetching the links of the resource with the relationships given to the builder's prefetch in the
+     * background, so following them doesn't have to wait as long.  Links that can be resolved from the resource
+     * itself or that are part of a multi link relationship aren't prefetched.
+     *
+     * @param hyperResource a resource that was just parsed
+     */
+    void prefetch(HyperResource hyperResource) {
+        if(prefetchCache == null || hyperResource == null){
+            return;
+        }
+
+        for(String rel : prefetchRels){
+            try {
+                if(!hyperResource.hasLink(rel) || hyperResource.isMultiLink(rel) || hyperResource.canResolveLinkLocal(rel)){
+                    continue;
+                }
+
+                //built the same way following the link builds it, so the request matches
+                RequestBuilder requestBuilder = hyperResource.getLink(rel).toRequestBuilder();
+                requestInterceptors.intercept(requestBuilder);
+
+                prefetchCache.prefetch(
+                    requestBuilder.build(),
+                    new RequestCoalescer.Execution() {
+                        public Response execute(Request request) {
+                            return fetch(request);
+                        }
+                    },
+                    executor
+                );
+            } catch (RuntimeException e){
+                //prefetching is only an optimization, following the link will run into the problem if there is one
+                LOG.debug("Could not prefetch the {} link", rel, e);
+            }
+        }
+    }
+
+    /**
+     * @return what's told how long processing takes, null if nothing is
+     */
+    HyperfitMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @param proxy any object
+     * @return the handler of the proxy if it was created by this processor's proxy factory, otherwise null
+     */
+    InvocationHandler getInvocationHandler(Object proxy) {
+        return proxyFactory.getInvocationHandler(proxy);
+    }
+
 
 
 
@@ -310,6 +925,16 @@ public class HyperfitProcessor {
         private ResponseInterceptors responseInterceptors = new ResponseInterceptors();
         private InterfaceSelectionStrategy interfaceSelectionStrategy = new SimpleInterfaceSelectionStrategy();
         private Map<String, HyperClient> schemeClientMap = new HashMap<String, HyperClient>();
+        private Executor executor;
+        private int maxParallelRequests = DEFAULT_MAX_PARALLEL_REQUESTS;
+        private ResponseCache responseCache;
+        private ParsedResourceCache parsedResourceCache;
+        private ProxyFactory proxyFactory = new JdkProxyFactory();
+        private HyperfitMetrics metrics;
+        private boolean coalesceRequests;
+        private final Set<String> prefetchRels = new LinkedHashSet<String>();
+        private long prefetchTimeToLiveMillis = DEFAULT_PREFETCH_TIME_TO_LIVE_MILLIS;
+        private final List<Class<? extends HyperResource>> preloadClasses = new ArrayList<Class<? extends HyperResource>>();
         private final PipelineBuilder<Response, HyperResource> responseToResourcePipelineBuilder = new PipelineBuilder<Response, HyperResource>(
             this
         );
@@ -390,6 +1015,14 @@ public class HyperfitProcessor {
             return this;
         }
 
+        /**
+         * Where the method info of resource interfaces is kept, by default a
+         * {@link org.hyperfit.methodinfo.ConcurrentHashMapResourceMethodInfoCache} which holds on to the interfaces.
+         * When they come from class loaders that are redeployed use hyperfit-java8's ClassValueResourceMethodInfoCache,
+         * which lets them be unloaded.
+         * @param resourceMethodInfoCache {@link org.hyperfit.methodinfo.ResourceMethodInfoCache}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
         public Builder resourceMethodInfoCache(ResourceMethodInfoCache resourceMethodInfoCache) {
             this.resourceMethodInfoCache = resourceMethodInfoCache;
             return this;
@@ -446,6 +1079,157 @@ public class HyperfitProcessor {
         }
 
 
+        /**
+         * The factory used to create the objects returned for resource interfaces, by default
+         * {@link org.hyperfit.proxy.JdkProxyFactory}.
+         * @param proxyFactory {@link org.hyperfit.proxy.ProxyFactory}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder proxyFactory(ProxyFactory proxyFactory) {
+            if( proxyFactory == null){
+                throw new IllegalArgumentException("proxyFactory can not be null");
+            }
+
+            this.proxyFactory = proxyFactory;
+
+            return this;
+        }
+
+
+        /**
+         * The executor used to run blocking work when processing asynchronously, such as executing a request
+         * with a HyperClient that isn't an {@link AsyncHyperClient}, or when fanning out requests, such as when
+         * following all the links of a multi link relationship.  When not set that work runs on the calling thread.
+         * @param executor {@link java.util.concurrent.Executor}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * The most requests that will be processed at once when fanning out, such as when following all the links
+         * of a multi link relationship.
+         * @param maxParallelRequests must be at least 1
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder maxParallelRequests(int maxParallelRequests) {
+            if(maxParallelRequests < 1){
+                throw new IllegalArgumentException("maxParallelRequests must be at least 1");
+            }
+
+            this.maxParallelRequests = maxParallelRequests;
+            return this;
+        }
+
+        /**
+         * Caches responses to GET requests in the given cache following the HTTP caching headers of the responses,
+         * fresh responses are reused without making a request and stale ones are revalidated when possible.
+         * When not set no responses are cached.
+         * @param responseCache {@link org.hyperfit.net.cache.ResponseCache} such as {@link org.hyperfit.net.cache.LruResponseCache}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder responseCache(ResponseCache responseCache) {
+            this.responseCache = responseCache;
+            return this;
+        }
+
+        /**
+         * Caches the resources parsed from OK responses in the given cache so responses with the same url, content type
+         * and body are only parsed once.  The cached resources are shared, so the content type handlers in use must
+         * produce resources that are safe to read from multiple threads.  When not set every response is parsed.
+         * @param parsedResourceCache {@link org.hyperfit.net.cache.ParsedResourceCache} such as {@link org.hyperfit.net.cache.LruParsedResourceCache}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder parsedResourceCache(ParsedResourceCache parsedResourceCache) {
+            this.parsedResourceCache = parsedResourceCache;
+            return this;
+        }
+
+        /**
+         * Resource interfaces to get ready for when the processor is built, so the first requests for them don't pay
+         * for the reflection & proxy class generation.  The resource interfaces returned by their methods, such as
+         * {@link org.hyperfit.annotation.Link} methods, are preloaded as well.
+         * @param resourceClasses the resource interfaces
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder preload(Class<? extends HyperResource>... resourceClasses) {
+            for (Class<? extends HyperResource> resourceClass : resourceClasses) {
+                if (resourceClass == null) {
+                    throw new IllegalArgumentException("resourceClasses can not contain null");
+                }
+
+                this.preloadClasses.add(resourceClass);
+            }
+
+            return this;
+        }
+
+        /**
+         * Tells the given metrics how long building requests, executing them, resolving content types, parsing
+         * responses and invoking resource methods take.  When not set nothing is timed.
+         * @param metrics {@link org.hyperfit.metrics.HyperfitMetrics} such as {@link org.hyperfit.metrics.InMemoryHyperfitMetrics}
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder metrics(HyperfitMetrics metrics) {
+            this.metrics = metrics;
+            return this;
+        }
+
+        /**
+         * When true, identical GET & HEAD requests made at the same time share a single execution & response, which
+         * keeps a burst of requests for a popular resource from all reaching the server.  Every request still gets its
+         * own resource.  Responses aren't kept once the shared request completes, see {@link #responseCache(ResponseCache)} for that.
+         * Off unless set.
+         * @param coalesceRequests whether to coalesce requests
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder coalesceRequests(boolean coalesceRequests) {
+            this.coalesceRequests = coalesceRequests;
+            return this;
+        }
+
+        /**
+         * Link relationships to fetch in the background as soon as a resource that has them is parsed, such as next
+         * when paging or the links that are always drilled into, so the response is ready or on its way by the time
+         * the link is followed.  The responses are kept until the link is followed or the prefetch time to live
+         * passes.  Only links followed without params by blocking requests use the prefetched responses.
+         * Requires an {@link #executor(Executor)}, which the prefetches run on.
+         * @param rels the link relationships
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder prefetch(String... rels) {
+            for (String rel : rels) {
+                if (StringUtils.isEmpty(rel)) {
+                    throw new IllegalArgumentException("rels can not contain null or empty rels");
+                }
+
+                this.prefetchRels.add(rel);
+            }
+
+            return this;
+        }
+
+        /**
+         * How long a prefetched response is kept waiting for its link to be followed, 30 seconds unless set
+         * @param timeToLive must be more than 0
+         * @param unit the unit of timeToLive
+         * @return {@link org.hyperfit.HyperfitProcessor.Builder}
+         */
+        public Builder prefetchTimeToLive(long timeToLive, TimeUnit unit) {
+            if (timeToLive <= 0) {
+                throw new IllegalArgumentException("timeToLive must be more than 0");
+            }
+
+            if (unit == null) {
+                throw new IllegalArgumentException("unit can not be null");
+            }
+
+            this.prefetchTimeToLiveMillis = Math.max(1, unit.toMillis(timeToLive));
+            return this;
+        }
+
         public PipelineBuilder<Response, HyperResource> responseToResourcePipeline(){
             return responseToResourcePipelineBuilder;
         }
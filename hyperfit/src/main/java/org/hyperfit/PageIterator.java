@@ -0,0 +1,203 @@
+package org.hyperfit;
+
+import org.hyperfit.exception.HyperfitException;
+import org.hyperfit.net.RequestBuilder;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.controls.link.HyperLink;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Iterates the items of a paged collection, following the next link of each page once its items run out.
+ *
+ * <p>Pages are only fetched as they are needed, except that when the processor has an executor the page after
+ * the one being iterated is fetched on it in the background.  So at most two pages of items are held at once,
+ * and the page resources themselves aren't held at all, just their items & next link.  Items are let go of as
+ * they are returned.</p>
+ *
+ * <p>Instances aren't thread safe.  Closing an iterator that isn't iterated to the end stops the background fetch
+ * of the next page.</p>
+ *
+ * @param <T> the type of the items
+ */
+public final class PageIterator<T extends HyperResource> implements Iterator<T>, Closeable {
+
+    private static final Object[] NO_ITEMS = new Object[0];
+
+    private final HyperfitProcessor processor;
+    private final Class<T> itemClass;
+    private final String nextRel;
+    private final String itemsRel;
+    private final Executor executor;
+
+    private Object[] items = NO_ITEMS;
+    private int position;
+    private RequestBuilder next;
+    private FutureTask<Page> pending;
+    private boolean closed;
+
+    /**
+     * @param processor makes the requests
+     * @param itemClass the class each item is returned as
+     * @param entryPoint request for the first page
+     * @param nextRel relationship of the link to the next page
+     * @param itemsRel relationship of the items of each page, either embedded or linked
+     * @param executor what the next page is fetched on in the background, null to fetch each page when it's needed
+     */
+    PageIterator(
+        HyperfitProcessor processor,
+        Class<T> itemClass,
+        RequestBuilder entryPoint,
+        String nextRel,
+        String itemsRel,
+        Executor executor
+    ) {
+        this.processor = processor;
+        this.itemClass = itemClass;
+        this.nextRel = nextRel;
+        this.itemsRel = itemsRel;
+        this.executor = executor;
+        this.next = entryPoint;
+    }
+
+    public boolean hasNext() {
+        while (position == items.length) {
+            if (closed || (pending == null && next == null)) {
+                items = NO_ITEMS;
+                position = 0;
+                return false;
+            }
+
+            //if the page can't be had the next call to hasNext tries fetching it again
+            FutureTask<Page> fetching = pending;
+            pending = null;
+
+            //the page is swapped in before the next one is started so no more than two are ever held
+            Page page = fetching != null ? await(fetching) : load(next);
+
+            items = page.items;
+            position = 0;
+            next = page.next;
+
+            if (next != null && executor != null) {
+                lookAhead(next);
+            }
+        }
+
+        return true;
+    }
+
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T item = itemClass.cast(items[position]);
+        //so the item can be collected as soon as the caller is done with it
+        items[position++] = null;
+        return item;
+    }
+
+    public void remove() {
+        throw new UnsupportedOperationException("items can not be removed from a page");
+    }
+
+    /**
+     * Stops the iteration, cancelling the background fetch of the next page if there is one
+     */
+    public void close() {
+        closed = true;
+        items = NO_ITEMS;
+        position = 0;
+        next = null;
+
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+
+
+    private void lookAhead(final RequestBuilder request) {
+        FutureTask<Page> task = new FutureTask<Page>(new Callable<Page>() {
+            public Page call() {
+                return load(request);
+            }
+        });
+
+        try {
+            executor.execute(task);
+            pending = task;
+        } catch (RejectedExecutionException e) {
+            //the page will be fetched when it's needed instead
+            pending = null;
+        }
+    }
+
+    private Page load(RequestBuilder request) {
+        HyperResource page = processor.processRequest(HyperResource.class, request);
+
+        Object[] pageItems;
+        if (page.canResolveLinkLocal(itemsRel)) {
+            HyperResource[] embedded = page.resolveLinksLocal(itemsRel);
+            pageItems = new Object[embedded.length];
+            for (int i = 0; i < embedded.length; i++) {
+                pageItems[i] = processor.processResource(itemClass, embedded[i], null);
+            }
+        } else if (page.hasLink(itemsRel)) {
+            HyperLink[] links = page.getLinks(itemsRel);
+            List<RequestBuilder> requests = new ArrayList<RequestBuilder>(links.length);
+            for (HyperLink link : links) {
+                requests.add(link.toRequestBuilder());
+            }
+            pageItems = processor.processRequests(itemClass, requests, null).toArray();
+        } else {
+            pageItems = NO_ITEMS;
+        }
+
+        RequestBuilder nextPage = page.hasLink(nextRel) ? page.getLink(nextRel).toRequestBuilder() : null;
+
+        return new Page(pageItems, nextPage);
+    }
+
+    private static Page await(FutureTask<Page> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new HyperfitException("Interrupted while waiting for the next page", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new HyperfitException("Error occurred while fetching the next page", (Exception) cause);
+        }
+    }
+
+
+    /**
+     * What's kept of a page once it's been fetched
+     */
+    private static final class Page {
+        private final Object[] items;
+        private final RequestBuilder next;
+
+        private Page(Object[] items, RequestBuilder next) {
+            this.items = items;
+            this.next = next;
+        }
+    }
+}
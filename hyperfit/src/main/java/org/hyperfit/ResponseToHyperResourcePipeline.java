@@ -4,7 +4,10 @@ import org.hyperfit.content.ContentRegistry;
 import org.hyperfit.content.ContentType;
 import org.hyperfit.content.ContentTypeHandler;
 import org.hyperfit.errorhandler.ErrorHandler;
+import org.hyperfit.metrics.HyperfitMetrics;
 import org.hyperfit.net.Response;
+import org.hyperfit.net.cache.ParsedResourceCache;
+import org.hyperfit.net.cache.ParsedResourceKey;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.utils.StringUtils;
 import org.hyperfit.utils.TypeInfo;
@@ -25,6 +28,7 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
     private final ErrorHandler errorHandler;
     private final Class<? extends HyperResource> expectedInterface;
     private final HyperfitProcessor processor;
+    private final ParsedResourceCache parsedResourceCache;
 
 
     ResponseToHyperResourcePipeline(
@@ -35,6 +39,18 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
         Class<? extends HyperResource> expectedInterface,
         TypeInfo typeInfo
 
+    ) {
+        this(steps, processor, contentRegistry, errorHandler, expectedInterface, typeInfo, null);
+    }
+
+    ResponseToHyperResourcePipeline(
+        List<Step<Response, HyperResource>> steps,
+        HyperfitProcessor processor,
+        ContentRegistry contentRegistry,
+        ErrorHandler errorHandler,
+        Class<? extends HyperResource> expectedInterface,
+        TypeInfo typeInfo,
+        ParsedResourceCache parsedResourceCache
     ) {
 
         this.steps.addAll(steps);
@@ -44,6 +60,7 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
         this.contentRegistry = contentRegistry;
         this.errorHandler = errorHandler;
         this.expectedInterface = expectedInterface;
+        this.parsedResourceCache = parsedResourceCache;
     }
 
 
@@ -79,18 +96,26 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
 
         //STAGE 1 - There's response, let's see if we understand the content type!
         ContentType responseContentType = null;
+        HyperfitMetrics metrics = processor.getMetrics();
+        long start = metrics == null ? 0 : System.nanoTime();
 
         //Sometimes there is no content type, no need to warn about that
         if (!StringUtils.isEmpty(response.getContentType())){
             try {
-                responseContentType = ContentType.parse(response.getContentType());
+                responseContentType = ContentType.valueOf(response.getContentType());
             } catch (Exception e) {
                 LOG.warn("Error parsing content type of response.  errorHandler:unhandledContentType will be called", e);
             }
         }
 
-        //See if we have a content type, if not throw
-        if(responseContentType == null || !this.contentRegistry.canHandle(responseContentType, ContentRegistry.Purpose.PARSE_RESPONSE)){
+        ContentTypeHandler contentTypeHandler = responseContentType == null ? null : this.contentRegistry.getHandler(responseContentType, ContentRegistry.Purpose.PARSE_RESPONSE);
+
+        if (metrics != null) {
+            metrics.contentTypeResolved(response.getContentType(), contentTypeHandler, System.nanoTime() - start);
+        }
+
+        //See if we have a handler for the content type, if not throw
+        if(contentTypeHandler == null){
             //We don't understand the content type, let's ask the error handler what to do!
             return this.errorHandler.unhandledContentType(
                 processor,
@@ -103,10 +128,9 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
 
         //STAGE 2 - There's a content type we understand, let's try to parse the response!
 
-        ContentTypeHandler contentTypeHandler = this.contentRegistry.getHandler(responseContentType, ContentRegistry.Purpose.PARSE_RESPONSE);
         HyperResource resource;
         try{
-            resource = contentTypeHandler.parseResponse(response);
+            resource = parseResponse(contentTypeHandler, response);
             //TODO: should we check for null here and throw?
         } catch (Exception e){
             //Something went wrong parsing the response, let's ask the error handler what to do!
@@ -131,9 +155,50 @@ class ResponseToHyperResourcePipeline implements Pipeline<Response, HyperResourc
             );
         }
 
+        //STAGE 4 - the links that are likely to be followed next can be fetched while this one is processed
+        processor.prefetch(resource);
+
+        return resource;
+    }
+
+    private HyperResource parseResponse(ContentTypeHandler contentTypeHandler, Response response) {
+        //only OK responses are cached, error bodies are rarely requested over and over
+        if(parsedResourceCache == null || !response.isOK()){
+            return parse(contentTypeHandler, response);
+        }
+
+        ParsedResourceKey key = ParsedResourceKey.forResponse(response);
+        if(key == null){
+            return parse(contentTypeHandler, response);
+        }
+
+        HyperResource resource = parsedResourceCache.get(key);
+        if(resource == null){
+            resource = parse(contentTypeHandler, response);
+            if(resource != null){
+                parsedResourceCache.put(key, resource);
+            }
+        } else {
+            LOG.trace("Reusing resource parsed from an identical response for {}", key);
+        }
+
         return resource;
     }
 
+    private HyperResource parse(ContentTypeHandler contentTypeHandler, Response response) {
+        HyperfitMetrics metrics = processor.getMetrics();
+        if(metrics == null){
+            return contentTypeHandler.parseResponse(response);
+        }
+
+        long start = System.nanoTime();
+        try {
+            return contentTypeHandler.parseResponse(response);
+        } finally {
+            metrics.responseParsed(contentTypeHandler, response, System.nanoTime() - start);
+        }
+    }
+
     public HyperfitProcessor getProcessor(){
         return this.processor;
     }
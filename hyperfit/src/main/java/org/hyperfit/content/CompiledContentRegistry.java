@@ -0,0 +1,185 @@
+package org.hyperfit.content;
+
+import org.javatuples.Pair;
+
+import java.util.*;
+
+/**
+ * An immutable snapshot of a {@link ContentRegistry} that finds handlers without scanning the registered types.
+ * For each {@link ContentRegistry.Purpose} the first handler registered for each exact type & subtype is kept in a map,
+ * so finding the handler of a concrete content type is a map lookup plus a check of any types that were registered
+ * with wildcards before it.  Content types with wildcards of their own are matched the way {@link ContentRegistry} does.
+ *
+ * Handlers are found exactly as {@link ContentRegistry#getHandler(ContentType, Purpose)} would find them in the source
+ * registry at the time of compiling.  Since nothing changes after construction it can be read by many threads at once
+ * without locking.
+ */
+public final class CompiledContentRegistry extends ContentRegistry {
+
+    private static final String WILDCARD = "*";
+
+    private final Lookup parseResponseLookup;
+    private final Lookup prepareRequestLookup;
+    private final Set<String> responseParsingContentTypes;
+
+    private CompiledContentRegistry(ContentRegistry source) {
+        super(source);
+
+        List<Pair<ContentType, ContentTypeHandler>> entries = source.getEntries();
+        parseResponseLookup = new Lookup(entries, Purpose.PARSE_RESPONSE);
+        prepareRequestLookup = new Lookup(entries, Purpose.PREPARE_REQUEST);
+        responseParsingContentTypes = Collections.unmodifiableSet(super.getResponseParsingContentTypes());
+    }
+
+    /**
+     * Takes a snapshot of a registry, later changes to the source registry don't affect the snapshot
+     *
+     * @param source the registry to compile
+     * @return the compiled registry, source itself if it's already compiled
+     */
+    public static CompiledContentRegistry compile(ContentRegistry source) {
+        if (source == null) {
+            throw new IllegalArgumentException("source cannot be null");
+        }
+
+        if (source instanceof CompiledContentRegistry) {
+            return (CompiledContentRegistry) source;
+        }
+
+        return new CompiledContentRegistry(source);
+    }
+
+
+    @Override
+    public void add(ContentTypeHandler handler, ContentType... types) {
+        throw new UnsupportedOperationException("a compiled content registry can not be changed");
+    }
+
+    @Override
+    public void add(ContentTypeHandler handler) {
+        throw new UnsupportedOperationException("a compiled content registry can not be changed");
+    }
+
+    @Override
+    public void remove(ContentType type) {
+        throw new UnsupportedOperationException("a compiled content registry can not be changed");
+    }
+
+    @Override
+    public void remove(ContentTypeHandler handler) {
+        throw new UnsupportedOperationException("a compiled content registry can not be changed");
+    }
+
+    @Override
+    public ContentTypeHandler getHandler(ContentType type, Purpose purpose) {
+        if (type == null) {
+            throw new IllegalArgumentException("type cannot be null");
+        }
+
+        if (purpose == Purpose.PARSE_RESPONSE) {
+            return parseResponseLookup.find(type);
+        }
+
+        if (purpose == Purpose.PREPARE_REQUEST) {
+            return prepareRequestLookup.find(type);
+        }
+
+        return null;
+    }
+
+    @Override
+    public Set<String> getResponseParsingContentTypes() {
+        return responseParsingContentTypes;
+    }
+
+
+    private static boolean hasWildcard(ContentType type) {
+        return WILDCARD.equals(type.getType()) || WILDCARD.equals(type.getSubType());
+    }
+
+    /**
+     * A registered type & handler along with its position in the registry
+     */
+    private static final class Registration {
+        private final int order;
+        private final ContentType type;
+        private final ContentTypeHandler handler;
+
+        private Registration(int order, ContentType type, ContentTypeHandler handler) {
+            this.order = order;
+            this.type = type;
+            this.handler = handler;
+        }
+    }
+
+    /**
+     * The handlers for a single purpose
+     */
+    private static final class Lookup {
+        //type -> subtype -> first registration of exactly that type
+        private final Map<String, Map<String, Registration>> exact = new HashMap<String, Map<String, Registration>>();
+        //registrations of types with wildcards, in registry order
+        private final Registration[] wildcards;
+        //every registration, in registry order
+        private final Registration[] all;
+
+        private Lookup(List<Pair<ContentType, ContentTypeHandler>> entries, Purpose purpose) {
+            List<Registration> wildcardList = new ArrayList<Registration>();
+            List<Registration> allList = new ArrayList<Registration>();
+
+            for (Pair<ContentType, ContentTypeHandler> entry : entries) {
+                ContentTypeHandler handler = entry.getValue1();
+                if (purpose == Purpose.PARSE_RESPONSE ? !handler.canParseResponse() : !handler.canPrepareRequest()) {
+                    continue;
+                }
+
+                Registration registration = new Registration(allList.size(), entry.getValue0(), handler);
+                allList.add(registration);
+
+                if (hasWildcard(registration.type)) {
+                    wildcardList.add(registration);
+                    continue;
+                }
+
+                Map<String, Registration> subTypes = exact.get(registration.type.getType());
+                if (subTypes == null) {
+                    subTypes = new HashMap<String, Registration>();
+                    exact.put(registration.type.getType(), subTypes);
+                }
+                //earlier registrations win, just like the scan in ContentRegistry
+                if (!subTypes.containsKey(registration.type.getSubType())) {
+                    subTypes.put(registration.type.getSubType(), registration);
+                }
+            }
+
+            wildcards = wildcardList.toArray(new Registration[wildcardList.size()]);
+            all = allList.toArray(new Registration[allList.size()]);
+        }
+
+        private ContentTypeHandler find(ContentType type) {
+            if (hasWildcard(type)) {
+                for (Registration registration : all) {
+                    if (registration.type.compatibleWith(type)) {
+                        return registration.handler;
+                    }
+                }
+                return null;
+            }
+
+            Map<String, Registration> subTypes = exact.get(type.getType());
+            Registration match = subTypes == null ? null : subTypes.get(type.getSubType());
+
+            //a wildcard registered ahead of the exact match would have been found first by a scan
+            for (Registration registration : wildcards) {
+                if (match != null && registration.order > match.order) {
+                    break;
+                }
+                if (registration.type.compatibleWith(type)) {
+                    return registration.handler;
+                }
+            }
+
+            return match == null ? null : match.handler;
+        }
+    }
+}
@@ -99,6 +99,13 @@ public class ContentRegistry {
         return getHandler(type, purpose) != null;
     }
 
+    /**
+     * @return the registered types & their handlers, in the order they were added
+     */
+    List<Pair<ContentType, ContentTypeHandler>> getEntries(){
+        return Collections.unmodifiableList(typeRegistry);
+    }
+
     public Set<String> getResponseParsingContentTypes(){
         Set<String> result = new HashSet<String>();
 
@@ -8,6 +8,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Based upon code from Matthew Champion https://bitbucket.org/mattunderscorechampion/ws-utils/src/070667099baa860db341fcbd145dee56affa3c38/structured-http-headers/?at=default
@@ -43,6 +44,37 @@ import java.util.Map;
 @ToString
 public class ContentType {
 
+    //responses mostly come with a handful of distinct content type headers, anything past this is probably junk
+    static final int MAX_CACHED_CONTENT_TYPES = 256;
+
+    private static final ConcurrentHashMap<String, ContentType> PARSED = new ConcurrentHashMap<String, ContentType>();
+
+    /**
+     * Same as {@link #parse(String)}, but content types that parsed are kept & handed out again for the same string,
+     * so a header value seen on every response is only parsed once.  Strings that fail to parse are never kept.
+     *
+     * @param contentType the content type string, usually a Content-Type header value
+     * @return the parsed content type, possibly shared with other callers
+     * @throws IllegalArgumentException if the content type can not be parsed
+     */
+    public static ContentType valueOf(String contentType) {
+        if (contentType == null) {
+            throw new IllegalArgumentException("contentType");
+        }
+
+        ContentType result = PARSED.get(contentType);
+        if (result == null) {
+            result = parse(contentType);
+
+            if (PARSED.size() >= MAX_CACHED_CONTENT_TYPES) {
+                PARSED.clear();
+            }
+            PARSED.put(contentType, result);
+        }
+
+        return result;
+    }
+
     public static ContentType parse(String contentType) {
 
         if (StringUtils.isEmpty(contentType)) {
@@ -108,7 +140,8 @@ public class ContentType {
     private final Map<String, String> parameters;
     private final double qualifier;
 
-    private String toString;
+    //transient so the lazily built string doesn't take part in equals & hashCode
+    private transient String toString;
 
     public ContentType(
         String type,
@@ -199,6 +232,14 @@ public class ContentType {
         return type + "/" + subType;
     }
 
+    public final String getType() {
+        return type;
+    }
+
+    public final String getSubType() {
+        return subType;
+    }
+
     public final double getQualifier() {
         return qualifier;
     }
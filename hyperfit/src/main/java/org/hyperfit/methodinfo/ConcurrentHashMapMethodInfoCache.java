@@ -1,8 +1,8 @@
 package org.hyperfit.methodinfo;
 
 import java.lang.reflect.Method;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Caches method metadata
@@ -13,12 +13,11 @@ public class ConcurrentHashMapMethodInfoCache implements MethodInfoCache {
 
     /*ConcurrentHashMap doesn't block the entire map for every thread,
     so it scales better for more threads, meaning it's faster*/
-    private final Map<Method, MethodInfo> methodInfoCache = new ConcurrentHashMap<Method, MethodInfo>();
+    private final ConcurrentMap<Method, MethodInfo> methodInfoCache = new ConcurrentHashMap<Method, MethodInfo>();
 
     /**
-     * since the block is not synchronized, multiple threads can add the same key. They can pass the null check,
-     * one adds the key and returns its value, and then the other one will override that value with a new one
-     * and returns it. However that won't corrupt the data.
+     * since the block is not synchronized, multiple threads can build the info for the same method. Only the first
+     * one is kept and every thread returns it, so the same method always has the same info.
      */
     public MethodInfo get(Method method) {
         if (method == null){
@@ -29,7 +28,10 @@ public class ConcurrentHashMapMethodInfoCache implements MethodInfoCache {
         //remember that local vars are thread safe
         if (methodInfo == null) {
             methodInfo = new MethodInfo(method);
-            methodInfoCache.put(method, methodInfo);
+            MethodInfo existing = methodInfoCache.putIfAbsent(method, methodInfo);
+            if (existing != null) {
+                methodInfo = existing;
+            }
         }
 
         return methodInfo;
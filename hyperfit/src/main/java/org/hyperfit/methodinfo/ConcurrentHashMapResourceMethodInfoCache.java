@@ -1,10 +1,12 @@
 package org.hyperfit.methodinfo;
 
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
- * ResourceMethodInfoCache is a cache for the method metadata in a class
+ * ResourceMethodInfoCache is a cache for the method metadata in a class.
+ * The classes are strongly referenced and never removed, see hyperfit-java8's ClassValueResourceMethodInfoCache for a
+ * cache that lets them be unloaded.
  *
  * @author Carlos Perez
  */
@@ -12,12 +14,11 @@ public class ConcurrentHashMapResourceMethodInfoCache implements ResourceMethodI
 
     /*ConcurrentHashMap doesn't block the entire map for every thread,
     so it scales better for more threads, meaning it's faster*/
-    private final Map<Class<?>, MethodInfoCache> resourceMethodInfoMap = new ConcurrentHashMap<Class<?>, MethodInfoCache>();
+    private final ConcurrentMap<Class<?>, MethodInfoCache> resourceMethodInfoMap = new ConcurrentHashMap<Class<?>, MethodInfoCache>();
 
     /**
-     * since the block is not synchronized, multiple threads can add the same key. They can pass the null check,
-     * one adds the key and returns its value, and then the other one will override that value with a new one
-     * and returns it. However that won't corrupt the data.
+     * since the block is not synchronized, multiple threads can create a cache for the same class. Only the first
+     * one is kept and every thread returns it, so method info isn't lost to a cache that gets replaced.
      */
     public MethodInfoCache get(Class<?> clazz) {
         if (clazz == null){
@@ -27,7 +28,10 @@ public class ConcurrentHashMapResourceMethodInfoCache implements ResourceMethodI
         MethodInfoCache methodInfoCache = resourceMethodInfoMap.get(clazz);
         if (methodInfoCache == null) {
             methodInfoCache = new ConcurrentHashMapMethodInfoCache();
-            resourceMethodInfoMap.put(clazz, methodInfoCache);
+            MethodInfoCache existing = resourceMethodInfoMap.putIfAbsent(clazz, methodInfoCache);
+            if (existing != null) {
+                methodInfoCache = existing;
+            }
         }
         return methodInfoCache;
     }
@@ -0,0 +1,226 @@
+package org.hyperfit.methodinfo;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hyperfit.annotation.FirstLink;
+import org.hyperfit.annotation.NamedLink;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.controls.form.Form;
+import org.hyperfit.resource.controls.link.HyperLink;
+
+import java.util.List;
+
+/**
+ * What to do when a resource method is invoked, worked out once from the {@link MethodInfo} so that invoking
+ * the method just means executing the plan instead of inspecting annotations & return types every time.
+ * The strategies are resolved in the same order the invoke handler has always checked them.
+ */
+@ToString
+@EqualsAndHashCode
+public final class InvocationPlan {
+
+    public enum Strategy {
+        /**
+         * A java8 interface default method
+         */
+        DEFAULT_METHOD,
+        EQUALS,
+        /**
+         * getLink & getLinks on the resource, the results need to be wrapped so they can be followed
+         */
+        WRAP_LINK,
+        WRAP_LINKS,
+        /**
+         * Other methods of the {@link HyperResource} interface, passed through to the resource
+         */
+        PASS_THROUGH,
+        DATA,
+        HAS_LINK,
+        GET_LINK,
+        GET_LINKS,
+        FOLLOW_LINK,
+        HAS_NAMED_LINK,
+        GET_NAMED_LINK,
+        GET_NAMED_LINKS,
+        FOLLOW_NAMED_LINK,
+        FIRST_LINK,
+        HAS_FORM,
+        GET_FORM,
+        SUBMIT_FORM,
+        UNSUPPORTED
+    }
+
+    private final Strategy strategy;
+    private final String relationship;
+    private final String linkName;
+    private final String[] names;
+    private final String[] path;
+    private final boolean collectionReturn;
+    private final ParameterBinder[][] parameterBinders;
+
+    private InvocationPlan(
+        Strategy strategy,
+        String relationship,
+        String linkName,
+        String[] names,
+        String[] path,
+        boolean collectionReturn,
+        ParameterBinder[][] parameterBinders
+    ) {
+        this.strategy = strategy;
+        this.relationship = relationship;
+        this.linkName = linkName;
+        this.names = names;
+        this.path = path;
+        this.collectionReturn = collectionReturn;
+        this.parameterBinders = parameterBinders;
+    }
+
+    /**
+     * @return how the method is handled
+     */
+    public Strategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return the link relationship for link strategies, the form name for form strategies, null otherwise
+     */
+    public String getRelationship() {
+        return relationship;
+    }
+
+    /**
+     * @return the link name for named link strategies, {@link NamedLink#NULL} already translated to null
+     */
+    public String getLinkName() {
+        return linkName;
+    }
+
+    /**
+     * @return the names to check in order for {@link Strategy#FIRST_LINK}, {@link FirstLink#NULL} already
+     * translated to null.  Callers must not modify this.
+     */
+    public String[] getNames() {
+        return names;
+    }
+
+    /**
+     * @return the data path for {@link Strategy#DATA}.  Callers must not modify this.
+     */
+    public String[] getPath() {
+        return path;
+    }
+
+    /**
+     * @return true when the method returns an array or a List
+     */
+    public boolean isCollectionReturn() {
+        return collectionReturn;
+    }
+
+    /**
+     * @return the binders of each method parameter.  Callers must not modify this.
+     */
+    public ParameterBinder[][] getParameterBinders() {
+        return parameterBinders;
+    }
+
+
+    /**
+     * Works out the plan for a method
+     *
+     * @param methodInfo info about the method
+     * @return the plan, never null
+     */
+    static InvocationPlan compile(MethodInfo methodInfo) {
+        Class<?> returnType = methodInfo.getReturnType();
+        boolean collectionReturn = returnType.isArray() || List.class.equals(returnType);
+        ParameterBinder[][] binders = ParameterBinder.of(methodInfo.getParameterAnnotations());
+
+        Strategy strategy = null;
+        String relationship = null;
+        String linkName = null;
+        String[] names = null;
+        String[] path = null;
+
+        MethodInfo.MethodType methodType = methodInfo.getMethodType();
+
+        if (methodInfo.isDefaultMethod()) {
+            strategy = Strategy.DEFAULT_METHOD;
+        } else if (MethodInfo.MethodType.EQUALS == methodType) {
+            strategy = Strategy.EQUALS;
+        } else if (MethodInfo.MethodType.GET_LINK == methodType) {
+            strategy = Strategy.WRAP_LINK;
+        } else if (MethodInfo.MethodType.GET_LINKS == methodType) {
+            strategy = Strategy.WRAP_LINKS;
+        } else if (MethodInfo.MethodType.FROM_HYPER_RESOURCE_CLASS == methodType ||
+            MethodInfo.MethodType.HASH_CODE == methodType ||
+            MethodInfo.MethodType.TO_STRING == methodType) {
+            strategy = Strategy.PASS_THROUGH;
+        } else if (methodInfo.getDataAnnotation() != null) {
+            strategy = Strategy.DATA;
+            path = methodInfo.getDataAnnotation().value();
+        } else if (methodInfo.getLinkAnnotation() != null) {
+            relationship = methodInfo.getLinkAnnotation().value();
+
+            //NOTE: this seems a bit hacky, but will a link ever return a boolean? probably not
+            if (boolean.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.HAS_LINK;
+            } else if (HyperLink.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.GET_LINK;
+            } else if (HyperLink[].class.isAssignableFrom(returnType)) {
+                strategy = Strategy.GET_LINKS;
+            } else {
+                strategy = Strategy.FOLLOW_LINK;
+            }
+        } else if (methodInfo.getNamedLinkAnnotation() != null) {
+            NamedLink namedLink = methodInfo.getNamedLinkAnnotation();
+            relationship = namedLink.rel();
+            //java doesn't let us have nulls..but we can have null names on links so we do this
+            linkName = NamedLink.NULL.equals(namedLink.name()) ? null : namedLink.name();
+
+            if (boolean.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.HAS_NAMED_LINK;
+            } else if (HyperLink.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.GET_NAMED_LINK;
+            } else if (HyperLink[].class.isAssignableFrom(returnType)) {
+                strategy = Strategy.GET_NAMED_LINKS;
+            } else {
+                strategy = Strategy.FOLLOW_NAMED_LINK;
+            }
+        }
+
+        //first link only handles methods returning a link, anything else falls through to the form check
+        if (strategy == null && methodInfo.getFirstLinkAnnotation() != null && HyperLink.class.isAssignableFrom(returnType)) {
+            FirstLink firstLink = methodInfo.getFirstLinkAnnotation();
+            strategy = Strategy.FIRST_LINK;
+            relationship = firstLink.rel();
+
+            names = firstLink.names().clone();
+            for (int i = 0; i < names.length; i++) {
+                if (FirstLink.NULL.equals(names[i])) {
+                    names[i] = null;
+                }
+            }
+        }
+
+        if (strategy == null && methodInfo.getNamedFormAnnotation() != null) {
+            relationship = methodInfo.getNamedFormAnnotation().value();
+
+            if (boolean.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.HAS_FORM;
+            } else if (Form.class.isAssignableFrom(returnType)) {
+                strategy = Strategy.GET_FORM;
+            } else {
+                strategy = Strategy.SUBMIT_FORM;
+            }
+        }
+
+        if (strategy == null) {
+            strategy = Strategy.UNSUPPORTED;
+        }
+
+        return new InvocationPlan(strategy, relationship, linkName, names, path, collectionReturn, binders);
+    }
+}
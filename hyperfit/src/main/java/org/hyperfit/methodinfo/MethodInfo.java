@@ -7,6 +7,7 @@ import lombok.ToString;
 
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.Type;
 import java.util.HashSet;
 import java.util.Set;
@@ -67,6 +68,8 @@ public class MethodInfo {
 
     private final boolean defaultMethod;
 
+    private final InvocationPlan invocationPlan;
+
     /**
      * Builds it from a method
      *
@@ -115,8 +118,12 @@ public class MethodInfo {
         org.hyperfit.annotation.Method methodAnnotation = method.getAnnotation(org.hyperfit.annotation.Method.class);
         this.requestMethod = methodAnnotation == null ? org.hyperfit.net.Method.GET : methodAnnotation.value();
 
-        this.defaultMethod = method.toString().matches(".*\\bdefault\\b.+");
+        //default methods are the only non abstract instance methods an interface can have
+        int modifiers = method.getModifiers();
+        this.defaultMethod = method.getDeclaringClass().isInterface() && !Modifier.isAbstract(modifiers) && !Modifier.isStatic(modifiers);
 
+        //must be last, the plan is worked out from everything above
+        this.invocationPlan = InvocationPlan.compile(this);
     }
 
     public MethodType getMethodType() {
@@ -171,4 +178,11 @@ public class MethodInfo {
     public boolean isDefaultMethod(){
         return defaultMethod;
     }
+
+    /**
+     * @return the precompiled plan for invoking the method
+     */
+    public InvocationPlan getInvocationPlan() {
+        return invocationPlan;
+    }
 }
@@ -0,0 +1,118 @@
+package org.hyperfit.methodinfo;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hyperfit.annotation.Content;
+import org.hyperfit.annotation.Header;
+import org.hyperfit.annotation.Param;
+import org.hyperfit.content.ContentType;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Describes how a single annotated resource method parameter is put into a request.
+ * These are built once from the parameter annotations so nothing has to be looked up or parsed per invocation.
+ */
+@ToString
+@EqualsAndHashCode
+public final class ParameterBinder {
+
+    private static final ParameterBinder[] NONE = new ParameterBinder[0];
+
+    public enum Target {
+        PARAM,
+        HEADER,
+        CONTENT
+    }
+
+    private final Target target;
+    private final String value;
+    private final ContentType contentType;
+
+    private ParameterBinder(Target target, String value, ContentType contentType) {
+        this.target = target;
+        this.value = value;
+        this.contentType = contentType;
+    }
+
+    /**
+     * @return where the parameter value goes in the request
+     */
+    public Target getTarget() {
+        return target;
+    }
+
+    /**
+     * @return the param or header name, or the content type as written for content binders
+     */
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * @return the parsed content type of a content binder
+     */
+    public ContentType getContentType() {
+        //a content type that couldn't be parsed up front fails the same way it always did, when it's used
+        return contentType != null ? contentType : ContentType.parse(value);
+    }
+
+
+    /**
+     * Builds the binders for each of a method's parameters, in the order the annotations were declared
+     *
+     * @param annotationsPerParams the method's parameter annotations
+     * @return the binders for each parameter, never null
+     */
+    public static ParameterBinder[][] of(Annotation[][] annotationsPerParams) {
+        ParameterBinder[][] result = new ParameterBinder[annotationsPerParams.length][];
+
+        for (int i = 0; i < annotationsPerParams.length; i++) {
+            result[i] = of(annotationsPerParams[i]);
+        }
+
+        return result;
+    }
+
+    /**
+     * Builds the binders for a single parameter
+     *
+     * @param annotations the parameter's annotations
+     * @return the binders for the parameter, never null
+     */
+    public static ParameterBinder[] of(Annotation[] annotations) {
+        List<ParameterBinder> binders = null;
+
+        for (Annotation annotation : annotations) {
+            ParameterBinder binder = null;
+
+            if (annotation instanceof Param) {
+                binder = new ParameterBinder(Target.PARAM, ((Param) annotation).value(), null);
+            } else if (annotation instanceof Header) {
+                binder = new ParameterBinder(Target.HEADER, ((Header) annotation).value(), null);
+            } else if (annotation instanceof Content) {
+                String type = ((Content) annotation).value();
+                binder = new ParameterBinder(Target.CONTENT, type, parseQuietly(type));
+            }
+
+            if (binder != null) {
+                if (binders == null) {
+                    binders = new ArrayList<ParameterBinder>(1);
+                }
+                binders.add(binder);
+            }
+        }
+
+        return binders == null ? NONE : binders.toArray(new ParameterBinder[binders.size()]);
+    }
+
+    private static ContentType parseQuietly(String contentType) {
+        try {
+            return ContentType.parse(contentType);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package org.hyperfit.methodinfo;
+
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A ResourceMethodInfoCache that weakly references the resource classes and softly references their method caches,
+ * since the methods reference the classes they're declared by.  Softly held method caches still keep their class, and
+ * the class loader it comes from, until the garbage collector clears them, which it only promises to do before
+ * running out of memory.  So this doesn't keep a redeployed class loader forever, but can keep it for a long time,
+ * use hyperfit-java8's ClassValueResourceMethodInfoCache where class loaders need to go away promptly.  A method
+ * cache that gets collected while its class is still in use is just built again.
+ *
+ * <p>The cache holds at most maxClasses classes, when it fills up the classes that have been collected are dropped
+ * and if it's still full the quarter of the classes that were added first are dropped too.  Lookups are a single
+ * volatile read of the table, classes are added to the table in place while it has room and it's only copied when
+ * it's grown or entries are dropped.</p>
+ */
+public class WeakResourceMethodInfoCache implements ResourceMethodInfoCache {
+
+    static final int DEFAULT_MAX_CLASSES = 1024;
+
+    private final int maxClasses;
+    private final Object writeLock = new Object();
+
+    //the length is always a power of 2 at least twice the number of used slots, so probing always finds an empty slot
+    private volatile Entry[] table = new Entry[16];
+    //guarded by the write lock, the slots of the table that have an entry & how many entries have been added
+    private int used;
+    private long added;
+
+    public WeakResourceMethodInfoCache() {
+        this(DEFAULT_MAX_CLASSES);
+    }
+
+    /**
+     * @param maxClasses the most classes to hold method caches for, must be at least 1
+     */
+    public WeakResourceMethodInfoCache(int maxClasses) {
+        if (maxClasses < 1) {
+            throw new IllegalArgumentException("maxClasses must be at least 1");
+        }
+
+        this.maxClasses = maxClasses;
+    }
+
+    public MethodInfoCache get(Class<?> clazz) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("class must not be null");
+        }
+
+        MethodInfoCache methodInfoCache = find(table, clazz);
+        if (methodInfoCache != null) {
+            return methodInfoCache;
+        }
+
+        synchronized (writeLock) {
+            //another thread may have added it while this one waited
+            methodInfoCache = find(table, clazz);
+            if (methodInfoCache == null) {
+                methodInfoCache = new ConcurrentHashMapMethodInfoCache();
+                store(clazz, methodInfoCache);
+            }
+            return methodInfoCache;
+        }
+    }
+
+    /**
+     * @return the previous value associated to clazz
+     */
+    public MethodInfoCache put(Class<?> clazz, MethodInfoCache methodInfoCache) {
+        if (clazz == null) {
+            throw new IllegalArgumentException("class must not be null");
+        }
+
+        if (methodInfoCache == null) {
+            throw new IllegalArgumentException("methodInfoCache must not be null");
+        }
+
+        synchronized (writeLock) {
+            MethodInfoCache previous = find(table, clazz);
+            store(clazz, methodInfoCache);
+            return previous;
+        }
+    }
+
+    /**
+     * @return how many classes that haven't been collected have method caches
+     */
+    int size() {
+        int size = 0;
+        for (Entry entry : table) {
+            if (entry != null && entry.get() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+
+    private static MethodInfoCache find(Entry[] table, Class<?> clazz) {
+        int mask = table.length - 1;
+        for (int i = System.identityHashCode(clazz) & mask; ; i = (i + 1) & mask) {
+            Entry entry = table[i];
+            if (entry == null) {
+                return null;
+            }
+            if (entry.get() == clazz) {
+                return entry.value.get();
+            }
+        }
+    }
+
+    //must hold the write lock
+    private void store(Class<?> clazz, MethodInfoCache methodInfoCache) {
+        Entry entry = new Entry(clazz, methodInfoCache, added++);
+        Entry[] current = table;
+
+        //a lookup that doesn't see the new entry yet takes the lock and finds it there
+        if (used < maxClasses && (used + 1) * 2 <= current.length && !contains(current, clazz)) {
+            insert(current, entry);
+            used++;
+            return;
+        }
+
+        List<Entry> live = new ArrayList<Entry>(used + 1);
+        for (Entry existing : current) {
+            if (isLive(existing, clazz)) {
+                live.add(existing);
+            }
+        }
+
+        if (live.size() >= maxClasses) {
+            //rather than tracking what's used least the oldest are dropped, the method caches are quick to build again
+            Collections.sort(live, OLDEST_FIRST);
+            live = new ArrayList<Entry>(live.subList(live.size() - (maxClasses - Math.max(1, maxClasses / 4)), live.size()));
+        }
+        live.add(entry);
+
+        //room for as many more classes again before the next copy
+        int length = 16;
+        while (length < live.size() * 4) {
+            length <<= 1;
+        }
+
+        Entry[] replacement = new Entry[length];
+        for (Entry kept : live) {
+            insert(replacement, kept);
+        }
+
+        used = live.size();
+        table = replacement;
+    }
+
+    private static boolean isLive(Entry entry, Class<?> replacing) {
+        if (entry == null) {
+            return false;
+        }
+
+        Class<?> clazz = entry.get();
+        return clazz != null && clazz != replacing && entry.value.get() != null;
+    }
+
+    //whether there's an entry for the class, even one whose method cache has been collected
+    private static boolean contains(Entry[] table, Class<?> clazz) {
+        int mask = table.length - 1;
+        for (int i = System.identityHashCode(clazz) & mask; ; i = (i + 1) & mask) {
+            Entry entry = table[i];
+            if (entry == null) {
+                return false;
+            }
+            if (entry.get() == clazz) {
+                return true;
+            }
+        }
+    }
+
+    private static void insert(Entry[] table, Entry entry) {
+        int mask = table.length - 1;
+        int i = entry.hash & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = entry;
+    }
+
+
+    private static final Comparator<Entry> OLDEST_FIRST = new Comparator<Entry>() {
+        public int compare(Entry a, Entry b) {
+            return a.order < b.order ? -1 : (a.order == b.order ? 0 : 1);
+        }
+    };
+
+    private static final class Entry extends WeakReference<Class<?>> {
+        private final int hash;
+        private final SoftReference<MethodInfoCache> value;
+        private final long order;
+
+        private Entry(Class<?> clazz, MethodInfoCache methodInfoCache, long order) {
+            super(clazz);
+            this.hash = System.identityHashCode(clazz);
+            this.value = new SoftReference<MethodInfoCache>(methodInfoCache);
+            this.order = order;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package org.hyperfit.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Counts recorded values in buckets of logarithmically increasing width, the way HdrHistogram does, so the memory
+ * used is fixed no matter how many values are recorded while percentiles stay within about 3% of the actual value.
+ * Values below 64 are counted exactly.
+ *
+ * Recording is lock free & safe for use by multiple threads.  Reads made while values are being recorded may not
+ * include all of them.
+ */
+public final class Histogram {
+
+    //each power of 2 is split into 2^SUB_BUCKET_BITS buckets
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    //values up to here are counted exactly, one bucket per value
+    private static final int EXACT_LIMIT = SUB_BUCKET_COUNT << 1;
+    private static final int EXACT_EXPONENT = SUB_BUCKET_BITS + 1;
+    private static final int BUCKET_COUNT = EXACT_LIMIT + (63 - EXACT_EXPONENT) * SUB_BUCKET_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(-1);
+
+
+    /**
+     * @param value the value to record, negative values are recorded as 0
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        counts.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        total.addAndGet(value);
+
+        long current;
+        while (value < (current = min.get()) && !min.compareAndSet(current, value)) {
+            //lost a race, try again
+        }
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            //lost a race, try again
+        }
+    }
+
+    /**
+     * @return how many values were recorded
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * @return the sum of the recorded values
+     */
+    public long getTotal() {
+        return total.get();
+    }
+
+    /**
+     * @return the smallest recorded value, 0 if nothing was recorded
+     */
+    public long getMin() {
+        long result = min.get();
+        return result == Long.MAX_VALUE ? 0 : result;
+    }
+
+    /**
+     * @return the largest recorded value, 0 if nothing was recorded
+     */
+    public long getMax() {
+        long result = max.get();
+        return result < 0 ? 0 : result;
+    }
+
+    /**
+     * @return the mean of the recorded values, 0 if nothing was recorded
+     */
+    public double getMean() {
+        long n = count.get();
+        return n == 0 ? 0 : (double) total.get() / n;
+    }
+
+    /**
+     * @param percentile the percentile, from 0 to 100
+     * @return the value that percentile of the recorded values are at or below, 0 if nothing was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100");
+        }
+
+        long n = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+
+        if (n == 0) {
+            return 0;
+        }
+
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                //never report more than was actually recorded
+                return Math.min(highestValueOf(i), getMax());
+            }
+        }
+
+        return getMax();
+    }
+
+    @Override
+    public String toString() {
+        return "Histogram(count=" + getCount() + ", min=" + getMin() + ", p50=" + getValueAtPercentile(50) +
+            ", p90=" + getValueAtPercentile(90) + ", p99=" + getValueAtPercentile(99) + ", max=" + getMax() + ")";
+    }
+
+
+    static int bucketOf(long value) {
+        if (value < EXACT_LIMIT) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+
+        return EXACT_LIMIT + (exponent - EXACT_EXPONENT) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    static long highestValueOf(int bucket) {
+        if (bucket < EXACT_LIMIT) {
+            return bucket;
+        }
+
+        int exponent = (bucket - EXACT_LIMIT) / SUB_BUCKET_COUNT + EXACT_EXPONENT;
+        long subBucket = (bucket - EXACT_LIMIT) % SUB_BUCKET_COUNT;
+        int shift = exponent - SUB_BUCKET_BITS;
+
+        long lowest = ((SUB_BUCKET_COUNT | subBucket) << shift);
+        return lowest + (1L << shift) - 1;
+    }
+}
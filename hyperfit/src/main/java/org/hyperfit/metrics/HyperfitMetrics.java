@@ -0,0 +1,63 @@
+package org.hyperfit.metrics;
+
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+
+import java.lang.reflect.Method;
+
+/**
+ * Told how long each stage of processing takes, so time spent in hyperfit can be attributed to clients, content types
+ * and link relationships.  All durations are in nanoseconds.
+ *
+ * Methods are called on whatever thread did the work, often many at once, so implementations must be safe for use
+ * by multiple threads & should be quick since they're called inline.  See {@link InMemoryHyperfitMetrics}.
+ */
+public interface HyperfitMetrics {
+
+    /**
+     * A request was built, the duration includes the request interceptors
+     * @param request the built request
+     * @param nanos how long it took
+     */
+    void requestBuilt(Request request, long nanos);
+
+    /**
+     * A client executed a request.  Requests answered by the response cache without reaching a client aren't reported.
+     * @param client the client that executed the request
+     * @param request the request
+     * @param response the response, or null if executing the request failed
+     * @param nanos how long it took
+     */
+    void requestExecuted(HyperClient client, Request request, Response response, long nanos);
+
+    /**
+     * The content type of a response was parsed & a handler looked up for it
+     * @param contentType the response's content type header
+     * @param handler the handler that will parse the response, or null if there isn't one
+     * @param nanos how long it took
+     */
+    void contentTypeResolved(String contentType, ContentTypeHandler handler, long nanos);
+
+    /**
+     * A content type handler parsed a response into a resource.  Responses whose resources were found in the parsed
+     * resource cache aren't reported.
+     * @param handler the handler
+     * @param response the response that was parsed
+     * @param nanos how long it took, including when parsing failed
+     */
+    void responseParsed(ContentTypeHandler handler, Response response, long nanos);
+
+    /**
+     * A method of a resource interface was invoked.  For link methods the duration includes following the link,
+     * so it's the time spent getting the linked resources.
+     * @param resourceInterface the interface declaring the method
+     * @param method the method
+     * @param rel the link relationship of {@link org.hyperfit.annotation.Link}, {@link org.hyperfit.annotation.NamedLink}
+     *            and {@link org.hyperfit.annotation.FirstLink} methods, null for other methods
+     * @param nanos how long it took, including when the method failed
+     */
+    void methodInvoked(Class<?> resourceInterface, Method method, String rel, long nanos);
+
+}
@@ -0,0 +1,126 @@
+package org.hyperfit.metrics;
+
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps a {@link Histogram} for each stage, broken down by client class, content type handler class, resource method
+ * and link relationship.  Times are in nanoseconds and sizes in bytes.  Nothing is ever removed, so the memory used
+ * grows with the number of distinct clients, handlers, methods and rels, which in practice is fixed by the resource
+ * interfaces in use.
+ *
+ * Safe for use by multiple threads, the maps returned are live views.
+ */
+public class InMemoryHyperfitMetrics implements HyperfitMetrics {
+
+    private final Histogram requestBuildTimes = new Histogram();
+    private final ConcurrentMap<String, Histogram> executionTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram> responseSizes = new ConcurrentHashMap<String, Histogram>();
+    private final Histogram contentTypeResolutionTimes = new Histogram();
+    private final ConcurrentMap<String, Histogram> parseTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram> methodTimes = new ConcurrentHashMap<String, Histogram>();
+    private final ConcurrentMap<String, Histogram> relTimes = new ConcurrentHashMap<String, Histogram>();
+
+
+    public void requestBuilt(Request request, long nanos) {
+        requestBuildTimes.record(nanos);
+    }
+
+    public void requestExecuted(HyperClient client, Request request, Response response, long nanos) {
+        String clientName = client.getClass().getName();
+        histogram(executionTimes, clientName).record(nanos);
+
+        byte[] body = response == null ? null : response.getBodyBytes();
+        if (body != null) {
+            histogram(responseSizes, clientName).record(body.length);
+        }
+    }
+
+    public void contentTypeResolved(String contentType, ContentTypeHandler handler, long nanos) {
+        contentTypeResolutionTimes.record(nanos);
+    }
+
+    public void responseParsed(ContentTypeHandler handler, Response response, long nanos) {
+        histogram(parseTimes, handler.getClass().getName()).record(nanos);
+    }
+
+    public void methodInvoked(Class<?> resourceInterface, Method method, String rel, long nanos) {
+        histogram(methodTimes, resourceInterface.getName() + "#" + method.getName()).record(nanos);
+
+        if (rel != null) {
+            histogram(relTimes, rel).record(nanos);
+        }
+    }
+
+
+    /**
+     * @return how long building requests took, including the request interceptors
+     */
+    public Histogram getRequestBuildTimes() {
+        return requestBuildTimes;
+    }
+
+    /**
+     * @return how long executing requests took, by the class name of the client
+     */
+    public Map<String, Histogram> getExecutionTimes() {
+        return Collections.unmodifiableMap(executionTimes);
+    }
+
+    /**
+     * @return the size of response bodies, by the class name of the client
+     */
+    public Map<String, Histogram> getResponseSizes() {
+        return Collections.unmodifiableMap(responseSizes);
+    }
+
+    /**
+     * @return how long parsing content types & finding their handlers took
+     */
+    public Histogram getContentTypeResolutionTimes() {
+        return contentTypeResolutionTimes;
+    }
+
+    /**
+     * @return how long parsing responses took, by the class name of the content type handler
+     */
+    public Map<String, Histogram> getParseTimes() {
+        return Collections.unmodifiableMap(parseTimes);
+    }
+
+    /**
+     * @return how long invoking resource methods took, by the resource interface name & method name separated with #
+     */
+    public Map<String, Histogram> getMethodTimes() {
+        return Collections.unmodifiableMap(methodTimes);
+    }
+
+    /**
+     * @return how long invoking link methods took, by link relationship
+     */
+    public Map<String, Histogram> getRelTimes() {
+        return Collections.unmodifiableMap(relTimes);
+    }
+
+
+    private static Histogram histogram(ConcurrentMap<String, Histogram> histograms, String key) {
+        Histogram histogram = histograms.get(key);
+        if (histogram == null) {
+            Histogram created = new Histogram();
+            histogram = histograms.putIfAbsent(key, created);
+            if (histogram == null) {
+                histogram = created;
+            }
+        }
+
+        return histogram;
+    }
+}
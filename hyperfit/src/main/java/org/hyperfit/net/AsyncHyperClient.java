@@ -0,0 +1,18 @@
+package org.hyperfit.net;
+
+/**
+ * A {@link HyperClient} that can execute requests without blocking the calling thread.
+ * When the HyperClient chosen for a request implements this interface the HyperfitProcessor
+ * will use executeAsync when processing the request asynchronously.
+ */
+public interface AsyncHyperClient extends HyperClient {
+
+    /**
+     * Executes the given request, delivering the Response to the callback when it is available.
+     * This method should return immediately.
+     * @param request {@link Request}
+     * @param callback {@link Callback} notified with the {@link Response} or the failure
+     */
+    void executeAsync(Request request, Callback<Response> callback);
+
+}
@@ -0,0 +1,23 @@
+package org.hyperfit.net;
+
+/**
+ * Receives the outcome of an asynchronous hyperfit operation.  Exactly one of the methods will be called
+ * once the operation completes, possibly on a different thread than the one that started it.
+ *
+ * @param <T> the type of the result delivered on success
+ */
+public interface Callback<T> {
+
+    /**
+     * Called when the operation completed successfully
+     * @param result the result of the operation
+     */
+    void onSuccess(T result);
+
+    /**
+     * Called when the operation could not be completed
+     * @param e the reason the operation failed
+     */
+    void onFailure(Exception e);
+
+}
@@ -0,0 +1,566 @@
+package org.hyperfit.net;
+
+import com.damnhandy.uri.template.UriTemplate;
+
+import java.lang.reflect.Array;
+import java.nio.charset.Charset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * An RFC6570 URI template that's parsed once and can then be expanded any number of times from any number of threads.
+ * The expansion writes straight into a StringBuilder rather than building up intermediate strings.
+ *
+ * Strings, numbers, booleans & enums, along with arrays, Collections & Maps of them, are expanded directly the way the
+ * handy-uri-templates library expands them.  Any other values, such as Dates or beans, the few cases where the library
+ * strays from RFC6570 and any template this can't parse are handed to the library each time the same way
+ * {@link RFC6570RequestBuilder} always has, so they expand just like they did before.
+ *
+ * Use {@link #compile(String)} to get templates, it keeps the templates it compiles in a bounded cache.
+ */
+public final class CompiledUriTemplate {
+
+    /**
+     * The most templates the compile cache holds, it's emptied when it's full since an app generally has a handful
+     * of templates and going over this means something is making templates that are all different
+     */
+    static final int MAX_CACHED_TEMPLATES = 1024;
+
+    private static final ConcurrentMap<String, CompiledUriTemplate> CACHE = new ConcurrentHashMap<String, CompiledUriTemplate>();
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    private static final String RESERVED = ":/?#[]@!$&'()*+,;=";
+
+    private final String template;
+    //literal strings & expressions in template order, null when the library has to do the expanding
+    private final Object[] parts;
+
+
+    private CompiledUriTemplate(String template, Object[] parts) {
+        this.template = template;
+        this.parts = parts;
+    }
+
+    /**
+     * Gets the compiled version of a template, from the cache when it's been compiled before
+     *
+     * @param template an RFC6570 template
+     * @return the compiled template
+     */
+    public static CompiledUriTemplate compile(String template) {
+        if (template == null) {
+            throw new IllegalArgumentException("template cannot be null");
+        }
+
+        CompiledUriTemplate compiled = CACHE.get(template);
+        if (compiled == null) {
+            compiled = new CompiledUriTemplate(template, parse(template));
+
+            //templates without expressions, like most link hrefs, are as cheap to compile as they are to look up
+            if (template.indexOf('{') >= 0) {
+                if (CACHE.size() >= MAX_CACHED_TEMPLATES) {
+                    CACHE.clear();
+                }
+                CACHE.put(template, compiled);
+            }
+        }
+
+        return compiled;
+    }
+
+    /**
+     * @return the template as given to {@link #compile(String)}
+     */
+    public String getTemplate() {
+        return template;
+    }
+
+    /**
+     * Expands the template
+     *
+     * @param values the values of the template's variables
+     * @return the expanded template
+     */
+    public String expand(Map<String, ?> values) {
+        StringBuilder result = new StringBuilder(template.length() + 16);
+        expandInto(values, result);
+        return result.toString();
+    }
+
+    /**
+     * Expands the template, appending the result to the given StringBuilder so it can be reused
+     *
+     * @param values the values of the template's variables
+     * @param into where the expanded template is appended
+     */
+    public void expandInto(Map<String, ?> values, StringBuilder into) {
+        if (parts == null || !isDirectlyExpandable(values)) {
+            into.append(expandWithLibrary(values));
+            return;
+        }
+
+        for (Object part : parts) {
+            if (part instanceof String) {
+                into.append((String) part);
+            } else {
+                ((Expression) part).expandInto(values, into);
+            }
+        }
+    }
+
+    private String expandWithLibrary(Map<String, ?> values) {
+        UriTemplate uriTemplate = UriTemplate.fromTemplate(template);
+
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            uriTemplate.set(entry.getKey(), entry.getValue());
+        }
+
+        return uriTemplate.expand();
+    }
+
+    private boolean isDirectlyExpandable(Map<String, ?> values) {
+        for (Object part : parts) {
+            if (part instanceof Expression && !((Expression) part).isDirectlyExpandable(values)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+
+    private static boolean isSimple(Object value) {
+        return value instanceof String ||
+            value instanceof Number ||
+            value instanceof Boolean ||
+            value instanceof Enum;
+    }
+
+    /**
+     * The library drops or mangles empty items of lists & maps, so they're left to it
+     */
+    private static boolean isAllSimpleAndNotEmpty(Iterable<?> values) {
+        for (Object value : values) {
+            if (!isSimple(value) || value.toString().length() == 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the values of a Collection or array, null for anything else
+     */
+    private static List<?> asList(Object value) {
+        if (value instanceof List) {
+            return (List<?>) value;
+        }
+
+        if (value instanceof Collection) {
+            return new ArrayList<Object>((Collection<?>) value);
+        }
+
+        if (value != null && value.getClass().isArray()) {
+            int length = Array.getLength(value);
+            List<Object> list = new ArrayList<Object>(length);
+            for (int i = 0; i < length; i++) {
+                list.add(Array.get(value, i));
+            }
+            return list;
+        }
+
+        return null;
+    }
+
+
+    private enum Operator {
+        NONE('\0', "", ",", false, "", false),
+        RESERVED('+', "", ",", false, "", true),
+        FRAGMENT('#', "#", ",", false, "", true),
+        LABEL('.', ".", ".", false, "", false),
+        PATH('/', "/", "/", false, "", false),
+        PATH_PARAM(';', ";", ";", true, "", false),
+        QUERY('?', "?", "&", true, "=", false),
+        QUERY_CONTINUATION('&', "&", "&", true, "=", false);
+
+        private final char symbol;
+        private final String first;
+        private final String separator;
+        private final boolean named;
+        private final String ifEmpty;
+        private final boolean allowReserved;
+
+        Operator(char symbol, String first, String separator, boolean named, String ifEmpty, boolean allowReserved) {
+            this.symbol = symbol;
+            this.first = first;
+            this.separator = separator;
+            this.named = named;
+            this.ifEmpty = ifEmpty;
+            this.allowReserved = allowReserved;
+        }
+
+        static Operator of(char symbol) {
+            for (Operator operator : values()) {
+                if (operator.symbol == symbol) {
+                    return operator;
+                }
+            }
+
+            return null;
+        }
+    }
+
+    private static final class VarSpec {
+        private final String name;
+        //-1 when there's no prefix modifier
+        private final int prefix;
+        private final boolean explode;
+
+        private VarSpec(String name, int prefix, boolean explode) {
+            this.name = name;
+            this.prefix = prefix;
+            this.explode = explode;
+        }
+    }
+
+    private static final class Expression {
+        private final Operator operator;
+        private final VarSpec[] varSpecs;
+
+        private Expression(Operator operator, VarSpec[] varSpecs) {
+            this.operator = operator;
+            this.varSpecs = varSpecs;
+        }
+
+        private boolean isDirectlyExpandable(Map<String, ?> values) {
+            for (VarSpec varSpec : varSpecs) {
+                Object value = values.get(varSpec.name);
+
+                if (value == null) {
+                    continue;
+                }
+
+                if (isSimple(value)) {
+                    //the library doesn't expand exploded empty values right, and without a named operator it
+                    //drops the separator before or after an empty value depending on where it is
+                    if ((varSpec.explode || !operator.named) && value.toString().length() == 0) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                //prefixes only apply to simple values
+                if (varSpec.prefix >= 0) {
+                    return false;
+                }
+
+                if (value instanceof Map) {
+                    Map<?, ?> map = (Map<?, ?>) value;
+                    if (!isAllSimpleAndNotEmpty(map.keySet()) || !isAllSimpleAndNotEmpty(map.values())) {
+                        return false;
+                    }
+                    continue;
+                }
+
+                List<?> list = asList(value);
+                if (list == null || !isAllSimpleAndNotEmpty(list)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        private void expandInto(Map<String, ?> values, StringBuilder into) {
+            boolean first = true;
+
+            for (VarSpec varSpec : varSpecs) {
+                Object value = values.get(varSpec.name);
+
+                if (value == null) {
+                    continue;
+                }
+
+                if (isSimple(value)) {
+                    first = separate(first, into);
+                    expandSimple(varSpec, value.toString(), into);
+                } else if (value instanceof Map) {
+                    if (((Map<?, ?>) value).isEmpty()) {
+                        continue;
+                    }
+                    first = separate(first, into);
+                    expandMap(varSpec, (Map<?, ?>) value, into);
+                } else {
+                    List<?> list = asList(value);
+                    if (list.isEmpty()) {
+                        continue;
+                    }
+                    first = separate(first, into);
+                    expandList(varSpec, list, into);
+                }
+            }
+        }
+
+        private boolean separate(boolean first, StringBuilder into) {
+            into.append(first ? operator.first : operator.separator);
+            return false;
+        }
+
+        private void expandSimple(VarSpec varSpec, String value, StringBuilder into) {
+            if (varSpec.prefix >= 0 && varSpec.prefix < value.length()) {
+                value = value.substring(0, varSpec.prefix);
+            }
+
+            if (operator.named) {
+                into.append(varSpec.name);
+                if (value.length() == 0) {
+                    into.append(operator.ifEmpty);
+                    return;
+                }
+                into.append('=');
+            }
+
+            encode(value, into);
+        }
+
+        private void expandList(VarSpec varSpec, List<?> list, StringBuilder into) {
+            if (!varSpec.explode) {
+                if (operator.named) {
+                    into.append(varSpec.name).append('=');
+                }
+
+                for (int i = 0; i < list.size(); i++) {
+                    if (i > 0) {
+                        into.append(',');
+                    }
+                    encode(list.get(i).toString(), into);
+                }
+                return;
+            }
+
+            for (int i = 0; i < list.size(); i++) {
+                if (i > 0) {
+                    into.append(operator.separator);
+                }
+
+                String item = list.get(i).toString();
+                if (operator.named) {
+                    into.append(varSpec.name);
+                    if (item.length() == 0) {
+                        into.append(operator.ifEmpty);
+                        continue;
+                    }
+                    into.append('=');
+                }
+                encode(item, into);
+            }
+        }
+
+        private void expandMap(VarSpec varSpec, Map<?, ?> map, StringBuilder into) {
+            boolean firstEntry = true;
+
+            if (!varSpec.explode) {
+                if (operator.named) {
+                    into.append(varSpec.name).append('=');
+                }
+
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    if (!firstEntry) {
+                        into.append(',');
+                    }
+                    firstEntry = false;
+
+                    encode(entry.getKey().toString(), into);
+                    into.append(',');
+                    encode(entry.getValue().toString(), into);
+                }
+                return;
+            }
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (!firstEntry) {
+                    into.append(operator.separator);
+                }
+                firstEntry = false;
+
+                String entryValue = entry.getValue().toString();
+                encode(entry.getKey().toString(), into);
+                if (operator.named && entryValue.length() == 0) {
+                    into.append(operator.ifEmpty);
+                    continue;
+                }
+                into.append('=');
+                encode(entryValue, into);
+            }
+        }
+
+        private void encode(String value, StringBuilder into) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+
+                //unlike RFC6570 the library doesn't keep pct-encoded triplets in reserved expansions, so neither does this
+                if (isUnreserved(c) || (operator.allowReserved && RESERVED.indexOf(c) >= 0)) {
+                    into.append(c);
+                } else {
+                    int end = i + 1;
+                    if (Character.isHighSurrogate(c) && end < value.length() && Character.isLowSurrogate(value.charAt(end))) {
+                        end++;
+                    }
+
+                    for (byte b : value.substring(i, end).getBytes(UTF_8)) {
+                        into.append('%').append(HEX[(b >> 4) & 0xF]).append(HEX[b & 0xF]);
+                    }
+                    i = end - 1;
+                }
+            }
+        }
+    }
+
+    private static boolean isUnreserved(char c) {
+        return (c >= 'a' && c <= 'z') ||
+            (c >= 'A' && c <= 'Z') ||
+            (c >= '0' && c <= '9') ||
+            c == '-' || c == '.' || c == '_' || c == '~';
+    }
+
+    private static boolean isHex(char c) {
+        return (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F');
+    }
+
+    private static boolean isPercentEncoded(String value, int i) {
+        return i + 2 < value.length() && isHex(value.charAt(i + 1)) && isHex(value.charAt(i + 2));
+    }
+
+
+    /**
+     * @return the literals & expressions of the template, or null when it isn't something this can expand
+     */
+    private static Object[] parse(String template) {
+        List<Object> parts = new ArrayList<Object>();
+
+        int i = 0;
+        while (i < template.length()) {
+            int open = template.indexOf('{', i);
+            int close = template.indexOf('}', i);
+
+            if (open < 0) {
+                if (close >= 0) {
+                    return null;
+                }
+                parts.add(template.substring(i));
+                break;
+            }
+
+            if (close < open) {
+                return null;
+            }
+
+            if (open > i) {
+                parts.add(template.substring(i, open));
+            }
+
+            Expression expression = parseExpression(template.substring(open + 1, close));
+            if (expression == null) {
+                return null;
+            }
+            parts.add(expression);
+
+            i = close + 1;
+        }
+
+        for (Object part : parts) {
+            //literals get encoded by the library, leave anything that would need it to the library
+            if (part instanceof String && !isPlainLiteral((String) part)) {
+                return null;
+            }
+        }
+
+        return parts.toArray();
+    }
+
+    private static boolean isPlainLiteral(String literal) {
+        for (int i = 0; i < literal.length(); i++) {
+            char c = literal.charAt(i);
+            if (!isUnreserved(c) && RESERVED.indexOf(c) < 0 && !(c == '%' && isPercentEncoded(literal, i))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static Expression parseExpression(String expression) {
+        if (expression.length() == 0) {
+            return null;
+        }
+
+        Operator operator = Operator.of(expression.charAt(0));
+        if (operator == null) {
+            if (!isVarChar(expression.charAt(0))) {
+                return null;
+            }
+            operator = Operator.NONE;
+        } else {
+            expression = expression.substring(1);
+        }
+
+        String[] specs = expression.split(",", -1);
+        VarSpec[] varSpecs = new VarSpec[specs.length];
+
+        for (int i = 0; i < specs.length; i++) {
+            varSpecs[i] = parseVarSpec(specs[i]);
+            if (varSpecs[i] == null) {
+                return null;
+            }
+        }
+
+        return new Expression(operator, varSpecs);
+    }
+
+    private static VarSpec parseVarSpec(String spec) {
+        boolean explode = false;
+        int prefix = -1;
+        String name = spec;
+
+        if (spec.endsWith("*")) {
+            explode = true;
+            name = spec.substring(0, spec.length() - 1);
+        } else {
+            int colon = spec.indexOf(':');
+            if (colon >= 0) {
+                name = spec.substring(0, colon);
+                String length = spec.substring(colon + 1);
+                if (length.length() == 0 || length.length() > 4 || length.charAt(0) == '0') {
+                    return null;
+                }
+                for (int i = 0; i < length.length(); i++) {
+                    if (length.charAt(i) < '0' || length.charAt(i) > '9') {
+                        return null;
+                    }
+                }
+                prefix = Integer.parseInt(length);
+            }
+        }
+
+        if (name.length() == 0 || name.startsWith(".") || name.endsWith(".") || name.contains("..")) {
+            return null;
+        }
+
+        for (int i = 0; i < name.length(); i++) {
+            if (!isVarChar(name.charAt(i)) && name.charAt(i) != '.') {
+                return null;
+            }
+        }
+
+        return new VarSpec(name, prefix, explode);
+    }
+
+    private static boolean isVarChar(char c) {
+        //pct-encoded names are rare enough to leave to the library
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+}
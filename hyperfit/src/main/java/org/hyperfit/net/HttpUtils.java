@@ -16,6 +16,15 @@ public final class HttpUtils {
 
     public static final String ACCEPT = "Accept";
     public static final String CONTENT_TYPE = "Content-Type";
+    public static final String CACHE_CONTROL = "Cache-Control";
+    public static final String EXPIRES = "Expires";
+    public static final String DATE = "Date";
+    public static final String AGE = "Age";
+    public static final String ETAG = "ETag";
+    public static final String LAST_MODIFIED = "Last-Modified";
+    public static final String IF_NONE_MATCH = "If-None-Match";
+    public static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    public static final String VARY = "Vary";
 
     /**
      *
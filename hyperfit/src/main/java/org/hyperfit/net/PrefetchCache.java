@@ -0,0 +1,157 @@
+package org.hyperfit.net;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Holds the responses of GET requests made ahead of time, in the expectation that an identical request is about to be
+ * made, until that request takes them.  Each prefetched response is handed out once, responses that aren't taken
+ * within the time to live are dropped.  A request that takes a prefetch that's still being executed waits for it, so
+ * at worst it takes as long as making the request itself.
+ *
+ * Safe for use by multiple threads.
+ */
+public class PrefetchCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(PrefetchCache.class);
+
+    private final ConcurrentMap<List<Object>, Prefetch> prefetches = new ConcurrentHashMap<List<Object>, Prefetch>();
+    private final long timeToLiveNanos;
+    private final int maxEntries;
+
+    /**
+     * @param timeToLive how long a prefetched response is kept for, must be more than 0
+     * @param unit the unit of timeToLive
+     * @param maxEntries the most prefetches that are kept at once, prefetches beyond that aren't made
+     */
+    public PrefetchCache(long timeToLive, TimeUnit unit, int maxEntries) {
+        if (timeToLive <= 0) {
+            throw new IllegalArgumentException("timeToLive must be more than 0");
+        }
+
+        if (unit == null) {
+            throw new IllegalArgumentException("unit cannot be null");
+        }
+
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        this.timeToLiveNanos = unit.toNanos(timeToLive);
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Starts prefetching the response to a GET request on the executor, unless it's already being prefetched
+     *
+     * @param request the request to prefetch, requests other than GET aren't prefetched
+     * @param execution executes the request
+     * @param executor runs the execution
+     * @return true if a prefetch was started
+     */
+    public boolean prefetch(final Request request, final RequestCoalescer.Execution execution, Executor executor) {
+        if (request.getMethod() != Method.GET) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        removeExpired(now);
+
+        if (prefetches.size() >= maxEntries) {
+            LOG.debug("Not prefetching {}, there are already {} prefetches", request.getUrl(), maxEntries);
+            return false;
+        }
+
+        List<Object> key = RequestKeys.of(request);
+        Prefetch prefetch = new Prefetch(
+            new FutureTask<Response>(new Callable<Response>() {
+                public Response call() {
+                    return execution.execute(request);
+                }
+            }),
+            now + timeToLiveNanos
+        );
+
+        if (prefetches.putIfAbsent(key, prefetch) != null) {
+            return false;
+        }
+
+        try {
+            executor.execute(prefetch.task);
+        } catch (RejectedExecutionException e) {
+            prefetches.remove(key, prefetch);
+            LOG.debug("Executor rejected prefetch of {}", request.getUrl());
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Takes the prefetched response to the request, waiting for it if it's still being executed
+     *
+     * @param request the request
+     * @return the response, or null if the request wasn't prefetched, its prefetch expired or failed
+     */
+    public Response take(Request request) {
+        if (prefetches.isEmpty()) {
+            return null;
+        }
+
+        Prefetch prefetch = prefetches.remove(RequestKeys.of(request));
+        if (prefetch == null || prefetch.isExpired(System.nanoTime())) {
+            return null;
+        }
+
+        try {
+            Response response = prefetch.task.get();
+            LOG.trace("Using the prefetched response for {}", request.getUrl());
+            return response;
+        } catch (ExecutionException e) {
+            //the request will be made again, if it fails again that's when it's reported
+            LOG.debug("Prefetching {} failed", request.getUrl(), e.getCause());
+            return null;
+        } catch (CancellationException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    /**
+     * @return how many prefetches are being held, including ones that expired but haven't been dropped yet
+     */
+    public int size() {
+        return prefetches.size();
+    }
+
+
+    private void removeExpired(long now) {
+        Iterator<Map.Entry<List<Object>, Prefetch>> it = prefetches.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue().isExpired(now)) {
+                it.remove();
+            }
+        }
+    }
+
+    private static final class Prefetch {
+        private final FutureTask<Response> task;
+        private final long expiresAt;
+
+        private Prefetch(FutureTask<Response> task, long expiresAt) {
+            this.task = task;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+            return now - expiresAt > 0;
+        }
+    }
+}
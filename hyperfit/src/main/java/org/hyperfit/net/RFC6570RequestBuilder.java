@@ -1,6 +1,5 @@
 package org.hyperfit.net;
 
-import com.damnhandy.uri.template.UriTemplate;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
 import org.hyperfit.exception.HyperfitException;
@@ -141,17 +140,34 @@ public class RFC6570RequestBuilder implements RequestBuilder {
         return new Request(this);
     }
 
+    //reused by each thread to expand templates into, see getURL
+    private static final ThreadLocal<StringBuilder> URL_BUILDER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
+
+    //don't let one huge url keep a huge buffer around for the life of the thread
+    private static final int MAX_REUSED_URL_BUILDER_CAPACITY = 4096;
+
     public String getURL() {
 
 
         try {
-            UriTemplate uriTemplateBuilder = UriTemplate.fromTemplate(urlTemplate);
+            //templates are parsed once and shared, see CompiledUriTemplate
+            CompiledUriTemplate uriTemplate = CompiledUriTemplate.compile(urlTemplate);
+
+            StringBuilder url = URL_BUILDER.get();
+            url.setLength(0);
+            uriTemplate.expandInto(params, url);
 
-            for (Map.Entry<String, Object> entry : params.entrySet()) {
-                uriTemplateBuilder.set(entry.getKey(), entry.getValue());
+            String result = url.toString();
+            if (url.capacity() > MAX_REUSED_URL_BUILDER_CAPACITY) {
+                URL_BUILDER.remove();
             }
 
-            return uriTemplateBuilder.expand();
+            return result;
         } catch (Exception e) {
             throw new HyperfitException("URL Template [" + urlTemplate + "] cannot be expanded with params", e);
         }
@@ -0,0 +1,219 @@
+package org.hyperfit.net;
+
+import org.hyperfit.exception.HyperfitException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Lets identical GET & HEAD requests made at the same time share a single execution.  The first request for a given
+ * method, url, accepted content types & headers is executed, requests identical to it that are made before it completes
+ * wait for it & get the same {@link Response}, or the same exception if it fails.  Requests made after it completes are
+ * executed again, nothing is cached.
+ *
+ * Safe for use by multiple threads.
+ */
+public class RequestCoalescer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(RequestCoalescer.class);
+
+    /**
+     * Executes a request, blocking until there's a response
+     */
+    public interface Execution {
+        Response execute(Request request);
+    }
+
+    /**
+     * Executes a request without blocking, the callback is notified once there's a response
+     */
+    public interface AsyncExecution {
+        void execute(Request request, Callback<Response> callback);
+    }
+
+
+    private final ConcurrentMap<List<Object>, Flight> flights = new ConcurrentHashMap<List<Object>, Flight>();
+
+
+    /**
+     * @param request the request
+     * @return true if the request is one that can share an execution
+     */
+    public boolean canCoalesce(Request request) {
+        return request.getMethod() == Method.GET || request.getMethod() == Method.HEAD;
+    }
+
+    /**
+     * Executes the request unless an identical request is already being executed, in which case waits for that
+     * one's response.  Requests that can't be coalesced are always executed.
+     *
+     * @param request the request
+     * @param execution executes the request when needed
+     * @return the response
+     */
+    public Response execute(Request request, Execution execution) {
+        if (!canCoalesce(request)) {
+            return execution.execute(request);
+        }
+
+        List<Object> key = RequestKeys.of(request);
+        Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            LOG.trace("Waiting on the identical request in flight for {}", key);
+            return existing.await();
+        }
+
+        try {
+            Response response = execution.execute(request);
+            complete(key, flight, response, null);
+            return response;
+        } catch (RuntimeException e) {
+            complete(key, flight, null, e);
+            throw e;
+        } catch (Error e) {
+            //the waiting requests still need to be let go
+            HyperfitException failure = new HyperfitException("The request [" + request + "] could not be executed.");
+            failure.initCause(e);
+            complete(key, flight, null, failure);
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #execute(Request, Execution)} but without blocking, the callback is notified on the thread that
+     * completes the shared execution.
+     *
+     * @param request the request
+     * @param execution executes the request when needed
+     * @param callback notified with the response
+     */
+    public void executeAsync(Request request, AsyncExecution execution, Callback<Response> callback) {
+        if (!canCoalesce(request)) {
+            execution.execute(request, callback);
+            return;
+        }
+
+        final List<Object> key = RequestKeys.of(request);
+        final Flight flight = new Flight();
+        Flight existing = flights.putIfAbsent(key, flight);
+
+        if (existing != null) {
+            LOG.trace("Waiting on the identical request in flight for {}", key);
+            existing.onComplete(callback);
+            return;
+        }
+
+        flight.onComplete(callback);
+
+        try {
+            execution.execute(request, new Callback<Response>() {
+                public void onSuccess(Response result) {
+                    complete(key, flight, result, null);
+                }
+
+                public void onFailure(Exception e) {
+                    complete(key, flight, null, e);
+                }
+            });
+        } catch (RuntimeException e) {
+            complete(key, flight, null, e);
+        }
+    }
+
+    /**
+     * @return how many distinct requests are being executed
+     */
+    public int inFlight() {
+        return flights.size();
+    }
+
+
+    private void complete(List<Object> key, Flight flight, Response response, Exception failure) {
+        //removed first so requests made from here on get a new execution
+        flights.remove(key, flight);
+        flight.complete(response, failure);
+    }
+
+    /**
+     * A request being executed & whatever is waiting on it
+     */
+    private static final class Flight {
+        private boolean done;
+        private Response response;
+        private Exception failure;
+        private List<Callback<Response>> callbacks;
+
+        void complete(Response response, Exception failure) {
+            List<Callback<Response>> toNotify;
+            synchronized (this) {
+                this.response = response;
+                this.failure = failure;
+                this.done = true;
+                toNotify = callbacks;
+                callbacks = null;
+                notifyAll();
+            }
+
+            //callbacks are notified outside of the lock
+            if (toNotify != null) {
+                notifyCallbacks(toNotify);
+            }
+        }
+
+        void onComplete(Callback<Response> callback) {
+            synchronized (this) {
+                if (!done) {
+                    if (callbacks == null) {
+                        callbacks = new ArrayList<Callback<Response>>(2);
+                    }
+                    callbacks.add(callback);
+                    return;
+                }
+            }
+
+            notifyCallbacks(Collections.singletonList(callback));
+        }
+
+        Response await() {
+            synchronized (this) {
+                boolean interrupted = false;
+                while (!done) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            if (failure instanceof RuntimeException) {
+                throw (RuntimeException) failure;
+            }
+
+            if (failure != null) {
+                throw new HyperfitException("The shared request could not be executed.", failure);
+            }
+
+            return response;
+        }
+
+        private void notifyCallbacks(List<Callback<Response>> toNotify) {
+            for (Callback<Response> callback : toNotify) {
+                if (failure != null) {
+                    callback.onFailure(failure);
+                } else {
+                    callback.onSuccess(response);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.hyperfit.net;
+
+import java.util.*;
+
+/**
+ * Builds keys that are equal for requests that would get the same response
+ */
+final class RequestKeys {
+
+    private RequestKeys() {
+
+    }
+
+    /**
+     * A copy of the method, url, accepted content types & headers of the request, the request's own header map may be
+     * shared with its builder so it can't be the key itself.  The content isn't included, these are only for requests
+     * without any.
+     *
+     * @param request the request
+     * @return the key
+     */
+    static List<Object> of(Request request) {
+        Map<String, String> headers = new TreeMap<String, String>();
+        if (request.getHeaders() != null) {
+            for (Map.Entry<String, String> header : request.getHeaders()) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+
+        Set<String> accepted = request.getAcceptedContentTypes() == null ?
+            Collections.<String>emptySet() :
+            new TreeSet<String>(request.getAcceptedContentTypes());
+
+        return Arrays.<Object>asList(request.getMethod(), request.getUrl(), accepted, headers);
+    }
+}
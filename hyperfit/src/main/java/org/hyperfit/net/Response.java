@@ -1,6 +1,10 @@
 package org.hyperfit.net;
 
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
 import java.util.*;
 
 import lombok.ToString;
@@ -10,17 +14,25 @@ import org.hyperfit.utils.StringUtils;
 /**
  * Represents a response message received by the hyper client from a service
  */
-@ToString
+@ToString(exclude = {"bodyBytes"})
 public class Response {
 
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
     private final int code;
     private final Collection<Map.Entry<String, String>> headers;
-    private final String body;
+    private final Charset bodyCharset;
     private final String contentType;
     private final Request request;
 
+    //one of these is given to the builder, the other is worked out from it when first asked for
+    private volatile String body;
+    private volatile byte[] bodyBytes;
+
     private Response(ResponseBuilder builder) {
         this.body = builder.body;
+        this.bodyBytes = builder.bodyBytes;
+        this.bodyCharset = builder.bodyCharset != null ? builder.bodyCharset : UTF_8;
         this.code = builder.code;
         this.headers = Collections.unmodifiableCollection(builder.headers);
         this.contentType = builder.contentType;
@@ -31,8 +43,64 @@ public class Response {
         return code;
     }
 
+    /**
+     * @return the body decoded using the body charset, when the response was built from bytes they are only
+     * decoded the first time this is called
+     */
     public String getBody() {
-        return body;
+        String decoded = body;
+        if (decoded == null && bodyBytes != null) {
+            decoded = decode(bodyBytes, bodyCharset);
+            body = decoded;
+        }
+
+        return decoded;
+    }
+
+    /**
+     * The raw bytes of the body.  The array is not copied so it must not be modified.
+     * @return the body encoded with the body charset, or null if there is no body
+     */
+    public byte[] getBodyBytes() {
+        byte[] encoded = bodyBytes;
+        if (encoded == null && body != null) {
+            encoded = encode(body, bodyCharset);
+            bodyBytes = encoded;
+        }
+
+        return encoded;
+    }
+
+    /**
+     * @return a stream over the raw bytes of the body, or null if there is no body
+     */
+    public InputStream openBodyStream() {
+        byte[] bytes = getBodyBytes();
+        return bytes == null ? null : new ByteArrayInputStream(bytes);
+    }
+
+    /**
+     * @return the charset of the body bytes, UTF-8 unless the builder was told otherwise
+     */
+    public Charset getBodyCharset() {
+        return bodyCharset;
+    }
+
+    //Charset based String methods are java 6, so go by name
+    private static String decode(byte[] bytes, Charset charset) {
+        try {
+            return new String(bytes, charset.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] encode(String string, Charset charset) {
+        try {
+            return string.getBytes(charset.name());
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
     }
 
     public Collection<Map.Entry<String, String>> getHeaders() {
@@ -71,6 +139,8 @@ public class Response {
 
         private int code;
         private String body;
+        private byte[] bodyBytes;
+        private Charset bodyCharset;
         private List<Map.Entry<String, String>> headers = new ArrayList<Map.Entry<String, String>>(5);
         private String contentType;
         private Request request;
@@ -80,6 +150,21 @@ public class Response {
 
         public ResponseBuilder addBody(String body) {
             this.body = body;
+            this.bodyBytes = null;
+            return this;
+        }
+
+        /**
+         * Sets the body as raw bytes, they are only decoded if {@link Response#getBody()} is called.
+         * The array is not copied so it must not be modified after being given to the builder.
+         * @param body the raw bytes of the body
+         * @param charset the charset of the bytes, UTF-8 when null
+         * @return this builder
+         */
+        public ResponseBuilder addBody(byte[] body, Charset charset) {
+            this.bodyBytes = body;
+            this.bodyCharset = charset;
+            this.body = null;
             return this;
         }
 
@@ -0,0 +1,73 @@
+package org.hyperfit.net.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hyperfit.net.HttpUtils;
+import org.hyperfit.net.Method;
+import org.hyperfit.net.Request;
+
+import java.util.TreeSet;
+
+/**
+ * Identifies a cached response by the method, url & accepted content types of the request that produced it
+ */
+@ToString
+@EqualsAndHashCode
+public final class CacheKey {
+
+    private final Method method;
+    private final String url;
+    private final String accept;
+
+    public CacheKey(Method method, String url, String accept) {
+        if (method == null) {
+            throw new IllegalArgumentException("method cannot be null");
+        }
+
+        if (url == null) {
+            throw new IllegalArgumentException("url cannot be null");
+        }
+
+        this.method = method;
+        this.url = url;
+        this.accept = accept;
+    }
+
+    /**
+     * Builds the key for a request.  The accepted content types are sorted so the same set
+     * of types always produces the same key.
+     * @param request the request to build a key for
+     * @return the key
+     */
+    public static CacheKey forRequest(Request request) {
+        Object acceptHeader = request.getHeader(HttpUtils.ACCEPT);
+
+        StringBuilder accept = new StringBuilder();
+        if (request.getAcceptedContentTypes() != null) {
+            for (String type : new TreeSet<String>(request.getAcceptedContentTypes())) {
+                if (accept.length() > 0) {
+                    accept.append(",");
+                }
+                accept.append(type);
+            }
+        }
+
+        if (acceptHeader != null) {
+            accept.append(";").append(acceptHeader);
+        }
+
+        return new CacheKey(request.getMethod(), request.getUrl(), accept.toString());
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getAccept() {
+        return accept;
+    }
+}
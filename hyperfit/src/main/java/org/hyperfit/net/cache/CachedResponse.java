@@ -0,0 +1,118 @@
+package org.hyperfit.net.cache;
+
+import lombok.ToString;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * A response held by a {@link ResponseCache} along with what is needed to decide if it can be reused
+ */
+@ToString
+public final class CachedResponse {
+
+    private final Response response;
+    private final long expires;
+    private final String eTag;
+    private final String lastModified;
+    private final Map<String, String> varyingHeaders;
+
+    /**
+     * @param response the cached response
+     * @param expires the time in millis since the epoch after which the response must be revalidated
+     * @param eTag the ETag validator of the response, may be null
+     * @param lastModified the Last-Modified validator of the response, may be null
+     */
+    public CachedResponse(Response response, long expires, String eTag, String lastModified) {
+        this(response, expires, eTag, lastModified, Collections.<String, String>emptyMap());
+    }
+
+    /**
+     * @param response the cached response
+     * @param expires the time in millis since the epoch after which the response must be revalidated
+     * @param eTag the ETag validator of the response, may be null
+     * @param lastModified the Last-Modified validator of the response, may be null
+     * @param varyingHeaders the request headers named by the response's Vary header and the values they had in the
+     *                       request that got the response, a null value meaning the header wasn't sent
+     */
+    public CachedResponse(Response response, long expires, String eTag, String lastModified, Map<String, String> varyingHeaders) {
+        if (response == null) {
+            throw new IllegalArgumentException("response cannot be null");
+        }
+
+        if (varyingHeaders == null) {
+            throw new IllegalArgumentException("varyingHeaders cannot be null");
+        }
+
+        this.response = response;
+        this.expires = expires;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.varyingHeaders = varyingHeaders;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public long getExpires() {
+        return expires;
+    }
+
+    public String getETag() {
+        return eTag;
+    }
+
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    public Map<String, String> getVaryingHeaders() {
+        return Collections.unmodifiableMap(varyingHeaders);
+    }
+
+    /**
+     * @param request a request with the same method, url & accepted content types as the one that got the response
+     * @return true if the request sends the same values for the headers the response varies on
+     */
+    public boolean matches(Request request) {
+        for (Map.Entry<String, String> header : varyingHeaders.entrySet()) {
+            String value = requestHeader(request, header.getKey());
+            if (value == null ? header.getValue() != null : !value.equals(header.getValue())) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * @return the value of a request header, ignoring the case of its name, null if it wasn't sent
+     */
+    static String requestHeader(Request request, String name) {
+        for (Map.Entry<String, String> header : request.getHeaders()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param now the current time in millis since the epoch
+     * @return true if the response can be used without checking with the server
+     */
+    public boolean isFresh(long now) {
+        return now < expires;
+    }
+
+    /**
+     * @return true if the response has a validator that can be used to make a conditional request
+     */
+    public boolean canRevalidate() {
+        return eTag != null || lastModified != null;
+    }
+}
@@ -0,0 +1,61 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.resource.HyperResource;
+
+/**
+ * An in memory {@link ParsedResourceCache} that evicts the least recently used resources once either the number of
+ * resources or their approximate size in bytes goes over the given limits.
+ */
+public class LruParsedResourceCache implements ParsedResourceCache {
+
+    //roughly what a cached resource costs beyond its parsed body
+    private static final long ENTRY_OVERHEAD_BYTES = 256;
+
+    //parsed trees & doms take up a good deal more room than the bytes they came from
+    private static final long BYTES_PER_BODY_BYTE = 8;
+
+    //guarded by this
+    private final LruStore<ParsedResourceKey, HyperResource> store;
+
+    /**
+     * @param maxEntries the most resources to hold
+     * @param maxBytes the most bytes the held resources may take up
+     */
+    public LruParsedResourceCache(int maxEntries, long maxBytes) {
+        store = new LruStore<ParsedResourceKey, HyperResource>(maxEntries, maxBytes);
+    }
+
+    public synchronized HyperResource get(ParsedResourceKey key) {
+        return store.get(key);
+    }
+
+    public synchronized void put(ParsedResourceKey key, HyperResource resource) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+
+        if (resource == null) {
+            throw new IllegalArgumentException("resource cannot be null");
+        }
+
+        store.put(key, resource, weigh(key));
+    }
+
+    /**
+     * @return the number of resources held
+     */
+    public synchronized int size() {
+        return store.size();
+    }
+
+    /**
+     * @return the approximate number of bytes taken up by the resources held
+     */
+    public synchronized long byteSize() {
+        return store.weight();
+    }
+
+    protected long weigh(ParsedResourceKey key) {
+        return ENTRY_OVERHEAD_BYTES + BYTES_PER_BODY_BYTE * key.getBodyLength();
+    }
+}
@@ -0,0 +1,85 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.net.Response;
+
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An in memory {@link ResponseCache} that evicts the least recently used responses once either the number of
+ * responses or their approximate size in bytes goes over the given limits.
+ */
+public class LruResponseCache implements ResponseCache {
+
+    //roughly what a cached response costs beyond its body bytes and headers
+    private static final long ENTRY_OVERHEAD_BYTES = 128;
+
+    //guarded by this
+    private final LruStore<CacheKey, CachedResponse> store;
+
+    /**
+     * @param maxEntries the most responses to hold
+     * @param maxBytes the most bytes the held responses may take up
+     */
+    public LruResponseCache(int maxEntries, long maxBytes) {
+        store = new LruStore<CacheKey, CachedResponse>(maxEntries, maxBytes);
+    }
+
+    public synchronized CachedResponse get(CacheKey key) {
+        return store.get(key);
+    }
+
+    public synchronized void put(CacheKey key, CachedResponse cachedResponse) {
+        if (key == null) {
+            throw new IllegalArgumentException("key cannot be null");
+        }
+
+        if (cachedResponse == null) {
+            throw new IllegalArgumentException("cachedResponse cannot be null");
+        }
+
+        store.put(key, cachedResponse, weigh(cachedResponse.getResponse()));
+    }
+
+    public synchronized void remove(CacheKey key) {
+        store.remove(key);
+    }
+
+    public synchronized void invalidate(String url) {
+        Iterator<CacheKey> it = store.keys();
+        while (it.hasNext()) {
+            if (it.next().getUrl().equals(url)) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * @return the number of responses held
+     */
+    public synchronized int size() {
+        return store.size();
+    }
+
+    /**
+     * @return the approximate number of bytes taken up by the responses held
+     */
+    public synchronized long byteSize() {
+        return store.weight();
+    }
+
+    protected long weigh(Response response) {
+        long weight = ENTRY_OVERHEAD_BYTES;
+
+        byte[] body = response.getBodyBytes();
+        if (body != null) {
+            weight += body.length;
+        }
+
+        for (Map.Entry<String, String> header : response.getHeaders()) {
+            weight += 2L * (header.getKey().length() + header.getValue().length());
+        }
+
+        return weight;
+    }
+}
@@ -0,0 +1,105 @@
+package org.hyperfit.net.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The bookkeeping shared by the LRU caches, a map that evicts its least recently used values once either the
+ * number of values or their total weight goes over the given limits.  Not thread safe, callers must synchronize.
+ */
+final class LruStore<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<K, Entry<V>>(16, 0.75f, true);
+    private long weight = 0;
+
+    LruStore(int maxEntries, long maxWeight) {
+        if (maxEntries < 1) {
+            throw new IllegalArgumentException("maxEntries must be at least 1");
+        }
+
+        if (maxWeight < 1) {
+            throw new IllegalArgumentException("maxBytes must be at least 1");
+        }
+
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+    }
+
+    V get(K key) {
+        Entry<V> entry = entries.get(key);
+        return entry == null ? null : entry.value;
+    }
+
+    void put(K key, V value, long valueWeight) {
+        remove(key);
+
+        if (valueWeight > maxWeight) {
+            //it would just push everything else out and then itself
+            return;
+        }
+
+        entries.put(key, new Entry<V>(value, valueWeight));
+        weight += valueWeight;
+
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (entries.size() > maxEntries || weight > maxWeight)) {
+            weight -= eldest.next().weight;
+            eldest.remove();
+        }
+    }
+
+    void remove(K key) {
+        Entry<V> entry = entries.remove(key);
+        if (entry != null) {
+            weight -= entry.weight;
+        }
+    }
+
+    /**
+     * @return an iterator over the keys that keeps the weight up to date when keys are removed through it
+     */
+    Iterator<K> keys() {
+        final Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+
+        return new Iterator<K>() {
+            private Entry<V> current;
+
+            public boolean hasNext() {
+                return it.hasNext();
+            }
+
+            public K next() {
+                Map.Entry<K, Entry<V>> next = it.next();
+                current = next.getValue();
+                return next.getKey();
+            }
+
+            public void remove() {
+                it.remove();
+                weight -= current.weight;
+            }
+        };
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    long weight() {
+        return weight;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long weight;
+
+        private Entry(V value, long weight) {
+            this.value = value;
+            this.weight = weight;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.resource.HyperResource;
+
+/**
+ * Stores the HyperResources parsed from responses so a response with the same body doesn't need to be parsed
+ * again.  The stored resources are shared by everything that asks for them, so only content type handlers whose
+ * resources are safe to read from multiple threads should be used with a ParsedResourceCache.
+ *
+ * Implementations must be safe for use by multiple threads.
+ */
+public interface ParsedResourceCache {
+
+    /**
+     * @param key the key identifying the response
+     * @return the stored resource, or null if there isn't one
+     */
+    HyperResource get(ParsedResourceKey key);
+
+    /**
+     * Stores the resource, replacing any existing resource for the key
+     * @param key the key identifying the response
+     * @param resource the resource parsed from the response
+     */
+    void put(ParsedResourceKey key, HyperResource resource);
+
+}
@@ -0,0 +1,105 @@
+package org.hyperfit.net.cache;
+
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hyperfit.net.HttpUtils;
+import org.hyperfit.net.Response;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Identifies a parsed resource by the url & content type of the response it was parsed from, along with a
+ * validator for the response body.  The validator is the response's strong ETag when it has one, otherwise
+ * a SHA-256 hash of the body, so responses with the same key always have the same body.
+ */
+@ToString
+@EqualsAndHashCode(exclude = "bodyLength")
+public final class ParsedResourceKey {
+
+    private static final String WEAK_ETAG_PREFIX = "W/";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final String url;
+    private final String contentType;
+    private final String validator;
+    private final int bodyLength;
+
+    public ParsedResourceKey(String url, String contentType, String validator, int bodyLength) {
+        if (url == null) {
+            throw new IllegalArgumentException("url cannot be null");
+        }
+
+        if (validator == null) {
+            throw new IllegalArgumentException("validator cannot be null");
+        }
+
+        this.url = url;
+        this.contentType = contentType;
+        this.validator = validator;
+        this.bodyLength = bodyLength;
+    }
+
+    /**
+     * Builds the key for a response.
+     * @param response the response to build a key for
+     * @return the key, or null if the response has no body to parse
+     */
+    public static ParsedResourceKey forResponse(Response response) {
+        byte[] body = response.getBodyBytes();
+        if (body == null || response.getRequest() == null) {
+            return null;
+        }
+
+        //weak etags only promise the responses mean the same thing, we need them byte for byte the same
+        String eTag = response.getHeader(HttpUtils.ETAG);
+        String validator = eTag != null && !eTag.startsWith(WEAK_ETAG_PREFIX) ?
+            "etag:" + eTag
+            :
+            "sha-256:" + sha256(body);
+
+        return new ParsedResourceKey(
+            response.getRequest().getUrl(),
+            response.getContentType(),
+            validator,
+            body.length
+        );
+    }
+
+    private static String sha256(byte[] body) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(body);
+        } catch (NoSuchAlgorithmException e) {
+            //every java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[i * 2] = HEX[(digest[i] >> 4) & 0xf];
+            hex[i * 2 + 1] = HEX[digest[i] & 0xf];
+        }
+
+        return new String(hex);
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getValidator() {
+        return validator;
+    }
+
+    /**
+     * @return the length in bytes of the body the resource was parsed from
+     */
+    public int getBodyLength() {
+        return bodyLength;
+    }
+}
@@ -0,0 +1,36 @@
+package org.hyperfit.net.cache;
+
+/**
+ * Stores responses so they can be reused by later requests.  Implementations are responsible only for
+ * storage and eviction, deciding what can be stored and when it can be reused is done by {@link ResponseCacheStage}.
+ *
+ * Implementations must be safe for use by multiple threads.
+ */
+public interface ResponseCache {
+
+    /**
+     * @param key the key identifying the request
+     * @return the stored response, or null if there isn't one
+     */
+    CachedResponse get(CacheKey key);
+
+    /**
+     * Stores the response, replacing any existing response for the key
+     * @param key the key identifying the request
+     * @param cachedResponse the response to store
+     */
+    void put(CacheKey key, CachedResponse cachedResponse);
+
+    /**
+     * Removes the stored response for the key, if there is one
+     * @param key the key identifying the request
+     */
+    void remove(CacheKey key);
+
+    /**
+     * Removes all stored responses for the url regardless of the method or accepted types that produced them
+     * @param url the url of the requests to remove
+     */
+    void invalidate(String url);
+
+}
@@ -0,0 +1,371 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Method;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.hyperfit.utils.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.TreeMap;
+
+import static org.hyperfit.net.HttpUtils.*;
+
+/**
+ * Applies HTTP caching rules to the requests made by a HyperfitProcessor using a {@link ResponseCache} for storage.
+ *
+ * Only GET requests are answered from the cache.  Cached responses are reused while fresh according to their
+ * Cache-Control max-age or Expires headers, once stale they are revalidated with If-None-Match & If-Modified-Since
+ * when they have an ETag or Last-Modified validator.  Requests with unsafe methods invalidate the cached responses
+ * for their url.  Responses with a Vary header are only reused for requests that send the same values for the headers
+ * it names, and ones that vary on * aren't cached at all.
+ *
+ * Using the stage is done in two steps, {@link #lookup(Request)} before executing a request & {@link #complete(Lookup, Response)}
+ * with the response to the request returned by the lookup.
+ */
+public class ResponseCacheStage {
+
+    private static final Logger LOG = LoggerFactory.getLogger(ResponseCacheStage.class);
+
+    private static final String HTTP_DATE_FORMAT = "EEE, dd MMM yyyy HH:mm:ss zzz";
+    private static final int NOT_MODIFIED = 304;
+
+    private final ResponseCache cache;
+
+    public ResponseCacheStage(ResponseCache cache) {
+        if (cache == null) {
+            throw new IllegalArgumentException("cache cannot be null");
+        }
+
+        this.cache = cache;
+    }
+
+    /**
+     * The result of looking up a request in the cache
+     */
+    public static final class Lookup {
+        private final Request request;
+        private final CacheKey key;
+        private final CachedResponse cached;
+        private final boolean hit;
+
+        private Lookup(Request request, CacheKey key, CachedResponse cached, boolean hit) {
+            this.request = request;
+            this.key = key;
+            this.cached = cached;
+            this.hit = hit;
+        }
+
+        /**
+         * @return true if the cached response can be used without making a request
+         */
+        public boolean isHit() {
+            return hit;
+        }
+
+        /**
+         * @return the cached response when this is a hit
+         */
+        public Response getCachedResponse() {
+            return hit ? cached.getResponse() : null;
+        }
+
+        /**
+         * @return the request that should be executed when this isn't a hit, it may be a conditional version of the original request
+         */
+        public Request getRequest() {
+            return request;
+        }
+    }
+
+    public Lookup lookup(Request request) {
+        if (request == null) {
+            throw new IllegalArgumentException("request cannot be null");
+        }
+
+        if (request.getMethod() != Method.GET) {
+            if (!isSafe(request.getMethod())) {
+                cache.invalidate(request.getUrl());
+            }
+
+            return new Lookup(request, null, null, false);
+        }
+
+        String requestCacheControl = headerValue(request.getHeader(CACHE_CONTROL));
+        if (hasDirective(requestCacheControl, "no-store")) {
+            return new Lookup(request, null, null, false);
+        }
+
+        CacheKey key = CacheKey.forRequest(request);
+        CachedResponse cached = cache.get(key);
+
+        //a response made for different request headers can't be used, or revalidated, for this request
+        if (cached == null || !cached.matches(request)) {
+            return new Lookup(request, key, null, false);
+        }
+
+        if (cached.isFresh(now()) && !hasDirective(requestCacheControl, "no-cache")) {
+            LOG.trace("Cache hit for {}", key);
+            return new Lookup(request, key, cached, true);
+        }
+
+        if (cached.canRevalidate()) {
+            LOG.trace("Revalidating cached response for {}", key);
+            return new Lookup(conditionalRequest(request, cached), key, cached, false);
+        }
+
+        return new Lookup(request, key, cached, false);
+    }
+
+
+    public Response complete(Lookup lookup, Response response) {
+        if (lookup == null) {
+            throw new IllegalArgumentException("lookup cannot be null");
+        }
+
+        if (response == null) {
+            throw new IllegalArgumentException("response cannot be null");
+        }
+
+        if (lookup.key == null) {
+            return response;
+        }
+
+        long now = now();
+
+        if (response.getCode() == NOT_MODIFIED && lookup.cached != null) {
+            Response cachedResponse = lookup.cached.getResponse();
+
+            //the 304 may carry updated caching headers, if it doesn't the original response's still apply
+            Response freshnessSource = response.getHeader(CACHE_CONTROL) != null || response.getHeader(EXPIRES) != null ?
+                response
+                :
+                cachedResponse;
+
+            cache.put(
+                lookup.key,
+                new CachedResponse(
+                    cachedResponse,
+                    expires(freshnessSource, now),
+                    firstNonNull(response.getHeader(ETAG), lookup.cached.getETag()),
+                    firstNonNull(response.getHeader(LAST_MODIFIED), lookup.cached.getLastModified()),
+                    lookup.cached.getVaryingHeaders()
+                )
+            );
+
+            return cachedResponse;
+        }
+
+        CachedResponse toStore = toCachedResponse(lookup.request, response, now);
+        if (toStore == null) {
+            cache.remove(lookup.key);
+        } else {
+            cache.put(lookup.key, toStore);
+        }
+
+        return response;
+    }
+
+    /**
+     * @return the current time in millis since the epoch
+     */
+    protected long now() {
+        return System.currentTimeMillis();
+    }
+
+
+    private CachedResponse toCachedResponse(Request request, Response response, long now) {
+        if (!isCacheableCode(response.getCode())) {
+            return null;
+        }
+
+        String cacheControl = response.getHeader(CACHE_CONTROL);
+        if (hasDirective(cacheControl, "no-store")) {
+            return null;
+        }
+
+        long expires = expires(response, now);
+        String eTag = response.getHeader(ETAG);
+        String lastModified = response.getHeader(LAST_MODIFIED);
+
+        //no point holding onto something we can't ever use
+        if (expires <= now && eTag == null && lastModified == null) {
+            return null;
+        }
+
+        Map<String, String> varyingHeaders = varyingHeaders(request, response);
+        if (varyingHeaders == null) {
+            return null;
+        }
+
+        return new CachedResponse(response, expires, eTag, lastModified, varyingHeaders);
+    }
+
+    /**
+     * @return the headers the response varies on with their values in the request, null if it varies on *
+     */
+    private static Map<String, String> varyingHeaders(Request request, Response response) {
+        Map<String, String> varyingHeaders = new TreeMap<String, String>(String.CASE_INSENSITIVE_ORDER);
+
+        //there can be more than one Vary header
+        for (Map.Entry<String, String> header : response.getHeaders()) {
+            if (!header.getKey().equalsIgnoreCase(VARY) || header.getValue() == null) {
+                continue;
+            }
+
+            for (String name : header.getValue().split(",")) {
+                name = name.trim();
+                if (name.equals("*")) {
+                    return null;
+                }
+
+                if (name.length() > 0) {
+                    varyingHeaders.put(name, CachedResponse.requestHeader(request, name));
+                }
+            }
+        }
+
+        return varyingHeaders;
+    }
+
+
+    private long expires(Response response, long now) {
+        String cacheControl = response.getHeader(CACHE_CONTROL);
+
+        if (hasDirective(cacheControl, "no-cache")) {
+            return now;
+        }
+
+        Long maxAge = directiveSeconds(cacheControl, "max-age");
+        if (maxAge != null) {
+            Long age = parseSeconds(response.getHeader(AGE));
+            return now + 1000L * (maxAge - (age == null ? 0 : age));
+        }
+
+        String expiresHeader = response.getHeader(EXPIRES);
+        if (expiresHeader != null) {
+            Long expires = parseHttpDate(expiresHeader);
+            if (expires == null) {
+                //invalid dates, especially 0, mean already expired
+                return now;
+            }
+
+            //use the server's clock to work out how long it's good for in case ours doesn't agree
+            Long date = parseHttpDate(response.getHeader(DATE));
+            return date == null ? expires : now + (expires - date);
+        }
+
+        return now;
+    }
+
+
+    private static Request conditionalRequest(Request request, CachedResponse cached) {
+        BoringRequestBuilder builder = new BoringRequestBuilder()
+            .setUrl(request.getUrl())
+            .setMethod(request.getMethod());
+
+        for (Map.Entry<String, String> header : request.getHeaders()) {
+            builder.addHeader(header.getKey(), header.getValue());
+        }
+
+        for (String type : request.getAcceptedContentTypes()) {
+            builder.addAcceptedContentType(type);
+        }
+
+        if (cached.getETag() != null && request.getHeader(IF_NONE_MATCH) == null) {
+            builder.addHeader(IF_NONE_MATCH, cached.getETag());
+        }
+
+        if (cached.getLastModified() != null && request.getHeader(IF_MODIFIED_SINCE) == null) {
+            builder.addHeader(IF_MODIFIED_SINCE, cached.getLastModified());
+        }
+
+        return builder.build();
+    }
+
+    private static boolean isSafe(Method method) {
+        return method == Method.GET || method == Method.HEAD || method == Method.OPTIONS || method == Method.TRACE;
+    }
+
+    private static boolean isCacheableCode(int code) {
+        //see https://tools.ietf.org/html/rfc7231#section-6.1
+        return code == 200 || code == 203 || code == 300 || code == 301 || code == 410;
+    }
+
+    private static boolean hasDirective(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return false;
+        }
+
+        for (String part : cacheControl.split(",")) {
+            String name = part.trim();
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                name = name.substring(0, equals).trim();
+            }
+
+            if (name.equalsIgnoreCase(directive)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static Long directiveSeconds(String cacheControl, String directive) {
+        if (cacheControl == null) {
+            return null;
+        }
+
+        for (String part : cacheControl.split(",")) {
+            String[] nameValue = part.trim().split("=", 2);
+            if (nameValue.length == 2 && nameValue[0].trim().equalsIgnoreCase(directive)) {
+                return parseSeconds(nameValue[1].trim().replace("\"", ""));
+            }
+        }
+
+        return null;
+    }
+
+    private static Long parseSeconds(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseHttpDate(String value) {
+        if (StringUtils.isEmpty(value)) {
+            return null;
+        }
+
+        //SimpleDateFormat isn't thread safe so we make a new one each time
+        SimpleDateFormat format = new SimpleDateFormat(HTTP_DATE_FORMAT, Locale.US);
+        format.setTimeZone(TimeZone.getTimeZone("GMT"));
+
+        try {
+            return format.parse(value.trim()).getTime();
+        } catch (ParseException e) {
+            return null;
+        }
+    }
+
+    private static String headerValue(Object header) {
+        return header == null ? null : header.toString();
+    }
+
+    private static String firstNonNull(String first, String second) {
+        return first != null ? first : second;
+    }
+}
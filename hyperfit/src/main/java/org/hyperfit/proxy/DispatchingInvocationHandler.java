@@ -0,0 +1,19 @@
+package org.hyperfit.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+
+/**
+ * An InvocationHandler that can work out ahead of time how it handles each method, so a {@link ProxyFactory} that
+ * makes its own proxy classes can bind a {@link MethodDispatcher} to each method of the class once instead of
+ * passing every call to {@link #invoke}.
+ */
+public interface DispatchingInvocationHandler extends InvocationHandler {
+
+    /**
+     * @param method a method of the proxied interfaces, or equals, hashCode or toString of Object
+     * @return how calls to the method are handled, which must work for every handler of the same class
+     */
+    MethodDispatcher dispatcherFor(Method method);
+
+}
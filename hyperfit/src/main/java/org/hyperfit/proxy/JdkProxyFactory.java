@@ -0,0 +1,22 @@
+package org.hyperfit.proxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+
+/**
+ * The default {@link ProxyFactory}, creates each proxy with {@link java.lang.reflect.Proxy#newProxyInstance}
+ */
+public class JdkProxyFactory implements ProxyFactory {
+
+    public Object createProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler handler) {
+        return Proxy.newProxyInstance(classLoader, interfaces, handler);
+    }
+
+    public InvocationHandler getInvocationHandler(Object proxy) {
+        if (proxy == null || !Proxy.isProxyClass(proxy.getClass())) {
+            return null;
+        }
+
+        return Proxy.getInvocationHandler(proxy);
+    }
+}
@@ -0,0 +1,23 @@
+package org.hyperfit.proxy;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * How calls to one method of a proxy class are handled, worked out once for the class by a
+ * {@link DispatchingInvocationHandler} so the call doesn't have to work it out again each time.
+ *
+ * Implementations must be safe for use by multiple threads.
+ */
+public interface MethodDispatcher {
+
+    /**
+     * @param handler the handler of the proxy the method was called on, always of the same class as the handler
+     *                this dispatcher came from
+     * @param proxy the proxy the method was called on
+     * @param args the arguments of the call, null when the method doesn't take any
+     * @return what the method returns, the same as {@link InvocationHandler#invoke} would
+     * @throws Throwable only what the method declares, runtime exceptions & errors
+     */
+    Object dispatch(InvocationHandler handler, Object proxy, Object[] args) throws Throwable;
+
+}
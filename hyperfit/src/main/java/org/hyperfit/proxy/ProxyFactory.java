@@ -0,0 +1,29 @@
+package org.hyperfit.proxy;
+
+import java.lang.reflect.InvocationHandler;
+
+/**
+ * Creates the objects that HyperfitProcessor returns for resource interfaces.  Every method call on a proxy
+ * must be passed on to the handler it was created with, the same as a {@link java.lang.reflect.Proxy} does.
+ * When the handler is a {@link DispatchingInvocationHandler} a factory can instead bind the handler's
+ * {@link MethodDispatcher} for each method to the proxy class once, and pass calls to it.
+ *
+ * Implementations must be safe for use by multiple threads.
+ */
+public interface ProxyFactory {
+
+    /**
+     * @param classLoader the class loader to define any proxy class in
+     * @param interfaces the interfaces the proxy must implement
+     * @param handler the handler every method call on the proxy is passed to
+     * @return the proxy
+     */
+    Object createProxy(ClassLoader classLoader, Class<?>[] interfaces, InvocationHandler handler);
+
+    /**
+     * @param proxy any object
+     * @return the handler of the given proxy, or null if it wasn't created by this factory
+     */
+    InvocationHandler getInvocationHandler(Object proxy);
+
+}
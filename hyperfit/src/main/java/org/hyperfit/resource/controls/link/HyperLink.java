@@ -41,15 +41,16 @@ public abstract class HyperLink {
     }
 
     public HyperLink(HyperLink hyperlink) {
-        this.href = hyperlink.href;
-        this.rel = hyperlink.rel;
-        this.templated = hyperlink.templated;
-        this.type = hyperlink.type;
-        this.deprecation = hyperlink.deprecation;
-        this.name = hyperlink.name;
-        this.profile = hyperlink.profile;
-        this.title = hyperlink.title;
-        this.hrefLang = hyperlink.hrefLang;
+        //through the getters, links can work their properties out lazily
+        this.href = hyperlink.getHref();
+        this.rel = hyperlink.getRel();
+        this.templated = hyperlink.isTemplated();
+        this.type = hyperlink.getType();
+        this.deprecation = hyperlink.getDeprecation();
+        this.name = hyperlink.getName();
+        this.profile = hyperlink.getProfile();
+        this.title = hyperlink.getTitle();
+        this.hrefLang = hyperlink.getHrefLang();
     }
 
     public String getHrefLang() {
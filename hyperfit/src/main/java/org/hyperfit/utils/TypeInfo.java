@@ -7,6 +7,7 @@ import java.lang.reflect.GenericArrayType;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -57,6 +58,39 @@ public class TypeInfo {
     }
 
 
+    /**
+     * Determines the element type of a generic collection such as List&lt;T&gt; using the known type params
+     * @param genericReturnType the generic type of the collection
+     * @param genericFallback the type to use when the element type can't be determined
+     * @return a pair of the element class & the element generic type
+     */
+    public Pair<? extends Class<?>, Type> getCollectionType(Type genericReturnType, Type genericFallback) {
+
+        Type genericElementType = null;
+
+        if (genericReturnType instanceof ParameterizedType) {
+            genericElementType = ((ParameterizedType) genericReturnType).getActualTypeArguments()[0];
+
+            //If the type is a variable, look it up
+            if (genericElementType instanceof TypeVariable) {
+                genericElementType = this.typeParamsLookup.get(((TypeVariable) genericElementType).getName());
+            }
+        }
+
+        if(genericElementType == null || genericElementType instanceof WildcardType){
+            //If we don't have the type info..then it's probably someone not using generics IE List vs List<T>, let's fallback
+            genericElementType = genericFallback;
+        }
+
+        Class<?> elementType = genericElementType instanceof ParameterizedType ?
+            (Class<?>) ((ParameterizedType) genericElementType).getRawType()
+            :
+            (Class<?>) genericElementType;
+
+        return Pair.with(elementType, genericElementType);
+    }
+
+
     public TypeInfo make(Type resourceType) {
         TypeInfo typeInfo = new TypeInfo();
 
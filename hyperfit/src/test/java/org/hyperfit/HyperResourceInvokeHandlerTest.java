@@ -2,25 +2,33 @@ package org.hyperfit;
 
 
 import org.hyperfit.annotation.*;
+import org.hyperfit.metrics.HyperfitMetrics;
 import org.hyperfit.net.*;
 import org.hyperfit.methodinfo.ConcurrentHashMapResourceMethodInfoCache;
+import org.hyperfit.methodinfo.MethodInfoCache;
 import org.hyperfit.methodinfo.ResourceMethodInfoCache;
 import org.hyperfit.net.Method;
+import org.hyperfit.proxy.MethodDispatcher;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.HyperResourceException;
 import org.hyperfit.resource.controls.form.CheckboxField;
 import org.hyperfit.resource.controls.form.Form;
 import org.hyperfit.resource.controls.link.HyperLink;
+import org.hyperfit.resource.controls.link.HyperLinkWrapper;
 import org.hyperfit.utils.TypeInfo;
 import org.hyperfit.utils.TypeRef;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.lang.reflect.Proxy;
 import java.text.SimpleDateFormat;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.List;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -138,6 +146,12 @@ public class HyperResourceInvokeHandlerTest{
         @Link("bb:datas")
         DataResource[] dataResourcesArray();
 
+        @Link("bb:datas")
+        List<DataResource> dataResourcesList();
+
+        @Link("bb:datas")
+        DataResource dataResourceFromMultiLink();
+
         @Link("bb:linkstring")
         String linkString();
 
@@ -625,6 +639,85 @@ public class HyperResourceInvokeHandlerTest{
 
 
 
+    @Test
+    public void testGetLinksDoesNotWrapTheResourcesLinksInPlace() {
+
+        String rel = "bb:hyperLinks";
+        HyperLink link1 = makeLink(rel);
+        HyperLink link2 = makeLink(rel);
+        //like a resource handing out the array it caches its links in
+        HyperLink[] cachedLinks = {link1, link2};
+        when(mockHyperResource.getLinks(rel)).thenReturn(cachedLinks);
+
+        LinkResource linkResource = this.getHyperResourceProxy(LinkResource.class);
+
+        HyperLink[] first = linkResource.getLinks(rel);
+        HyperLink[] second = linkResource.getLinks(rel);
+
+        assertNotSame(cachedLinks, first);
+        assertNotSame(first, second);
+        assertTrue(second[0] instanceof HyperLinkWrapper);
+
+        //the resource still holds its plain links
+        HyperLink[] resourceLinks = mockHyperResource.getLinks(rel);
+        assertSame(link1, resourceLinks[0]);
+        assertSame(link2, resourceLinks[1]);
+        assertFalse(resourceLinks[0] instanceof HyperLinkWrapper);
+    }
+
+
+    @Test
+    public void testDispatcherWorksForAnyHandler() throws Throwable {
+        MethodInfoCache methodInfoCache = spy(resourceMethodInfoCache.get(LinkResource.class));
+        java.lang.reflect.Method method = LinkResource.class.getMethod("hyperLink");
+
+        HyperResourceInvokeHandler binder = new HyperResourceInvokeHandler(mockHyperResource, mockHyperfitProcessor, methodInfoCache, null, null);
+        MethodDispatcher dispatcher = binder.dispatcherFor(method);
+
+        HyperResource otherResource = mock(HyperResource.class);
+        HyperLink expected = makeLink("bb:hyperLink");
+        when(otherResource.getLink("bb:hyperLink")).thenReturn(expected);
+        HyperResourceInvokeHandler other = new HyperResourceInvokeHandler(otherResource, mockHyperfitProcessor, methodInfoCache, null, null);
+        Object otherProxy = Proxy.newProxyInstance(LinkResource.class.getClassLoader(), new Class[]{LinkResource.class}, other);
+
+        HyperLink result = (HyperLink) dispatcher.dispatch(other, otherProxy, null);
+        dispatcher.dispatch(other, otherProxy, null);
+
+        assertEquals(expected.getHref(), result.getHref());
+        verify(otherResource, times(2)).getLink("bb:hyperLink");
+        verifyZeroInteractions(mockHyperResource);
+        //only when the dispatcher was made
+        verify(methodInfoCache, times(1)).get(method);
+    }
+
+    @Test
+    public void testMetricsUseTheInvocationsMethodInfo() throws Exception {
+        HyperfitMetrics mockMetrics = mock(HyperfitMetrics.class);
+        when(mockHyperfitProcessor.getMetrics()).thenReturn(mockMetrics);
+
+        MethodInfoCache methodInfoCache = spy(resourceMethodInfoCache.get(LinkResource.class));
+        LinkResource linkResource = (LinkResource) Proxy.newProxyInstance(
+            LinkResource.class.getClassLoader(),
+            new Class[]{LinkResource.class},
+            new HyperResourceInvokeHandler(mockHyperResource, mockHyperfitProcessor, methodInfoCache, null, null)
+        );
+
+        HyperLink expected = makeLink("bb:hyperLink");
+        when(mockHyperResource.getLink("bb:hyperLink")).thenReturn(expected);
+
+        linkResource.hyperLink();
+
+        java.lang.reflect.Method method = LinkResource.class.getMethod("hyperLink");
+        verify(methodInfoCache, times(1)).get(method);
+        verify(mockMetrics).methodInvoked(
+            Matchers.eq(LinkResource.class),
+            Matchers.eq(method),
+            Matchers.eq("bb:hyperLink"),
+            Matchers.anyLong()
+        );
+    }
+
+
     @Test
     public void testInvokeLinkReturningResourceResolvedLocally() {
         //Verifies the ability to pull a single resource out of an embedded collection
@@ -755,7 +848,7 @@ public class HyperResourceInvokeHandlerTest{
     */
 
     @Test(expected = UnsupportedOperationException.class)
-    public void multipleLinksNotSupported() throws Throwable {
+    public void multipleLinksNotSupportedForSingleResource() throws Throwable {
 
         String relationship = "bb:datas";
 
@@ -763,7 +856,7 @@ public class HyperResourceInvokeHandlerTest{
         when(mockHyperResource.isMultiLink(relationship)).thenReturn(true);
 
         try {
-            p.dataResourcesArray();
+            p.dataResourceFromMultiLink();
         } catch (Exception ex) {
             throw ex.getCause();
         }
@@ -771,6 +864,90 @@ public class HyperResourceInvokeHandlerTest{
     }
 
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInvokeLinkReturningArrayOfResourcesFollowsEachLink() {
+
+        String relationship = "bb:datas";
+
+        HyperLink link1 = makeLink(relationship);
+        HyperLink link2 = makeLink(relationship);
+
+        when(mockHyperResource.isMultiLink(relationship)).thenReturn(true);
+        when(mockHyperResource.hasLink(relationship)).thenReturn(true);
+        when(mockHyperResource.getLinks(relationship)).thenReturn(new HyperLink[]{link1, link2});
+
+        DataResource expected1 = mock(DataResource.class);
+        DataResource expected2 = mock(DataResource.class);
+
+        ArgumentCaptor<List> requestBuilders = ArgumentCaptor.forClass(List.class);
+        when(mockHyperfitProcessor.processRequests(eq(DataResource.class), requestBuilders.capture(), any(TypeInfo.class)))
+            .thenReturn(Arrays.asList(expected1, expected2));
+
+        LinkResource p = this.getHyperResourceProxy(LinkResource.class);
+
+        DataResource[] actual = p.dataResourcesArray();
+
+        assertArrayEquals(new DataResource[]{expected1, expected2}, actual);
+
+        List<RequestBuilder> actualBuilders = requestBuilders.getValue();
+        assertEquals(2, actualBuilders.size());
+        assertEquals(link1.getHref(), actualBuilders.get(0).getURL());
+        assertEquals(link2.getHref(), actualBuilders.get(1).getURL());
+
+        verify(mockHyperfitProcessor, never()).processRequest(any(Class.class), any(RequestBuilder.class), any(TypeInfo.class));
+    }
+
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testInvokeLinkReturningListOfResourcesFollowsEachLink() {
+
+        String relationship = "bb:datas";
+
+        HyperLink link1 = makeLink(relationship);
+        HyperLink link2 = makeLink(relationship);
+
+        when(mockHyperResource.isMultiLink(relationship)).thenReturn(true);
+        when(mockHyperResource.hasLink(relationship)).thenReturn(true);
+        when(mockHyperResource.getLinks(relationship)).thenReturn(new HyperLink[]{link1, link2});
+
+        List<DataResource> expected = Arrays.asList(mock(DataResource.class), mock(DataResource.class));
+
+        when(mockHyperfitProcessor.processRequests(eq(DataResource.class), anyList(), any(TypeInfo.class)))
+            .thenReturn((List)expected);
+
+        LinkResource p = this.getHyperResourceProxy(LinkResource.class);
+
+        assertEquals(expected, p.dataResourcesList());
+    }
+
+
+    @Test
+    public void testInvokeLinkReturningListOfResourcesResolvedLocally() {
+
+        String relationship = "bb:datas";
+
+        when(mockHyperResource.canResolveLinkLocal(relationship))
+            .thenReturn(true);
+
+        HyperResource[] embedded = new HyperResource[]{mock(HyperResource.class), mock(HyperResource.class)};
+        when(mockHyperResource.resolveLinksLocal(relationship))
+            .thenReturn(embedded);
+
+        DataResource expected1 = mock(DataResource.class);
+        DataResource expected2 = mock(DataResource.class);
+        when(mockHyperfitProcessor.processResource(eq(DataResource.class), eq(embedded[0]), any(TypeInfo.class)))
+            .thenReturn(expected1);
+        when(mockHyperfitProcessor.processResource(eq(DataResource.class), eq(embedded[1]), any(TypeInfo.class)))
+            .thenReturn(expected2);
+
+        LinkResource p = this.getHyperResourceProxy(LinkResource.class);
+
+        assertEquals(Arrays.asList(expected1, expected2), p.dataResourcesList());
+    }
+
+
 
     /*
 
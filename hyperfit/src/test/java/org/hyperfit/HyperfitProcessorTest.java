@@ -1,16 +1,44 @@
 package org.hyperfit;
 
 
+import org.hyperfit.annotation.Link;
+import org.hyperfit.content.ContentType;
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.exception.NoClientRegisteredForSchemeException;
+import org.hyperfit.methodinfo.ConcurrentHashMapResourceMethodInfoCache;
+import org.hyperfit.methodinfo.MethodInfoCache;
+import org.hyperfit.methodinfo.ResourceMethodInfoCache;
+import org.hyperfit.metrics.HyperfitMetrics;
 import org.hyperfit.net.*;
+import org.hyperfit.net.cache.LruResponseCache;
+import org.hyperfit.proxy.JdkProxyFactory;
+import org.hyperfit.proxy.ProxyFactory;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.resource.InterfaceSelectionStrategy;
 
 import org.hyperfit.utils.TypeRef;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.AdditionalMatchers;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.lang.reflect.InvocationHandler;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
@@ -271,4 +299,642 @@ public class HyperfitProcessorTest {
 
     }
 
+
+    @Test
+    public void testProcessRequestAsyncWithBlockingClient(){
+
+        HyperClient mockClient = mock(HyperClient.class);
+
+        final List<Runnable> dispatched = new ArrayList<Runnable>();
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .executor(new Executor() {
+                public void execute(Runnable command) {
+                    dispatched.add(command);
+                }
+            })
+            .build();
+
+        BoringRequestBuilder request = new BoringRequestBuilder()
+            .setUrl("xyz://local");
+
+        String fakeResponseBody = uniqueString();
+        when(mockClient.execute(request.build()))
+            .thenReturn(
+                Response.builder()
+                    .addRequest(request.build())
+                    .addBody(fakeResponseBody)
+                    .build()
+            );
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, request, mockCallback);
+
+        //nothing happens till the executor gets around to it
+        verify(mockClient, never()).execute(Matchers.any(Request.class));
+        verifyZeroInteractions(mockCallback);
+        assertThat(dispatched, hasSize(1));
+
+        dispatched.get(0).run();
+
+        verify(mockCallback).onSuccess(fakeResponseBody);
+        verify(mockCallback, never()).onFailure(Matchers.any(Exception.class));
+    }
+
+
+    @Test
+    public void testProcessRequestAsyncWithAsyncClient(){
+
+        AsyncHyperClient mockClient = mock(AsyncHyperClient.class);
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .build();
+
+        final BoringRequestBuilder request = new BoringRequestBuilder()
+            .setUrl("xyz://local");
+
+        final String fakeResponseBody = uniqueString();
+
+        doAnswer(new Answer<Void>() {
+            @SuppressWarnings("unchecked")
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                ((Callback<Response>)invocation.getArguments()[1]).onSuccess(
+                    Response.builder()
+                        .addRequest(request.build())
+                        .addBody(fakeResponseBody)
+                        .build()
+                );
+                return null;
+            }
+        }).when(mockClient).executeAsync(Matchers.eq(request.build()), Matchers.<Callback<Response>>any());
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, request, mockCallback);
+
+        verify(mockClient, never()).execute(Matchers.any(Request.class));
+        verify(mockCallback).onSuccess(fakeResponseBody);
+        verify(mockCallback, never()).onFailure(Matchers.any(Exception.class));
+    }
+
+
+    @Test
+    public void testProcessRequestAsyncReportsFailures(){
+
+        HyperClient mockClient = mock(HyperClient.class);
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .build();
+
+        BoringRequestBuilder request = new BoringRequestBuilder()
+            .setUrl("xyz://local");
+
+        RuntimeException fakeException = new RuntimeException(uniqueString());
+        when(mockClient.execute(request.build()))
+            .thenThrow(fakeException);
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, request, mockCallback);
+
+        verify(mockCallback).onFailure(fakeException);
+        verify(mockCallback, never()).onSuccess(Matchers.anyString());
+
+
+        //no client for the scheme is also reported to the callback
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback2 = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, new BoringRequestBuilder().setUrl("abc://local"), mockCallback2);
+
+        verify(mockCallback2).onFailure(Matchers.any(NoClientRegisteredForSchemeException.class));
+        verify(mockCallback2, never()).onSuccess(Matchers.anyString());
+    }
+
+
+    @Test
+    public void testProcessRequestAsyncReportsSynchronousFailures(){
+
+        AsyncHyperClient mockClient = mock(AsyncHyperClient.class);
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .build();
+
+        BoringRequestBuilder request = new BoringRequestBuilder()
+            .setUrl("xyz://local");
+
+        RuntimeException fakeException = new RuntimeException(uniqueString());
+        doThrow(fakeException)
+            .when(mockClient).executeAsync(Matchers.eq(request.build()), Matchers.<Callback<Response>>any());
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, request, mockCallback);
+
+        verify(mockCallback).onFailure(fakeException);
+        verify(mockCallback, never()).onSuccess(Matchers.anyString());
+
+
+        //as is a request that can't be built
+        RequestBuilder brokenRequest = mock(RequestBuilder.class);
+        RuntimeException buildException = new RuntimeException(uniqueString());
+        when(brokenRequest.build()).thenThrow(buildException);
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback2 = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, brokenRequest, mockCallback2);
+
+        verify(mockCallback2).onFailure(buildException);
+        verify(mockCallback2, never()).onSuccess(Matchers.anyString());
+    }
+
+
+    @Test
+    public void testProcessRequestAsyncReportsRejectedExecution(){
+
+        HyperClient mockClient = mock(HyperClient.class);
+
+        RejectedExecutionException fakeException = new RejectedExecutionException(uniqueString());
+        Executor rejecting = mock(Executor.class);
+        doThrow(fakeException).when(rejecting).execute(Matchers.any(Runnable.class));
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .executor(rejecting)
+            .build();
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        processor.processRequestAsync(String.class, new BoringRequestBuilder().setUrl("xyz://local"), mockCallback);
+
+        verify(mockCallback).onFailure(fakeException);
+        verify(mockClient, never()).execute(Matchers.any(Request.class));
+    }
+
+
+    @Test
+    public void testProcessRequestAsyncThrowsForBadArgs(){
+        HyperfitProcessor processor = builder.build();
+
+        @SuppressWarnings("unchecked")
+        Callback<String> mockCallback = mock(Callback.class);
+
+        try{
+            processor.processRequestAsync((Class<String>)null, new BoringRequestBuilder().setUrl("xyz://local"), mockCallback);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e){
+            assertThat(e.getMessage(), containsString("classToReturn can not be null"));
+        }
+
+        try{
+            processor.processRequestAsync(String.class, (RequestBuilder)null, mockCallback);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e){
+            assertThat(e.getMessage(), containsString("requestBuilder can not be null"));
+        }
+
+        try{
+            processor.processRequestAsync(String.class, new BoringRequestBuilder().setUrl("xyz://local"), null);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e){
+            assertThat(e.getMessage(), containsString("callback can not be null"));
+        }
+
+        try{
+            processor.processRequestAsync((TypeRef<String>) null, new BoringRequestBuilder().setUrl("xyz://local"), mockCallback);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e){
+            assertThat(e.getMessage(), containsString("typeToReturn can not be null"));
+        }
+
+        verifyZeroInteractions(mockCallback);
+    }
+
+
+    @Test
+    public void testProcessRequestsKeepsOrderAndBoundsParallelism() throws Exception {
+
+        final int maxParallel = 3;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+
+        HyperClient slowClient = mock(HyperClient.class);
+        when(slowClient.execute(Matchers.any(Request.class)))
+            .thenAnswer(new Answer<Response>() {
+                public Response answer(InvocationOnMock invocation) throws Throwable {
+                    int now = inFlight.incrementAndGet();
+                    synchronized (maxInFlight) {
+                        maxInFlight.set(Math.max(maxInFlight.get(), now));
+                    }
+                    Thread.sleep(5);
+                    inFlight.decrementAndGet();
+
+                    Request request = (Request) invocation.getArguments()[0];
+                    return Response.builder()
+                        .addRequest(request)
+                        .addBody(request.getUrl())
+                        .build();
+                }
+            });
+
+        ExecutorService executor = Executors.newFixedThreadPool(10);
+        try {
+            HyperfitProcessor processor = builder
+                .hyperClient(slowClient, "xyz")
+                .executor(executor)
+                .maxParallelRequests(maxParallel)
+                .build();
+
+            List<BoringRequestBuilder> requests = new ArrayList<BoringRequestBuilder>();
+            for (int i = 0; i < 20; i++) {
+                requests.add(new BoringRequestBuilder().setUrl("xyz://local/" + i));
+            }
+
+            List<String> actual = processor.processRequests(String.class, requests, null);
+
+            assertThat(actual, hasSize(20));
+            for (int i = 0; i < 20; i++) {
+                assertEquals("xyz://local/" + i, actual.get(i));
+            }
+
+            assertThat(maxInFlight.get(), lessThanOrEqualTo(maxParallel));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    @Test
+    public void testProcessRequestsRethrowsFailure() {
+
+        HyperClient mockClient = mock(HyperClient.class);
+
+        HyperfitProcessor processor = builder
+            .hyperClient(mockClient, "xyz")
+            .build();
+
+        BoringRequestBuilder request1 = new BoringRequestBuilder().setUrl("xyz://local/1");
+        BoringRequestBuilder request2 = new BoringRequestBuilder().setUrl("xyz://local/2");
+
+        when(mockClient.execute(request1.build()))
+            .thenReturn(Response.builder().addRequest(request1.build()).addBody(uniqueString()).build());
+
+        RuntimeException fakeException = new RuntimeException(uniqueString());
+        when(mockClient.execute(request2.build()))
+            .thenThrow(fakeException);
+
+        try {
+            processor.processRequests(String.class, Arrays.asList(request1, request2), null);
+            fail("expected exception not thrown");
+        } catch (RuntimeException e) {
+            assertSame(fakeException, e);
+        }
+    }
+
+
+    @Test
+    public void testMaxParallelRequestsMustBePositive() {
+        try {
+            builder.maxParallelRequests(0);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("maxParallelRequests must be at least 1"));
+        }
+    }
+
+
+    @Test
+    public void testResponseCacheServesFreshResponses() {
+        HyperfitProcessor processor = builder
+            .responseCache(new LruResponseCache(10, 100000))
+            .build();
+
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(new Answer<Response>() {
+            public Response answer(InvocationOnMock invocation) throws Throwable {
+                return Response.builder()
+                    .addRequest((Request) invocation.getArguments()[0])
+                    .addCode(200)
+                    .addHeader("Cache-Control", "max-age=60")
+                    .build();
+            }
+        });
+
+        Response first = processor.processRequest(Response.class, "http://example.com/cached");
+        Response second = processor.processRequest(Response.class, "http://example.com/cached");
+
+        assertSame(first, second);
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+
+        final List<Response> results = new ArrayList<Response>();
+        processor.processRequestAsync(Response.class, BoringRequestBuilder.get("http://example.com/cached"), new Callback<Response>() {
+            public void onSuccess(Response result) {
+                results.add(result);
+            }
+
+            public void onFailure(Exception e) {
+                fail("unexpected failure " + e);
+            }
+        });
+
+        assertThat(results, contains(first));
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+
+        //unsafe methods throw the cached response away
+        processor.processRequest(Response.class, BoringRequestBuilder.post("http://example.com/cached"));
+        processor.processRequest(Response.class, "http://example.com/cached");
+        verify(mockHyperClient, times(3)).execute(Matchers.any(Request.class));
+    }
+
+
+    @Test
+    public void testProxyFactoryUsed() {
+        ProxyFactory proxyFactory = spy(new JdkProxyFactory());
+
+        HyperfitProcessor processor = builder
+            .proxyFactory(proxyFactory)
+            .build();
+
+        when(mockSelectionStrategy.determineInterfaces(BaseProfileResource.class, mockHyperResource))
+            .thenReturn(new Class[]{ProfileResource1.class});
+
+        BaseProfileResource first = processor.processResource(BaseProfileResource.class, mockHyperResource, null);
+        BaseProfileResource second = processor.processResource(BaseProfileResource.class, mockHyperResource, null);
+
+        assertTrue(first instanceof ProfileResource1);
+        assertEquals(first, second);
+        verify(proxyFactory, times(2)).createProxy(
+            Matchers.any(ClassLoader.class),
+            Matchers.any(Class[].class),
+            Matchers.any(InvocationHandler.class)
+        );
+    }
+
+    public interface PreloadGrandChild extends HyperResource {
+    }
+
+    public interface PreloadChild extends HyperResource {
+        @Link("grand-children")
+        PreloadGrandChild[] grandChildren();
+    }
+
+    public interface PreloadRoot extends HyperResource {
+        @Link("children")
+        List<PreloadChild> children();
+
+        @Link("self")
+        PreloadRoot self();
+    }
+
+    @Test
+    public void testPreloadWalksLinkedResources() throws Exception {
+        ResourceMethodInfoCache methodInfoCache = spy(new ConcurrentHashMapResourceMethodInfoCache());
+        ProxyFactory proxyFactory = spy(new JdkProxyFactory());
+
+        for (Class<?> clazz : Arrays.<Class<?>>asList(PreloadRoot.class, PreloadChild.class, PreloadGrandChild.class)) {
+            when(mockSelectionStrategy.determineInterfaces(clazz, null))
+                .thenReturn(new Class[]{clazz});
+        }
+
+        builder
+            .resourceMethodInfoCache(methodInfoCache)
+            .proxyFactory(proxyFactory)
+            .preload(PreloadRoot.class)
+            .build();
+
+        for (Class<?> clazz : Arrays.<Class<?>>asList(PreloadRoot.class, PreloadChild.class, PreloadGrandChild.class)) {
+            verify(methodInfoCache, atLeastOnce()).get(clazz);
+            verify(proxyFactory).createProxy(
+                Matchers.eq(clazz.getClassLoader()),
+                AdditionalMatchers.aryEq(new Class[]{clazz}),
+                Matchers.any(InvocationHandler.class)
+            );
+        }
+
+        //the method info is already there
+        java.lang.reflect.Method children = PreloadRoot.class.getMethod("children");
+        MethodInfoCache rootMethods = methodInfoCache.get(PreloadRoot.class);
+        assertNotNull(rootMethods.put(children, rootMethods.get(children)));
+    }
+
+    @Test
+    public void testPreloadSkipsProxiesThatCanNotBeSelected() {
+        when(mockSelectionStrategy.determineInterfaces(PreloadGrandChild.class, null))
+            .thenThrow(new NullPointerException());
+
+        builder
+            .preload(PreloadGrandChild.class)
+            .build();
+    }
+
+    @Test
+    public void testPreloadMustNotContainNull() {
+        try {
+            builder.preload(PreloadRoot.class, null);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("resourceClasses can not contain null"));
+        }
+    }
+
+    @Test
+    public void testProxyFactoryMustNotBeNull() {
+        try {
+            builder.proxyFactory(null);
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("proxyFactory can not be null"));
+        }
+    }
+
+
+    public interface MetricsResource extends HyperResource {
+        @Link("next")
+        boolean hasNext();
+    }
+
+    @Test
+    public void testMetricsToldAboutEachStage() throws Exception {
+        HyperfitMetrics mockMetrics = mock(HyperfitMetrics.class);
+
+        ContentTypeHandler mockContentTypeHandler = mock(ContentTypeHandler.class);
+        when(mockContentTypeHandler.getDefaultContentType()).thenReturn(ContentType.parse("application/fake"));
+        when(mockContentTypeHandler.canParseResponse()).thenReturn(true);
+
+        HyperfitProcessor processor = builder
+            .addContentTypeHandler(mockContentTypeHandler)
+            .metrics(mockMetrics)
+            .build();
+
+        Response fakeResponse = Response.builder()
+            .addRequest(BoringRequestBuilder.get("http://example.com/metrics").build())
+            .addCode(200)
+            .addContentType("application/fake")
+            .addBody("body")
+            .build();
+
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenReturn(fakeResponse);
+        when(mockContentTypeHandler.parseResponse(fakeResponse)).thenReturn(mockHyperResource);
+        when(mockSelectionStrategy.determineInterfaces(MetricsResource.class, mockHyperResource))
+            .thenReturn(new Class[]{MetricsResource.class});
+        when(mockHyperResource.hasLink("next")).thenReturn(true);
+
+        MetricsResource result = processor.processRequest(MetricsResource.class, "http://example.com/metrics");
+        assertTrue(result.hasNext());
+
+        verify(mockMetrics).requestBuilt(Matchers.any(Request.class), Matchers.anyLong());
+        verify(mockMetrics).requestExecuted(Matchers.eq(mockHyperClient), Matchers.any(Request.class), Matchers.eq(fakeResponse), Matchers.anyLong());
+        verify(mockMetrics).contentTypeResolved(Matchers.eq("application/fake"), Matchers.eq(mockContentTypeHandler), Matchers.anyLong());
+        verify(mockMetrics).responseParsed(Matchers.eq(mockContentTypeHandler), Matchers.eq(fakeResponse), Matchers.anyLong());
+        verify(mockMetrics).methodInvoked(
+            Matchers.eq(MetricsResource.class),
+            Matchers.eq(MetricsResource.class.getMethod("hasNext")),
+            Matchers.eq("next"),
+            Matchers.anyLong()
+        );
+    }
+
+    @Test
+    public void testMetricsToldAboutFailedRequests() {
+        HyperfitMetrics mockMetrics = mock(HyperfitMetrics.class);
+
+        HyperfitProcessor processor = builder
+            .metrics(mockMetrics)
+            .build();
+
+        RuntimeException fakeException = new RuntimeException("boom");
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenThrow(fakeException);
+
+        try {
+            processor.processRequest(Response.class, "http://example.com/fails");
+            fail("expected exception not thrown");
+        } catch (RuntimeException e) {
+            assertSame(fakeException, e);
+        }
+
+        verify(mockMetrics).requestExecuted(Matchers.eq(mockHyperClient), Matchers.any(Request.class), (Response) Matchers.isNull(), Matchers.anyLong());
+    }
+
+
+    @Test
+    public void testCoalesceRequestsSharesConcurrentIdenticalRequests() throws Exception {
+        final HyperfitProcessor processor = builder
+            .coalesceRequests(true)
+            .build();
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(new Answer<Response>() {
+            public Response answer(InvocationOnMock invocation) throws Throwable {
+                started.countDown();
+                release.await();
+                return Response.builder()
+                    .addRequest((Request) invocation.getArguments()[0])
+                    .addCode(200)
+                    .build();
+            }
+        });
+
+        ExecutorService executorService = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Response>> results = new ArrayList<Future<Response>>();
+            for (int i = 0; i < 4; i++) {
+                results.add(executorService.submit(new Callable<Response>() {
+                    public Response call() {
+                        return processor.processRequest(Response.class, "http://example.com/root");
+                    }
+                }));
+                if (i == 0) {
+                    assertTrue(started.await(5, TimeUnit.SECONDS));
+                }
+            }
+
+            //the others need a moment to find the request in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            Response first = results.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<Response> result : results) {
+                assertSame(first, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+    }
+
+
+    @Test
+    public void testPrefetchedLinksAreUsedWhenFollowed() throws Exception {
+        ContentTypeHandler mockContentTypeHandler = mock(ContentTypeHandler.class);
+        when(mockContentTypeHandler.getDefaultContentType()).thenReturn(ContentType.parse("application/fake"));
+        when(mockContentTypeHandler.canParseResponse()).thenReturn(true);
+
+        HyperfitProcessor processor = builder
+            .addContentTypeHandler(mockContentTypeHandler)
+            .executor(new Executor() {
+                public void execute(Runnable command) {
+                    command.run();
+                }
+            })
+            .prefetch("next")
+            .build();
+
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(new Answer<Response>() {
+            public Response answer(InvocationOnMock invocation) throws Throwable {
+                return Response.builder()
+                    .addRequest((Request) invocation.getArguments()[0])
+                    .addCode(200)
+                    .addContentType("application/fake")
+                    .addBody("body")
+                    .build();
+            }
+        });
+        when(mockContentTypeHandler.parseResponse(Matchers.any(Response.class))).thenReturn(mockHyperResource);
+        when(mockSelectionStrategy.determineInterfaces(MetricsResource.class, mockHyperResource))
+            .thenReturn(new Class[]{MetricsResource.class});
+        when(mockHyperResource.hasLink("next")).thenReturn(true);
+        when(mockHyperResource.getLink("next")).thenReturn(
+            new org.hyperfit.resource.controls.link.HyperLink("http://example.com/next", "next", false, null, null, null, null, null, null){}
+        );
+
+        processor.processRequest(MetricsResource.class, "http://example.com/first");
+
+        verify(mockHyperClient, times(2)).execute(Matchers.any(Request.class));
+
+        Response next = processor.processRequest(Response.class, "http://example.com/next");
+        assertEquals("http://example.com/next", next.getRequest().getUrl());
+        verify(mockHyperClient, times(2)).execute(Matchers.any(Request.class));
+
+        //the prefetched response is only used once
+        processor.processRequest(Response.class, "http://example.com/next");
+        verify(mockHyperClient, times(3)).execute(Matchers.any(Request.class));
+    }
+
+    @Test
+    public void testPrefetchRequiresExecutor() {
+        try {
+            builder.prefetch("next").build();
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e) {
+            assertThat(e.getMessage(), containsString("an executor must be given to prefetch links"));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPrefetchRelsMustNotBeEmpty() {
+        builder.prefetch("next", "");
+    }
+
 }
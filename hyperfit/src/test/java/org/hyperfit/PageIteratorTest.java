@@ -0,0 +1,257 @@
+package org.hyperfit;
+
+import org.hyperfit.annotation.Data;
+import org.hyperfit.content.ContentType;
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.InterfaceSelectionStrategy;
+import org.hyperfit.resource.controls.link.HyperLink;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class PageIteratorTest {
+
+    public interface Item extends HyperResource {
+        @Data("id")
+        String getId();
+    }
+
+    private static final Answer<Response> OK = new Answer<Response>() {
+        public Response answer(InvocationOnMock invocation) throws Throwable {
+            return Response.builder()
+                .addRequest((Request) invocation.getArguments()[0])
+                .addCode(200)
+                .addContentType("application/fake")
+                .addBody("body")
+                .build();
+        }
+    };
+
+    @Mock
+    private HyperClient mockHyperClient;
+
+    @Mock
+    private ContentTypeHandler mockContentTypeHandler;
+
+    @Mock
+    private InterfaceSelectionStrategy mockSelectionStrategy;
+
+    private final Map<String, HyperResource> resources = new HashMap<String, HyperResource>();
+
+    private HyperfitProcessor.Builder builder;
+
+    @Before
+    public void setUp() {
+        MockitoAnnotations.initMocks(this);
+        when(mockHyperClient.getSchemes()).thenReturn(new String[]{"http"});
+        when(mockContentTypeHandler.getDefaultContentType()).thenReturn(ContentType.parse("application/fake"));
+        when(mockContentTypeHandler.canParseResponse()).thenReturn(true);
+
+        when(mockHyperClient.execute(Matchers.any(Request.class))).thenAnswer(OK);
+        when(mockContentTypeHandler.parseResponse(Matchers.any(Response.class))).thenAnswer(new Answer<HyperResource>() {
+            public HyperResource answer(InvocationOnMock invocation) throws Throwable {
+                return resources.get(((Response) invocation.getArguments()[0]).getRequest().getUrl());
+            }
+        });
+        when(mockSelectionStrategy.determineInterfaces(Matchers.any(Class.class), Matchers.any(HyperResource.class))).thenAnswer(new Answer<Class<?>[]>() {
+            public Class<?>[] answer(InvocationOnMock invocation) throws Throwable {
+                return new Class<?>[]{(Class<?>) invocation.getArguments()[0]};
+            }
+        });
+
+        builder = HyperfitProcessor.builder()
+            .hyperClient(mockHyperClient)
+            .addContentTypeHandler(mockContentTypeHandler)
+            .interfaceSelectionStrategy(mockSelectionStrategy);
+    }
+
+
+    @Test
+    public void testEmbeddedItemsOfEachPageAreIterated() {
+        page("http://example.com/1", "http://example.com/2", item("a"), item("b"));
+        page("http://example.com/2", null, item("c"));
+
+        PageIterator<Item> items = builder.build().paginate(Item.class, "http://example.com/1", "next", "items");
+
+        verify(mockHyperClient, never()).execute(Matchers.any(Request.class));
+
+        assertEquals("a", items.next().getId());
+        assertEquals("b", items.next().getId());
+        //without an executor the next page isn't fetched until it's needed
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+
+        assertEquals("c", items.next().getId());
+        assertFalse(items.hasNext());
+        verify(mockHyperClient, times(2)).execute(Matchers.any(Request.class));
+    }
+
+    @Test
+    public void testLinkedItemsAreFetched() {
+        HyperResource page = page("http://example.com/1", null);
+        when(page.hasLink("items")).thenReturn(true);
+        when(page.getLinks("items")).thenReturn(new HyperLink[]{
+            link("http://example.com/items/a", "items"),
+            link("http://example.com/items/b", "items")
+        });
+        resources.put("http://example.com/items/a", item("a"));
+        resources.put("http://example.com/items/b", item("b"));
+
+        PageIterator<Item> items = builder.build().paginate(Item.class, "http://example.com/1", "next", "items");
+
+        assertEquals("a", items.next().getId());
+        assertEquals("b", items.next().getId());
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    public void testEmptyPagesAreSkipped() {
+        page("http://example.com/1", "http://example.com/2");
+        page("http://example.com/2", null, item("a"));
+
+        PageIterator<Item> items = builder.build().paginate(Item.class, "http://example.com/1", "next", "items");
+
+        assertTrue(items.hasNext());
+        assertEquals("a", items.next().getId());
+        assertFalse(items.hasNext());
+    }
+
+    @Test
+    public void testNextPageIsFetchedAheadOnTheExecutor() {
+        page("http://example.com/1", "http://example.com/2", item("a"));
+        page("http://example.com/2", "http://example.com/3", item("b"));
+        page("http://example.com/3", null, item("c"));
+
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        PageIterator<Item> items = builder
+            .executor(new Executor() {
+                public void execute(Runnable command) {
+                    tasks.add(command);
+                    command.run();
+                }
+            })
+            .build()
+            .paginate(Item.class, "http://example.com/1", "next", "items");
+
+        assertEquals("a", items.next().getId());
+        verify(mockHyperClient, times(2)).execute(Matchers.any(Request.class));
+
+        assertEquals("b", items.next().getId());
+        verify(mockHyperClient, times(3)).execute(Matchers.any(Request.class));
+
+        assertEquals("c", items.next().getId());
+        assertFalse(items.hasNext());
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void testCloseCancelsTheFetchAhead() {
+        page("http://example.com/1", "http://example.com/2", item("a"), item("b"));
+
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+        PageIterator<Item> items = builder
+            .executor(new Executor() {
+                public void execute(Runnable command) {
+                    tasks.add(command);
+                }
+            })
+            .build()
+            .paginate(Item.class, "http://example.com/1", "next", "items");
+
+        assertEquals("a", items.next().getId());
+        assertEquals(1, tasks.size());
+
+        items.close();
+
+        assertTrue(((FutureTask<?>) tasks.get(0)).isCancelled());
+        assertFalse(items.hasNext());
+        verify(mockHyperClient, times(1)).execute(Matchers.any(Request.class));
+    }
+
+    @Test
+    public void testFailedPageCanBeRetried() {
+        page("http://example.com/1", null, item("a"));
+
+        RuntimeException fakeException = new RuntimeException("boom");
+        doThrow(fakeException)
+            .doAnswer(OK)
+            .when(mockHyperClient).execute(Matchers.any(Request.class));
+
+        PageIterator<Item> items = builder.build().paginate(Item.class, "http://example.com/1", "next", "items");
+
+        try {
+            items.hasNext();
+            fail("expected exception not thrown");
+        } catch (RuntimeException e) {
+            assertSame(fakeException, e);
+        }
+
+        assertEquals("a", items.next().getId());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testNextPastTheEnd() {
+        page("http://example.com/1", null);
+
+        builder.build().paginate(Item.class, "http://example.com/1", "next", "items").next();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove() {
+        builder.build().paginate(Item.class, "http://example.com/1", "next", "items").remove();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPaginateRequiresItemsRel() {
+        builder.build().paginate(Item.class, BoringRequestBuilder.get("http://example.com/1"), "next", "");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPaginateRequiresNextRel() {
+        builder.build().paginate(Item.class, "http://example.com/1", null, "items");
+    }
+
+
+    private HyperResource page(String url, String next, HyperResource... items) {
+        HyperResource page = mock(HyperResource.class);
+        if (items.length > 0) {
+            when(page.canResolveLinkLocal("items")).thenReturn(true);
+            when(page.resolveLinksLocal("items")).thenReturn(items);
+        }
+        if (next != null) {
+            when(page.hasLink("next")).thenReturn(true);
+            when(page.getLink("next")).thenReturn(link(next, "next"));
+        }
+        resources.put(url, page);
+        return page;
+    }
+
+    private static HyperResource item(String id) {
+        HyperResource item = mock(HyperResource.class);
+        when(item.getPathAs(String.class, false, "id")).thenReturn(id);
+        return item;
+    }
+
+    private static HyperLink link(String href, String rel) {
+        return new HyperLink(href, rel, false, null, null, null, null, null, null){};
+    }
+}
@@ -5,10 +5,12 @@ import org.hyperfit.content.ContentType;
 import org.hyperfit.content.ContentTypeHandler;
 import org.hyperfit.errorhandler.ErrorHandler;
 import org.hyperfit.net.*;
+import org.hyperfit.net.cache.LruParsedResourceCache;
 import org.hyperfit.resource.HyperResource;
 import org.hyperfit.utils.TypeInfo;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -487,6 +489,73 @@ public class ResponseToHyperResourcePipelineTest {
 
 
 
+    @Test
+    public void testRunParsesIdenticalResponsesOnce() {
+
+        LruParsedResourceCache cache = new LruParsedResourceCache(10, 100000);
+
+        ResponseToHyperResourcePipeline subject = new ResponseToHyperResourcePipeline(
+            Collections.<ResponseToHyperResourcePipeline.Step<Response,HyperResource>>emptyList(),
+            mockHyperfitProcessor,
+            mockContentRegistry,
+            mockErrorHandler,
+            Resource1.class,
+            mockTypeInfo,
+            cache
+        );
+
+        String fakeContentType = "not/real";
+        when(mockContentRegistry.canHandle(
+            ContentType.parse(fakeContentType),
+            ContentRegistry.Purpose.PARSE_RESPONSE
+        )).thenReturn(
+            true
+        );
+
+        when(mockContentRegistry.getHandler(
+            ContentType.parse(fakeContentType),
+            ContentRegistry.Purpose.PARSE_RESPONSE
+        )).thenReturn(
+            mockContentTypeHandler
+        );
+
+        HyperResource fakeBaseResource = mock(HyperResource.class);
+        HyperResource fakeOtherResource = mock(HyperResource.class);
+        when(mockContentTypeHandler.parseResponse(Matchers.any(Response.class)))
+            .thenReturn(fakeBaseResource, fakeOtherResource);
+
+        Request request = BoringRequestBuilder.get("http://example.com/thing").build();
+
+        for(int i = 0; i < 3; i++){
+            subject.run(
+                Response.builder()
+                    .addRequest(request)
+                    .addCode(200)
+                    .addContentType(fakeContentType)
+                    .addBody("{\"same\":true}")
+                    .build()
+            );
+        }
+
+        verify(mockContentTypeHandler, times(1)).parseResponse(Matchers.any(Response.class));
+        verify(mockHyperfitProcessor, times(3)).processResource(Resource1.class, fakeBaseResource, mockTypeInfo);
+
+        //a different body is parsed again
+        subject.run(
+            Response.builder()
+                .addRequest(request)
+                .addCode(200)
+                .addContentType(fakeContentType)
+                .addBody("{\"same\":false}")
+                .build()
+        );
+
+        verify(mockContentTypeHandler, times(2)).parseResponse(Matchers.any(Response.class));
+        verify(mockHyperfitProcessor).processResource(Resource1.class, fakeOtherResource, mockTypeInfo);
+        assertEquals(2, cache.size());
+    }
+
+
     @Test
     public void testRunWithSomeCustomSteps() {
 
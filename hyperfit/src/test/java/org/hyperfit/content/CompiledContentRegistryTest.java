@@ -0,0 +1,120 @@
+package org.hyperfit.content;
+
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class CompiledContentRegistryTest {
+
+    private static ContentTypeHandler handler(boolean parses, boolean prepares) {
+        ContentTypeHandler handler = mock(ContentTypeHandler.class);
+        when(handler.canParseResponse()).thenReturn(parses);
+        when(handler.canPrepareRequest()).thenReturn(prepares);
+        when(handler.getDefaultContentType()).thenReturn(ContentType.parse("default/type"));
+        return handler;
+    }
+
+
+    @Test
+    public void testGetHandler(){
+        ContentTypeHandler hal = handler(true, false);
+        ContentTypeHandler form = handler(false, true);
+
+        ContentRegistry source = new ContentRegistry();
+        source.add(hal, ContentType.parse("application/hal+json"));
+        source.add(form, ContentType.parse("application/x-www-form-urlencoded"));
+
+        CompiledContentRegistry subject = CompiledContentRegistry.compile(source);
+
+        assertSame(hal, subject.getHandler(ContentType.parse("application/hal+json;charset=UTF-8"), ContentRegistry.Purpose.PARSE_RESPONSE));
+        assertNull(subject.getHandler(ContentType.parse("application/hal+json"), ContentRegistry.Purpose.PREPARE_REQUEST));
+        assertSame(form, subject.getHandler(ContentType.parse("application/x-www-form-urlencoded"), ContentRegistry.Purpose.PREPARE_REQUEST));
+        assertNull(subject.getHandler(ContentType.parse("text/html"), ContentRegistry.Purpose.PARSE_RESPONSE));
+
+        assertTrue(subject.canHandle(ContentType.parse("application/hal+json"), ContentRegistry.Purpose.PARSE_RESPONSE));
+        assertFalse(subject.canHandle(ContentType.parse("text/html"), ContentRegistry.Purpose.PARSE_RESPONSE));
+    }
+
+
+    @Test
+    public void testGetHandlerMatchesContentRegistry(){
+        ContentTypeHandler first = handler(true, true);
+        ContentTypeHandler second = handler(true, false);
+        ContentTypeHandler third = handler(false, true);
+        ContentTypeHandler wildcard = handler(true, true);
+
+        ContentRegistry source = new ContentRegistry();
+        source.add(first, ContentType.parse("text/plain"), ContentType.parse("application/json"));
+        source.add(wildcard, ContentType.parse("text/*"));
+        source.add(second, ContentType.parse("text/html"), ContentType.parse("application/json"));
+        source.add(third, ContentType.parse("*/xml"), ContentType.parse("application/xml"));
+        source.add(wildcard, ContentType.parse("*/*"));
+
+        CompiledContentRegistry subject = CompiledContentRegistry.compile(source);
+
+        String[] types = {
+            "text/plain", "text/html", "text/csv", "application/json", "application/xml", "image/xml",
+            "image/png", "text/*", "*/json", "*/*", "application/*"
+        };
+
+        for (String type : types) {
+            for (ContentRegistry.Purpose purpose : ContentRegistry.Purpose.values()) {
+                ContentType contentType = ContentType.parse(type);
+                assertSame(type + " " + purpose, source.getHandler(contentType, purpose), subject.getHandler(contentType, purpose));
+            }
+        }
+    }
+
+
+    @Test
+    public void testCompileIsASnapshot(){
+        ContentTypeHandler handler = handler(true, false);
+
+        ContentRegistry source = new ContentRegistry();
+        source.add(handler, ContentType.parse("application/hal+json"));
+
+        CompiledContentRegistry subject = CompiledContentRegistry.compile(source);
+
+        source.remove(handler);
+        source.add(handler, ContentType.parse("text/html"));
+
+        assertSame(handler, subject.getHandler(ContentType.parse("application/hal+json"), ContentRegistry.Purpose.PARSE_RESPONSE));
+        assertNull(subject.getHandler(ContentType.parse("text/html"), ContentRegistry.Purpose.PARSE_RESPONSE));
+        assertEquals(new HashSet<String>(Arrays.asList("application/hal+json;q=1.0")), subject.getResponseParsingContentTypes());
+    }
+
+
+    @Test
+    public void testCompileCompiled(){
+        CompiledContentRegistry subject = CompiledContentRegistry.compile(new ContentRegistry());
+
+        assertSame(subject, CompiledContentRegistry.compile(subject));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNull(){
+        CompiledContentRegistry.compile(null);
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testGetHandlerNullType(){
+        CompiledContentRegistry.compile(new ContentRegistry()).getHandler(null, ContentRegistry.Purpose.PARSE_RESPONSE);
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testAdd(){
+        CompiledContentRegistry.compile(new ContentRegistry()).add(handler(true, true));
+    }
+
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testRemove(){
+        CompiledContentRegistry.compile(new ContentRegistry()).remove(ContentType.parse("text/html"));
+    }
+}
@@ -91,4 +91,61 @@ public class ContentTypeTest {
     }
 
 
+
+    @Test
+    public void testValueOf(){
+        String contentType = "main/" + uniqueString() + ";charset=UTF-8";
+
+        ContentType actual = ContentType.valueOf(contentType);
+
+        assertEquals(ContentType.parse(contentType), actual);
+        assertSame(actual, ContentType.valueOf(contentType));
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOfUnparsable(){
+        ContentType.valueOf("three/part/throws");
+    }
+
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOfNull(){
+        ContentType.valueOf(null);
+    }
+
+
+    @Test
+    public void testValueOfIsBounded(){
+        ContentType first = ContentType.valueOf("bounded/first");
+
+        for (int i = 0; i <= ContentType.MAX_CACHED_CONTENT_TYPES; i++) {
+            ContentType.valueOf("bounded/" + i);
+        }
+
+        assertNotSame(first, ContentType.valueOf("bounded/first"));
+        assertEquals(first, ContentType.valueOf("bounded/first"));
+    }
+
+
+    @Test
+    public void testEqualsIgnoresToString(){
+        ContentType a = ContentType.parse("main/sub;charset=UTF-8");
+        ContentType b = ContentType.parse("main/sub;charset=UTF-8");
+
+        a.toString();
+
+        assertEquals(a, b);
+        assertEquals(a.hashCode(), b.hashCode());
+    }
+
+
+    @Test
+    public void testGetTypeAndSubType(){
+        ContentType actual = ContentType.parse("main/sub;q=.5");
+
+        assertEquals("main", actual.getType());
+        assertEquals("sub", actual.getSubType());
+    }
+
 }
@@ -1,8 +1,15 @@
 package org.hyperfit.methodinfo;
 
+import org.hyperfit.annotation.Content;
 import org.hyperfit.annotation.FirstLink;
+import org.hyperfit.annotation.Header;
+import org.hyperfit.annotation.NamedForm;
+import org.hyperfit.annotation.NamedLink;
 import org.hyperfit.annotation.Param;
+import org.hyperfit.content.ContentType;
 import org.hyperfit.resource.HyperResource;
+import org.hyperfit.resource.controls.form.Form;
+import org.hyperfit.resource.controls.link.HyperLink;
 import org.hyperfit.annotation.Data;
 import org.hyperfit.annotation.Link;
 import org.junit.Test;
@@ -104,4 +111,132 @@ public class MethodInfoTest {
     }
 
 
+    public interface PlannedResource extends HyperResource {
+
+        @Data({"a", "b"})
+        String data();
+
+        @Link("link")
+        boolean hasSomeLink();
+
+        @Link("link")
+        HyperLink someLink();
+
+        @Link("link")
+        HyperLink[] someLinks();
+
+        @Link("link")
+        PlannedResource[] followAll(
+            @Header("X-Thing") String thing
+        );
+
+        @NamedLink(rel="named", name=NamedLink.NULL)
+        PlannedResource followNamed(
+            @Param("p") @Header("X-P") String p,
+            String notBound,
+            @Content("application/json; charset=UTF-8") Object body
+        );
+
+        @FirstLink(rel="first", names={"a", FirstLink.NULL})
+        HyperLink firstLink();
+
+        @FirstLink(rel="first")
+        @NamedForm("form")
+        PlannedResource notAFirstLink();
+
+        @NamedForm("form")
+        boolean hasSomeForm();
+
+        @NamedForm("form")
+        Form someForm();
+
+        PlannedResource unannotated();
+    }
+
+    private InvocationPlan plan(String methodName) {
+        return new MethodInfo(getMethodSet(PlannedResource.class).get(methodName)).getInvocationPlan();
+    }
+
+    @Test
+    public void testInvocationPlanStrategies() throws Exception {
+        assertEquals(InvocationPlan.Strategy.EQUALS, new MethodInfo(Object.class.getMethod("equals", Object.class)).getInvocationPlan().getStrategy());
+        assertEquals(InvocationPlan.Strategy.PASS_THROUGH, new MethodInfo(Object.class.getMethod("hashCode")).getInvocationPlan().getStrategy());
+        assertEquals(InvocationPlan.Strategy.WRAP_LINK, plan("getLink").getStrategy());
+        assertEquals(InvocationPlan.Strategy.WRAP_LINKS, plan("getLinks").getStrategy());
+        assertEquals(InvocationPlan.Strategy.PASS_THROUGH, plan("resolveLinkLocal").getStrategy());
+        assertEquals(InvocationPlan.Strategy.HAS_LINK, plan("hasSomeLink").getStrategy());
+        assertEquals(InvocationPlan.Strategy.GET_LINK, plan("someLink").getStrategy());
+        assertEquals(InvocationPlan.Strategy.GET_LINKS, plan("someLinks").getStrategy());
+        assertEquals(InvocationPlan.Strategy.FOLLOW_LINK, plan("followAll").getStrategy());
+        assertEquals(InvocationPlan.Strategy.FOLLOW_NAMED_LINK, plan("followNamed").getStrategy());
+        assertEquals(InvocationPlan.Strategy.FIRST_LINK, plan("firstLink").getStrategy());
+        assertEquals(InvocationPlan.Strategy.SUBMIT_FORM, plan("notAFirstLink").getStrategy());
+        assertEquals(InvocationPlan.Strategy.HAS_FORM, plan("hasSomeForm").getStrategy());
+        assertEquals(InvocationPlan.Strategy.GET_FORM, plan("someForm").getStrategy());
+        assertEquals(InvocationPlan.Strategy.UNSUPPORTED, plan("unannotated").getStrategy());
+    }
+
+    @Test
+    public void testInvocationPlanValues() {
+        InvocationPlan data = plan("data");
+        assertEquals(InvocationPlan.Strategy.DATA, data.getStrategy());
+        assertArrayEquals(new String[]{"a", "b"}, data.getPath());
+
+        InvocationPlan followAll = plan("followAll");
+        assertEquals("link", followAll.getRelationship());
+        assertTrue(followAll.isCollectionReturn());
+        assertFalse(plan("followNamed").isCollectionReturn());
+
+        InvocationPlan named = plan("followNamed");
+        assertEquals("named", named.getRelationship());
+        assertNull("NULL is translated", named.getLinkName());
+
+        InvocationPlan firstLink = plan("firstLink");
+        assertEquals("first", firstLink.getRelationship());
+        assertArrayEquals(new String[]{"a", null}, firstLink.getNames());
+
+        assertEquals("form", plan("someForm").getRelationship());
+    }
+
+    @Test
+    public void testInvocationPlanParameterBinders() {
+        ParameterBinder[][] binders = plan("followNamed").getParameterBinders();
+        assertEquals(3, binders.length);
+
+        assertEquals(2, binders[0].length);
+        assertEquals(ParameterBinder.Target.PARAM, binders[0][0].getTarget());
+        assertEquals("p", binders[0][0].getValue());
+        assertEquals(ParameterBinder.Target.HEADER, binders[0][1].getTarget());
+        assertEquals("X-P", binders[0][1].getValue());
+
+        assertEquals(0, binders[1].length);
+
+        assertEquals(1, binders[2].length);
+        assertEquals(ParameterBinder.Target.CONTENT, binders[2][0].getTarget());
+        assertEquals(ContentType.parse("application/json; charset=UTF-8"), binders[2][0].getContentType());
+
+        assertEquals(0, plan("unannotated").getParameterBinders().length);
+    }
+
+    @Test
+    public void testParameterBinderUnparsableContentTypeFailsWhenUsed() throws Exception {
+        ParameterBinder[] binders = ParameterBinder.of(
+            BadContentResource.class.getMethod("submit", Object.class).getParameterAnnotations()[0]
+        );
+
+        assertEquals(ParameterBinder.Target.CONTENT, binders[0].getTarget());
+
+        try {
+            binders[0].getContentType();
+            fail("expected exception not thrown");
+        } catch (IllegalArgumentException e) {
+            //expected
+        }
+    }
+
+    public interface BadContentResource extends HyperResource {
+        @Link("submit")
+        BadContentResource submit(@Content("not a content type") Object body);
+    }
+
 }
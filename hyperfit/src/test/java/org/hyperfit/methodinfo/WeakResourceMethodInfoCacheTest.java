@@ -0,0 +1,165 @@
+package org.hyperfit.methodinfo;
+
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class WeakResourceMethodInfoCacheTest {
+
+    //only references java.lang so it can be loaded by a class loader that can't see anything else
+    public interface Unloadable {
+        String name();
+    }
+
+    @Test
+    public void testSameCacheForSameClass() throws Exception {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache();
+
+        MethodInfoCache methods = cache.get(Unloadable.class);
+        assertSame(methods, cache.get(Unloadable.class));
+        assertNotSame(methods, cache.get(Runnable.class));
+
+        MethodInfo name = methods.get(Unloadable.class.getMethod("name"));
+        assertSame(name, cache.get(Unloadable.class).get(Unloadable.class.getMethod("name")));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testManyClasses() {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache();
+
+        Class<?>[] classes = {
+            Runnable.class, Callable.class, Comparable.class, CharSequence.class, Iterable.class,
+            Cloneable.class, java.io.Closeable.class, Appendable.class, Readable.class, Thread.UncaughtExceptionHandler.class,
+            List.class, Future.class, Unloadable.class, Object.class, String.class, Integer.class, Long.class,
+            Double.class, Float.class, Short.class, Byte.class, Character.class, Boolean.class, Number.class
+        };
+
+        List<MethodInfoCache> caches = new ArrayList<MethodInfoCache>();
+        for (Class<?> clazz : classes) {
+            caches.add(cache.get(clazz));
+        }
+
+        for (int i = 0; i < classes.length; i++) {
+            assertSame(caches.get(i), cache.get(classes[i]));
+        }
+        assertEquals(classes.length, cache.size());
+    }
+
+    @Test
+    public void testPut() {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache();
+        MethodInfoCache first = cache.get(Unloadable.class);
+        MethodInfoCache second = new ConcurrentHashMapMethodInfoCache();
+
+        assertSame(first, cache.put(Unloadable.class, second));
+        assertSame(second, cache.get(Unloadable.class));
+        assertNull(cache.put(Runnable.class, first));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testDropsTheOldestWhenFull() {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache(4);
+
+        MethodInfoCache runnable = cache.get(Runnable.class);
+        MethodInfoCache callable = cache.get(Callable.class);
+        MethodInfoCache comparable = cache.get(Comparable.class);
+        MethodInfoCache iterable = cache.get(Iterable.class);
+        MethodInfoCache unloadable = cache.get(Unloadable.class);
+
+        assertEquals(4, cache.size());
+        assertSame(callable, cache.get(Callable.class));
+        assertSame(comparable, cache.get(Comparable.class));
+        assertSame(iterable, cache.get(Iterable.class));
+        assertSame(unloadable, cache.get(Unloadable.class));
+
+        //only the oldest was dropped
+        assertNotSame(runnable, cache.get(Runnable.class));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    public void testHoldsOneClassAtMost() {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache(1);
+
+        MethodInfoCache runnable = cache.get(Runnable.class);
+        cache.get(Callable.class);
+
+        assertEquals(1, cache.size());
+        assertNotSame(runnable, cache.get(Runnable.class));
+    }
+
+    @Test
+    public void testConcurrentGetsShareOneCache() throws Exception {
+        final WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<MethodInfoCache>> results = new ArrayList<Future<MethodInfoCache>>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(new Callable<MethodInfoCache>() {
+                    public MethodInfoCache call() {
+                        return cache.get(Unloadable.class);
+                    }
+                }));
+            }
+
+            for (Future<MethodInfoCache> result : results) {
+                assertSame(results.get(0).get(), result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testClassesCanBeUnloaded() throws Exception {
+        WeakResourceMethodInfoCache cache = new WeakResourceMethodInfoCache();
+
+        WeakReference<ClassLoader> loader = cacheClassFromThrowAwayLoader(cache);
+        assertEquals(1, cache.size());
+
+        for (int i = 0; i < 50 && loader.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertNull("the class loader was kept", loader.get());
+        assertEquals(0, cache.size());
+    }
+
+    private static WeakReference<ClassLoader> cacheClassFromThrowAwayLoader(WeakResourceMethodInfoCache cache) throws Exception {
+        URL classes = Unloadable.class.getProtectionDomain().getCodeSource().getLocation();
+        //no parent, so the class is loaded by this loader rather than the one the test was
+        ClassLoader loader = new URLClassLoader(new URL[]{classes}, null);
+
+        Class<?> clazz = loader.loadClass(Unloadable.class.getName());
+        assertNotSame(Unloadable.class, clazz);
+
+        //the method infos would keep the class until the soft reference to them is cleared, which gc doesn't promise
+        cache.get(clazz);
+
+        return new WeakReference<ClassLoader>(loader);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullClass() {
+        new WeakResourceMethodInfoCache().get(null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxClassesMustBePositive() {
+        new WeakResourceMethodInfoCache(0);
+    }
+}
@@ -0,0 +1,117 @@
+package org.hyperfit.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class HistogramTest {
+
+    @Test
+    public void testEmpty() {
+        Histogram subject = new Histogram();
+
+        assertEquals(0, subject.getCount());
+        assertEquals(0, subject.getMin());
+        assertEquals(0, subject.getMax());
+        assertEquals(0, subject.getMean(), 0);
+        assertEquals(0, subject.getValueAtPercentile(99));
+    }
+
+    @Test
+    public void testSmallValuesAreExact() {
+        Histogram subject = new Histogram();
+
+        for (int i = 1; i <= 50; i++) {
+            subject.record(i);
+        }
+
+        assertEquals(50, subject.getCount());
+        assertEquals(1, subject.getMin());
+        assertEquals(50, subject.getMax());
+        assertEquals(25.5, subject.getMean(), 0);
+        assertEquals(25, subject.getValueAtPercentile(50));
+        assertEquals(45, subject.getValueAtPercentile(90));
+        assertEquals(50, subject.getValueAtPercentile(100));
+        assertEquals(1, subject.getValueAtPercentile(0));
+    }
+
+    @Test
+    public void testPercentilesWithinPrecision() {
+        Histogram subject = new Histogram();
+        Random random = new Random(42);
+        long[] values = new long[10000];
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) (Math.exp(random.nextDouble() * 20));
+            subject.record(values[i]);
+        }
+
+        java.util.Arrays.sort(values);
+
+        for (double percentile : new double[]{50, 90, 99, 99.9}) {
+            long expected = values[(int) Math.ceil(percentile / 100 * values.length) - 1];
+            long actual = subject.getValueAtPercentile(percentile);
+
+            assertTrue(percentile + ": " + actual + " < " + expected, actual >= expected);
+            assertTrue(percentile + ": " + actual + " too far from " + expected, actual <= expected * 1.04);
+        }
+
+        assertEquals(values[values.length - 1], subject.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void testBuckets() {
+        for (long value : new long[]{0, 1, 63, 64, 65, 127, 128, 1000, 123456789L, Long.MAX_VALUE}) {
+            int bucket = Histogram.bucketOf(value);
+
+            assertTrue(value + " is above its bucket", value <= Histogram.highestValueOf(bucket));
+            if (bucket > 0) {
+                assertTrue(value + " belongs in an earlier bucket", value > Histogram.highestValueOf(bucket - 1));
+            }
+        }
+    }
+
+    @Test
+    public void testNegativeValuesRecordedAsZero() {
+        Histogram subject = new Histogram();
+
+        subject.record(-5);
+
+        assertEquals(1, subject.getCount());
+        assertEquals(0, subject.getMax());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testPercentileOutOfRange() {
+        new Histogram().getValueAtPercentile(101);
+    }
+
+    @Test
+    public void testConcurrentRecording() throws Exception {
+        final Histogram subject = new Histogram();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        for (int t = 0; t < 4; t++) {
+            executor.execute(new Runnable() {
+                public void run() {
+                    for (int i = 1; i <= 10000; i++) {
+                        subject.record(i);
+                    }
+                }
+            });
+        }
+
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(40000, subject.getCount());
+        assertEquals(4 * 50005000L, subject.getTotal());
+        assertEquals(1, subject.getMin());
+        assertEquals(10000, subject.getMax());
+    }
+}
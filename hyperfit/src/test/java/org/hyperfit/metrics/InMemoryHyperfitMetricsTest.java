@@ -0,0 +1,70 @@
+package org.hyperfit.metrics;
+
+import org.hyperfit.content.ContentTypeHandler;
+import org.hyperfit.net.HyperClient;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.hyperfit.resource.HyperResource;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+public class InMemoryHyperfitMetricsTest {
+
+    interface Resource extends HyperResource {
+        Resource next();
+        String name();
+    }
+
+    @Test
+    public void testRequests() {
+        InMemoryHyperfitMetrics subject = new InMemoryHyperfitMetrics();
+        HyperClient client = mock(HyperClient.class);
+        Request request = mock(Request.class);
+
+        subject.requestBuilt(request, 10);
+        subject.requestExecuted(client, request, Response.builder().addRequest(request).addBody("12345").build(), 1000);
+        subject.requestExecuted(client, request, null, 3000);
+
+        assertEquals(1, subject.getRequestBuildTimes().getCount());
+
+        String clientName = client.getClass().getName();
+        assertEquals(2, subject.getExecutionTimes().get(clientName).getCount());
+        assertEquals(3000, subject.getExecutionTimes().get(clientName).getMax());
+        assertEquals(1, subject.getResponseSizes().get(clientName).getCount());
+        assertEquals(5, subject.getResponseSizes().get(clientName).getMax());
+    }
+
+    @Test
+    public void testParsing() {
+        InMemoryHyperfitMetrics subject = new InMemoryHyperfitMetrics();
+        ContentTypeHandler handler = mock(ContentTypeHandler.class);
+
+        subject.contentTypeResolved("application/hal+json", handler, 20);
+        subject.contentTypeResolved(null, null, 30);
+        subject.responseParsed(handler, mock(Response.class), 500);
+
+        assertEquals(2, subject.getContentTypeResolutionTimes().getCount());
+        assertEquals(500, subject.getParseTimes().get(handler.getClass().getName()).getMax());
+    }
+
+    @Test
+    public void testMethodsAndRels() throws Exception {
+        InMemoryHyperfitMetrics subject = new InMemoryHyperfitMetrics();
+
+        subject.methodInvoked(Resource.class, Resource.class.getMethod("next"), "next", 100);
+        subject.methodInvoked(Resource.class, Resource.class.getMethod("next"), "next", 300);
+        subject.methodInvoked(Resource.class, Resource.class.getMethod("name"), null, 5);
+
+        assertEquals(2, subject.getMethodTimes().get(Resource.class.getName() + "#next").getCount());
+        assertEquals(1, subject.getMethodTimes().get(Resource.class.getName() + "#name").getCount());
+        assertEquals(1, subject.getRelTimes().size());
+        assertEquals(200, subject.getRelTimes().get("next").getMean(), 0);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testMapsCanNotBeChanged() {
+        new InMemoryHyperfitMetrics().getRelTimes().clear();
+    }
+}
@@ -0,0 +1,180 @@
+package org.hyperfit.net;
+
+import com.damnhandy.uri.template.UriTemplate;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+
+public class CompiledUriTemplateTest {
+
+    private static final Map<String, Object> VALUES = new LinkedHashMap<String, Object>();
+
+    static {
+        VALUES.put("count", Arrays.asList("one", "two", "three"));
+        VALUES.put("dom", Arrays.asList("example", "com"));
+        VALUES.put("dub", "me/too");
+        VALUES.put("hello", "Hello World!");
+        VALUES.put("half", "50%");
+        VALUES.put("var", "value");
+        VALUES.put("who", "fred");
+        VALUES.put("base", "http://example.com/home/");
+        VALUES.put("path", "/foo/bar");
+        VALUES.put("list", new String[]{"red", "green", "blue"});
+        Map<String, Object> keys = new LinkedHashMap<String, Object>();
+        keys.put("semi", ";");
+        keys.put("dot", ".");
+        keys.put("comma", ",");
+        VALUES.put("keys", keys);
+        VALUES.put("x", 1024);
+        VALUES.put("y", 768);
+        VALUES.put("empty", "");
+        VALUES.put("bool", true);
+        VALUES.put("date", new Date(0));
+    }
+
+    private static String library(String template, Map<String, Object> values) {
+        UriTemplate uriTemplate = UriTemplate.fromTemplate(template);
+        for (Map.Entry<String, Object> entry : values.entrySet()) {
+            uriTemplate.set(entry.getKey(), entry.getValue());
+        }
+        return uriTemplate.expand();
+    }
+
+    @Test
+    public void testExpandRfcExamples() {
+        String[][] examples = {
+            {"{var}", "value"},
+            {"{hello}", "Hello%20World%21"},
+            {"{half}", "50%25"},
+            {"O{empty}X", "OX"},
+            {"O{undef}X", "OX"},
+            {"{x,y}", "1024,768"},
+            {"{+path}/here", "/foo/bar/here"},
+            {"{+hello}", "Hello%20World!"},
+            {"{+base}index", "http://example.com/home/index"},
+            {"{#x,hello,y}", "#1024,Hello%20World!,768"},
+            {"X{.var:3}", "X.val"},
+            {"X{.list*}", "X.red.green.blue"},
+            {"{/var,x}/here", "/value/1024/here"},
+            {"{/list*,path:4}", "/red/green/blue/%2Ffoo"},
+            {"{;x,y,empty}", ";x=1024;y=768;empty"},
+            {"{;list}", ";list=red,green,blue"},
+            {"{;keys*}", ";semi=%3B;dot=.;comma=%2C"},
+            {"{?x,y,empty}", "?x=1024&y=768&empty="},
+            {"{?keys}", "?keys=semi,%3B,dot,.,comma,%2C"},
+            {"?fixed=yes{&x}", "?fixed=yes&x=1024"},
+            {"{&keys*}", "&semi=%3B&dot=.&comma=%2C"},
+            {"{?bool,undef}", "?bool=true"},
+            {"{count}", "one,two,three"},
+            {"{/dom*}", "/example/com"},
+            //how the library expands empty values without a named operator
+            {"{x,empty}", "1024,"},
+            {"{empty,x}", "1024"},
+            {"{x,empty,y}", "1024,768"},
+            {"{+empty,x}", "1024"},
+            {"{#x,empty}", "#1024,"},
+            {"{.empty,x}", ".1024"},
+            {"{/x,empty}", "/1024/"},
+            {"{/empty,x}", "/1024"},
+            {"{/empty}", "/"}
+        };
+
+        for (String[] example : examples) {
+            assertEquals(example[0], example[1], CompiledUriTemplate.compile(example[0]).expand(VALUES));
+            assertEquals(example[0], library(example[0], VALUES), CompiledUriTemplate.compile(example[0]).expand(VALUES));
+        }
+    }
+
+    @Test
+    public void testExpandMultibyte() {
+        Map<String, Object> values = new HashMap<String, Object>();
+        values.put("q", "café 😀");
+
+        assertEquals("/s?q=caf%C3%A9%20%F0%9F%98%80", CompiledUriTemplate.compile("/s{?q}").expand(values));
+        assertEquals(library("/s{?q}", values), CompiledUriTemplate.compile("/s{?q}").expand(values));
+    }
+
+    @Test
+    public void testExpandLeavesOtherValuesToTheLibrary() {
+        assertEquals(library("/on/{date}", VALUES), CompiledUriTemplate.compile("/on/{date}").expand(VALUES));
+    }
+
+    @Test
+    public void testExpandLeavesTemplatesItCanNotParseToTheLibrary() {
+        assertEquals(library("/a|b/{var}", VALUES), CompiledUriTemplate.compile("/a|b/{var}").expand(VALUES));
+
+        try {
+            CompiledUriTemplate.compile("/{var").expand(VALUES);
+            fail("expected exception not thrown");
+        } catch (RuntimeException e) {
+            //the library's exception
+        }
+    }
+
+    @Test
+    public void testExpandIntoAppends() {
+        StringBuilder into = new StringBuilder("url: ");
+
+        CompiledUriTemplate.compile("/things/{var}{?x}").expandInto(VALUES, into);
+
+        assertEquals("url: /things/value?x=1024", into.toString());
+    }
+
+    @Test
+    public void testCompileIsCached() {
+        assertSame(CompiledUriTemplate.compile("/cached/{var}"), CompiledUriTemplate.compile("/cached/{var}"));
+        assertEquals("/cached/{var}", CompiledUriTemplate.compile("/cached/{var}").getTemplate());
+    }
+
+    @Test
+    public void testCompileCacheIsBounded() {
+        CompiledUriTemplate first = CompiledUriTemplate.compile("/bounded/first/{var}");
+
+        for (int i = 0; i <= CompiledUriTemplate.MAX_CACHED_TEMPLATES; i++) {
+            CompiledUriTemplate.compile("/bounded/" + i + "/{var}");
+        }
+
+        assertNotSame(first, CompiledUriTemplate.compile("/bounded/first/{var}"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCompileNull() {
+        CompiledUriTemplate.compile(null);
+    }
+
+    @Test
+    public void testExpandConcurrently() throws Exception {
+        final CompiledUriTemplate template = CompiledUriTemplate.compile("/items/{id}{?page,size}");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Boolean>> results = new ArrayList<Future<Boolean>>();
+            for (int t = 0; t < 8; t++) {
+                final int thread = t;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    public Boolean call() {
+                        for (int i = 0; i < 1000; i++) {
+                            Map<String, Object> values = new HashMap<String, Object>();
+                            values.put("id", thread);
+                            values.put("page", i);
+                            if (!("/items/" + thread + "?page=" + i).equals(template.expand(values))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package org.hyperfit.net;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class PrefetchCacheTest {
+
+    private static final Executor DIRECT = new Executor() {
+        public void execute(Runnable command) {
+            command.run();
+        }
+    };
+
+    private static class CountingExecution implements RequestCoalescer.Execution {
+        final AtomicInteger executions = new AtomicInteger();
+
+        public Response execute(Request request) {
+            executions.incrementAndGet();
+            return Response.builder().addRequest(request).addCode(200).build();
+        }
+    }
+
+
+    @Test
+    public void testTakePrefetched() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+        CountingExecution execution = new CountingExecution();
+
+        assertTrue(subject.prefetch(BoringRequestBuilder.get("http://example.com/next").build(), execution, DIRECT));
+        assertEquals(1, subject.size());
+
+        Response response = subject.take(BoringRequestBuilder.get("http://example.com/next").build());
+        assertNotNull(response);
+        assertEquals("http://example.com/next", response.getRequest().getUrl());
+
+        //handed out once
+        assertNull(subject.take(BoringRequestBuilder.get("http://example.com/next").build()));
+        assertEquals(1, execution.executions.get());
+        assertEquals(0, subject.size());
+    }
+
+    @Test
+    public void testTakeNotPrefetched() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+
+        subject.prefetch(BoringRequestBuilder.get("http://example.com/next").build(), new CountingExecution(), DIRECT);
+
+        assertNull(subject.take(BoringRequestBuilder.get("http://example.com/other").build()));
+        assertNull(subject.take(BoringRequestBuilder.get("http://example.com/next").addHeader("Authorization", "x").build()));
+    }
+
+    @Test
+    public void testPrefetchOnlyOnce() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+        CountingExecution execution = new CountingExecution();
+
+        assertTrue(subject.prefetch(BoringRequestBuilder.get("http://example.com/next").build(), execution, DIRECT));
+        assertFalse(subject.prefetch(BoringRequestBuilder.get("http://example.com/next").build(), execution, DIRECT));
+
+        assertEquals(1, execution.executions.get());
+    }
+
+    @Test
+    public void testOnlyGetsArePrefetched() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+        CountingExecution execution = new CountingExecution();
+
+        assertFalse(subject.prefetch(BoringRequestBuilder.post("http://example.com/next").build(), execution, DIRECT));
+        assertEquals(0, execution.executions.get());
+    }
+
+    @Test
+    public void testMaxEntries() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 2);
+        CountingExecution execution = new CountingExecution();
+
+        assertTrue(subject.prefetch(BoringRequestBuilder.get("http://example.com/1").build(), execution, DIRECT));
+        assertTrue(subject.prefetch(BoringRequestBuilder.get("http://example.com/2").build(), execution, DIRECT));
+        assertFalse(subject.prefetch(BoringRequestBuilder.get("http://example.com/3").build(), execution, DIRECT));
+
+        assertEquals(2, execution.executions.get());
+    }
+
+    @Test
+    public void testExpired() throws Exception {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MILLISECONDS, 1);
+        CountingExecution execution = new CountingExecution();
+
+        subject.prefetch(BoringRequestBuilder.get("http://example.com/1").build(), execution, DIRECT);
+        Thread.sleep(5);
+
+        assertNull(subject.take(BoringRequestBuilder.get("http://example.com/1").build()));
+
+        //expired ones don't count toward the max
+        subject.prefetch(BoringRequestBuilder.get("http://example.com/2").build(), execution, DIRECT);
+        Thread.sleep(5);
+        assertTrue(subject.prefetch(BoringRequestBuilder.get("http://example.com/3").build(), execution, DIRECT));
+    }
+
+    @Test
+    public void testFailedPrefetchIsNotUsed() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+
+        subject.prefetch(
+            BoringRequestBuilder.get("http://example.com/fails").build(),
+            new RequestCoalescer.Execution() {
+                public Response execute(Request request) {
+                    throw new RuntimeException("boom");
+                }
+            },
+            DIRECT
+        );
+
+        assertNull(subject.take(BoringRequestBuilder.get("http://example.com/fails").build()));
+    }
+
+    @Test
+    public void testRejectedPrefetch() {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+
+        assertFalse(subject.prefetch(
+            BoringRequestBuilder.get("http://example.com/rejected").build(),
+            new CountingExecution(),
+            new Executor() {
+                public void execute(Runnable command) {
+                    throw new RejectedExecutionException();
+                }
+            }
+        ));
+
+        assertEquals(0, subject.size());
+    }
+
+    @Test
+    public void testTakeWaitsForPrefetchInProgress() throws Exception {
+        PrefetchCache subject = new PrefetchCache(1, TimeUnit.MINUTES, 10);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<Runnable> tasks = new ArrayList<Runnable>();
+
+        subject.prefetch(
+            BoringRequestBuilder.get("http://example.com/slow").build(),
+            new RequestCoalescer.Execution() {
+                public Response execute(Request request) {
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    return Response.builder().addRequest(request).addCode(200).build();
+                }
+            },
+            new Executor() {
+                public void execute(Runnable command) {
+                    tasks.add(command);
+                }
+            }
+        );
+
+        Thread prefetcher = new Thread(tasks.get(0));
+        prefetcher.start();
+
+        ExecutorService taker = Executors.newSingleThreadExecutor();
+        try {
+            final PrefetchCache cache = subject;
+            Future<Response> taken = taker.submit(new Callable<Response>() {
+                public Response call() {
+                    return cache.take(BoringRequestBuilder.get("http://example.com/slow").build());
+                }
+            });
+
+            Thread.sleep(50);
+            assertFalse(taken.isDone());
+
+            release.countDown();
+            assertNotNull(taken.get(5, TimeUnit.SECONDS));
+        } finally {
+            taker.shutdownNow();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTimeToLiveMustBePositive() {
+        new PrefetchCache(0, TimeUnit.SECONDS, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMaxEntriesMustBePositive() {
+        new PrefetchCache(1, TimeUnit.SECONDS, 0);
+    }
+}
@@ -0,0 +1,250 @@
+package org.hyperfit.net;
+
+import org.hyperfit.exception.HyperfitException;
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class RequestCoalescerTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Blocks every execution until released, counting them
+     */
+    private static class BlockingExecution implements RequestCoalescer.Execution {
+        final AtomicInteger executions = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile RuntimeException failure;
+
+        public Response execute(Request request) {
+            executions.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+
+            return Response.builder().addRequest(request).addCode(200).build();
+        }
+    }
+
+    private Future<Response> submit(final RequestCoalescer subject, final Request request, final RequestCoalescer.Execution execution) {
+        return executor.submit(new Callable<Response>() {
+            public Response call() {
+                return subject.execute(request, execution);
+            }
+        });
+    }
+
+    private static void awaitWaiters(Future<?>... futures) throws InterruptedException {
+        //give the followers time to find the request in flight, they block so there's nothing better to wait on
+        Thread.sleep(100);
+        for (Future<?> future : futures) {
+            assertFalse(future.isDone());
+        }
+    }
+
+
+    @Test
+    public void testIdenticalRequestsShareExecution() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+        BlockingExecution execution = new BlockingExecution();
+
+        Future<Response> first = submit(subject, BoringRequestBuilder.get("http://example.com/root").build(), execution);
+        assertTrue(execution.started.await(5, TimeUnit.SECONDS));
+
+        List<Future<Response>> followers = new ArrayList<Future<Response>>();
+        for (int i = 0; i < 5; i++) {
+            followers.add(submit(subject, BoringRequestBuilder.get("http://example.com/root").build(), execution));
+        }
+        awaitWaiters(followers.toArray(new Future<?>[followers.size()]));
+
+        assertEquals(1, subject.inFlight());
+        execution.release.countDown();
+
+        Response response = first.get(5, TimeUnit.SECONDS);
+        for (Future<Response> follower : followers) {
+            assertSame(response, follower.get(5, TimeUnit.SECONDS));
+        }
+
+        assertEquals(1, execution.executions.get());
+        assertEquals(0, subject.inFlight());
+
+        //nothing is kept once it's done
+        subject.execute(BoringRequestBuilder.get("http://example.com/root").build(), execution);
+        assertEquals(2, execution.executions.get());
+    }
+
+    @Test
+    public void testDifferentRequestsDoNotShare() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+
+        final AtomicInteger executions = new AtomicInteger();
+        RequestCoalescer.Execution counting = new RequestCoalescer.Execution() {
+            public Response execute(Request request) {
+                executions.incrementAndGet();
+                return Response.builder().addRequest(request).addCode(200).build();
+            }
+        };
+
+        subject.execute(BoringRequestBuilder.get("http://example.com/a").build(), counting);
+        subject.execute(BoringRequestBuilder.get("http://example.com/b").build(), counting);
+        subject.execute(BoringRequestBuilder.get("http://example.com/a").addHeader("Authorization", "x").build(), counting);
+        subject.execute(BoringRequestBuilder.get("http://example.com/a").addAcceptedContentType("text/html").build(), counting);
+
+        assertEquals(4, executions.get());
+    }
+
+    @Test
+    public void testKeyIncludesHeadersAndAcceptedTypes() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+        BlockingExecution execution = new BlockingExecution();
+
+        Future<Response> first = submit(subject, BoringRequestBuilder.get("http://example.com/me").addHeader("Authorization", "a").build(), execution);
+        assertTrue(execution.started.await(5, TimeUnit.SECONDS));
+
+        BlockingExecution other = new BlockingExecution();
+        other.release.countDown();
+        Response otherUser = subject.execute(BoringRequestBuilder.get("http://example.com/me").addHeader("Authorization", "b").build(), other);
+
+        assertNotNull(otherUser);
+        assertEquals(1, other.executions.get());
+
+        execution.release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testUnsafeRequestsAreNotCoalesced() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+
+        assertTrue(subject.canCoalesce(BoringRequestBuilder.get("http://example.com").build()));
+        assertTrue(subject.canCoalesce(BoringRequestBuilder.head("http://example.com").build()));
+        assertFalse(subject.canCoalesce(BoringRequestBuilder.post("http://example.com").build()));
+
+        BlockingExecution execution = new BlockingExecution();
+        Future<Response> first = submit(subject, BoringRequestBuilder.post("http://example.com").build(), execution);
+        assertTrue(execution.started.await(5, TimeUnit.SECONDS));
+        Future<Response> second = submit(subject, BoringRequestBuilder.post("http://example.com").build(), execution);
+
+        execution.release.countDown();
+        assertNotSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(2, execution.executions.get());
+        assertEquals(0, subject.inFlight());
+    }
+
+    @Test
+    public void testFailureIsShared() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+        BlockingExecution execution = new BlockingExecution();
+        execution.failure = new HyperfitException("boom");
+
+        Future<Response> first = submit(subject, BoringRequestBuilder.get("http://example.com/fails").build(), execution);
+        assertTrue(execution.started.await(5, TimeUnit.SECONDS));
+        Future<Response> second = submit(subject, BoringRequestBuilder.get("http://example.com/fails").build(), execution);
+        awaitWaiters(second);
+
+        execution.release.countDown();
+
+        for (Future<Response> future : new Future[]{first, second}) {
+            try {
+                future.get(5, TimeUnit.SECONDS);
+                fail("expected exception not thrown");
+            } catch (ExecutionException e) {
+                assertSame(execution.failure, e.getCause());
+            }
+        }
+
+        assertEquals(1, execution.executions.get());
+        assertEquals(0, subject.inFlight());
+    }
+
+    @Test
+    public void testExecuteAsyncSharesExecution() throws Exception {
+        RequestCoalescer subject = new RequestCoalescer();
+
+        final List<Callback<Response>> pending = new ArrayList<Callback<Response>>();
+        RequestCoalescer.AsyncExecution execution = new RequestCoalescer.AsyncExecution() {
+            public void execute(Request request, Callback<Response> callback) {
+                pending.add(callback);
+            }
+        };
+
+        final List<Response> results = new ArrayList<Response>();
+        Callback<Response> collect = new Callback<Response>() {
+            public void onSuccess(Response result) {
+                results.add(result);
+            }
+
+            public void onFailure(Exception e) {
+                fail("unexpected failure " + e);
+            }
+        };
+
+        Request request = BoringRequestBuilder.get("http://example.com/async").build();
+        subject.executeAsync(request, execution, collect);
+        subject.executeAsync(BoringRequestBuilder.get("http://example.com/async").build(), execution, collect);
+        //blocking callers can join an async execution too
+        Future<Response> blocking = submit(subject, BoringRequestBuilder.get("http://example.com/async").build(), new BlockingExecution());
+        awaitWaiters(blocking);
+
+        assertEquals(1, pending.size());
+        assertTrue(results.isEmpty());
+
+        Response response = Response.builder().addRequest(request).addCode(200).build();
+        pending.get(0).onSuccess(response);
+
+        assertEquals(2, results.size());
+        assertSame(response, results.get(0));
+        assertSame(response, results.get(1));
+        assertSame(response, blocking.get(5, TimeUnit.SECONDS));
+        assertEquals(0, subject.inFlight());
+    }
+
+    @Test
+    public void testExecuteAsyncThrowingExecutionFailsCallbacks() {
+        RequestCoalescer subject = new RequestCoalescer();
+        final RuntimeException rejected = new RejectedExecutionException();
+
+        final List<Exception> failures = new ArrayList<Exception>();
+        subject.executeAsync(
+            BoringRequestBuilder.get("http://example.com/rejected").build(),
+            new RequestCoalescer.AsyncExecution() {
+                public void execute(Request request, Callback<Response> callback) {
+                    throw rejected;
+                }
+            },
+            new Callback<Response>() {
+                public void onSuccess(Response result) {
+                    fail("unexpected success");
+                }
+
+                public void onFailure(Exception e) {
+                    failures.add(e);
+                }
+            }
+        );
+
+        assertEquals(1, failures.size());
+        assertSame(rejected, failures.get(0));
+        assertEquals(0, subject.inFlight());
+    }
+}
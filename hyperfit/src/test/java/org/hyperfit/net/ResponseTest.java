@@ -1,10 +1,13 @@
 package org.hyperfit.net;
 
+import java.io.InputStream;
+import java.nio.charset.Charset;
 import java.util.Map;
 
 import com.google.common.base.Function;
 import com.google.common.collect.FluentIterable;
 import com.google.common.collect.ImmutableList;
+import com.google.common.io.ByteStreams;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mock;
@@ -180,4 +183,47 @@ public class ResponseTest {
         assertTrue(Response.builder() instanceof Response.ResponseBuilder);
     }
 
+    @Test
+    public void testGetBodyFromBytes() throws Exception {
+        byte[] bytes = "caf\u00e9".getBytes("ISO-8859-1");
+
+        Response response = Response.builder()
+            .addRequest(mockRequest)
+            .addBody(bytes, Charset.forName("ISO-8859-1"))
+            .build();
+
+        assertSame(bytes, response.getBodyBytes());
+        assertEquals(Charset.forName("ISO-8859-1"), response.getBodyCharset());
+        assertEquals("caf\u00e9", response.getBody());
+        assertSame(response.getBody(), response.getBody());
+    }
+
+    @Test
+    public void testGetBodyBytesFromString() throws Exception {
+        Response response = Response.builder()
+            .addRequest(mockRequest)
+            .addBody("caf\u00e9")
+            .build();
+
+        assertEquals(Charset.forName("UTF-8"), response.getBodyCharset());
+        assertArrayEquals("caf\u00e9".getBytes("UTF-8"), response.getBodyBytes());
+        assertSame(response.getBodyBytes(), response.getBodyBytes());
+
+        InputStream stream = response.openBodyStream();
+        assertArrayEquals(response.getBodyBytes(), ByteStreams.toByteArray(stream));
+    }
+
+    @Test
+    public void testNoBody() {
+        Response response = Response.builder()
+            .addRequest(mockRequest)
+            .addBody(null, null)
+            .build();
+
+        assertNull(response.getBody());
+        assertNull(response.getBodyBytes());
+        assertNull(response.openBodyStream());
+        assertEquals(Charset.forName("UTF-8"), response.getBodyCharset());
+    }
+
 }
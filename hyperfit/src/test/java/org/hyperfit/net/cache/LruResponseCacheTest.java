@@ -0,0 +1,97 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+
+public class LruResponseCacheTest {
+
+    private static CacheKey key(String url) {
+        return CacheKey.forRequest(BoringRequestBuilder.get(url).build());
+    }
+
+    private static CachedResponse cached(String url, String body) {
+        Request request = BoringRequestBuilder.get(url).build();
+        return new CachedResponse(
+            Response.builder().addRequest(request).addCode(200).addBody(body).build(),
+            Long.MAX_VALUE,
+            null,
+            null
+        );
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMaxEntries() {
+        new LruResponseCache(0, 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testBadMaxBytes() {
+        new LruResponseCache(1, 0);
+    }
+
+    @Test
+    public void testEvictsLeastRecentlyUsedByCount() {
+        LruResponseCache cache = new LruResponseCache(2, 100000);
+
+        cache.put(key("http://a"), cached("http://a", "a"));
+        cache.put(key("http://b"), cached("http://b", "b"));
+
+        //touch a so b is the eldest
+        assertNotNull(cache.get(key("http://a")));
+
+        cache.put(key("http://c"), cached("http://c", "c"));
+
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(key("http://a")));
+        assertNull(cache.get(key("http://b")));
+        assertNotNull(cache.get(key("http://c")));
+    }
+
+    @Test
+    public void testEvictsByBytes() {
+        LruResponseCache cache = new LruResponseCache(100, 1000);
+
+        cache.put(key("http://a"), cached("http://a", new String(new char[600])));
+        cache.put(key("http://b"), cached("http://b", new String(new char[600])));
+
+        assertEquals(1, cache.size());
+        assertNull(cache.get(key("http://a")));
+        assertTrue(cache.byteSize() <= 1000);
+    }
+
+    @Test
+    public void testTooBigNotStored() {
+        LruResponseCache cache = new LruResponseCache(100, 1000);
+
+        cache.put(key("http://a"), cached("http://a", "a"));
+        cache.put(key("http://b"), cached("http://b", new String(new char[1000])));
+
+        assertEquals(1, cache.size());
+        assertNotNull(cache.get(key("http://a")));
+    }
+
+    @Test
+    public void testRemoveAndInvalidate() {
+        LruResponseCache cache = new LruResponseCache(10, 100000);
+
+        CacheKey hal = CacheKey.forRequest(
+            BoringRequestBuilder.get("http://a").addAcceptedContentType("application/hal+json").build()
+        );
+
+        cache.put(key("http://a"), cached("http://a", "a"));
+        cache.put(hal, cached("http://a", "a"));
+        cache.put(key("http://b"), cached("http://b", "b"));
+
+        cache.invalidate("http://a");
+        assertEquals(1, cache.size());
+
+        cache.remove(key("http://b"));
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.byteSize());
+    }
+}
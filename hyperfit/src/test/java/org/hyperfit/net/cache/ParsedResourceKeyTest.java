@@ -0,0 +1,73 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+
+public class ParsedResourceKeyTest {
+
+    private static final Request REQUEST = BoringRequestBuilder.get("http://example.com/thing").build();
+
+    private static Response.ResponseBuilder response(String body) {
+        return Response.builder()
+            .addRequest(REQUEST)
+            .addCode(200)
+            .addContentType("application/hal+json")
+            .addBody(body);
+    }
+
+    @Test
+    public void testSameBodySameKey() {
+        ParsedResourceKey first = ParsedResourceKey.forResponse(response("{}").build());
+        ParsedResourceKey second = ParsedResourceKey.forResponse(response("{}").build());
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertThat(first.getValidator(), startsWith("sha-256:"));
+        assertEquals(2, first.getBodyLength());
+    }
+
+    @Test
+    public void testDifferentBodyDifferentKey() {
+        assertNotEquals(
+            ParsedResourceKey.forResponse(response("{}").build()),
+            ParsedResourceKey.forResponse(response("{ }").build())
+        );
+    }
+
+    @Test
+    public void testDifferentUrlDifferentKey() {
+        Response other = Response.builder()
+            .addRequest(BoringRequestBuilder.get("http://example.com/other").build())
+            .addCode(200)
+            .addContentType("application/hal+json")
+            .addBody("{}")
+            .build();
+
+        assertNotEquals(ParsedResourceKey.forResponse(response("{}").build()), ParsedResourceKey.forResponse(other));
+    }
+
+    @Test
+    public void testStrongETagUsed() {
+        ParsedResourceKey key = ParsedResourceKey.forResponse(response("{}").addHeader("ETag", "\"abc\"").build());
+
+        assertEquals("etag:\"abc\"", key.getValidator());
+    }
+
+    @Test
+    public void testWeakETagIgnored() {
+        ParsedResourceKey key = ParsedResourceKey.forResponse(response("{}").addHeader("ETag", "W/\"abc\"").build());
+
+        assertThat(key.getValidator(), startsWith("sha-256:"));
+    }
+
+    @Test
+    public void testNoBodyNoKey() {
+        assertNull(ParsedResourceKey.forResponse(response(null).build()));
+    }
+}
@@ -0,0 +1,302 @@
+package org.hyperfit.net.cache;
+
+import org.hyperfit.net.BoringRequestBuilder;
+import org.hyperfit.net.Request;
+import org.hyperfit.net.Response;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+
+public class ResponseCacheStageTest {
+
+    private static final String URL = "http://example.com/thing";
+
+    private long now;
+    private LruResponseCache cache;
+    private ResponseCacheStage stage;
+
+    @Before
+    public void setUp(){
+        now = 1000000L;
+        cache = new LruResponseCache(10, 100000);
+        stage = new ResponseCacheStage(cache) {
+            @Override
+            protected long now() {
+                return now;
+            }
+        };
+    }
+
+    private Response.ResponseBuilder response(Request request, int code) {
+        return Response.builder()
+            .addRequest(request)
+            .addCode(code)
+            .addBody("body")
+            .addContentType("application/hal+json");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNullCache() {
+        new ResponseCacheStage(null);
+    }
+
+    @Test
+    public void testFreshResponseIsHit() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        ResponseCacheStage.Lookup lookup = stage.lookup(request);
+        assertFalse(lookup.isHit());
+        assertSame(request, lookup.getRequest());
+
+        Response response = response(request, 200)
+            .addHeader("Cache-Control", "public, max-age=60")
+            .build();
+
+        assertSame(response, stage.complete(lookup, response));
+
+        now += 59000;
+        ResponseCacheStage.Lookup second = stage.lookup(BoringRequestBuilder.get(URL).build());
+        assertTrue(second.isHit());
+        assertSame(response, second.getCachedResponse());
+
+        now += 2000;
+        assertFalse(stage.lookup(BoringRequestBuilder.get(URL).build()).isHit());
+    }
+
+    @Test
+    public void testVaryingResponseIsOnlyReusedForTheSameHeaders() {
+        Request ann = BoringRequestBuilder.get(URL)
+            .addHeader("Authorization", "Bearer ann")
+            .addHeader("Accept-Language", "en")
+            .build();
+
+        Response response = response(ann, 200)
+            .addHeader("Cache-Control", "private, max-age=60")
+            .addHeader("Vary", "authorization, Accept-Language")
+            .build();
+
+        stage.complete(stage.lookup(ann), response);
+
+        ResponseCacheStage.Lookup sameUser = stage.lookup(
+            BoringRequestBuilder.get(URL)
+                .addHeader("authorization", "Bearer ann")
+                .addHeader("Accept-Language", "en")
+                .build()
+        );
+        assertTrue(sameUser.isHit());
+        assertSame(response, sameUser.getCachedResponse());
+
+        Request bob = BoringRequestBuilder.get(URL)
+            .addHeader("Authorization", "Bearer bob")
+            .addHeader("Accept-Language", "en")
+            .build();
+        ResponseCacheStage.Lookup otherUser = stage.lookup(bob);
+        assertFalse(otherUser.isHit());
+        assertSame("not made conditional on the other user's validators", bob, otherUser.getRequest());
+
+        assertFalse(stage.lookup(BoringRequestBuilder.get(URL).addHeader("Accept-Language", "en").build()).isHit());
+        assertFalse(stage.lookup(BoringRequestBuilder.get(URL).addHeader("Authorization", "Bearer ann").build()).isHit());
+    }
+
+    @Test
+    public void testVaryStarIsNotCached() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Cache-Control", "max-age=60")
+                .addHeader("ETag", "\"v1\"")
+                .addHeader("Vary", "Accept-Encoding, *")
+                .build()
+        );
+
+        ResponseCacheStage.Lookup second = stage.lookup(BoringRequestBuilder.get(URL).build());
+        assertFalse(second.isHit());
+        assertNull(second.getRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testAgeReducesFreshness() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Cache-Control", "max-age=60")
+                .addHeader("Age", "50")
+                .build()
+        );
+
+        now += 11000;
+        assertFalse(stage.lookup(request).isHit());
+    }
+
+    @Test
+    public void testExpiresRelativeToDate() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Date", "Sun, 06 Nov 1994 08:49:37 GMT")
+                .addHeader("Expires", "Sun, 06 Nov 1994 08:50:37 GMT")
+                .build()
+        );
+
+        now += 30000;
+        assertTrue(stage.lookup(request).isHit());
+
+        now += 31000;
+        assertFalse(stage.lookup(request).isHit());
+    }
+
+    @Test
+    public void testNoStoreNotCached() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Cache-Control", "no-store, max-age=60")
+                .build()
+        );
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testRequestNoCacheSkipsFreshResponse() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Cache-Control", "max-age=60")
+                .build()
+        );
+
+        Request noCache = BoringRequestBuilder.get(URL)
+            .addHeader("Cache-Control", "no-cache")
+            .build();
+
+        assertFalse(stage.lookup(noCache).isHit());
+    }
+
+    @Test
+    public void testUncacheableCodeNotCached() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 500)
+                .addHeader("Cache-Control", "max-age=60")
+                .build()
+        );
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testStaleResponseRevalidated() {
+        Request request = BoringRequestBuilder.get(URL)
+            .addAcceptedContentType("application/hal+json")
+            .addHeader("X-Thing", "yes")
+            .build();
+
+        Response original = response(request, 200)
+            .addHeader("Cache-Control", "no-cache")
+            .addHeader("ETag", "\"abc\"")
+            .addHeader("Last-Modified", "Sun, 06 Nov 1994 08:49:37 GMT")
+            .build();
+
+        stage.complete(stage.lookup(request), original);
+
+        ResponseCacheStage.Lookup lookup = stage.lookup(request);
+        assertFalse(lookup.isHit());
+        assertNull(lookup.getCachedResponse());
+
+        Request conditional = lookup.getRequest();
+        assertEquals(URL, conditional.getUrl());
+        assertEquals("\"abc\"", conditional.getHeader("If-None-Match"));
+        assertEquals("Sun, 06 Nov 1994 08:49:37 GMT", conditional.getHeader("If-Modified-Since"));
+        assertEquals("yes", conditional.getHeader("X-Thing"));
+        assertThat(conditional.getAcceptedContentTypes(), contains("application/hal+json"));
+
+        Response notModified = Response.builder()
+            .addRequest(conditional)
+            .addCode(304)
+            .addHeader("Cache-Control", "max-age=60")
+            .build();
+
+        assertSame(original, stage.complete(lookup, notModified));
+
+        //the 304 made it fresh again
+        ResponseCacheStage.Lookup again = stage.lookup(request);
+        assertTrue(again.isHit());
+        assertSame(original, again.getCachedResponse());
+    }
+
+    @Test
+    public void testChangedResponseReplacesCached() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("ETag", "\"abc\"")
+                .build()
+        );
+
+        ResponseCacheStage.Lookup lookup = stage.lookup(request);
+
+        Response changed = response(lookup.getRequest(), 200)
+            .addHeader("ETag", "\"def\"")
+            .build();
+
+        assertSame(changed, stage.complete(lookup, changed));
+        assertEquals("\"def\"", stage.lookup(request).getRequest().getHeader("If-None-Match"));
+    }
+
+    @Test
+    public void testUnsafeMethodInvalidates() {
+        Request request = BoringRequestBuilder.get(URL).build();
+
+        stage.complete(
+            stage.lookup(request),
+            response(request, 200)
+                .addHeader("Cache-Control", "max-age=60")
+                .build()
+        );
+
+        Request post = BoringRequestBuilder.post(URL).build();
+        ResponseCacheStage.Lookup lookup = stage.lookup(post);
+
+        assertFalse(lookup.isHit());
+        assertSame(post, lookup.getRequest());
+        assertEquals(0, cache.size());
+
+        //and its response isn't cached
+        stage.complete(lookup, response(post, 200).addHeader("Cache-Control", "max-age=60").build());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testDifferentAcceptNotShared() {
+        Request hal = BoringRequestBuilder.get(URL).addAcceptedContentType("application/hal+json").build();
+        Request html = BoringRequestBuilder.get(URL).addAcceptedContentType("text/html").build();
+
+        stage.complete(
+            stage.lookup(hal),
+            response(hal, 200)
+                .addHeader("Cache-Control", "max-age=60")
+                .build()
+        );
+
+        assertTrue(stage.lookup(hal).isHit());
+        assertFalse(stage.lookup(html).isHit());
+    }
+}
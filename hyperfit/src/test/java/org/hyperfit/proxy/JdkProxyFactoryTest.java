@@ -0,0 +1,42 @@
+package org.hyperfit.proxy;
+
+import org.junit.Test;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+import static org.junit.Assert.*;
+
+
+public class JdkProxyFactoryTest {
+
+    public interface Thing {
+        String name();
+    }
+
+    private static InvocationHandler handler(final Object result) {
+        return new InvocationHandler() {
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                return result;
+            }
+        };
+    }
+
+    @Test
+    public void testCreatesWorkingProxies() {
+        JdkProxyFactory factory = new JdkProxyFactory();
+
+        InvocationHandler firstHandler = handler("first");
+        Object first = factory.createProxy(Thing.class.getClassLoader(), new Class<?>[]{Thing.class}, firstHandler);
+        Object second = factory.createProxy(Thing.class.getClassLoader(), new Class<?>[]{Thing.class}, handler("second"));
+
+        assertEquals("first", ((Thing) first).name());
+        assertEquals("second", ((Thing) second).name());
+        assertTrue(Proxy.isProxyClass(first.getClass()));
+
+        assertSame(firstHandler, factory.getInvocationHandler(first));
+        assertNull(factory.getInvocationHandler("not a proxy"));
+        assertNull(factory.getInvocationHandler(null));
+    }
+}